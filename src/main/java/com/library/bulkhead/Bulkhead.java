@@ -0,0 +1,73 @@
+package com.library.bulkhead;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the requests of one {@link Workload} running at once. Requests over
+ * the cap wait for a slot, but at most {@code maxQueue} of them and for at
+ * most {@code maxWaitNanos}; the rest are turned away at once.
+ */
+public class Bulkhead {
+
+    private final Workload workload;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public Bulkhead(Workload workload, int maxConcurrent, int maxQueue, long maxWaitNanos) {
+        if (maxConcurrent < 1 || maxQueue < 0 || maxWaitNanos < 0) {
+            throw new IllegalArgumentException("Bulkhead " + workload.tag()
+                    + " needs maxConcurrent >= 1, maxQueue >= 0 and a non-negative wait");
+        }
+        this.workload = workload;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = maxWaitNanos;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Takes a slot, waiting in the queue if there is room in it. A caller
+     * that gets {@code true} must call {@link #release()} when done.
+     *
+     * @return {@code false} if the queue was full or the wait timed out
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            return false;
+        }
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public Workload getWorkload() {
+        return workload;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+}
@@ -0,0 +1,120 @@
+package com.library.bulkhead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.exception.CoarseClock;
+import com.library.exception.GlobalExceptionHandler.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Admits each {@code /api/**} request through the bulkhead of its
+ * {@link Workload} and marks the thread with that workload while it runs.
+ * Requests the bulkhead turns away get {@code 503 Service Unavailable}.
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final String BOOKS_PATH = "/api/books";
+
+    private final Bulkheads bulkheads;
+    private final int retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Workload, Counter> admitted = new EnumMap<>(Workload.class);
+    private final Map<Workload, Counter> rejected = new EnumMap<>(Workload.class);
+
+    public BulkheadFilter(Bulkheads bulkheads, int retryAfterSeconds, ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry) {
+        this.bulkheads = bulkheads;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.objectMapper = objectMapper;
+
+        for (Workload workload : Workload.values()) {
+            Bulkhead bulkhead = bulkheads.get(workload);
+            admitted.put(workload, requestCounter(meterRegistry, workload, "admitted"));
+            rejected.put(workload, requestCounter(meterRegistry, workload, "rejected"));
+            meterRegistry.gauge("library.bulkhead.active", Tags.of("workload", workload.tag()),
+                    bulkhead, Bulkhead::getActive);
+            meterRegistry.gauge("library.bulkhead.queued", Tags.of("workload", workload.tag()),
+                    bulkhead, Bulkhead::getQueued);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Workload workload = classify(request);
+        Bulkhead bulkhead = bulkheads.get(workload);
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.get(workload).increment();
+            reject(response, workload);
+            return;
+        }
+        admitted.get(workload).increment();
+        bulkheads.begin(workload);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkheads.end();
+            bulkhead.release();
+        }
+    }
+
+    Workload classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())) {
+            if (path.equals(BOOKS_PATH) || path.equals(BOOKS_PATH + "/")
+                    || path.equals(BOOKS_PATH + "/available")
+                    || path.startsWith(BOOKS_PATH + "/search/")) {
+                return Workload.SCAN;
+            }
+            return Workload.POINT_READ;
+        }
+        if (HttpMethod.POST.matches(request.getMethod()) && path.startsWith(BOOKS_PATH + "/batch/")) {
+            return Workload.POINT_READ;
+        }
+        return Workload.WRITE;
+    }
+
+    private void reject(HttpServletResponse response, Workload workload) throws IOException {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Integer.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(status.value(),
+                "Too many " + workload.tag() + " requests in progress, please retry later", CoarseClock.now()));
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, Workload workload, String outcome) {
+        return Counter.builder("library.bulkhead.requests")
+                .tag("workload", workload.tag())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,74 @@
+package com.library.bulkhead;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "library.bulkheads")
+public class BulkheadProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Retry-After sent with requests turned away by a full bulkhead.
+     */
+    private int retryAfterSeconds = 1;
+
+    private Compartment pointRead = new Compartment(64, 128, Duration.ofMillis(200), 0.5, null);
+
+    private Compartment scan = new Compartment(8, 16, Duration.ofSeconds(2), 0.2, null);
+
+    private Compartment write = new Compartment(16, 64, Duration.ofSeconds(5), 0.3, null);
+
+    public Compartment get(Workload workload) {
+        return switch (workload) {
+            case POINT_READ -> pointRead;
+            case SCAN -> scan;
+            case WRITE -> write;
+        };
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Compartment {
+
+        /**
+         * Requests of this workload that may run at once.
+         */
+        private int maxConcurrent;
+
+        /**
+         * Requests that may wait for a slot; further ones are rejected.
+         */
+        private int maxQueue;
+
+        /**
+         * Longest wait for a slot before the request is rejected.
+         */
+        private Duration maxWait;
+
+        /**
+         * Fraction of {@code spring.datasource.hikari.maximum-pool-size} that
+         * this workload's connection pool gets.
+         */
+        private double poolShare;
+
+        /**
+         * Size of this workload's connection pool; overrides {@link #poolShare}.
+         */
+        private Integer poolSize;
+
+        /**
+         * @return {@link #poolSize} if set, otherwise this workload's share of
+         * the configured pool size, at least one connection
+         */
+        public int poolSizeOf(int configuredPoolSize) {
+            return poolSize != null ? poolSize : Math.max(1, (int) Math.round(configuredPoolSize * poolShare));
+        }
+    }
+}
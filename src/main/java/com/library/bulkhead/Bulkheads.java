@@ -0,0 +1,43 @@
+package com.library.bulkhead;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The bulkhead of each {@link Workload}, and the workload of the request
+ * running on the current thread, which picks its connection pool.
+ */
+public class Bulkheads {
+
+    private final Map<Workload, Bulkhead> bulkheads = new EnumMap<>(Workload.class);
+    private final ThreadLocal<Workload> current = new ThreadLocal<>();
+
+    public Bulkheads(Map<Workload, Bulkhead> bulkheads) {
+        for (Workload workload : Workload.values()) {
+            Bulkhead bulkhead = bulkheads.get(workload);
+            if (bulkhead == null) {
+                throw new IllegalArgumentException("No bulkhead configured for " + workload.tag());
+            }
+            this.bulkheads.put(workload, bulkhead);
+        }
+    }
+
+    public Bulkhead get(Workload workload) {
+        return bulkheads.get(workload);
+    }
+
+    /**
+     * @return the workload of the current request, or {@code null} outside one
+     */
+    public Workload current() {
+        return current.get();
+    }
+
+    public void begin(Workload workload) {
+        current.set(workload);
+    }
+
+    public void end() {
+        current.remove();
+    }
+}
@@ -0,0 +1,37 @@
+package com.library.bulkhead;
+
+/**
+ * A class of API work with its own bulkhead and connection pool, so that one
+ * class cannot use up the threads or connections the others need.
+ */
+public enum Workload {
+
+    /**
+     * Lookups of single books, loans, holds or jobs, and batch lookups by key.
+     */
+    POINT_READ("point-read"),
+
+    /**
+     * Full listings and searches of the catalog.
+     */
+    SCAN("scan"),
+
+    /**
+     * Creates, updates, deletes and imports. Work not started by an API
+     * request, such as import jobs and schedulers, also counts as a write.
+     */
+    WRITE("write");
+
+    private final String tag;
+
+    Workload(String tag) {
+        this.tag = tag;
+    }
+
+    /**
+     * Name used in pool names and metric tags.
+     */
+    public String tag() {
+        return tag;
+    }
+}
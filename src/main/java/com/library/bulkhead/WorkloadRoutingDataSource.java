@@ -0,0 +1,38 @@
+package com.library.bulkhead;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out connections from the pool of the current request's
+ * {@link Workload}. Threads outside a request, such as import jobs and
+ * schedulers, use the write pool.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final Bulkheads bulkheads;
+
+    public WorkloadRoutingDataSource(Map<Workload, DataSource> pools, Bulkheads bulkheads) {
+        this.bulkheads = bulkheads;
+        Map<Object, Object> targets = new HashMap<>();
+        for (Workload workload : Workload.values()) {
+            DataSource pool = pools.get(workload);
+            if (pool == null) {
+                throw new IllegalArgumentException("No connection pool configured for " + workload.tag());
+            }
+            targets.put(workload, pool);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(pools.get(Workload.WRITE));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return bulkheads.current();
+    }
+}
@@ -0,0 +1,130 @@
+package com.library.cache;
+
+import com.library.dto.BookDTO;
+import com.library.profiling.BookLookupEvent;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Node-local cache of books by id, kept coherent across instances by
+ * {@link CacheInvalidationBus}.
+ * <p>
+ * A load that overlaps an invalidation is returned but not cached: the
+ * loader may have read the row before the write committed, and caching it
+ * would pin the old state until the entry expires. Entries also expire after
+ * {@code ttl}, which bounds staleness if an invalidation is ever lost.
+ * <p>
+ * When full, a new entry replaces the first entry found only if the
+ * {@code admission} policy prefers it, so a burst of one-off lookups does
+ * not evict the books everyone is reading.
+ */
+public class BookCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final BiPredicate<Long, Long> admission;
+    private final LongSupplier clockMillis;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public BookCache(int maxEntries, Duration ttl, BiPredicate<Long, Long> admission, LongSupplier clockMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.admission = admission;
+        this.clockMillis = clockMillis;
+    }
+
+    /**
+     * Returns the cached book, or loads and caches it. Exceptions thrown by
+     * {@code loader} propagate and nothing is cached.
+     */
+    public BookDTO get(Long id, Function<Long, BookDTO> loader) {
+        BookLookupEvent event = new BookLookupEvent();
+        event.begin();
+        long now = clockMillis.getAsLong();
+        Entry entry = entries.get(id);
+        if (entry != null && entry.expiresAtMillis > now) {
+            entry.lastReadMillis = now;
+            hits.increment();
+            event.commit(BookLookupEvent.CACHE, id, true, 1);
+            return entry.book;
+        }
+        misses.increment();
+        event.commit(BookLookupEvent.CACHE, id, false, 0);
+
+        long stamp = invalidations.get();
+        BookDTO book = loader.apply(id);
+        if (maxEntries > 0 && (entries.containsKey(id) || entries.size() < maxEntries || evictFor(id))) {
+            entries.put(id, new Entry(book, now + ttlMillis, now));
+            if (invalidations.get() != stamp) {
+                entries.remove(id);
+            }
+        }
+        return book;
+    }
+
+    /**
+     * Drops the cached book.
+     *
+     * @return whether it was read after {@code writtenAtMillis}, i.e. a stale
+     * copy was served after the write that invalidated it
+     */
+    public boolean invalidate(Long id, long writtenAtMillis) {
+        invalidations.incrementAndGet();
+        Entry entry = entries.remove(id);
+        return entry != null && entry.lastReadMillis > writtenAtMillis;
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    private boolean evictFor(Long candidate) {
+        Iterator<Long> iterator = entries.keySet().iterator();
+        if (!iterator.hasNext()) {
+            return true;
+        }
+        Long victim = iterator.next();
+        if (!admission.test(candidate, victim)) {
+            return false;
+        }
+        entries.remove(victim);
+        return true;
+    }
+
+    private static final class Entry {
+
+        private final BookDTO book;
+        private final long expiresAtMillis;
+        private volatile long lastReadMillis;
+
+        private Entry(BookDTO book, long expiresAtMillis, long lastReadMillis) {
+            this.book = book;
+            this.expiresAtMillis = expiresAtMillis;
+            this.lastReadMillis = lastReadMillis;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.library.cache;
+
+import com.library.service.BookAvailabilityRefreshedEvent;
+import com.library.service.BookChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps every instance's {@link BookCache} coherent. After a book write
+ * commits, the local entry is dropped and an {@link InvalidationMessage} is
+ * broadcast so that peers drop theirs.
+ * <p>
+ * Metrics:
+ * <ul>
+ *   <li>{@code library.cache.invalidations} by {@code source}, local or remote;</li>
+ *   <li>{@code library.cache.invalidation.lag}, from the write on the origin to
+ *       the eviction here;</li>
+ *   <li>{@code library.cache.stale.reads}, evicted entries that were read after
+ *       the write that invalidated them.</li>
+ * </ul>
+ * The last two compare wall clocks across nodes, which is exact when all
+ * instances run on one box and approximate otherwise.
+ */
+@Slf4j
+public class CacheInvalidationBus {
+
+    private final String nodeId;
+    private final BookCache cache;
+    private final InvalidationTransport transport;
+    private final LongSupplier clockMillis;
+    private final AtomicLong lastVersion = new AtomicLong();
+
+    private final Counter localInvalidations;
+    private final Counter remoteInvalidations;
+    private final Counter flushes;
+    private final Counter staleReads;
+    private final Timer lag;
+
+    public CacheInvalidationBus(String nodeId, BookCache cache, InvalidationTransport transport,
+                                LongSupplier clockMillis, MeterRegistry meterRegistry) {
+        this.nodeId = nodeId;
+        this.cache = cache;
+        this.transport = transport;
+        this.clockMillis = clockMillis;
+        this.localInvalidations = meterRegistry.counter("library.cache.invalidations", "source", "local");
+        this.remoteInvalidations = meterRegistry.counter("library.cache.invalidations", "source", "remote");
+        this.flushes = meterRegistry.counter("library.cache.flushes");
+        this.staleReads = meterRegistry.counter("library.cache.stale.reads");
+        this.lag = meterRegistry.timer("library.cache.invalidation.lag");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        transport.start(this::receive);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        publish(event.bookId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookAvailabilityRefreshed(BookAvailabilityRefreshedEvent event) {
+        publish(event.bookId());
+    }
+
+    public void publish(Long bookId) {
+        long version = nextVersion();
+        cache.invalidate(bookId, version);
+        localInvalidations.increment();
+        transport.send(new InvalidationMessage(nodeId, bookId, version));
+    }
+
+    void receive(InvalidationMessage message) {
+        if (nodeId.equals(message.origin())) {
+            return;
+        }
+        if (message.isFlush()) {
+            cache.invalidateAll();
+            flushes.increment();
+            log.info("Flushed book cache on request of {}", message.origin());
+            return;
+        }
+        if (cache.invalidate(message.bookId(), message.version())) {
+            staleReads.increment();
+        }
+        remoteInvalidations.increment();
+        lag.record(Math.max(0, clockMillis.getAsLong() - message.version()), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Wall-clock milliseconds, bumped past the previous version so that two
+     * writes in the same millisecond are still ordered.
+     */
+    private long nextVersion() {
+        long now = clockMillis.getAsLong();
+        return lastVersion.accumulateAndGet(now, (previous, current) -> Math.max(previous + 1, current));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        transport.stop();
+    }
+}
@@ -0,0 +1,51 @@
+package com.library.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "library.cache")
+public class CacheProperties {
+
+    /**
+     * Books cached per instance; 0 disables the cache.
+     */
+    private int maxEntries = 10_000;
+
+    /**
+     * Upper bound on how long a lost invalidation can leave a stale entry.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    private Invalidation invalidation = new Invalidation();
+
+    @Data
+    public static class Invalidation {
+
+        private Transport transport = Transport.LOOPBACK;
+
+        /**
+         * Identifies this instance in invalidation messages; random when blank.
+         */
+        private String nodeId = "";
+
+        private int listenPort = 7600;
+
+        /**
+         * host:port of every other instance's listen port.
+         */
+        private List<String> peers = new ArrayList<>();
+
+        private Duration reconnectInterval = Duration.ofSeconds(1);
+
+        private int queueCapacity = 10_000;
+    }
+
+    public enum Transport {
+        LOOPBACK, TCP
+    }
+}
@@ -0,0 +1,14 @@
+package com.library.cache;
+
+/**
+ * A cached book that peers must drop. {@code bookId} is null to drop every
+ * cached book, which a transport sends when it may have lost messages.
+ * {@code version} is the origin's hybrid timestamp of the write: wall-clock
+ * milliseconds, bumped so that it strictly increases on each node.
+ */
+public record InvalidationMessage(String origin, Long bookId, long version) {
+
+    public boolean isFlush() {
+        return bookId == null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.library.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link InvalidationMessage}s between instances. Delivery is best
+ * effort: a transport that knows it dropped messages for a peer must send it
+ * a flush once the peer is reachable again.
+ */
+public interface InvalidationTransport {
+
+    void start(Consumer<InvalidationMessage> receiver);
+
+    /**
+     * Sends to every peer. May be asynchronous; must not block the caller on
+     * the network.
+     */
+    void send(InvalidationMessage message);
+
+    void stop();
+}
@@ -0,0 +1,31 @@
+package com.library.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers every message synchronously to every receiver started on this
+ * instance, including the sender's own. A single-node deployment uses it as a
+ * no-op bus; tests share one instance between several buses to simulate
+ * peers in one JVM.
+ */
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+
+    private final List<Consumer<InvalidationMessage>> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void start(Consumer<InvalidationMessage> receiver) {
+        receivers.add(receiver);
+    }
+
+    @Override
+    public void send(InvalidationMessage message) {
+        receivers.forEach(receiver -> receiver.accept(message));
+    }
+
+    @Override
+    public void stop() {
+        receivers.clear();
+    }
+}
@@ -0,0 +1,247 @@
+package com.library.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Sends invalidations over one TCP connection per peer from a static peer
+ * list, and accepts the peers' connections on {@code listenPort}.
+ * <p>
+ * Callers only enqueue; a single sender thread drains the queue in batches
+ * and writes each batch to every peer with one flush. A peer that cannot be
+ * reached is retried every {@code reconnectInterval}, and messages meant for
+ * it meanwhile are dropped. When it is reached again, it is first sent a
+ * flush so that it drops everything it may have missed. The same happens for
+ * every peer when the queue overflows.
+ * <p>
+ * A write that succeeds locally may still be lost if the peer dies before
+ * reading it; the cache TTL bounds staleness in that case.
+ */
+@Slf4j
+public class TcpInvalidationTransport implements InvalidationTransport {
+
+    private static final byte INVALIDATE = 1;
+    private static final byte FLUSH = 2;
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+    private static final int MAX_BATCH = 256;
+
+    private final String origin;
+    private final int listenPort;
+    private final List<Peer> peers = new ArrayList<>();
+    private final long reconnectMillis;
+    private final BlockingQueue<InvalidationMessage> outgoing;
+    private final Set<Closeable> inbound = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running;
+    private volatile boolean overflowed;
+    private ServerSocket serverSocket;
+
+    public TcpInvalidationTransport(String origin, int listenPort, List<InetSocketAddress> peers,
+                                    long reconnectMillis, int queueCapacity) {
+        this.origin = origin;
+        this.listenPort = listenPort;
+        peers.forEach(address -> this.peers.add(new Peer(address)));
+        this.reconnectMillis = reconnectMillis;
+        this.outgoing = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @Override
+    public void start(Consumer<InvalidationMessage> receiver) {
+        try {
+            serverSocket = new ServerSocket();
+            serverSocket.setReuseAddress(true);
+            serverSocket.bind(new InetSocketAddress(listenPort));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot listen for cache invalidations on port " + listenPort, e);
+        }
+        running = true;
+        daemon("cache-invalidation-acceptor", () -> accept(receiver)).start();
+        daemon("cache-invalidation-sender", this::sendLoop).start();
+        log.info("Cache invalidations listening on port {}, peers {}", listenPort,
+                peers.stream().map(Peer::toString).toList());
+    }
+
+    @Override
+    public void send(InvalidationMessage message) {
+        if (!outgoing.offer(message)) {
+            overflowed = true;
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        closeQuietly(serverSocket);
+        inbound.forEach(TcpInvalidationTransport::closeQuietly);
+        peers.forEach(Peer::close);
+    }
+
+    private void accept(Consumer<InvalidationMessage> receiver) {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                inbound.add(socket);
+                daemon("cache-invalidation-reader", () -> read(socket, receiver)).start();
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Could not accept cache invalidation connection", e);
+                }
+            }
+        }
+    }
+
+    private void read(Socket socket, Consumer<InvalidationMessage> receiver) {
+        try (socket; DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            while (running) {
+                byte type = in.readByte();
+                String sender = in.readUTF();
+                long bookId = in.readLong();
+                long version = in.readLong();
+                receiver.accept(new InvalidationMessage(sender, type == FLUSH ? null : bookId, version));
+            }
+        } catch (EOFException e) {
+            log.debug("Cache invalidation peer {} disconnected", socket.getRemoteSocketAddress());
+        } catch (IOException | RuntimeException e) {
+            if (running) {
+                log.warn("Dropped cache invalidation connection from {}", socket.getRemoteSocketAddress(), e);
+            }
+        } finally {
+            inbound.remove(socket);
+        }
+    }
+
+    private void sendLoop() {
+        List<InvalidationMessage> batch = new ArrayList<>(MAX_BATCH);
+        while (running) {
+            try {
+                InvalidationMessage first = outgoing.poll(reconnectMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    outgoing.drainTo(batch, MAX_BATCH - 1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (overflowed) {
+                overflowed = false;
+                peers.forEach(peer -> peer.missedMessages = true);
+            }
+            for (Peer peer : peers) {
+                peer.write(batch);
+            }
+            batch.clear();
+        }
+    }
+
+    private Thread daemon(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            if (closeable != null) {
+                closeable.close();
+            }
+        } catch (IOException ignored) {
+            // already closing
+        }
+    }
+
+    /**
+     * Outgoing connection to one peer; only used by the sender thread.
+     */
+    private final class Peer {
+
+        private final InetSocketAddress address;
+        private Socket socket;
+        private DataOutputStream out;
+        private long nextAttemptMillis;
+        private boolean missedMessages;
+
+        private Peer(InetSocketAddress address) {
+            this.address = address;
+        }
+
+        @Override
+        public String toString() {
+            return address.getHostString() + ":" + address.getPort();
+        }
+
+        private void write(List<InvalidationMessage> batch) {
+            if (out == null && !connect()) {
+                missedMessages |= !batch.isEmpty();
+                return;
+            }
+            try {
+                if (missedMessages) {
+                    writeFrame(FLUSH, 0, System.currentTimeMillis());
+                }
+                for (InvalidationMessage message : batch) {
+                    writeFrame(message.isFlush() ? FLUSH : INVALIDATE,
+                            message.isFlush() ? 0 : message.bookId(), message.version());
+                }
+                out.flush();
+                missedMessages = false;
+            } catch (IOException e) {
+                log.warn("Lost cache invalidation connection to {}: {}", this, e.getMessage());
+                close();
+                missedMessages = true;
+            }
+        }
+
+        private void writeFrame(byte type, long bookId, long version) throws IOException {
+            out.writeByte(type);
+            out.writeUTF(origin);
+            out.writeLong(bookId);
+            out.writeLong(version);
+        }
+
+        private boolean connect() {
+            long now = System.currentTimeMillis();
+            if (now < nextAttemptMillis) {
+                return false;
+            }
+            nextAttemptMillis = now + reconnectMillis;
+            Socket candidate = new Socket();
+            try {
+                candidate.setTcpNoDelay(true);
+                candidate.connect(new InetSocketAddress(address.getHostString(), address.getPort()), CONNECT_TIMEOUT_MILLIS);
+                socket = candidate;
+                out = new DataOutputStream(new BufferedOutputStream(candidate.getOutputStream()));
+                log.info("Connected to cache invalidation peer {}", this);
+                return true;
+            } catch (IOException e) {
+                closeQuietly(candidate);
+                log.debug("Cache invalidation peer {} unreachable: {}", this, e.getMessage());
+                return false;
+            }
+        }
+
+        private void close() {
+            closeQuietly(socket);
+            socket = null;
+            out = null;
+        }
+    }
+}
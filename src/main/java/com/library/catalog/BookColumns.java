@@ -0,0 +1,338 @@
+package com.library.catalog;
+
+import com.library.model.Book;
+import com.library.util.StringArena;
+import com.library.util.StringDictionary;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The catalog as one array per property, with row {@code i} of every array
+ * holding one book and rows in id order, so ids are found by binary search
+ * and a scan of one property reads one array.
+ * <p>
+ * Titles, ISBNs and descriptions are UTF-8 in {@link StringArena}s; authors
+ * and genres are codes into {@link StringDictionary}s, so repeated names are
+ * stored once and matched once per distinct value. ISBNs are indexed by an
+ * open-addressing table of row numbers, rebuilt when rows move or an ISBN
+ * changes.
+ * <p>
+ * New books get ids above every id seen, so inserts append. Deletes shift
+ * the following rows down, which is linear but rare in a read-mostly
+ * catalog. Not thread-safe.
+ */
+final class BookColumns {
+
+    static final int NO_DATE = Integer.MIN_VALUE;
+    static final byte NO_FLAG = -1;
+
+    private final StringArena titleText = new StringArena();
+    private final StringArena isbnText = new StringArena();
+    private final StringArena descriptionText = new StringArena();
+    private final StringDictionary authorNames = new StringDictionary();
+    private final StringDictionary genreNames = new StringDictionary();
+
+    private long[] ids = new long[64];
+    private long[] titles = new long[64];
+    private int[] authors = new int[64];
+    private long[] isbns = new long[64];
+    private int[] publicationDays = new int[64];
+    private int[] genres = new int[64];
+    private byte[] available = new byte[64];
+    private long[] descriptions = new long[64];
+    private long[] versions = new long[64];
+    private int size;
+    private long lastId;
+
+    /**
+     * Row + 1 of the book with each ISBN, 0 for an empty slot.
+     */
+    private int[] isbnSlots = new int[128];
+
+    int size() {
+        return size;
+    }
+
+    long lastId() {
+        return lastId;
+    }
+
+    /**
+     * The row of the book with this id, or -1.
+     */
+    int rowOf(long id) {
+        int row = Arrays.binarySearch(ids, 0, size, id);
+        return row >= 0 ? row : -1;
+    }
+
+    /**
+     * The row of the book with this ISBN, or -1.
+     */
+    int rowOfIsbn(String isbn) {
+        if (isbn == null) {
+            return -1;
+        }
+        byte[] encoded = StringArena.encode(isbn);
+        int mask = isbnSlots.length - 1;
+        for (int slot = StringArena.hash(encoded) & mask; isbnSlots[slot] != 0; slot = (slot + 1) & mask) {
+            int row = isbnSlots[slot] - 1;
+            if (isbnText.matches(isbns[row], encoded)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Appends a book under a new id above every id seen, or under its own id
+     * when loading, and returns its row.
+     */
+    int append(Book book, long id, long version) {
+        if (size > 0 && id <= ids[size - 1]) {
+            throw new IllegalArgumentException("Book " + id + " is not above the last id " + ids[size - 1]);
+        }
+        ensureCapacity(size + 1);
+        int row = size++;
+        ids[row] = id;
+        titles[row] = titleText.put(book.getTitle());
+        authors[row] = authorNames.intern(book.getAuthor());
+        isbns[row] = isbnText.put(book.getIsbn());
+        publicationDays[row] = book.getPublicationDate() == null ? NO_DATE : (int) book.getPublicationDate().toEpochDay();
+        genres[row] = genreNames.intern(book.getGenre());
+        available[row] = flag(book.getAvailable());
+        descriptions[row] = descriptionText.put(book.getDescription());
+        versions[row] = version;
+        lastId = Math.max(lastId, id);
+        indexIsbn(row);
+        return row;
+    }
+
+    /**
+     * Overwrites the properties of a row that differ from the book's.
+     *
+     * @return whether anything changed
+     */
+    boolean update(int row, Book book) {
+        boolean changed = false;
+        if (!Objects.equals(book.getTitle(), titleText.get(titles[row]))) {
+            titleText.release(titles[row]);
+            titles[row] = titleText.put(book.getTitle());
+            changed = true;
+        }
+        if (!Objects.equals(book.getAuthor(), authorNames.value(authors[row]))) {
+            authors[row] = authorNames.intern(book.getAuthor());
+            changed = true;
+        }
+        if (!Objects.equals(book.getIsbn(), isbnText.get(isbns[row]))) {
+            isbnText.release(isbns[row]);
+            isbns[row] = isbnText.put(book.getIsbn());
+            rebuildIsbnIndex(isbnSlots.length);
+            changed = true;
+        }
+        int days = book.getPublicationDate() == null ? NO_DATE : (int) book.getPublicationDate().toEpochDay();
+        if (days != publicationDays[row]) {
+            publicationDays[row] = days;
+            changed = true;
+        }
+        if (!Objects.equals(book.getGenre(), genreNames.value(genres[row]))) {
+            genres[row] = genreNames.intern(book.getGenre());
+            changed = true;
+        }
+        if (flag(book.getAvailable()) != available[row]) {
+            available[row] = flag(book.getAvailable());
+            changed = true;
+        }
+        if (!Objects.equals(book.getDescription(), descriptionText.get(descriptions[row]))) {
+            descriptionText.release(descriptions[row]);
+            descriptions[row] = descriptionText.put(book.getDescription());
+            changed = true;
+        }
+        if (changed) {
+            versions[row]++;
+            compactIfWasteful();
+        }
+        return changed;
+    }
+
+    /**
+     * Sets the availability flag and bumps the version, like the bulk update
+     * it stands in for.
+     */
+    boolean setAvailable(int row, boolean value) {
+        byte flag = flag(value);
+        if (available[row] == flag) {
+            return false;
+        }
+        available[row] = flag;
+        versions[row]++;
+        return true;
+    }
+
+    void remove(int row) {
+        titleText.release(titles[row]);
+        isbnText.release(isbns[row]);
+        descriptionText.release(descriptions[row]);
+        int moved = size - row - 1;
+        System.arraycopy(ids, row + 1, ids, row, moved);
+        System.arraycopy(titles, row + 1, titles, row, moved);
+        System.arraycopy(authors, row + 1, authors, row, moved);
+        System.arraycopy(isbns, row + 1, isbns, row, moved);
+        System.arraycopy(publicationDays, row + 1, publicationDays, row, moved);
+        System.arraycopy(genres, row + 1, genres, row, moved);
+        System.arraycopy(available, row + 1, available, row, moved);
+        System.arraycopy(descriptions, row + 1, descriptions, row, moved);
+        System.arraycopy(versions, row + 1, versions, row, moved);
+        size--;
+        rebuildIsbnIndex(isbnSlots.length);
+        compactIfWasteful();
+    }
+
+    void clear() {
+        for (int row = size - 1; row >= 0; row--) {
+            titleText.release(titles[row]);
+            isbnText.release(isbns[row]);
+            descriptionText.release(descriptions[row]);
+        }
+        size = 0;
+        Arrays.fill(isbnSlots, 0);
+        compactIfWasteful();
+    }
+
+    long id(int row) {
+        return ids[row];
+    }
+
+    String title(int row) {
+        return titleText.get(titles[row]);
+    }
+
+    String author(int row) {
+        return authorNames.value(authors[row]);
+    }
+
+    String isbn(int row) {
+        return isbnText.get(isbns[row]);
+    }
+
+    LocalDate publicationDate(int row) {
+        return publicationDays[row] == NO_DATE ? null : LocalDate.ofEpochDay(publicationDays[row]);
+    }
+
+    int publicationDay(int row) {
+        return publicationDays[row];
+    }
+
+    String genre(int row) {
+        return genreNames.value(genres[row]);
+    }
+
+    Boolean available(int row) {
+        return available[row] == NO_FLAG ? null : available[row] == 1;
+    }
+
+    String description(int row) {
+        return descriptionText.get(descriptions[row]);
+    }
+
+    StringArena.Text descriptionText(int row) {
+        return descriptionText.text(descriptions[row]);
+    }
+
+    long version(int row) {
+        return versions[row];
+    }
+
+    int authorCode(int row) {
+        return authors[row];
+    }
+
+    int genreCode(int row) {
+        return genres[row];
+    }
+
+    byte availableFlag(int row) {
+        return available[row];
+    }
+
+    boolean titleContains(int row, StringArena.Needle needle) {
+        return titleText.containsIgnoreCase(titles[row], needle);
+    }
+
+    StringDictionary authorNames() {
+        return authorNames;
+    }
+
+    StringDictionary genreNames() {
+        return genreNames;
+    }
+
+    /**
+     * Bytes of string data held, including garbage not yet compacted.
+     */
+    long textBytes() {
+        return (long) titleText.size() + isbnText.size() + descriptionText.size();
+    }
+
+    static byte flag(Boolean value) {
+        return value == null ? NO_FLAG : (byte) (value ? 1 : 0);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int grown = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, grown);
+            titles = Arrays.copyOf(titles, grown);
+            authors = Arrays.copyOf(authors, grown);
+            isbns = Arrays.copyOf(isbns, grown);
+            publicationDays = Arrays.copyOf(publicationDays, grown);
+            genres = Arrays.copyOf(genres, grown);
+            available = Arrays.copyOf(available, grown);
+            descriptions = Arrays.copyOf(descriptions, grown);
+            versions = Arrays.copyOf(versions, grown);
+        }
+    }
+
+    private void indexIsbn(int row) {
+        if ((size + 1) * 2 > isbnSlots.length) {
+            rebuildIsbnIndex(isbnSlots.length * 2);
+            return;
+        }
+        insertSlot(row);
+    }
+
+    private void rebuildIsbnIndex(int capacity) {
+        isbnSlots = new int[capacity];
+        for (int row = 0; row < size; row++) {
+            insertSlot(row);
+        }
+    }
+
+    private void insertSlot(int row) {
+        if (isbns[row] == StringArena.NULL) {
+            return;
+        }
+        int mask = isbnSlots.length - 1;
+        int slot = isbnText.hash(isbns[row]) & mask;
+        while (isbnSlots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        isbnSlots[slot] = row + 1;
+    }
+
+    /**
+     * Compacts an arena once more than half of it is garbage.
+     */
+    private void compactIfWasteful() {
+        if (titleText.garbage() * 2 > titleText.size()) {
+            titleText.compact(titles, size);
+        }
+        if (isbnText.garbage() * 2 > isbnText.size()) {
+            isbnText.compact(isbns, size);
+        }
+        if (descriptionText.garbage() * 2 > descriptionText.size()) {
+            descriptionText.compact(descriptions, size);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.library.catalog;
+
+import com.library.model.Book;
+import com.library.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes the in-memory catalog's changes behind it to the database, one at a
+ * time and in the order they were made, on a single background thread.
+ * <p>
+ * Updates, deletes and availability changes go through the JPA
+ * {@link BookRepository}. New books keep the id the catalog gave them, which
+ * JPA would replace with a new identity, so they are inserted with plain SQL
+ * and the identity column is moved past them whenever the journal catches
+ * up. A change that cannot be written is logged and counted; the catalog in
+ * memory keeps it.
+ * <p>
+ * Writers wait in {@link #awaitCapacity()} while {@code capacity} changes
+ * are pending, so a slow database holds writers back instead of letting
+ * the backlog grow without bound.
+ */
+@Slf4j
+public class CatalogJournal implements AutoCloseable {
+
+    private final BookRepository books;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final int capacity;
+    private final Object monitor = new Object();
+    private final AtomicLong failures = new AtomicLong();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-journal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private int pending;
+    private long insertedUpTo;
+    private long identityMovedTo;
+
+    public CatalogJournal(BookRepository books, DataSource dataSource, TransactionTemplate transactionTemplate,
+                          int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Journal capacity must be positive");
+        }
+        this.books = books;
+        this.dataSource = dataSource;
+        this.transactionTemplate = transactionTemplate;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Blocks while the journal is full. Called before taking the catalog's
+     * write lock, so readers are never held up by a backed-up journal.
+     */
+    public void awaitCapacity() {
+        synchronized (monitor) {
+            while (pending >= capacity) {
+                try {
+                    monitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the catalog journal", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Books inserted into the catalog, with their ids and versions set.
+     */
+    public void inserted(List<Book> inserted) {
+        append("insert of " + inserted.size() + " books", () -> {
+            transactionTemplate.executeWithoutResult(status -> inserted.forEach(this::insertWithId));
+            inserted.forEach(book -> insertedUpTo = Math.max(insertedUpTo, book.getId()));
+        });
+    }
+
+    public void updated(Book book) {
+        append("update of book " + book.getId(), () -> transactionTemplate.executeWithoutResult(status -> {
+            Book stored = books.findById(book.getId()).orElse(null);
+            if (stored == null) {
+                insertWithId(book);
+                return;
+            }
+            stored.setTitle(book.getTitle());
+            stored.setAuthor(book.getAuthor());
+            stored.setIsbn(book.getIsbn());
+            stored.setPublicationDate(book.getPublicationDate());
+            stored.setGenre(book.getGenre());
+            stored.setAvailable(book.getAvailable());
+            stored.setDescription(book.getDescription());
+            books.save(stored);
+        }));
+    }
+
+    public void availabilityChanged(long id, boolean available) {
+        append("availability of book " + id,
+                () -> transactionTemplate.executeWithoutResult(status -> books.updateAvailability(id, available)));
+    }
+
+    public void deleted(long id) {
+        append("delete of book " + id, () -> transactionTemplate.executeWithoutResult(status -> books.deleteById(id)));
+    }
+
+    public void deletedAll() {
+        append("delete of all books", () -> transactionTemplate.executeWithoutResult(status -> books.deleteAll()));
+    }
+
+    /**
+     * Waits until every change appended so far has been written (or has failed).
+     */
+    public void flush() {
+        await(executor.submit(() -> {
+        }));
+    }
+
+    /**
+     * Changes appended but not written yet.
+     */
+    public int pending() {
+        synchronized (monitor) {
+            return pending;
+        }
+    }
+
+    /**
+     * Changes that could not be written since startup.
+     */
+    public long failures() {
+        return failures.get();
+    }
+
+    private void append(String change, Runnable write) {
+        synchronized (monitor) {
+            pending++;
+        }
+        executor.execute(() -> {
+            try {
+                write.run();
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                log.error("Could not write the {} to the database; the in-memory catalog still has it", change, e);
+            }
+            boolean caughtUp;
+            synchronized (monitor) {
+                pending--;
+                caughtUp = pending == 0;
+                monitor.notifyAll();
+            }
+            if (caughtUp) {
+                moveIdentityPastInserts();
+            }
+        });
+    }
+
+    /**
+     * Same statements as a shard moving a book, see
+     * {@link com.library.sharding.BookShard#insertWithId}.
+     */
+    private void insertWithId(Book book) {
+        String description = book.getDescription();
+        Number descriptionId = description == null ? null
+                : new SimpleJdbcInsert(dataSource)
+                .withTableName("book_descriptions")
+                .usingColumns("text")
+                .usingGeneratedKeyColumns("id")
+                .executeAndReturnKey(Map.of("text", description));
+        new JdbcTemplate(dataSource).update(
+                "insert into books (id, title, author, isbn, publication_date, genre, available, description_id, " +
+                        "version) values (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(), book.getPublicationDate(),
+                book.getGenre(), book.getAvailable(), descriptionId == null ? null : descriptionId.longValue(),
+                book.getVersion());
+    }
+
+    /**
+     * Restarts the identity column after the highest id inserted, so the
+     * database can issue ids again if the application is started without
+     * the in-memory catalog.
+     */
+    private void moveIdentityPastInserts() {
+        if (insertedUpTo <= identityMovedTo) {
+            return;
+        }
+        try {
+            new JdbcTemplate(dataSource).execute("alter table books alter column id restart with " + (insertedUpTo + 1));
+            identityMovedTo = insertedUpTo;
+        } catch (RuntimeException e) {
+            log.warn("Could not move the books identity past id {}", insertedUpTo, e);
+        }
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while flushing the catalog journal", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Writes what is pending, giving up after {@code timeout}.
+     */
+    public void close(long timeout, TimeUnit unit) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeout, unit)) {
+                log.warn("Catalog journal closed with {} changes not written", pending());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void close() {
+        close(30, TimeUnit.SECONDS);
+    }
+}
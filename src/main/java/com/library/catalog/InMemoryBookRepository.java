@@ -0,0 +1,661 @@
+package com.library.catalog;
+
+import com.library.dto.BookDTO;
+import com.library.model.Book;
+import com.library.model.BookField;
+import com.library.repository.BookOrdering;
+import com.library.repository.BookRepository;
+import com.library.repository.BookSpecifications;
+import com.library.repository.BookSpecifications.BookCriterion;
+import com.library.util.StringArena;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * {@link BookRepository} answered from {@link BookColumns} in memory, with
+ * the database behind it as a durable copy kept current by a
+ * {@link CatalogJournal}.
+ * <p>
+ * A {@link StampedLock} guards the columns. Lookups by id or ISBN read
+ * optimistically and only take the read lock when a write overlapped them;
+ * searches and listings take the read lock; writes take the write lock and
+ * append to the journal under it, so the database sees changes in the order
+ * they were made. Writes wait for room in the journal before locking.
+ * <p>
+ * Writes take effect in memory immediately and are not rolled back with the
+ * caller's transaction. Saving a book checks its version and ISBN like the
+ * database would, throwing {@link ObjectOptimisticLockingFailureException}
+ * and {@link DataIntegrityViolationException}. Returned books are copies;
+ * changing one changes nothing until it is saved.
+ */
+@Slf4j
+public class InMemoryBookRepository implements InvocationHandler, AutoCloseable {
+
+    private static final String LOAD_BOOKS = "select b.id, b.title, b.author, b.isbn, b.publication_date, b.genre, " +
+            "b.available, b.version, d.text from books b left join book_descriptions d on d.id = b.description_id " +
+            "order by b.id";
+
+    private final BookColumns columns;
+    private final CatalogJournal journal;
+    private final StampedLock lock = new StampedLock();
+    private final BookRepository repository;
+
+    InMemoryBookRepository(BookColumns columns, CatalogJournal journal) {
+        this.columns = columns;
+        this.journal = journal;
+        this.repository = (BookRepository) Proxy.newProxyInstance(BookRepository.class.getClassLoader(),
+                new Class<?>[]{BookRepository.class}, this);
+    }
+
+    /**
+     * Reads every book from the database into memory.
+     */
+    public static InMemoryBookRepository load(JdbcTemplate jdbcTemplate, CatalogJournal journal) {
+        BookColumns columns = new BookColumns();
+        jdbcTemplate.query(LOAD_BOOKS, (RowCallbackHandler) row -> {
+            Date published = row.getDate("publication_date");
+            Book book = new Book(null, row.getString("title"), row.getString("author"), row.getString("isbn"),
+                    published == null ? null : published.toLocalDate(), row.getString("genre"),
+                    (Boolean) row.getObject("available"), row.getString("text"), null);
+            columns.append(book, row.getLong("id"), row.getLong("version"));
+        });
+        log.info("Loaded {} books into the in-memory catalog ({} KB of text)", columns.size(), columns.textBytes() / 1024);
+        return new InMemoryBookRepository(columns, journal);
+    }
+
+    public BookRepository asRepository() {
+        return repository;
+    }
+
+    /**
+     * Waits until the database has every change made so far.
+     */
+    public void flush() {
+        journal.flush();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> "InMemoryBookRepository[" + read(columns::size) + " books]";
+            };
+        }
+        Object[] arguments = args == null ? new Object[0] : args;
+        String name = method.getName();
+        return switch (name) {
+            case "save" -> save((Book) arguments[0]);
+            case "saveAll" -> {
+                List<Book> books = new ArrayList<>();
+                ((Iterable<Book>) arguments[0]).forEach(books::add);
+                yield saveAll(books);
+            }
+            case "findById" -> optimisticRead(() -> {
+                int row = columns.rowOf((Long) arguments[0]);
+                return row < 0 ? Optional.<Book>empty() : Optional.of(book(row));
+            });
+            case "existsById" -> optimisticRead(() -> columns.rowOf((Long) arguments[0]) >= 0);
+            case "findByIsbn" -> optimisticRead(() -> {
+                int row = columns.rowOfIsbn((String) arguments[0]);
+                return row < 0 ? Optional.<Book>empty() : Optional.of(book(row));
+            });
+            case "existsByIsbn" -> optimisticRead(() -> columns.rowOfIsbn((String) arguments[0]) >= 0);
+            case "findByAuthorContainingIgnoreCase" -> find(BookSpecifications.authorContains((String) arguments[0]));
+            case "findByTitleContainingIgnoreCase" -> find(BookSpecifications.titleContains((String) arguments[0]));
+            case "findByGenreIgnoreCase" -> find(BookSpecifications.genreIs((String) arguments[0]));
+            case "findByAvailable" -> find(new BookCriterion(BookField.AVAILABLE, BookSpecifications.Match.EQUALS, arguments[0]));
+            case "findByIdIn", "findAllById" -> findByIds((Iterable<Long>) arguments[0]);
+            case "findByIsbnIn" -> read(() -> {
+                List<Book> found = new ArrayList<>();
+                rowsOfIsbns((Collection<String>) arguments[0]).forEach(row -> found.add(book(row)));
+                return found;
+            });
+            case "findIsbnsIn" -> read(() -> rowsOfIsbns((Collection<String>) arguments[0]).stream()
+                    .map(columns::isbn)
+                    .toList());
+            case "findAll" -> findAll(arguments);
+            case "count" -> (long) read(columns::size);
+            case "countByGenre" -> read(() -> countCodes(columns.genreNames().size(), columns::genreCode,
+                    columns.genreNames()::value));
+            case "countByAuthor" -> read(() -> countCodes(columns.authorNames().size(), columns::authorCode,
+                    columns.authorNames()::value));
+            case "countByAvailable" -> read(this::countByAvailable);
+            case "countByPublicationYear" -> read(this::countByPublicationYear);
+            case "findFields" -> findFields((Specification<Book>) arguments[0], (Set<BookField>) arguments[1]);
+            case "findTermsAfter" -> read(() -> findTermsAfter((Long) arguments[0], (Pageable) arguments[1]));
+            case "updateAvailability" -> updateAvailability((Long) arguments[0], (Boolean) arguments[1]);
+            case "deleteById" -> {
+                delete((Long) arguments[0]);
+                yield null;
+            }
+            case "delete" -> {
+                delete(((Book) arguments[0]).getId());
+                yield null;
+            }
+            case "deleteAll", "deleteAllInBatch" -> {
+                if (arguments.length == 0) {
+                    deleteAll();
+                } else {
+                    ((Iterable<Book>) arguments[0]).forEach(book -> delete(book.getId()));
+                }
+                yield null;
+            }
+            case "flush" -> {
+                flush();
+                yield null;
+            }
+            default -> throw new UnsupportedOperationException(name + " is not supported by the in-memory catalog");
+        };
+    }
+
+    private Book save(Book book) {
+        if (book.getId() == null) {
+            return saveAll(List.of(book)).get(0);
+        }
+        journal.awaitCapacity();
+        long stamp = lock.writeLock();
+        try {
+            int row = columns.rowOf(book.getId());
+            if (row < 0) {
+                if (book.getVersion() != null) {
+                    throw new ObjectOptimisticLockingFailureException(Book.class, book.getId());
+                }
+                return insert(List.of(book)).get(0);
+            }
+            if (book.getVersion() != null && book.getVersion() != columns.version(row)) {
+                throw new ObjectOptimisticLockingFailureException(Book.class, book.getId());
+            }
+            checkRequired(book);
+            int owner = columns.rowOfIsbn(book.getIsbn());
+            if (owner >= 0 && owner != row) {
+                throw duplicateIsbn(book.getIsbn());
+            }
+            if (columns.update(row, book)) {
+                journal.updated(copy(row));
+            }
+            return book(row);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Saves new books in one journal entry; books with ids are saved one by one.
+     */
+    private List<Book> saveAll(List<Book> books) {
+        List<Book> inserts = books.stream().filter(book -> book.getId() == null).toList();
+        List<Book> saved = new ArrayList<>(books.size());
+        books.forEach(book -> saved.add(book.getId() == null ? book : null));
+        if (!inserts.isEmpty()) {
+            journal.awaitCapacity();
+            long stamp = lock.writeLock();
+            try {
+                insert(inserts);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        for (int i = 0; i < books.size(); i++) {
+            if (saved.get(i) == null) {
+                saved.set(i, save(books.get(i)));
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Appends new books under the write lock, after checking that their ISBNs
+     * are free, and sets their ids and versions as persisting them would.
+     */
+    private List<Book> insert(List<Book> books) {
+        Set<String> isbns = new HashSet<>();
+        for (Book book : books) {
+            checkRequired(book);
+            if (columns.rowOfIsbn(book.getIsbn()) >= 0 || !isbns.add(book.getIsbn())) {
+                throw duplicateIsbn(book.getIsbn());
+            }
+        }
+        List<Book> inserted = new ArrayList<>(books.size());
+        long id = columns.lastId();
+        for (Book book : books) {
+            int row = columns.append(book, ++id, 0);
+            book.setId(columns.id(row));
+            book.setVersion(columns.version(row));
+            inserted.add(copy(row));
+        }
+        journal.inserted(inserted);
+        return books;
+    }
+
+    private int updateAvailability(Long id, boolean available) {
+        journal.awaitCapacity();
+        long stamp = lock.writeLock();
+        try {
+            int row = columns.rowOf(id);
+            if (row < 0 || !columns.setAvailable(row, available)) {
+                return 0;
+            }
+            journal.availabilityChanged(id, available);
+            return 1;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void delete(Long id) {
+        journal.awaitCapacity();
+        long stamp = lock.writeLock();
+        try {
+            int row = columns.rowOf(id);
+            if (row >= 0) {
+                columns.remove(row);
+                journal.deleted(id);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void deleteAll() {
+        journal.awaitCapacity();
+        long stamp = lock.writeLock();
+        try {
+            columns.clear();
+            journal.deletedAll();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private List<Book> find(BookCriterion criterion) {
+        return read(() -> {
+            IntPredicate matches = matcher(criterion);
+            List<Book> found = new ArrayList<>();
+            for (int row = 0; row < columns.size(); row++) {
+                if (matches.test(row)) {
+                    found.add(book(row));
+                }
+            }
+            return found;
+        });
+    }
+
+    private List<Book> findByIds(Iterable<Long> ids) {
+        return read(() -> {
+            List<Book> found = new ArrayList<>();
+            Set<Long> seen = new HashSet<>();
+            for (Long id : ids) {
+                int row = id == null || !seen.add(id) ? -1 : columns.rowOf(id);
+                if (row >= 0) {
+                    found.add(book(row));
+                }
+            }
+            return found;
+        });
+    }
+
+    private List<Integer> rowsOfIsbns(Collection<String> isbns) {
+        List<Integer> rows = new ArrayList<>();
+        for (String isbn : new HashSet<>(isbns)) {
+            int row = columns.rowOfIsbn(isbn);
+            if (row >= 0) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private Object findAll(Object[] arguments) {
+        List<Book> all = read(() -> {
+            List<Book> books = new ArrayList<>(columns.size());
+            for (int row = 0; row < columns.size(); row++) {
+                books.add(book(row));
+            }
+            return books;
+        });
+        if (arguments.length == 0) {
+            return all;
+        }
+        if (arguments[0] instanceof Sort sort) {
+            all.sort(BookOrdering.of(sort));
+            return all;
+        }
+        if (arguments[0] instanceof Pageable pageable) {
+            all.sort(BookOrdering.of(pageable.getSort()));
+            if (pageable.isUnpaged()) {
+                return new PageImpl<>(all);
+            }
+            int from = (int) Math.min(pageable.getOffset(), all.size());
+            int to = Math.min(from + pageable.getPageSize(), all.size());
+            return new PageImpl<>(new ArrayList<>(all.subList(from, to)), pageable, all.size());
+        }
+        throw new UnsupportedOperationException("findAll(" + arguments[0].getClass().getSimpleName()
+                + ") is not supported by the in-memory catalog");
+    }
+
+    /**
+     * Builds the DTOs straight from the columns, decoding only the
+     * requested fields.
+     */
+    private List<BookDTO> findFields(Specification<Book> where, Set<BookField> fields) {
+        if (where != null && !(where instanceof BookCriterion)) {
+            throw new UnsupportedOperationException("The in-memory catalog can only search by "
+                    + BookSpecifications.class.getSimpleName() + " criteria");
+        }
+        Set<BookField> selected = EnumSet.of(BookField.ID);
+        selected.addAll(fields);
+        return read(() -> {
+            IntPredicate matches = where == null ? row -> true : matcher((BookCriterion) where);
+            List<BookDTO> found = new ArrayList<>();
+            for (int row = 0; row < columns.size(); row++) {
+                if (matches.test(row)) {
+                    found.add(dto(row, selected));
+                }
+            }
+            return found;
+        });
+    }
+
+    private List<BookRepository.BookTerms> findTermsAfter(Long afterId, Pageable pageable) {
+        int row = columns.rowOf(afterId);
+        int from = row >= 0 ? row + 1 : firstRowAbove(afterId);
+        int to = Math.min(columns.size(), from + pageable.getPageSize());
+        List<BookRepository.BookTerms> terms = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            terms.add(new Terms(columns.id(i), columns.title(i), columns.author(i)));
+        }
+        return terms;
+    }
+
+    private int firstRowAbove(long id) {
+        int low = 0;
+        int high = columns.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (columns.id(middle) <= id) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Counts rows per dictionary code in one pass over the code column.
+     */
+    private List<BookRepository.FacetCount> countCodes(int distinct, IntUnaryOperator code, IntFunction<String> value) {
+        long[] counts = new long[distinct + 1];
+        for (int row = 0; row < columns.size(); row++) {
+            counts[code.applyAsInt(row) + 1]++;
+        }
+        List<BookRepository.FacetCount> facets = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                facets.add(new Facet(value.apply(i - 1), counts[i]));
+            }
+        }
+        return facets;
+    }
+
+    private List<BookRepository.FacetCount> countByAvailable() {
+        long[] counts = new long[3];
+        for (int row = 0; row < columns.size(); row++) {
+            counts[columns.availableFlag(row) + 1]++;
+        }
+        List<BookRepository.FacetCount> facets = new ArrayList<>();
+        Boolean[] values = {null, false, true};
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                facets.add(new Facet(values[i], counts[i]));
+            }
+        }
+        return facets;
+    }
+
+    private List<BookRepository.FacetCount> countByPublicationYear() {
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        for (int row = 0; row < columns.size(); row++) {
+            int day = columns.publicationDay(row);
+            counts.merge(day == BookColumns.NO_DATE ? null : LocalDate.ofEpochDay(day).getYear(), 1L, Long::sum);
+        }
+        List<BookRepository.FacetCount> facets = new ArrayList<>(counts.size());
+        counts.forEach((year, books) -> facets.add(new Facet(year, books)));
+        return facets;
+    }
+
+    /**
+     * Row filter for a criterion. Dictionary columns are matched once per
+     * distinct value and then filtered by code.
+     */
+    private IntPredicate matcher(BookCriterion criterion) {
+        Object value = criterion.value();
+        if (criterion.match() == BookSpecifications.Match.EQUALS) {
+            if (criterion.field() != BookField.AVAILABLE) {
+                throw unsupported(criterion);
+            }
+            byte flag = BookColumns.flag((Boolean) value);
+            return row -> columns.availableFlag(row) == flag;
+        }
+        String upper = ((String) value).toUpperCase(Locale.ROOT);
+        boolean contains = criterion.match() == BookSpecifications.Match.CONTAINS_IGNORE_CASE;
+        return switch (criterion.field()) {
+            case AUTHOR -> byCode(columns.authorNames().matching(name -> matches(name, upper, contains)),
+                    columns::authorCode);
+            case GENRE -> byCode(columns.genreNames().matching(genre -> matches(genre, upper, contains)),
+                    columns::genreCode);
+            case TITLE -> {
+                if (contains) {
+                    StringArena.Needle needle = StringArena.needle((String) value);
+                    yield row -> columns.titleContains(row, needle);
+                }
+                yield row -> matches(columns.title(row), upper, false);
+            }
+            case ISBN -> row -> matches(columns.isbn(row), upper, contains);
+            default -> throw unsupported(criterion);
+        };
+    }
+
+    private static IntPredicate byCode(BitSet codes, IntUnaryOperator code) {
+        return row -> {
+            int rowCode = code.applyAsInt(row);
+            return rowCode >= 0 && codes.get(rowCode);
+        };
+    }
+
+    private static boolean matches(String text, String upper, boolean contains) {
+        if (text == null) {
+            return false;
+        }
+        String folded = text.toUpperCase(Locale.ROOT);
+        return contains ? folded.contains(upper) : folded.equals(upper);
+    }
+
+    private static UnsupportedOperationException unsupported(BookCriterion criterion) {
+        return new UnsupportedOperationException("The in-memory catalog cannot match " + criterion.field().property()
+                + " with " + criterion.match());
+    }
+
+    /**
+     * Rejects a book the database would, now rather than when the journal
+     * writes it.
+     */
+    private static void checkRequired(Book book) {
+        if (book.getTitle() == null || book.getAuthor() == null || book.getIsbn() == null
+                || book.getPublicationDate() == null) {
+            throw new DataIntegrityViolationException("Title, author, ISBN and publication date are required");
+        }
+    }
+
+    private static DataIntegrityViolationException duplicateIsbn(String isbn) {
+        return new DataIntegrityViolationException("A book with ISBN " + isbn + " already exists");
+    }
+
+    private BookDTO dto(int row, Set<BookField> fields) {
+        BookDTO dto = new BookDTO();
+        for (BookField field : fields) {
+            switch (field) {
+                case ID -> dto.setId(columns.id(row));
+                case TITLE -> dto.setTitle(columns.title(row));
+                case AUTHOR -> dto.setAuthor(columns.author(row));
+                case ISBN -> dto.setIsbn(columns.isbn(row));
+                case PUBLICATION_DATE -> dto.setPublicationDate(columns.publicationDate(row));
+                case GENRE -> dto.setGenre(columns.genre(row));
+                case AVAILABLE -> dto.setAvailable(columns.available(row));
+                case DESCRIPTION -> dto.setDescription(columns.description(row));
+            }
+        }
+        return dto;
+    }
+
+    /**
+     * The book in a row, with its description decoded when first read.
+     */
+    private Book book(int row) {
+        StoredBook book = new StoredBook(columns.descriptionText(row));
+        book.setId(columns.id(row));
+        book.setTitle(columns.title(row));
+        book.setAuthor(columns.author(row));
+        book.setIsbn(columns.isbn(row));
+        book.setPublicationDate(columns.publicationDate(row));
+        book.setGenre(columns.genre(row));
+        book.setAvailable(columns.available(row));
+        book.setVersion(columns.version(row));
+        return book;
+    }
+
+    /**
+     * A plain entity with the row's values, for the journal.
+     */
+    private Book copy(int row) {
+        return new Book(columns.id(row), columns.title(row), columns.author(row), columns.isbn(row),
+                columns.publicationDate(row), columns.genre(row), columns.available(row), columns.description(row),
+                columns.version(row));
+    }
+
+    /**
+     * Runs a short read without locking and retries under the read lock if
+     * a write overlapped it. The columns may be inconsistent during an
+     * overlapping write, so whatever that attempt throws is ignored too.
+     */
+    private <T> T optimisticRead(Supplier<T> query) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = query.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        return read(query);
+    }
+
+    private <T> T read(Supplier<T> query) {
+        long stamp = lock.readLock();
+        try {
+            return query.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void close() {
+        journal.close();
+    }
+
+    private record Facet(Object facet, long books) implements BookRepository.FacetCount {
+
+        @Override
+        public Object getFacet() {
+            return facet;
+        }
+
+        @Override
+        public long getBooks() {
+            return books;
+        }
+    }
+
+    private record Terms(Long id, String title, String author) implements BookRepository.BookTerms {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getTitle() {
+            return title;
+        }
+
+        @Override
+        public String getAuthor() {
+            return author;
+        }
+    }
+
+    /**
+     * A book read from the catalog. Its description stays encoded until
+     * asked for, since listings rarely need it.
+     */
+    private static final class StoredBook extends Book {
+
+        private StringArena.Text storedDescription;
+
+        private StoredBook(StringArena.Text storedDescription) {
+            this.storedDescription = storedDescription;
+        }
+
+        @Override
+        public String getDescription() {
+            return storedDescription != null ? storedDescription.toString() : super.getDescription();
+        }
+
+        @Override
+        public void setDescription(String text) {
+            if (!Objects.equals(text, getDescription())) {
+                storedDescription = null;
+                super.setDescription(text);
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.library.catalog;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "library.in-memory-catalog")
+public class InMemoryCatalogProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Changes that may wait to be written to the database before writers
+     * are held back.
+     */
+    private int journalCapacity = 10_000;
+}
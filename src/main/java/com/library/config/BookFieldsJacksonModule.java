@@ -0,0 +1,39 @@
+package com.library.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.library.dto.BookDTO;
+import org.springframework.stereotype.Component;
+
+/**
+ * Puts {@link BookDTO} behind the {@value #FILTER} Jackson filter. By default
+ * the filter writes every property; a response can swap in a narrower one
+ * to leave properties out.
+ * <p>
+ * Registered as a module rather than annotated on the DTO, so that other
+ * {@code ObjectMapper}s, which have no filter to resolve, can still write it.
+ */
+@Component
+public class BookFieldsJacksonModule extends SimpleModule {
+
+    public static final String FILTER = "bookFields";
+
+    public BookFieldsJacksonModule() {
+        super("BookFieldsJacksonModule");
+        setMixInAnnotation(BookDTO.class, BookDTOFilter.class);
+    }
+
+    @Override
+    public void setupModule(SetupContext context) {
+        super.setupModule(context);
+        ObjectMapper mapper = context.getOwner();
+        mapper.setFilterProvider(new SimpleFilterProvider().addFilter(FILTER, SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    @JsonFilter(FILTER)
+    interface BookDTOFilter {
+    }
+}
@@ -0,0 +1,116 @@
+package com.library.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.bulkhead.Bulkhead;
+import com.library.bulkhead.BulkheadFilter;
+import com.library.bulkhead.BulkheadProperties;
+import com.library.bulkhead.Bulkheads;
+import com.library.bulkhead.Workload;
+import com.library.bulkhead.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Bulkheads for point reads, scans and writes: each workload gets a capped
+ * number of request threads with a bounded wait queue, and its own pool of
+ * connections to the primary database.
+ */
+@Configuration
+@EnableConfigurationProperties(BulkheadProperties.class)
+@ConditionalOnProperty(name = "library.bulkheads.enabled", havingValue = "true")
+public class BulkheadConfig {
+
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public Bulkheads bulkheads(BulkheadProperties properties) {
+        Map<Workload, Bulkhead> bulkheads = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            BulkheadProperties.Compartment compartment = properties.get(workload);
+            bulkheads.put(workload, new Bulkhead(workload, compartment.getMaxConcurrent(),
+                    compartment.getMaxQueue(), compartment.getMaxWait().toNanos()));
+        }
+        return new Bulkheads(bulkheads);
+    }
+
+    /**
+     * Runs after idempotency, so replayed responses do not take a slot.
+     */
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(BulkheadProperties properties,
+                                                                 Bulkheads bulkheads,
+                                                                 ObjectMapper objectMapper,
+                                                                 MeterRegistry meterRegistry) {
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(
+                new BulkheadFilter(bulkheads, properties.getRetryAfterSeconds(), objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 17);
+        return registration;
+    }
+
+    /**
+     * One pool per workload, each configured from {@code spring.datasource.hikari}
+     * apart from its name and size, which is the workload's share of the
+     * configured maximum pool size. Read replica mode routes connections by
+     * itself, so the pools are only split without it.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "library.replicas.enabled", havingValue = "false", matchIfMissing = true)
+    public HikariDataSource pointReadDataSource(DataSourceProperties dataSourceProperties,
+                                                BulkheadProperties properties, Environment environment) {
+        return pool(Workload.POINT_READ, dataSourceProperties, properties, environment);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "library.replicas.enabled", havingValue = "false", matchIfMissing = true)
+    public HikariDataSource scanDataSource(DataSourceProperties dataSourceProperties,
+                                           BulkheadProperties properties, Environment environment) {
+        return pool(Workload.SCAN, dataSourceProperties, properties, environment);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "library.replicas.enabled", havingValue = "false", matchIfMissing = true)
+    public HikariDataSource writeDataSource(DataSourceProperties dataSourceProperties,
+                                            BulkheadProperties properties, Environment environment) {
+        return pool(Workload.WRITE, dataSourceProperties, properties, environment);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "library.replicas.enabled", havingValue = "false", matchIfMissing = true)
+    public DataSource dataSource(HikariDataSource pointReadDataSource, HikariDataSource scanDataSource,
+                                 HikariDataSource writeDataSource, Bulkheads bulkheads) {
+        return new WorkloadRoutingDataSource(Map.of(
+                Workload.POINT_READ, pointReadDataSource,
+                Workload.SCAN, scanDataSource,
+                Workload.WRITE, writeDataSource), bulkheads);
+    }
+
+    private static HikariDataSource pool(Workload workload, DataSourceProperties dataSourceProperties,
+                                         BulkheadProperties properties, Environment environment) {
+        HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        String prefix = pool.getPoolName() != null ? pool.getPoolName() : "HikariPool";
+        pool.setPoolName(prefix + "-" + workload.tag());
+        int configured = pool.getMaximumPoolSize() > 0 ? pool.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+        pool.setMaximumPoolSize(properties.get(workload).poolSizeOf(configured));
+        return pool;
+    }
+}
@@ -0,0 +1,81 @@
+package com.library.config;
+
+import com.library.cache.BookCache;
+import com.library.cache.CacheInvalidationBus;
+import com.library.cache.CacheProperties;
+import com.library.cache.InvalidationTransport;
+import com.library.cache.LoopbackInvalidationTransport;
+import com.library.cache.TcpInvalidationTransport;
+import com.library.service.PopularityService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.UUID;
+
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public BookCache bookCache(CacheProperties properties, PopularityService popularityService,
+                               MeterRegistry meterRegistry) {
+        BookCache cache = new BookCache(properties.getMaxEntries(), properties.getTtl(),
+                popularityService::admit, System::currentTimeMillis);
+        FunctionCounter.builder("library.cache.requests", cache, BookCache::hitCount)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("library.cache.requests", cache, BookCache::missCount)
+                .tag("result", "miss").register(meterRegistry);
+        meterRegistry.gauge("library.cache.size", cache, BookCache::size);
+        return cache;
+    }
+
+    @Bean
+    public InvalidationTransport invalidationTransport(CacheProperties properties) {
+        CacheProperties.Invalidation invalidation = properties.getInvalidation();
+        return switch (invalidation.getTransport()) {
+            case LOOPBACK -> new LoopbackInvalidationTransport();
+            case TCP -> new TcpInvalidationTransport(nodeId(properties), invalidation.getListenPort(),
+                    peerAddresses(invalidation.getPeers()), invalidation.getReconnectInterval().toMillis(),
+                    invalidation.getQueueCapacity());
+        };
+    }
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(CacheProperties properties, BookCache bookCache,
+                                                     InvalidationTransport invalidationTransport,
+                                                     MeterRegistry meterRegistry) {
+        return new CacheInvalidationBus(nodeId(properties), bookCache, invalidationTransport,
+                System::currentTimeMillis, meterRegistry);
+    }
+
+    /**
+     * Fills in a random node id once, so the transport and the bus agree.
+     */
+    private static String nodeId(CacheProperties properties) {
+        CacheProperties.Invalidation invalidation = properties.getInvalidation();
+        if (invalidation.getNodeId().isBlank()) {
+            invalidation.setNodeId(UUID.randomUUID().toString());
+        }
+        return invalidation.getNodeId();
+    }
+
+    private static List<InetSocketAddress> peerAddresses(List<String> peers) {
+        return peers.stream()
+                .map(String::trim)
+                .filter(peer -> !peer.isEmpty())
+                .map(peer -> {
+                    int colon = peer.lastIndexOf(':');
+                    if (colon <= 0) {
+                        throw new IllegalArgumentException("Cache invalidation peer must be host:port, got " + peer);
+                    }
+                    return InetSocketAddress.createUnresolved(peer.substring(0, colon),
+                            Integer.parseInt(peer.substring(colon + 1)));
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,35 @@
+package com.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "library.circulation")
+public class CirculationProperties {
+
+    private Duration loanPeriod = Duration.ofDays(21);
+
+    /**
+     * How long a returned copy stays reserved for the next patron in the queue.
+     */
+    private Duration holdPeriod = Duration.ofHours(48);
+
+    /**
+     * Number of available copies read per checkout attempt. They are tried in
+     * random order so concurrent checkouts of the same book spread out.
+     */
+    private int checkoutCandidates = 8;
+
+    /**
+     * Resolution of the hold expiry timing wheel; holds expire at most this
+     * long after their deadline.
+     */
+    private Duration expiryTick = Duration.ofSeconds(1);
+
+    /**
+     * Maximum number of holds expired per database transaction.
+     */
+    private int expiryBatchSize = 500;
+}
@@ -0,0 +1,44 @@
+package com.library.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.idempotency.IdempotencyFilter;
+import com.library.idempotency.IdempotencyProperties;
+import com.library.idempotency.IdempotencyStore;
+import com.library.ratelimit.ClientIdentity;
+import com.library.ratelimit.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties({IdempotencyProperties.class, RateLimitProperties.class})
+@ConditionalOnProperty(name = "library.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyProperties properties) {
+        return new IdempotencyStore(properties.getMaxEntries(), properties.getTtl(), System::currentTimeMillis);
+    }
+
+    /**
+     * Runs after rate limiting, so replays are still charged, and before the
+     * read-your-writes scope, which replays do not need.
+     */
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyProperties properties,
+                                                                       IdempotencyStore idempotencyStore,
+                                                                       RateLimitProperties rateLimitProperties,
+                                                                       ObjectMapper objectMapper,
+                                                                       MeterRegistry meterRegistry) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(properties, idempotencyStore, ClientIdentity.of(rateLimitProperties),
+                        objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 15);
+        return registration;
+    }
+}
@@ -0,0 +1,17 @@
+package com.library.config;
+
+import com.library.importing.CompiledBookValidator;
+import jakarta.validation.Validator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ImportProperties.class)
+public class ImportConfig {
+
+    @Bean
+    public CompiledBookValidator compiledBookValidator(Validator validator) {
+        return new CompiledBookValidator(validator);
+    }
+}
@@ -0,0 +1,39 @@
+package com.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+@Data
+@ConfigurationProperties(prefix = "library.import")
+public class ImportProperties {
+
+    /**
+     * Where uploaded files are kept until their job completes, so that
+     * failed or interrupted jobs can be resumed.
+     */
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "library-imports");
+
+    /**
+     * Threads parsing and validating chunks.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Approximate size of the file slices handed to each parser task.
+     */
+    private DataSize chunkSize = DataSize.ofMegabytes(1);
+
+    /**
+     * Records per write transaction; each commit is also a resume point.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Rejected records kept per job for the error report; later ones are
+     * only counted.
+     */
+    private int maxReportedErrors = 1000;
+}
@@ -0,0 +1,61 @@
+package com.library.config;
+
+import com.library.catalog.CatalogJournal;
+import com.library.catalog.InMemoryBookRepository;
+import com.library.catalog.InMemoryCatalogProperties;
+import com.library.repository.BookRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * In-memory catalog mode: every book is loaded into memory at startup and
+ * book queries never reach the database, which only receives the changes,
+ * written behind by a {@link CatalogJournal}. Activated by the
+ * {@code in-memory-catalog} profile.
+ */
+@Configuration
+@EnableConfigurationProperties(InMemoryCatalogProperties.class)
+@ConditionalOnProperty(name = "library.in-memory-catalog.enabled", havingValue = "true")
+public class InMemoryCatalogConfig {
+
+    /**
+     * Loads the catalog through the JPA repository's database, after its
+     * schema is in place.
+     */
+    @Bean(destroyMethod = "close")
+    public InMemoryBookRepository inMemoryBookRepository(@Qualifier("bookRepository") BookRepository bookRepository,
+                                                         DataSource dataSource,
+                                                         PlatformTransactionManager transactionManager,
+                                                         InMemoryCatalogProperties properties,
+                                                         Environment environment,
+                                                         MeterRegistry meterRegistry) {
+        if (environment.getProperty("library.sharding.enabled", Boolean.class, false)) {
+            throw new IllegalArgumentException("library.in-memory-catalog.enabled cannot be combined with "
+                    + "library.sharding.enabled");
+        }
+        CatalogJournal journal = new CatalogJournal(bookRepository, dataSource,
+                new TransactionTemplate(transactionManager), properties.getJournalCapacity());
+        meterRegistry.gauge("library.catalog.journal.pending", journal, CatalogJournal::pending);
+        FunctionCounter.builder("library.catalog.journal.failures", journal, CatalogJournal::failures)
+                .register(meterRegistry);
+        return InMemoryBookRepository.load(new JdbcTemplate(dataSource), journal);
+    }
+
+    @Bean
+    @Primary
+    public BookRepository inMemoryBookRepositoryView(InMemoryBookRepository inMemoryBookRepository) {
+        return inMemoryBookRepository.asRepository();
+    }
+}
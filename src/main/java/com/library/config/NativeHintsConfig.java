@@ -0,0 +1,73 @@
+package com.library.config;
+
+import com.library.dto.BatchLookupResponse;
+import com.library.dto.BookCopyDTO;
+import com.library.dto.BookDTO;
+import com.library.dto.CirculationRequest;
+import com.library.dto.HoldDTO;
+import com.library.dto.LoanDTO;
+import com.library.dto.SuggestionDTO;
+import com.library.dto.TrendingBookDTO;
+import com.library.exception.GlobalExceptionHandler;
+import com.library.model.Book;
+import com.library.model.BookCopy;
+import com.library.model.BookDescription;
+import com.library.model.BookPopularity;
+import com.library.model.Hold;
+import com.library.model.Loan;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.info.Contact;
+import io.swagger.v3.oas.models.info.Info;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reachability metadata for the GraalVM native image ({@code mvn -Pnative package}).
+ * Spring AOT covers the bean graph and the GraalVM metadata repository covers
+ * H2 and Hibernate internals; this registers the application types that are
+ * only reached reflectively through Jackson, Hibernate and SpringDoc.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.BookLibraryRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class BookLibraryRuntimeHints implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Lombok-generated accessors and constructors used by Jackson
+            bindingRegistrar.registerReflectionHints(hints.reflection(),
+                    BookDTO.class,
+                    BatchLookupResponse.class,
+                    BookCopyDTO.class,
+                    LoanDTO.class,
+                    HoldDTO.class,
+                    CirculationRequest.class,
+                    SuggestionDTO.class,
+                    TrendingBookDTO.class,
+                    GlobalExceptionHandler.ErrorResponse.class,
+                    GlobalExceptionHandler.ValidationErrorResponse.class);
+
+            // Entity fields and constructors used by Hibernate
+            for (Class<?> entity : new Class<?>[]{Book.class, BookDescription.class, BookCopy.class, Loan.class, Hold.class, BookPopularity.class}) {
+                hints.reflection().registerType(entity,
+                        MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+
+            // SpringDoc serializes the OpenAPI model built in OpenApiConfig
+            bindingRegistrar.registerReflectionHints(hints.reflection(),
+                    OpenAPI.class,
+                    Info.class,
+                    Contact.class);
+            hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/**");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.library.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Logs the effective persistence settings once the application is ready and
+ * warns about development settings that are still active under the
+ * {@code prod} profile.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PersistenceSettingsReporter {
+
+    private final Environment environment;
+    private final DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportSettings() {
+        log.info("Persistence settings: {}", describeSettings());
+
+        List<String> warnings = checkSettings();
+        warnings.forEach(warning -> log.warn("Persistence self-check: {}", warning));
+    }
+
+    String describeSettings() {
+        StringBuilder settings = new StringBuilder();
+        settings.append("profiles=").append(Arrays.toString(environment.getActiveProfiles()));
+        settings.append(", url=").append(environment.getProperty("spring.datasource.url"));
+        for (HikariDataSource hikari : pools(dataSource)) {
+            settings.append(", pool=").append(hikari.getPoolName());
+            settings.append(", maxPoolSize=").append(hikari.getMaximumPoolSize());
+            settings.append(", minIdle=").append(hikari.getMinimumIdle());
+            settings.append(", connectionTimeoutMs=").append(hikari.getConnectionTimeout());
+            settings.append(", autoCommit=").append(hikari.isAutoCommit());
+        }
+        settings.append(", showSql=").append(environment.getProperty("spring.jpa.show-sql", "false"));
+        settings.append(", formatSql=").append(property("hibernate.format_sql"));
+        settings.append(", openInView=").append(environment.getProperty("spring.jpa.open-in-view", "true"));
+        settings.append(", jdbcBatchSize=").append(property("hibernate.jdbc.batch_size"));
+        settings.append(", jdbcFetchSize=").append(property("hibernate.jdbc.fetch_size"));
+        settings.append(", defaultBatchFetchSize=").append(property("hibernate.default_batch_fetch_size"));
+        return settings.toString();
+    }
+
+    /**
+     * The Hikari pools behind the datasource. Bulkheads and read replicas
+     * route between several pools, and each of them is reported.
+     */
+    static Collection<HikariDataSource> pools(DataSource dataSource) {
+        Set<HikariDataSource> pools = new LinkedHashSet<>();
+        if (dataSource instanceof AbstractRoutingDataSource routing) {
+            if (routing.getResolvedDefaultDataSource() != null) {
+                pools.addAll(pools(routing.getResolvedDefaultDataSource()));
+            }
+            routing.getResolvedDataSources().values().forEach(target -> pools.addAll(pools(target)));
+            return pools;
+        }
+        HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        if (hikari != null) {
+            pools.add(hikari);
+        }
+        return pools;
+    }
+
+    List<String> checkSettings() {
+        List<String> warnings = new ArrayList<>();
+        if (!environment.matchesProfiles("prod")) {
+            return warnings;
+        }
+        String url = environment.getProperty("spring.datasource.url", "");
+        if (url.startsWith("jdbc:h2:mem:")) {
+            warnings.add("in-memory database is configured, data will be lost on restart");
+        }
+        if (environment.getProperty("spring.jpa.show-sql", Boolean.class, false)) {
+            warnings.add("spring.jpa.show-sql is enabled, every statement is written to stdout");
+        }
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            warnings.add("spring.jpa.open-in-view is enabled, connections are held for the whole request");
+        }
+        if (environment.getProperty("spring.h2.console.enabled", Boolean.class, false)) {
+            warnings.add("H2 console is enabled");
+        }
+        return warnings;
+    }
+
+    private String property(String hibernateProperty) {
+        return environment.getProperty("spring.jpa.properties." + hibernateProperty, "default");
+    }
+}
@@ -0,0 +1,35 @@
+package com.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "library.popularity")
+public class PopularityProperties {
+
+    /**
+     * Counters per sketch row; must be a power of two. Estimates overcount by
+     * at most about 2.7 / width of all recent views.
+     */
+    private int sketchWidth = 16384;
+
+    private int sketchDepth = 4;
+
+    /**
+     * Number of most viewed books tracked for the trending list and for
+     * search ranking.
+     */
+    private int topK = 100;
+
+    /**
+     * How often all counters are halved; views older than a few intervals
+     * stop mattering.
+     */
+    private Duration decayInterval = Duration.ofHours(1);
+
+    private Duration rankInterval = Duration.ofSeconds(5);
+
+    private Duration checkpointInterval = Duration.ofMinutes(5);
+}
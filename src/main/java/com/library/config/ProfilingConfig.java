@@ -0,0 +1,17 @@
+package com.library.config;
+
+import com.library.profiling.ProfilingEndpoint;
+import com.library.service.ProfilingService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ProfilingProperties.class)
+public class ProfilingConfig {
+
+    @Bean
+    public ProfilingEndpoint profilingEndpoint(ProfilingService profilingService) {
+        return new ProfilingEndpoint(profilingService);
+    }
+}
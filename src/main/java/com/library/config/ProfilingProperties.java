@@ -0,0 +1,44 @@
+package com.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "library.profiling")
+public class ProfilingProperties {
+
+    /**
+     * Start the continuous recording when the application is ready.
+     */
+    private boolean startOnReady = false;
+
+    /**
+     * JFR settings the recording uses: "default" (about 1% overhead) or
+     * "profile" (more detail, about 2%), or the path of a .jfc file.
+     */
+    private String settings = "default";
+
+    /**
+     * How far back the rolling recording reaches.
+     */
+    private Duration maxAge = Duration.ofMinutes(30);
+
+    /**
+     * Disk space the rolling recording may use before dropping its oldest data.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(100);
+
+    /**
+     * Where dumps are written.
+     */
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "library-profiling");
+
+    /**
+     * Dumps kept in the directory; older ones are deleted.
+     */
+    private int retainedDumps = 5;
+}
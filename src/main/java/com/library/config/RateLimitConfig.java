@@ -0,0 +1,76 @@
+package com.library.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.ratelimit.AdaptiveConcurrencyLimiter;
+import com.library.ratelimit.ClientRateLimiter;
+import com.library.ratelimit.PoolWaitTrackerFactory;
+import com.library.ratelimit.RateLimitFilter;
+import com.library.ratelimit.RateLimitProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(name = "library.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public ClientRateLimiter clientRateLimiter(RateLimitProperties properties) {
+        return new ClientRateLimiter(properties.getTokensPerSecond(), properties.getBurstCapacity(),
+                properties.getMaxClients(), System::nanoTime);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(RateLimitProperties properties) {
+        RateLimitProperties.Concurrency concurrency = properties.getConcurrency();
+        return new AdaptiveConcurrencyLimiter(concurrency.getInitialLimit(), concurrency.getMinLimit(),
+                concurrency.getMaxLimit(), TimeUnit.MILLISECONDS.toNanos(concurrency.getTargetPoolWaitMillis()),
+                System::nanoTime);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties properties,
+                                                                   ClientRateLimiter clientRateLimiter,
+                                                                   AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                                                   ObjectMapper objectMapper,
+                                                                   MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+                new RateLimitFilter(properties, clientRateLimiter, concurrencyLimiter, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /**
+     * Installs the pool wait tracker before the pool starts. Hikari accepts a
+     * single tracker factory, so the Micrometer one is wrapped rather than replaced.
+     */
+    @Bean
+    public static BeanPostProcessor poolWaitTrackerPostProcessor(
+            ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiter,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari && hikari.getMetricsTrackerFactory() == null) {
+                    MeterRegistry registry = meterRegistry.getIfAvailable();
+                    hikari.setMetricsTrackerFactory(new PoolWaitTrackerFactory(
+                            registry != null ? new MicrometerMetricsTrackerFactory(registry) : null,
+                            concurrencyLimiter.getObject()));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package com.library.config;
+
+import com.library.ratelimit.ClientIdentity;
+import com.library.ratelimit.RateLimitProperties;
+import com.library.replica.H2ReplicationStub;
+import com.library.replica.ReadYourWrites;
+import com.library.replica.ReadYourWritesFilter;
+import com.library.replica.Replica;
+import com.library.replica.ReplicaLagMonitor;
+import com.library.replica.ReplicaProperties;
+import com.library.replica.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Read replica mode: read-only transactions are routed to the
+ * {@code library.replicas.replicas} databases, everything else to the primary
+ * {@code spring.datasource}. The primary pool is declared here because the
+ * application's {@link DataSource} becomes the routing proxy in front of it.
+ */
+@Configuration
+@EnableConfigurationProperties({ReplicaProperties.class, RateLimitProperties.class})
+@ConditionalOnProperty(name = "library.replicas.enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(ReplicaProperties properties) {
+        return new ReadYourWrites(properties.getMaxLag().toMillis(), System::currentTimeMillis);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReplicaProperties properties,
+                                                             ReadYourWrites readYourWrites,
+                                                             MeterRegistry meterRegistry) {
+        validate(properties.getReplicas());
+        List<Replica> replicas = new ArrayList<>();
+        for (ReplicaProperties.Replica config : properties.getReplicas()) {
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(config.getUrl())
+                    .username(config.getUsername())
+                    .password(config.getPassword())
+                    .build();
+            pool.setPoolName("replica-" + config.getName());
+            pool.setMaximumPoolSize(config.getMaximumPoolSize());
+            pool.setReadOnly(true);
+            replicas.add(new Replica(config.getName(), pool, () -> busyConnections(pool)));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.getSelection(),
+                properties.getMaxLag().toMillis(), readYourWrites, System::currentTimeMillis, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * Hibernate otherwise holds a connection for the whole session, which
+     * with open-in-view is the whole request, so a replica connection taken
+     * for a read could be reused by a later write.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource,
+                                               ReplicaRoutingDataSource replicaRoutingDataSource,
+                                               ReplicaProperties properties, MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaRoutingDataSource.replicas(),
+                properties.getHeartbeatInterval().toMillis(), System::currentTimeMillis, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "library.replicas.replication-stub.enabled", havingValue = "true")
+    public H2ReplicationStub h2ReplicationStub(HikariDataSource primaryDataSource, ReplicaProperties properties) {
+        List<DataSource> targets = properties.getReplicas().stream()
+                .map(config -> (DataSource) DataSourceBuilder.create()
+                        .type(SimpleDriverDataSource.class)
+                        .url(config.getUrl())
+                        .username(config.getUsername())
+                        .password(config.getPassword())
+                        .build())
+                .toList();
+        return new H2ReplicationStub(primaryDataSource, targets,
+                properties.getReplicationStub().getInterval().toMillis());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWrites readYourWrites,
+                                                                             RateLimitProperties rateLimitProperties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(
+                new ReadYourWritesFilter(readYourWrites, ClientIdentity.of(rateLimitProperties)));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    private static int busyConnections(HikariDataSource pool) {
+        HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+        return mxBean != null ? mxBean.getActiveConnections() + mxBean.getThreadsAwaitingConnection() : 0;
+    }
+
+    private static void validate(List<ReplicaProperties.Replica> replicas) {
+        HashSet<String> names = new HashSet<>();
+        for (ReplicaProperties.Replica replica : replicas) {
+            if (replica.getName() == null || replica.getName().isBlank() || !names.add(replica.getName())) {
+                throw new IllegalArgumentException("Every replica needs a unique name, got " + replica.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.library.config;
+
+import com.library.repository.DescriptionColumnMigration;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class SchemaMigrationConfig {
+
+    /**
+     * Migrates the schema right after Hibernate has updated it, before any
+     * repository can read from it.
+     */
+    @Bean
+    public static BeanPostProcessor descriptionColumnMigrationPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean factory && factory.getDataSource() != null) {
+                    DataSource dataSource = factory.getDataSource();
+                    new DescriptionColumnMigration(dataSource,
+                            new TransactionTemplate(new DataSourceTransactionManager(dataSource))).run();
+                }
+                return bean;
+            }
+        };
+    }
+}
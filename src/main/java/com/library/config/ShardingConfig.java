@@ -0,0 +1,91 @@
+package com.library.config;
+
+import com.library.repository.BookRepository;
+import com.library.sharding.BookShard;
+import com.library.sharding.ShardedBookRepository;
+import com.library.sharding.ShardingProperties;
+import com.library.util.ConsistentHashRing;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sharded catalog mode: books live in the {@code library.sharding.shards}
+ * databases instead of the primary datasource, which keeps every other table.
+ * The shards are opened here rather than declared as beans so that the
+ * primary datasource and persistence unit are still auto-configured. Their
+ * pools take {@code spring.datasource.hikari} like the primary's, because the
+ * JPA settings they share assume it (for example, auto-commit being off).
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(name = "library.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ShardedBookRepository shardedBookRepository(ShardingProperties properties,
+                                                       EntityManagerFactoryBuilder entityManagerFactoryBuilder,
+                                                       JpaProperties jpaProperties,
+                                                       HibernateProperties hibernateProperties,
+                                                       Environment environment) {
+        List<ShardingProperties.Shard> configured = properties.getShards();
+        validate(configured);
+        Map<String, Object> hibernateSettings = hibernateProperties.determineHibernateProperties(
+                jpaProperties.getProperties(), new HibernateSettings());
+
+        List<BookShard> shards = new ArrayList<>();
+        try {
+            for (int i = 0; i < configured.size(); i++) {
+                shards.add(BookShard.open(i, configured.get(i), entityManagerFactoryBuilder, hibernateSettings,
+                        pool -> Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool))));
+            }
+        } catch (RuntimeException e) {
+            shards.forEach(BookShard::close);
+            throw e;
+        }
+        ConsistentHashRing ring = new ConsistentHashRing(
+                configured.stream().map(ShardingProperties.Shard::getName).toList(), properties.getVirtualNodes());
+        ShardedBookRepository repository = new ShardedBookRepository(shards, ring);
+        try {
+            repository.rebalance(properties.getVirtualNodes());
+        } catch (RuntimeException e) {
+            repository.close();
+            throw e;
+        }
+        return repository;
+    }
+
+    @Bean
+    @Primary
+    public BookRepository shardedBookRepositoryView(ShardedBookRepository shardedBookRepository) {
+        return shardedBookRepository.asRepository();
+    }
+
+    private static void validate(List<ShardingProperties.Shard> shards) {
+        if (shards.isEmpty() || shards.size() > BookShard.MAX_SHARDS) {
+            throw new IllegalArgumentException("library.sharding.shards must list between 1 and "
+                    + BookShard.MAX_SHARDS + " shards");
+        }
+        HashSet<String> names = new HashSet<>();
+        for (ShardingProperties.Shard shard : shards) {
+            if (shard.getName() == null || shard.getName().isBlank() || shard.getName().contains(",")
+                    || !names.add(shard.getName())) {
+                throw new IllegalArgumentException("Every shard needs a unique name without commas, got " + shard.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "library.statistics")
+public class StatisticsProperties {
+
+    /**
+     * How often the published statistics are rebuilt from the live counts
+     * when something changed.
+     */
+    private Duration refreshInterval = Duration.ofSeconds(1);
+
+    /**
+     * How often the counts are recomputed with GROUP BY queries, which also
+     * picks up changes made by other instances.
+     */
+    private Duration reconcileInterval = Duration.ofMinutes(10);
+
+    /**
+     * Most authors a statistics request can ask for.
+     */
+    private int topAuthors = 100;
+}
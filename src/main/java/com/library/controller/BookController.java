@@ -1,10 +1,16 @@
 package com.library.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.library.dto.BatchLookupResponse;
 import com.library.dto.BookDTO;
+import com.library.exception.BadRequestException;
+import com.library.model.BookField;
 import com.library.service.BookService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,18 +22,21 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class BookController {
 
+    static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
     private final BookService bookService;
 
     @GetMapping
-    public ResponseEntity<List<BookDTO>> getAllBooks() {
-        List<BookDTO> books = bookService.getAllBooks();
+    public ResponseEntity<List<BookDTO>> getAllBooks(@RequestParam(required = false) String fields) {
+        List<BookDTO> books = fields == null ? bookService.getAllBooks()
+                : bookService.getAllBooks(BookField.parse(fields));
         return ResponseEntity.ok(books);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<BookDTO> getBookById(@PathVariable Long id) {
         BookDTO book = bookService.getBookById(id);
-        return ResponseEntity.ok(book);
+        return withETag(ResponseEntity.ok(), book);
     }
 
     @GetMapping("/isbn/{isbn}")
@@ -36,27 +45,46 @@ public class BookController {
         return ResponseEntity.ok(book);
     }
 
+    @PostMapping("/batch/ids")
+    public ResponseEntity<BatchLookupResponse<Long>> getBooksByIds(@RequestBody List<Long> ids) {
+        BatchLookupResponse<Long> result = bookService.getBooksByIds(ids);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/batch/isbns")
+    public ResponseEntity<BatchLookupResponse<String>> getBooksByIsbns(@RequestBody List<String> isbns) {
+        BatchLookupResponse<String> result = bookService.getBooksByIsbns(isbns);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/search/author")
-    public ResponseEntity<List<BookDTO>> getBooksByAuthor(@RequestParam String author) {
-        List<BookDTO> books = bookService.getBooksByAuthor(author);
+    public ResponseEntity<List<BookDTO>> getBooksByAuthor(@RequestParam String author,
+                                                          @RequestParam(required = false) String fields) {
+        List<BookDTO> books = fields == null ? bookService.getBooksByAuthor(author)
+                : bookService.getBooksByAuthor(author, BookField.parse(fields));
         return ResponseEntity.ok(books);
     }
 
     @GetMapping("/search/title")
-    public ResponseEntity<List<BookDTO>> getBooksByTitle(@RequestParam String title) {
-        List<BookDTO> books = bookService.getBooksByTitle(title);
+    public ResponseEntity<List<BookDTO>> getBooksByTitle(@RequestParam String title,
+                                                         @RequestParam(required = false) String fields) {
+        List<BookDTO> books = fields == null ? bookService.getBooksByTitle(title)
+                : bookService.getBooksByTitle(title, BookField.parse(fields));
         return ResponseEntity.ok(books);
     }
 
     @GetMapping("/search/genre")
-    public ResponseEntity<List<BookDTO>> getBooksByGenre(@RequestParam String genre) {
-        List<BookDTO> books = bookService.getBooksByGenre(genre);
+    public ResponseEntity<List<BookDTO>> getBooksByGenre(@RequestParam String genre,
+                                                         @RequestParam(required = false) String fields) {
+        List<BookDTO> books = fields == null ? bookService.getBooksByGenre(genre)
+                : bookService.getBooksByGenre(genre, BookField.parse(fields));
         return ResponseEntity.ok(books);
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<BookDTO>> getAvailableBooks() {
-        List<BookDTO> books = bookService.getAvailableBooks();
+    public ResponseEntity<List<BookDTO>> getAvailableBooks(@RequestParam(required = false) String fields) {
+        List<BookDTO> books = fields == null ? bookService.getAvailableBooks()
+                : bookService.getAvailableBooks(BookField.parse(fields));
         return ResponseEntity.ok(books);
     }
 
@@ -69,9 +97,22 @@ public class BookController {
     @PutMapping("/{id}")
     public ResponseEntity<BookDTO> updateBook(
             @PathVariable Long id,
-            @Valid @RequestBody BookDTO bookDTO) {
+            @Valid @RequestBody BookDTO bookDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            bookDTO.setVersion(expectedVersion(ifMatch));
+        }
         BookDTO updatedBook = bookService.updateBook(id, bookDTO);
-        return ResponseEntity.ok(updatedBook);
+        return withETag(ResponseEntity.ok(), updatedBook);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<BookDTO> patchBook(
+            @PathVariable Long id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        BookDTO patchedBook = bookService.patchBook(id, patch, ifMatch == null ? null : expectedVersion(ifMatch));
+        return withETag(ResponseEntity.ok(), patchedBook);
     }
 
     @PatchMapping("/{id}/availability")
@@ -91,4 +132,30 @@ public class BookController {
         bookService.deleteBook(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseEntity<BookDTO> withETag(ResponseEntity.BodyBuilder response, BookDTO book) {
+        if (book.getVersion() != null) {
+            response.eTag("\"" + book.getVersion() + "\"");
+        }
+        return response.body(book);
+    }
+
+    /**
+     * Reads the version from an {@code If-Match} ETag; {@code *} matches any.
+     * Weak ETags never match, as If-Match compares strongly.
+     */
+    static Long expectedVersion(String ifMatch) {
+        String tag = ifMatch.strip();
+        if (tag.equals("*")) {
+            return null;
+        }
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Fall through to the error below
+            }
+        }
+        throw new BadRequestException("If-Match must be a single book ETag, such as \"3\"");
+    }
 }
@@ -0,0 +1,32 @@
+package com.library.controller;
+
+import com.library.dto.BookCopyDTO;
+import com.library.service.CirculationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/books/{bookId}/copies")
+@RequiredArgsConstructor
+public class BookCopyController {
+
+    private final CirculationService circulationService;
+
+    @PostMapping
+    public ResponseEntity<List<BookCopyDTO>> addCopies(
+            @PathVariable Long bookId,
+            @RequestParam(defaultValue = "1") int count) {
+        List<BookCopyDTO> copies = circulationService.addCopies(bookId, count);
+        return ResponseEntity.status(HttpStatus.CREATED).body(copies);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<BookCopyDTO>> getCopies(@PathVariable Long bookId) {
+        List<BookCopyDTO> copies = circulationService.getCopies(bookId);
+        return ResponseEntity.ok(copies);
+    }
+}
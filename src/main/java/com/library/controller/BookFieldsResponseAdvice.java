@@ -0,0 +1,65 @@
+package com.library.controller;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.library.config.BookFieldsJacksonModule;
+import com.library.model.BookField;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Writes only the properties named in the {@code fields} request parameter
+ * of the books in a {@link BookController} listing. Without it, listings are
+ * written without {@code description}, which they do not read.
+ * <p>
+ * Only the {@code GET} handlers that take {@code fields} themselves are
+ * advised: they reject unknown fields before reading anything, whereas a
+ * write would already have been committed by the time its response is
+ * written.
+ */
+@RestControllerAdvice(assignableTypes = BookController.class)
+public class BookFieldsResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    private static final String FIELDS = "fields";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        Method method = returnType.getMethod();
+        return super.supports(returnType, converterType) && method != null
+                && method.isAnnotationPresent(GetMapping.class)
+                && Arrays.stream(method.getParameters()).anyMatch(parameter -> FIELDS.equals(parameter.getName()));
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        String fields = servletRequest.getServletRequest().getParameter(FIELDS);
+        if (fields == null) {
+            bodyContainer.setFilters(new SimpleFilterProvider().addFilter(BookFieldsJacksonModule.FILTER,
+                    SimpleBeanPropertyFilter.serializeAllExcept(BookField.DESCRIPTION.property())));
+            return;
+        }
+        Set<String> properties = BookField.parse(fields).stream()
+                .map(BookField::property)
+                .collect(Collectors.toSet());
+        bodyContainer.setFilters(new SimpleFilterProvider().addFilter(BookFieldsJacksonModule.FILTER,
+                SimpleBeanPropertyFilter.filterOutAllExcept(properties)));
+    }
+}
@@ -0,0 +1,38 @@
+package com.library.controller;
+
+import com.library.dto.CirculationRequest;
+import com.library.dto.HoldDTO;
+import com.library.service.CirculationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/holds")
+@RequiredArgsConstructor
+public class HoldController {
+
+    private final CirculationService circulationService;
+
+    @PostMapping
+    public ResponseEntity<HoldDTO> placeHold(@Valid @RequestBody CirculationRequest request) {
+        HoldDTO hold = circulationService.placeHold(request.getBookId(), request.getPatronId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<HoldDTO>> getWaitingHolds(@RequestParam Long bookId) {
+        List<HoldDTO> holds = circulationService.getWaitingHolds(bookId);
+        return ResponseEntity.ok(holds);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelHold(@PathVariable Long id) {
+        circulationService.cancelHold(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.library.controller;
+
+import com.library.dto.ImportErrorDTO;
+import com.library.dto.ImportJobDTO;
+import com.library.model.ImportFormat;
+import com.library.service.BookImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/imports")
+@RequiredArgsConstructor
+public class ImportController {
+
+    private final BookImportService bookImportService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDTO> submit(@RequestParam("file") MultipartFile file,
+                                               @RequestParam(required = false) ImportFormat format) throws IOException {
+        try (InputStream content = file.getInputStream()) {
+            ImportJobDTO job = bookImportService.submit(file.getOriginalFilename(), content, format);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ImportJobDTO>> getRecentJobs() {
+        List<ImportJobDTO> jobs = bookImportService.getRecentJobs();
+        return ResponseEntity.ok(jobs);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobDTO> getJob(@PathVariable Long id) {
+        ImportJobDTO job = bookImportService.getJob(id);
+        return ResponseEntity.ok(job);
+    }
+
+    @GetMapping("/{id}/errors")
+    public ResponseEntity<List<ImportErrorDTO>> getErrors(@PathVariable Long id,
+                                                          @RequestParam(defaultValue = "100") int limit) {
+        List<ImportErrorDTO> errors = bookImportService.getErrors(id, limit);
+        return ResponseEntity.ok(errors);
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<ImportJobDTO> resume(@PathVariable Long id) {
+        ImportJobDTO job = bookImportService.resume(id);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<ImportJobDTO> cancel(@PathVariable Long id) {
+        ImportJobDTO job = bookImportService.cancel(id);
+        return ResponseEntity.ok(job);
+    }
+}
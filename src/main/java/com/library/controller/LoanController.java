@@ -0,0 +1,44 @@
+package com.library.controller;
+
+import com.library.dto.CirculationRequest;
+import com.library.dto.LoanDTO;
+import com.library.service.CirculationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/loans")
+@RequiredArgsConstructor
+public class LoanController {
+
+    private final CirculationService circulationService;
+
+    @PostMapping
+    public ResponseEntity<LoanDTO> checkout(@Valid @RequestBody CirculationRequest request) {
+        LoanDTO loan = circulationService.checkout(request.getBookId(), request.getPatronId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(loan);
+    }
+
+    @PostMapping("/{id}/return")
+    public ResponseEntity<LoanDTO> returnLoan(@PathVariable Long id) {
+        LoanDTO loan = circulationService.returnLoan(id);
+        return ResponseEntity.ok(loan);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<LoanDTO> getLoan(@PathVariable Long id) {
+        LoanDTO loan = circulationService.getLoan(id);
+        return ResponseEntity.ok(loan);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<LoanDTO>> getActiveLoans(@RequestParam String patronId) {
+        List<LoanDTO> loans = circulationService.getActiveLoans(patronId);
+        return ResponseEntity.ok(loans);
+    }
+}
@@ -0,0 +1,24 @@
+package com.library.controller;
+
+import com.library.dto.CatalogStatisticsDTO;
+import com.library.service.CatalogStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/statistics")
+@RequiredArgsConstructor
+public class StatisticsController {
+
+    private final CatalogStatisticsService catalogStatisticsService;
+
+    @GetMapping
+    public ResponseEntity<CatalogStatisticsDTO> getStatistics(@RequestParam(defaultValue = "10") int authors) {
+        CatalogStatisticsDTO statistics = catalogStatisticsService.getStatistics(authors);
+        return ResponseEntity.ok(statistics);
+    }
+}
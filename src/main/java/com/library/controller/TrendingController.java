@@ -0,0 +1,26 @@
+package com.library.controller;
+
+import com.library.dto.TrendingBookDTO;
+import com.library.service.PopularityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/books/trending")
+@RequiredArgsConstructor
+public class TrendingController {
+
+    private final PopularityService popularityService;
+
+    @GetMapping
+    public ResponseEntity<List<TrendingBookDTO>> getTrending(@RequestParam(defaultValue = "10") int limit) {
+        List<TrendingBookDTO> trending = popularityService.getTrending(limit);
+        return ResponseEntity.ok(trending);
+    }
+}
@@ -0,0 +1,20 @@
+package com.library.dto;
+
+import com.library.model.CopyStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookCopyDTO {
+
+    private Long id;
+
+    private Long bookId;
+
+    private CopyStatus status;
+
+    private String heldForPatron;
+}
@@ -38,4 +38,9 @@ public class BookDTO {
 
     @Size(max = 1000, message = "Description must not exceed 1000 characters")
     private String description;
+
+    /**
+     * Incremented by every update; also sent as the {@code ETag}.
+     */
+    private Long version;
 }
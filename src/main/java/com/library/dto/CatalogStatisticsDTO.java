@@ -0,0 +1,41 @@
+package com.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogStatisticsDTO {
+
+    private long totalBooks;
+
+    private long availableBooks;
+
+    private long unavailableBooks;
+
+    private Map<String, Long> booksByGenre;
+
+    private long booksWithoutGenre;
+
+    private Map<Integer, Long> booksByPublicationYear;
+
+    private long authors;
+
+    /**
+     * Authors with the most books, most first.
+     */
+    private List<AuthorCountDTO> topAuthors;
+
+    private LocalDateTime asOf;
+
+    /**
+     * When the counts were last checked against the database.
+     */
+    private LocalDateTime reconciledAt;
+}
@@ -0,0 +1,21 @@
+package com.library.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CirculationRequest {
+
+    @NotNull(message = "Book id is required")
+    private Long bookId;
+
+    @NotBlank(message = "Patron id is required")
+    @Size(max = 64, message = "Patron id must not exceed 64 characters")
+    private String patronId;
+}
@@ -0,0 +1,28 @@
+package com.library.dto;
+
+import com.library.model.HoldStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldDTO {
+
+    private Long id;
+
+    private Long bookId;
+
+    private String patronId;
+
+    private HoldStatus status;
+
+    private Long copyId;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime expiresAt;
+}
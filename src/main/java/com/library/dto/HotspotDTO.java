@@ -0,0 +1,20 @@
+package com.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotspotDTO {
+
+    private String frame;
+
+    /**
+     * Samples for methods, sampled bytes for allocation sites.
+     */
+    private long weight;
+
+    private double percent;
+}
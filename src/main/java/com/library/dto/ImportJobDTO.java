@@ -0,0 +1,45 @@
+package com.library.dto;
+
+import com.library.model.ImportFormat;
+import com.library.model.ImportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDTO {
+
+    private Long id;
+
+    private String fileName;
+
+    private ImportFormat format;
+
+    private ImportJobStatus status;
+
+    private long fileSize;
+
+    private long bytesProcessed;
+
+    private double percentComplete;
+
+    private long recordsRead;
+
+    private long imported;
+
+    private long duplicates;
+
+    private long invalid;
+
+    private double recordsPerSecond;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime finishedAt;
+
+    private String failureMessage;
+}
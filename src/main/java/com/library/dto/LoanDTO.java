@@ -0,0 +1,27 @@
+package com.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanDTO {
+
+    private Long id;
+
+    private Long copyId;
+
+    private Long bookId;
+
+    private String patronId;
+
+    private LocalDateTime checkedOutAt;
+
+    private LocalDateTime dueAt;
+
+    private LocalDateTime returnedAt;
+}
@@ -0,0 +1,23 @@
+package com.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OperationProfileDTO {
+
+    private String operation;
+
+    private long calls;
+
+    private long failures;
+
+    private long rows;
+
+    private double meanMillis;
+
+    private double maxMillis;
+}
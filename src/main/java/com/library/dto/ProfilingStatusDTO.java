@@ -0,0 +1,24 @@
+package com.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProfilingStatusDTO {
+
+    private boolean running;
+
+    private String settings;
+
+    private LocalDateTime startedAt;
+
+    private Duration maxAge;
+
+    private long maxSizeBytes;
+}
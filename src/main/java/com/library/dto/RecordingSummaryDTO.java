@@ -0,0 +1,30 @@
+package com.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordingSummaryDTO {
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+
+    private long executionSamples;
+
+    private List<HotspotDTO> hotMethods;
+
+    private long sampledAllocationBytes;
+
+    private List<HotspotDTO> allocationSites;
+
+    private List<OperationProfileDTO> operations;
+
+    private List<LookupProfileDTO> lookups;
+}
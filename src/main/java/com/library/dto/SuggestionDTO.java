@@ -0,0 +1,24 @@
+package com.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDTO {
+
+    public enum Type {
+        TITLE,
+        AUTHOR
+    }
+
+    private String text;
+
+    private Type type;
+
+    private List<Long> bookIds;
+}
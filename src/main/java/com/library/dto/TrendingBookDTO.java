@@ -0,0 +1,22 @@
+package com.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingBookDTO {
+
+    private Long bookId;
+
+    private String title;
+
+    private String author;
+
+    /**
+     * Approximate recent views, halved every decay interval.
+     */
+    private long score;
+}
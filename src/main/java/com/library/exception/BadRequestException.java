@@ -0,0 +1,13 @@
+package com.library.exception;
+
+/**
+ * A request whose parameters or body fail validation in a service (400).
+ * Other exceptions, including {@link IllegalArgumentException} from library
+ * code, stay server errors.
+ */
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
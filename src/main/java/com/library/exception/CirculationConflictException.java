@@ -0,0 +1,12 @@
+package com.library.exception;
+
+/**
+ * A checkout, return or hold request that conflicts with the current state
+ * of a copy, loan or hold (409). Stackless: losing a race is routine.
+ */
+public class CirculationConflictException extends RuntimeException {
+
+    public CirculationConflictException(String message) {
+        super(message, null, false, false);
+    }
+}
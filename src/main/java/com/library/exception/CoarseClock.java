@@ -0,0 +1,33 @@
+package com.library.exception;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Millisecond-resolution clock for error timestamps. Errors arriving within
+ * the same millisecond share one {@link LocalDateTime} instance instead of
+ * each resolving the time zone and allocating a new one.
+ */
+public final class CoarseClock {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static volatile Tick current = new Tick(Long.MIN_VALUE, null);
+
+    private CoarseClock() {
+    }
+
+    public static LocalDateTime now() {
+        long millis = System.currentTimeMillis();
+        Tick tick = current;
+        if (tick.millis != millis) {
+            tick = new Tick(millis, LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZONE));
+            current = tick;
+        }
+        return tick.time;
+    }
+
+    private record Tick(long millis, LocalDateTime time) {
+    }
+}
@@ -1,12 +1,15 @@
 package com.library.exception;
 
+/**
+ * Signals a 409. Stackless, like {@link ResourceNotFoundException}.
+ */
 public class DuplicateResourceException extends RuntimeException {
 
     public DuplicateResourceException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public DuplicateResourceException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, false, false);
     }
 }
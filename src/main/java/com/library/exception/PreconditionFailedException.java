@@ -0,0 +1,12 @@
+package com.library.exception;
+
+/**
+ * A conditional update whose expected version no longer matches the stored
+ * one (412): the client has to re-read the resource before retrying.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -1,12 +1,17 @@
 package com.library.exception;
 
+/**
+ * Signals an expected 404. Created without a stack trace because only the
+ * message reaches the client and filling the trace dominates the cost of
+ * the error path.
+ */
 public class ResourceNotFoundException extends RuntimeException {
 
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public ResourceNotFoundException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, false, false);
     }
 }
@@ -0,0 +1,276 @@
+package com.library.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.exception.CoarseClock;
+import com.library.exception.GlobalExceptionHandler.ErrorResponse;
+import com.library.ratelimit.ClientIdentity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Deduplicates retried writes that carry an {@code Idempotency-Key} header.
+ * <p>
+ * A key is scoped to the client ({@link ClientIdentity}), method and
+ * path, and bound to a SHA-256 fingerprint of the request body. The first
+ * request with a key runs; concurrent and later requests with the same key
+ * wait for it and get its response replayed, marked with
+ * {@code Idempotent-Replayed: true}, without reaching the controllers.
+ * Reusing a key for a different body is answered 422, a retry that gives
+ * up waiting 409, and a new key while every stored key is still executing
+ * 503.
+ * <p>
+ * Server errors, exceptions and oversized responses are not stored, so
+ * their retries run again. Multipart and form requests, whose bodies the
+ * container parses itself, pass through without deduplication.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final Set<String> METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final List<String> REPLAYED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.LOCATION,
+            HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED);
+
+    private final IdempotencyProperties properties;
+    private final IdempotencyStore store;
+    private final ClientIdentity clientIdentity;
+    private final ObjectMapper objectMapper;
+
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter mismatched;
+    private final Counter inProgress;
+    private final Counter full;
+
+    public IdempotencyFilter(IdempotencyProperties properties,
+                             IdempotencyStore store,
+                             ClientIdentity clientIdentity,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.store = store;
+        this.clientIdentity = clientIdentity;
+        this.objectMapper = objectMapper;
+
+        this.executed = requestCounter(meterRegistry, "executed");
+        this.replayed = requestCounter(meterRegistry, "replayed");
+        this.mismatched = requestCounter(meterRegistry, "mismatched");
+        this.inProgress = requestCounter(meterRegistry, "in_progress");
+        this.full = requestCounter(meterRegistry, "full");
+        meterRegistry.gauge("library.idempotency.keys", store, IdempotencyStore::size);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return request.getHeader(properties.getHeader()) == null
+                || !METHODS.contains(request.getMethod())
+                || contentType != null && (contentType.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)
+                || contentType.startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(properties.getHeader());
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > properties.getMaxKeyLength()) {
+            reject(response, HttpStatus.BAD_REQUEST, properties.getHeader() + " must be 1 to "
+                    + properties.getMaxKeyLength() + " characters");
+            return;
+        }
+        int maxRequestBytes = (int) properties.getMaxRequestSize().toBytes();
+        byte[] body = request.getInputStream().readNBytes(maxRequestBytes + 1);
+        if (body.length > maxRequestBytes) {
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "Requests with an " + properties.getHeader()
+                    + " may have at most " + maxRequestBytes + " bytes");
+            return;
+        }
+
+        IdempotencyStore.Claim claim;
+        try {
+            claim = store.claim(scope(request, idempotencyKey), fingerprint(body), properties.getWaitTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException(e);
+        }
+        switch (claim.outcome()) {
+            case REPLAY -> {
+                replayed.increment();
+                replay(claim.response(), response);
+            }
+            case MISMATCH -> {
+                mismatched.increment();
+                reject(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        properties.getHeader() + " was already used for a different request");
+            }
+            case IN_PROGRESS -> {
+                inProgress.increment();
+                reject(response, HttpStatus.CONFLICT,
+                        "A request with this " + properties.getHeader() + " is still being processed");
+            }
+            case FULL -> {
+                full.increment();
+                response.setHeader(HttpHeaders.RETRY_AFTER,
+                        Long.toString(Math.max(1, properties.getWaitTimeout().toSeconds())));
+                reject(response, HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many requests with an " + properties.getHeader() + " are being processed");
+            }
+            case EXECUTE -> {
+                executed.increment();
+                execute(claim, new BufferedBodyRequest(request, body), response, filterChain);
+            }
+        }
+    }
+
+    private void execute(IdempotencyStore.Claim claim, HttpServletRequest request, HttpServletResponse response,
+                         FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        StoredResponse stored = null;
+        try {
+            filterChain.doFilter(request, captured);
+            if (captured.getStatus() < 500 && captured.getContentSize() <= properties.getMaxResponseSize().toBytes()) {
+                Map<String, List<String>> headers = new LinkedHashMap<>();
+                for (String name : REPLAYED_HEADERS) {
+                    String value = name.equals(HttpHeaders.CONTENT_TYPE) ? captured.getContentType()
+                            : captured.getHeader(name);
+                    if (value != null) {
+                        headers.put(name, List.of(value));
+                    }
+                }
+                stored = new StoredResponse(captured.getStatus(), headers, captured.getContentAsByteArray());
+            }
+        } finally {
+            if (stored != null) {
+                store.complete(claim, stored);
+            } else {
+                store.release(claim);
+            }
+        }
+        captured.copyBodyToResponse();
+    }
+
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        stored.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private String scope(HttpServletRequest request, String idempotencyKey) {
+        return clientIdentity.keyOf(request) + " " + request.getMethod() + " " + request.getRequestURI()
+                + " " + idempotencyKey;
+    }
+
+    private static String fingerprint(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(status.value(), message, CoarseClock.now()));
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("library.idempotency.requests")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Serves the body that was read for the fingerprint.
+     */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * The whole body is already here, so the listener is told
+                 * so at once.
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
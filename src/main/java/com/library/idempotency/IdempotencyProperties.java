@@ -0,0 +1,44 @@
+package com.library.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "library.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = true;
+
+    private String header = "Idempotency-Key";
+
+    /**
+     * How long a completed response is replayed for its key.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Keys remembered at once; the oldest is forgotten first.
+     */
+    private int maxEntries = 10_000;
+
+    /**
+     * How long a retry waits for the first request with its key to finish
+     * before it is answered 409 Conflict.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Largest body a request with a key may have; larger ones get 413.
+     */
+    private DataSize maxRequestSize = DataSize.ofKilobytes(64);
+
+    /**
+     * Larger responses are sent but not stored, so retries run again.
+     */
+    private DataSize maxResponseSize = DataSize.ofKilobytes(256);
+
+    private int maxKeyLength = 255;
+}
@@ -0,0 +1,173 @@
+package com.library.idempotency;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, expiring map from idempotency keys to the request that claimed
+ * them and, once it finishes, its response.
+ * <p>
+ * The first request with a key executes; later ones with the same key and
+ * fingerprint wait for it and replay its response, without executing again.
+ * A request that fails without a storable response releases its key, and the
+ * next waiter executes instead. Keys expire {@code ttl} after they were
+ * claimed, and beyond {@code maxEntries} the oldest completed key is
+ * forgotten. Keys whose request is still executing are never forgotten, so
+ * while all {@code maxEntries} are, new keys are turned away.
+ */
+public class IdempotencyStore {
+
+    public enum Outcome {
+        /** The caller holds the key and must complete or release the claim. */
+        EXECUTE,
+        /** The key completed; replay {@link Claim#response()}. */
+        REPLAY,
+        /** The key was used for a request with another fingerprint. */
+        MISMATCH,
+        /** The request holding the key did not finish within the wait timeout. */
+        IN_PROGRESS,
+        /** Every key held is still executing, so there is no room for another. */
+        FULL
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clockMillis;
+    private final Object lock = new Object();
+
+    // Guarded by lock; in claim order, which is also expiry order
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    public IdempotencyStore(int maxEntries, Duration ttl, LongSupplier clockMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.clockMillis = clockMillis;
+    }
+
+    /**
+     * Claims {@code key} for execution, or waits up to {@code timeout} for the
+     * request holding it.
+     */
+    public Claim claim(String key, String fingerprint, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            Entry entry;
+            synchronized (lock) {
+                long now = clockMillis.getAsLong();
+                expire(now);
+                entry = entries.get(key);
+                if (entry == null) {
+                    if (entries.size() >= maxEntries && !evictOldestCompleted()) {
+                        return new Claim(Outcome.FULL, null, null);
+                    }
+                    Entry claimed = new Entry(key, fingerprint, now + ttlMillis);
+                    entries.put(key, claimed);
+                    return new Claim(Outcome.EXECUTE, claimed, null);
+                }
+            }
+            if (!entry.fingerprint.equals(fingerprint)) {
+                return new Claim(Outcome.MISMATCH, null, null);
+            }
+            StoredResponse response;
+            try {
+                response = entry.result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                return new Claim(Outcome.IN_PROGRESS, null, null);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+            if (response != null) {
+                return new Claim(Outcome.REPLAY, null, response);
+            }
+            // Released: claim it again
+        }
+    }
+
+    /**
+     * Stores the response of an {@link Outcome#EXECUTE} claim and wakes the
+     * requests waiting for it.
+     */
+    public void complete(Claim claim, StoredResponse response) {
+        claim.entry.result.complete(response);
+    }
+
+    /**
+     * Forgets an {@link Outcome#EXECUTE} claim, so that a retry executes again.
+     */
+    public void release(Claim claim) {
+        synchronized (lock) {
+            entries.remove(claim.entry.key, claim.entry);
+        }
+        claim.entry.result.complete(null);
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    private boolean evictOldestCompleted() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().result.isDone()) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void expire(long now) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && iterator.next().getValue().expiresAtMillis <= now) {
+            iterator.remove();
+        }
+    }
+
+    /**
+     * The result of {@link #claim}; {@link #response()} is set for
+     * {@link Outcome#REPLAY}.
+     */
+    public static final class Claim {
+
+        private final Outcome outcome;
+        private final Entry entry;
+        private final StoredResponse response;
+
+        private Claim(Outcome outcome, Entry entry, StoredResponse response) {
+            this.outcome = outcome;
+            this.entry = entry;
+            this.response = response;
+        }
+
+        public Outcome outcome() {
+            return outcome;
+        }
+
+        public StoredResponse response() {
+            return response;
+        }
+    }
+
+    private static final class Entry {
+
+        private final String key;
+        private final String fingerprint;
+        private final long expiresAtMillis;
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+
+        Entry(String key, String fingerprint, long expiresAtMillis) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.library.idempotency;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A response kept for replay: its status, the headers worth repeating and
+ * its body.
+ */
+public record StoredResponse(int status, Map<String, List<String>> headers, byte[] body) {
+}
@@ -0,0 +1,40 @@
+package com.library.importing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Splits a catalog export into independently parseable slices and turns a
+ * slice into book records.
+ * <p>
+ * Slices always end on a record boundary, so they can be parsed in parallel
+ * and in any order. Finding a boundary is a plain byte scan, much cheaper
+ * than parsing, and is done sequentially.
+ */
+public interface BookFileFormat {
+
+    /**
+     * Offset of the first record, after any header.
+     */
+    long firstRecordOffset();
+
+    /**
+     * Lines before {@link #firstRecordOffset()}, counted like
+     * {@link ParsedRecord#line()}.
+     */
+    long headerLines();
+
+    /**
+     * End of the first record ending at least {@code targetBytes} after
+     * {@code from}, or the end of the file.
+     */
+    long nextBoundary(FileChannel channel, long from, long targetBytes) throws IOException;
+
+    /**
+     * Parses the records in {@code slice}, which starts at file offset
+     * {@code sliceOffset} on a record boundary. Line numbers in the result
+     * are relative to the slice. Records are converted but not validated.
+     */
+    ParsedChunk parse(ByteBuffer slice, long sliceOffset);
+}
@@ -0,0 +1,106 @@
+package com.library.importing;
+
+import com.library.dto.BookDTO;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import jakarta.validation.metadata.ConstraintDescriptor;
+import jakarta.validation.metadata.PropertyDescriptor;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Checks {@link BookDTO}s against the Bean Validation constraints declared on
+ * it, compiled once into plain getter-and-predicate checks so that validating
+ * a record does no reflection or message interpolation.
+ * <p>
+ * {@code @NotNull}, {@code @NotBlank} and {@code @Size} with literal messages
+ * are compiled; any other constraint is checked through the {@link Validator}
+ * for that property only, so new constraints on {@code BookDTO} still apply.
+ */
+public class CompiledBookValidator {
+
+    private static final Map<String, Function<BookDTO, Object>> GETTERS = Map.of(
+            "title", BookDTO::getTitle,
+            "author", BookDTO::getAuthor,
+            "isbn", BookDTO::getIsbn,
+            "publicationDate", BookDTO::getPublicationDate,
+            "genre", BookDTO::getGenre,
+            "available", BookDTO::getAvailable,
+            "description", BookDTO::getDescription);
+
+    private final Validator validator;
+    private final List<Check> checks = new ArrayList<>();
+    private final List<String> delegatedProperties = new ArrayList<>();
+
+    public CompiledBookValidator(Validator validator) {
+        this.validator = validator;
+        for (PropertyDescriptor property : validator.getConstraintsForClass(BookDTO.class).getConstrainedProperties()) {
+            Function<BookDTO, Object> getter = GETTERS.get(property.getPropertyName());
+            boolean delegated = false;
+            for (ConstraintDescriptor<?> constraint : property.getConstraintDescriptors()) {
+                Predicate<Object> test = getter != null
+                        ? compile(constraint.getAnnotation(), property.getElementClass()) : null;
+                String message = (String) constraint.getAttributes().get("message");
+                if (test == null || message.startsWith("{")) {
+                    delegated = true;
+                } else {
+                    checks.add(new Check(getter, test, message));
+                }
+            }
+            if (delegated) {
+                delegatedProperties.add(property.getPropertyName());
+            }
+        }
+    }
+
+    /**
+     * @return the violated constraints' messages joined with "; ", or
+     * {@code null} if the book is valid
+     */
+    public String validate(BookDTO book) {
+        StringBuilder errors = null;
+        for (Check check : checks) {
+            if (!check.test().test(check.getter().apply(book))) {
+                errors = append(errors, check.message());
+            }
+        }
+        for (String property : delegatedProperties) {
+            for (var violation : validator.validateProperty(book, property)) {
+                errors = append(errors, violation.getMessage());
+            }
+        }
+        return errors != null ? errors.toString() : null;
+    }
+
+    private static Predicate<Object> compile(Annotation annotation, Class<?> type) {
+        if (annotation instanceof NotNull) {
+            return value -> value != null;
+        }
+        if (annotation instanceof NotBlank) {
+            return value -> value != null && !value.toString().isBlank();
+        }
+        if (annotation instanceof Size size && type == String.class) {
+            int min = size.min();
+            int max = size.max();
+            return value -> value == null || ((String) value).length() >= min && ((String) value).length() <= max;
+        }
+        return null;
+    }
+
+    private static StringBuilder append(StringBuilder errors, String message) {
+        if (errors == null) {
+            return new StringBuilder(message);
+        }
+        return errors.append("; ").append(message);
+    }
+
+    private record Check(Function<BookDTO, Object> getter, Predicate<Object> test, String message) {
+    }
+}
@@ -0,0 +1,306 @@
+package com.library.importing;
+
+import com.library.dto.BookDTO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * UTF-8 CSV with a header row (RFC 4180 quoting, so quoted fields may contain
+ * commas, doubled quotes and line breaks). Columns are matched by name,
+ * ignoring case, spaces, dashes and underscores; unknown columns are skipped.
+ * <p>
+ * ISBNs may contain dashes and spaces. Publication dates are ISO dates or a
+ * bare year, which is read as 1 January.
+ */
+public final class CsvBookFormat implements BookFileFormat {
+
+    private static final int HEADER_LIMIT = 64 * 1024;
+    private static final int SCAN_BUFFER = 64 * 1024;
+    private static final Set<Column> REQUIRED = EnumSet.of(Column.TITLE, Column.AUTHOR, Column.ISBN,
+            Column.PUBLICATION_DATE);
+
+    private enum Column {
+        TITLE, AUTHOR, ISBN, PUBLICATION_DATE, GENRE, AVAILABLE, DESCRIPTION
+    }
+
+    private final Column[] columns;
+    private final long firstRecordOffset;
+
+    private CsvBookFormat(Column[] columns, long firstRecordOffset) {
+        this.columns = columns;
+        this.firstRecordOffset = firstRecordOffset;
+    }
+
+    /**
+     * Reads the header row.
+     *
+     * @throws IllegalArgumentException if the header is missing a required column
+     */
+    public static CsvBookFormat open(FileChannel channel) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate((int) Math.min(HEADER_LIMIT, channel.size()));
+        channel.read(head, 0);
+        head.flip();
+        int start = hasByteOrderMark(head) ? 3 : 0;
+        Tokenizer tokenizer = new Tokenizer(head, start);
+        List<String> names = new ArrayList<>();
+        if (!tokenizer.next(names) || tokenizer.position() == head.limit() && head.limit() == HEADER_LIMIT) {
+            throw new IllegalArgumentException("CSV file has no header row");
+        }
+
+        Column[] columns = new Column[names.size()];
+        Set<Column> missing = EnumSet.copyOf(REQUIRED);
+        for (int i = 0; i < names.size(); i++) {
+            columns[i] = column(names.get(i));
+            missing.remove(columns[i]);
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing columns " + missing
+                    + ", found " + names);
+        }
+        return new CsvBookFormat(columns, tokenizer.position());
+    }
+
+    @Override
+    public long firstRecordOffset() {
+        return firstRecordOffset;
+    }
+
+    @Override
+    public long headerLines() {
+        return 1;
+    }
+
+    /**
+     * Follows the tokenizer's quoting rules without building fields, so a
+     * boundary never falls inside a quoted line break.
+     */
+    @Override
+    public long nextBoundary(FileChannel channel, long from, long targetBytes) throws IOException {
+        long size = channel.size();
+        long earliest = from + Math.min(targetBytes, size - from);
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER);
+        boolean inQuotes = false;
+        boolean fieldStart = true;
+        boolean justClosed = false;
+        long position = from;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (inQuotes) {
+                    if (b == '"') {
+                        inQuotes = false;
+                        justClosed = true;
+                    }
+                    continue;
+                }
+                if (b == '"' && (fieldStart || justClosed)) {
+                    inQuotes = true;
+                } else if (b == '\n' && position + i + 1 >= earliest) {
+                    return position + i + 1;
+                }
+                fieldStart = b == ',' || b == '\n';
+                justClosed = false;
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    @Override
+    public ParsedChunk parse(ByteBuffer slice, long sliceOffset) {
+        Tokenizer tokenizer = new Tokenizer(slice, 0);
+        List<ParsedRecord> records = new ArrayList<>();
+        List<String> fields = new ArrayList<>(columns.length);
+        long line = tokenizer.lines();
+        while (tokenizer.next(fields)) {
+            long endOffset = sliceOffset + tokenizer.position();
+            if (!(fields.size() == 1 && fields.get(0).isBlank())) {
+                records.add(toRecord(fields, line, tokenizer.lines(), endOffset));
+            }
+            line = tokenizer.lines();
+        }
+        return new ParsedChunk(sliceOffset, sliceOffset + slice.limit(), tokenizer.lines(), records);
+    }
+
+    private ParsedRecord toRecord(List<String> fields, long line, long endLine, long endOffset) {
+        BookDTO book = new BookDTO();
+        String isbn = null;
+        try {
+            for (int i = 0; i < columns.length && i < fields.size(); i++) {
+                if (columns[i] == null) {
+                    continue;
+                }
+                String value = fields.get(i).strip();
+                if (value.isEmpty()) {
+                    continue;
+                }
+                switch (columns[i]) {
+                    case TITLE -> book.setTitle(value);
+                    case AUTHOR -> book.setAuthor(value);
+                    case ISBN -> {
+                        isbn = value;
+                        book.setIsbn(normalizeIsbn(value));
+                    }
+                    case PUBLICATION_DATE -> book.setPublicationDate(parseDate(value));
+                    case GENRE -> book.setGenre(value);
+                    case AVAILABLE -> book.setAvailable(parseBoolean(value));
+                    case DESCRIPTION -> book.setDescription(value);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return ParsedRecord.invalid(line, endLine, endOffset, isbn, e.getMessage());
+        }
+        return ParsedRecord.valid(line, endLine, endOffset, book);
+    }
+
+    static String normalizeIsbn(String isbn) {
+        StringBuilder normalized = new StringBuilder(isbn.length());
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c != '-' && c != ' ') {
+                normalized.append(c == 'x' ? 'X' : c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            if (value.length() == 4) {
+                return LocalDate.of(Integer.parseInt(value), 1, 1);
+            }
+            return LocalDate.parse(value);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid publication date: " + value);
+        }
+    }
+
+    private static Boolean parseBoolean(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "y", "1" -> true;
+            case "false", "no", "n", "0" -> false;
+            default -> throw new IllegalArgumentException("Invalid available flag: " + value);
+        };
+    }
+
+    private static Column column(String header) {
+        String name = header.toLowerCase(Locale.ROOT).replaceAll("[\\s_\\-]", "");
+        return switch (name) {
+            case "title" -> Column.TITLE;
+            case "author" -> Column.AUTHOR;
+            case "isbn", "isbn10", "isbn13" -> Column.ISBN;
+            case "publicationdate", "publicationyear", "published", "year" -> Column.PUBLICATION_DATE;
+            case "genre" -> Column.GENRE;
+            case "available" -> Column.AVAILABLE;
+            case "description" -> Column.DESCRIPTION;
+            default -> null;
+        };
+    }
+
+    private static boolean hasByteOrderMark(ByteBuffer buffer) {
+        return buffer.limit() >= 3 && (buffer.get(0) & 0xFF) == 0xEF && (buffer.get(1) & 0xFF) == 0xBB
+                && (buffer.get(2) & 0xFF) == 0xBF;
+    }
+
+    /**
+     * Reads records straight from a buffer, decoding each field once.
+     */
+    private static final class Tokenizer {
+
+        private final ByteBuffer buffer;
+        private final int limit;
+        private int position;
+        private long lines;
+        private byte[] field = new byte[256];
+        private int length;
+
+        private Tokenizer(ByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.limit = buffer.limit();
+            this.position = position;
+        }
+
+        int position() {
+            return position;
+        }
+
+        long lines() {
+            return lines;
+        }
+
+        boolean next(List<String> fields) {
+            fields.clear();
+            if (position >= limit) {
+                return false;
+            }
+            boolean inQuotes = false;
+            boolean fieldStart = true;
+            boolean justClosed = false;
+            length = 0;
+            while (position < limit) {
+                byte b = buffer.get(position++);
+                if (inQuotes) {
+                    if (b == '"') {
+                        inQuotes = false;
+                        justClosed = true;
+                    } else {
+                        lines += b == '\n' ? 1 : 0;
+                        append(b);
+                    }
+                    continue;
+                }
+                if (b == '"' && (fieldStart || justClosed)) {
+                    if (justClosed) {
+                        append(b);
+                    }
+                    inQuotes = true;
+                    fieldStart = false;
+                    justClosed = false;
+                    continue;
+                }
+                justClosed = false;
+                if (b == ',') {
+                    fields.add(take());
+                    fieldStart = true;
+                } else if (b == '\n') {
+                    lines++;
+                    fields.add(take());
+                    return true;
+                } else {
+                    fieldStart = false;
+                    if (b != '\r') {
+                        append(b);
+                    }
+                }
+            }
+            fields.add(take());
+            return true;
+        }
+
+        private void append(byte b) {
+            if (length == field.length) {
+                field = Arrays.copyOf(field, length * 2);
+            }
+            field[length++] = b;
+        }
+
+        private String take() {
+            String value = new String(field, 0, length, StandardCharsets.UTF_8);
+            length = 0;
+            return value;
+        }
+    }
+}
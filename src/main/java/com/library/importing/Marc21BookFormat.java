@@ -0,0 +1,265 @@
+package com.library.importing;
+
+import com.library.dto.BookDTO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MARC 21 bibliographic records in ISO 2709 transmission format, the usual
+ * {@code .mrc} export of library systems. Fields used:
+ * <ul>
+ *     <li>{@code 020 $a} ISBN, without qualifiers such as "(pbk.)"</li>
+ *     <li>{@code 245 $a $b} title and subtitle</li>
+ *     <li>{@code 100 $a}, else {@code 110 $a} or {@code 700 $a}, author</li>
+ *     <li>{@code 264 $c}, else {@code 260 $c} or {@code 008/07-10}, year of publication</li>
+ *     <li>{@code 655 $a}, else {@code 650 $a}, genre</li>
+ *     <li>{@code 520 $a} description</li>
+ * </ul>
+ * Records whose leader declares UTF-8 are decoded as such; MARC-8 records are
+ * read as Latin-1, which is exact for ASCII only.
+ */
+public final class Marc21BookFormat implements BookFileFormat {
+
+    private static final byte RECORD_TERMINATOR = 0x1D;
+    private static final byte FIELD_TERMINATOR = 0x1E;
+    private static final byte SUBFIELD_DELIMITER = 0x1F;
+    private static final int LEADER_LENGTH = 24;
+    private static final int SCAN_BUFFER = 64 * 1024;
+    private static final String[] TAGS = {"008", "020", "100", "110", "245", "260", "264", "520", "650", "655", "700"};
+
+    @Override
+    public long firstRecordOffset() {
+        return 0;
+    }
+
+    @Override
+    public long headerLines() {
+        return 0;
+    }
+
+    @Override
+    public long nextBoundary(FileChannel channel, long from, long targetBytes) throws IOException {
+        long size = channel.size();
+        long earliest = from + Math.min(targetBytes, size - from);
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER);
+        long position = from;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == RECORD_TERMINATOR && position + i + 1 >= earliest) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    @Override
+    public ParsedChunk parse(ByteBuffer slice, long sliceOffset) {
+        List<ParsedRecord> records = new ArrayList<>();
+        int limit = slice.limit();
+        int start = 0;
+        long index = 0;
+        while (start < limit) {
+            while (start < limit && isLineBreak(slice.get(start))) {
+                start++;
+            }
+            if (start == limit) {
+                break;
+            }
+            int end = start;
+            while (end < limit && slice.get(end) != RECORD_TERMINATOR) {
+                end++;
+            }
+            records.add(toRecord(slice, start, end, index++, sliceOffset + Math.min(end + 1, limit)));
+            start = end + 1;
+        }
+        return new ParsedChunk(sliceOffset, sliceOffset + limit, index, records);
+    }
+
+    private static ParsedRecord toRecord(ByteBuffer slice, int start, int end, long index, long endOffset) {
+        if (end - start < LEADER_LENGTH) {
+            return ParsedRecord.invalid(index, index + 1, endOffset, null, "Truncated MARC record");
+        }
+        int baseAddress = digits(slice, start + 12, 5);
+        if (baseAddress < LEADER_LENGTH || start + baseAddress > end) {
+            return ParsedRecord.invalid(index, index + 1, endOffset, null, "Malformed MARC leader");
+        }
+        Charset charset = slice.get(start + 9) == 'a' ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1;
+
+        int[][] fields = new int[TAGS.length][];
+        for (int entry = start + LEADER_LENGTH; entry + 12 <= start + baseAddress
+                && slice.get(entry) != FIELD_TERMINATOR; entry += 12) {
+            int tag = tagIndex(slice, entry);
+            int length = digits(slice, entry + 3, 4);
+            int offset = digits(slice, entry + 7, 5);
+            int fieldStart = start + baseAddress + offset;
+            if (length < 1 || offset < 0 || fieldStart + length > end) {
+                return ParsedRecord.invalid(index, index + 1, endOffset, null, "Malformed MARC directory");
+            }
+            if (tag >= 0 && fields[tag] == null) {
+                fields[tag] = new int[]{fieldStart, fieldStart + length - 1};
+            }
+        }
+
+        Fields record = new Fields(slice, fields, charset);
+        String rawIsbn = record.subfield("020", 'a');
+        BookDTO book = new BookDTO();
+        if (rawIsbn != null) {
+            book.setIsbn(isbnPrefix(rawIsbn));
+        }
+        String title = record.subfield("245", 'a');
+        String subtitle = record.subfield("245", 'b');
+        if (title != null) {
+            book.setTitle(subtitle != null ? trim(title) + ": " + trim(subtitle) : trim(title));
+        }
+        book.setAuthor(trim(firstOf(record.subfield("100", 'a'), record.subfield("110", 'a'),
+                record.subfield("700", 'a'))));
+        Integer year = firstYear(firstOf(record.subfield("264", 'c'), record.subfield("260", 'c'),
+                record.control("008", 7, 4)));
+        if (year != null) {
+            book.setPublicationDate(LocalDate.of(year, 1, 1));
+        }
+        book.setGenre(trim(firstOf(record.subfield("655", 'a'), record.subfield("650", 'a'))));
+        book.setDescription(trim(record.subfield("520", 'a')));
+        return ParsedRecord.valid(index, index + 1, endOffset, book);
+    }
+
+    private static String isbnPrefix(String value) {
+        int end = 0;
+        String stripped = value.strip();
+        while (end < stripped.length() && "0123456789Xx-".indexOf(stripped.charAt(end)) >= 0) {
+            end++;
+        }
+        return CsvBookFormat.normalizeIsbn(stripped.substring(0, end));
+    }
+
+    private static Integer firstYear(String value) {
+        if (value == null) {
+            return null;
+        }
+        int run = 0;
+        for (int i = 0; i < value.length(); i++) {
+            run = Character.isDigit(value.charAt(i)) ? run + 1 : 0;
+            if (run == 4 && (i + 1 == value.length() || !Character.isDigit(value.charAt(i + 1)))) {
+                return Integer.parseInt(value.substring(i - 3, i + 1));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Drops the ISBD punctuation MARC puts between fields, keeping the period
+     * after an initial as in "Martin, Robert C.".
+     */
+    static String trim(String value) {
+        if (value == null) {
+            return null;
+        }
+        int end = value.length();
+        while (end > 0) {
+            char c = value.charAt(end - 1);
+            boolean initial = c == '.' && end >= 2 && Character.isUpperCase(value.charAt(end - 2))
+                    && (end == 2 || value.charAt(end - 3) == ' ');
+            if (Character.isWhitespace(c) || " /:;,=".indexOf(c) >= 0 || c == '.' && !initial) {
+                end--;
+            } else {
+                break;
+            }
+        }
+        String trimmed = value.substring(0, end).strip();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    @SafeVarargs
+    private static <T> T firstOf(T... values) {
+        for (T value : values) {
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isLineBreak(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    private static int tagIndex(ByteBuffer slice, int position) {
+        for (int i = 0; i < TAGS.length; i++) {
+            String tag = TAGS[i];
+            if (slice.get(position) == tag.charAt(0) && slice.get(position + 1) == tag.charAt(1)
+                    && slice.get(position + 2) == tag.charAt(2)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int digits(ByteBuffer slice, int position, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            byte b = slice.get(position + i);
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    /**
+     * The first occurrence of each wanted tag in one record.
+     */
+    private record Fields(ByteBuffer slice, int[][] fields, Charset charset) {
+
+        String control(String tag, int from, int length) {
+            int[] field = field(tag);
+            if (field == null || field[1] - field[0] < from + length) {
+                return null;
+            }
+            return decode(field[0] + from, field[0] + from + length);
+        }
+
+        String subfield(String tag, char code) {
+            int[] field = field(tag);
+            if (field == null) {
+                return null;
+            }
+            for (int i = field[0] + 2; i < field[1] - 1; i++) {
+                if (slice.get(i) == SUBFIELD_DELIMITER && slice.get(i + 1) == code) {
+                    int end = i + 2;
+                    while (end < field[1] && slice.get(end) != SUBFIELD_DELIMITER) {
+                        end++;
+                    }
+                    return decode(i + 2, end);
+                }
+            }
+            return null;
+        }
+
+        private int[] field(String tag) {
+            for (int i = 0; i < TAGS.length; i++) {
+                if (TAGS[i].equals(tag)) {
+                    return fields[i];
+                }
+            }
+            return null;
+        }
+
+        private String decode(int from, int to) {
+            byte[] bytes = new byte[to - from];
+            slice.get(from, bytes);
+            return new String(bytes, charset);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.library.importing;
+
+import java.util.List;
+
+/**
+ * The records of one slice of an import file, validated.
+ *
+ * @param lines lines (or records) the slice spans
+ */
+public record ParsedChunk(long startOffset, long endOffset, long lines, List<ParsedRecord> records) {
+}
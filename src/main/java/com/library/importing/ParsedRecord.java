@@ -0,0 +1,27 @@
+package com.library.importing;
+
+import com.library.dto.BookDTO;
+
+/**
+ * One record of an import file: the book it describes, or why it was rejected.
+ *
+ * @param line      zero-based line (CSV) or record (MARC) where the record
+ *                  starts, relative to its slice
+ * @param endLine   lines (or records) of the slice up to {@code endOffset}
+ * @param endOffset file offset just past the record
+ * @param isbn      the record's ISBN as found, if any, for error reports
+ */
+public record ParsedRecord(long line, long endLine, long endOffset, BookDTO book, String isbn, String error) {
+
+    public static ParsedRecord valid(long line, long endLine, long endOffset, BookDTO book) {
+        return new ParsedRecord(line, endLine, endOffset, book, book.getIsbn(), null);
+    }
+
+    public static ParsedRecord invalid(long line, long endLine, long endOffset, String isbn, String error) {
+        return new ParsedRecord(line, endLine, endOffset, null, isbn, error);
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+}
@@ -4,17 +4,28 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
-import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
+import java.util.Objects;
 
+/**
+ * Updates only write the columns that changed, and are rejected when the row
+ * was updated since it was read ({@link #version}).
+ * <p>
+ * The description lives in {@link BookDescription} and is loaded on first
+ * access, so listings that do not show it never read it.
+ */
 @Entity
 @Table(name = "books")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Book {
 
     @Id
@@ -46,7 +57,44 @@ public class Book {
     @Column(name = "available")
     private Boolean available = true;
 
-    @Size(max = 1000, message = "Description must not exceed 1000 characters")
-    @Column(length = 1000)
-    private String description;
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "description_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private BookDescription description;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    public Book(Long id, String title, String author, String isbn, LocalDate publicationDate, String genre,
+                Boolean available, String description, Long version) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.isbn = isbn;
+        this.publicationDate = publicationDate;
+        this.genre = genre;
+        this.available = available;
+        this.version = version;
+        setDescription(description);
+    }
+
+    /**
+     * Loads the description if it has not been read yet, which needs an open
+     * persistence context.
+     */
+    public String getDescription() {
+        return description == null ? null : description.getText();
+    }
+
+    /**
+     * Replaces the description row, which also bumps {@link #version}.
+     */
+    public void setDescription(String text) {
+        if (!Objects.equals(text, getDescription())) {
+            description = text == null ? null : new BookDescription(text);
+        }
+    }
 }
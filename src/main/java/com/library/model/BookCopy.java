@@ -0,0 +1,36 @@
+package com.library.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A physical copy of a {@link Book}. Status transitions are made with
+ * conditional updates in {@code BookCopyRepository}, never by loading and
+ * saving the entity, so two desks can never check out the same copy.
+ */
+@Entity
+@Table(name = "book_copies", indexes = @Index(name = "idx_book_copies_book_status", columnList = "book_id, status"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookCopy {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private CopyStatus status = CopyStatus.AVAILABLE;
+
+    @Column(name = "held_for_patron", length = 64)
+    private String heldForPatron;
+
+    @Version
+    private Long version;
+}
@@ -0,0 +1,32 @@
+package com.library.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * The description of a {@link Book}, kept out of the {@code books} table so
+ * that scans of it stay narrow. Never updated: a changed description is a
+ * new row, and the old one is deleted.
+ */
+@Entity
+@Table(name = "book_descriptions")
+@Immutable
+@Data
+@NoArgsConstructor
+public class BookDescription {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Size(max = 1000, message = "Description must not exceed 1000 characters")
+    @Column(length = 1000, nullable = false)
+    private String text;
+
+    public BookDescription(String text) {
+        this.text = text;
+    }
+}
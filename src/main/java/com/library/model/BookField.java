@@ -0,0 +1,57 @@
+package com.library.model;
+
+import com.library.exception.BadRequestException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A book property that can be requested on its own, named as in the
+ * entity and in the JSON representation.
+ */
+public enum BookField {
+    ID("id"),
+    TITLE("title"),
+    AUTHOR("author"),
+    ISBN("isbn"),
+    PUBLICATION_DATE("publicationDate"),
+    GENRE("genre"),
+    AVAILABLE("available"),
+    DESCRIPTION("description");
+
+    private final String property;
+
+    BookField(String property) {
+        this.property = property;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    /**
+     * Parses a comma-separated list of property names, ignoring case.
+     *
+     * @throws BadRequestException if the list is empty or names an unknown field
+     */
+    public static Set<BookField> parse(String fields) {
+        Set<BookField> parsed = EnumSet.noneOf(BookField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.strip();
+            if (!trimmed.isEmpty()) {
+                parsed.add(Arrays.stream(values())
+                        .filter(field -> field.property.toLowerCase(Locale.ROOT).equals(trimmed.toLowerCase(Locale.ROOT)))
+                        .findFirst()
+                        .orElseThrow(() -> new BadRequestException("Unknown field '" + trimmed + "', expected any of "
+                                + Arrays.stream(values()).map(BookField::property).collect(Collectors.joining(", ")))));
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new BadRequestException("At least one field is required");
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,30 @@
+package com.library.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of one book's popularity score, so the in-memory tracker does not
+ * start cold after a restart.
+ */
+@Entity
+@Table(name = "book_popularity")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookPopularity {
+
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(nullable = false)
+    private long score;
+
+    @Column(name = "checkpointed_at", nullable = false)
+    private LocalDateTime checkpointedAt;
+}
@@ -0,0 +1,7 @@
+package com.library.model;
+
+public enum CopyStatus {
+    AVAILABLE,
+    ON_LOAN,
+    ON_HOLD
+}
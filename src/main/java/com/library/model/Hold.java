@@ -0,0 +1,44 @@
+package com.library.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A patron's place in the queue for a book. A {@code WAITING} hold becomes
+ * {@code READY} when a returned copy is set aside for the patron, and stays
+ * claimable until {@code expiresAt}.
+ */
+@Entity
+@Table(name = "holds", indexes = @Index(name = "idx_holds_book_status", columnList = "book_id, status"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Hold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(name = "patron_id", nullable = false, length = 64)
+    private String patronId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private HoldStatus status = HoldStatus.WAITING;
+
+    @Column(name = "copy_id")
+    private Long copyId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,9 @@
+package com.library.model;
+
+public enum HoldStatus {
+    WAITING,
+    READY,
+    FULFILLED,
+    EXPIRED,
+    CANCELLED
+}
@@ -0,0 +1,36 @@
+package com.library.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A record an import rejected, as invalid or as a duplicate ISBN.
+ */
+@Entity
+@Table(name = "import_errors", indexes = @Index(name = "idx_import_errors_job", columnList = "job_id, line"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportError {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    /**
+     * Line number for CSV files, record number for MARC files.
+     */
+    @Column(nullable = false)
+    private long line;
+
+    @Column(length = 32)
+    private String isbn;
+
+    @Column(nullable = false, length = 500)
+    private String message;
+}
@@ -0,0 +1,6 @@
+package com.library.model;
+
+public enum ImportFormat {
+    CSV,
+    MARC21
+}
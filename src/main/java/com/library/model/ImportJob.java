@@ -0,0 +1,82 @@
+package com.library.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A bulk import of one uploaded file. Progress is committed together with
+ * each batch of books, so {@code resumeOffset} is always the end of the last
+ * record whose book is in the catalog and a resumed job continues from there.
+ */
+@Entity
+@Table(name = "import_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "stored_path", nullable = false, length = 1000)
+    private String storedPath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ImportFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ImportJobStatus status = ImportJobStatus.QUEUED;
+
+    @Column(name = "file_size", nullable = false)
+    private long fileSize;
+
+    /**
+     * Bytes of the file that are fully imported.
+     */
+    @Column(name = "resume_offset", nullable = false)
+    private long resumeOffset;
+
+    /**
+     * Lines (CSV) or records (MARC) before {@code resumeOffset}, so that
+     * errors found after a resume still report the right line.
+     */
+    @Column(name = "lines_committed", nullable = false)
+    private long linesCommitted;
+
+    @Column(name = "records_read", nullable = false)
+    private long recordsRead;
+
+    @Column(nullable = false)
+    private long imported;
+
+    @Column(nullable = false)
+    private long duplicates;
+
+    @Column(nullable = false)
+    private long invalid;
+
+    /**
+     * Time spent running, summed over resumes.
+     */
+    @Column(name = "elapsed_millis", nullable = false)
+    private long elapsedMillis;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "failure_message", length = 1000)
+    private String failureMessage;
+}
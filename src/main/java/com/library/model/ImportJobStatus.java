@@ -0,0 +1,17 @@
+package com.library.model;
+
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED,
+    /**
+     * Was running when the application stopped.
+     */
+    INTERRUPTED;
+
+    public boolean isResumable() {
+        return this == FAILED || this == CANCELLED || this == INTERRUPTED;
+    }
+}
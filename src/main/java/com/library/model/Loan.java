@@ -0,0 +1,41 @@
+package com.library.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "loans", indexes = {
+        @Index(name = "idx_loans_copy", columnList = "copy_id"),
+        @Index(name = "idx_loans_patron", columnList = "patron_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Loan {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "copy_id", nullable = false)
+    private Long copyId;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(name = "patron_id", nullable = false, length = 64)
+    private String patronId;
+
+    @Column(name = "checked_out_at", nullable = false)
+    private LocalDateTime checkedOutAt;
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+
+    @Column(name = "returned_at")
+    private LocalDateTime returnedAt;
+}
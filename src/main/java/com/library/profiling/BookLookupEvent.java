@@ -0,0 +1,50 @@
+package com.library.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A lookup in one of the in-memory book structures, such as the book cache
+ * or the autocomplete index, and whether it was answered from memory.
+ */
+@Name("com.library.BookLookup")
+@Label("Book Lookup")
+@Category({"Library", "Books"})
+@Description("A lookup in an in-memory book cache or index")
+@StackTrace(false)
+public class BookLookupEvent extends Event {
+
+    public static final String CACHE = "cache";
+    public static final String AUTOCOMPLETE = "autocomplete";
+
+    @Label("Structure")
+    String structure;
+
+    @Label("Key")
+    String key;
+
+    @Label("Hit")
+    @Description("Whether the lookup found what it was looking for without going to the database")
+    boolean hit;
+
+    @Label("Results")
+    int results;
+
+    /**
+     * Commits a lookup that started at {@code event.begin()}; does nothing
+     * when the event is disabled.
+     */
+    public void commit(String structure, Object key, boolean hit, int results) {
+        if (shouldCommit()) {
+            this.structure = structure;
+            this.key = String.valueOf(key);
+            this.hit = hit;
+            this.results = results;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.library.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * One call of a {@code BookService} operation, from entry to return or throw.
+ */
+@Name("com.library.BookOperation")
+@Label("Book Operation")
+@Category({"Library", "Books"})
+@Description("A BookService call with its key and the number of books it returned")
+@StackTrace(false)
+public class BookOperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Book Id")
+    long bookId;
+
+    @Label("ISBN")
+    String isbn;
+
+    @Label("Rows")
+    @Description("Books returned, or written")
+    int rows;
+
+    @Label("Failed")
+    boolean failed;
+
+    /**
+     * Runs {@code body} and records it. The rows are counted from the result:
+     * the size of a collection, otherwise one for any non-null value.
+     *
+     * @param bookId the book the operation is about, or {@code null}
+     * @param isbn   the ISBN the operation is about, or {@code null}
+     */
+    public static <T> T record(String operation, Long bookId, String isbn, Supplier<T> body) {
+        return record(operation, bookId, isbn, body,
+                result -> result instanceof Collection<?> collection ? collection.size() : result == null ? 0 : 1);
+    }
+
+    /**
+     * Runs {@code body} and records it, counting the rows of its result with
+     * {@code rows}.
+     */
+    public static <T> T record(String operation, Long bookId, String isbn, Supplier<T> body,
+                               ToIntFunction<? super T> rows) {
+        BookOperationEvent event = new BookOperationEvent();
+        if (!event.isEnabled()) {
+            return body.get();
+        }
+        event.operation = operation;
+        event.bookId = bookId == null ? 0 : bookId;
+        event.isbn = isbn;
+        event.failed = true;
+        event.begin();
+        try {
+            T result = body.get();
+            event.rows = rows.applyAsInt(result);
+            event.failed = false;
+            return result;
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Like {@link #record(String, Long, String, Supplier)} for operations
+     * without a result, which count as one row.
+     */
+    public static void record(String operation, Long bookId, Runnable body) {
+        record(operation, bookId, null, () -> {
+            body.run();
+            return Boolean.TRUE;
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package com.library.profiling;
+
+import com.library.dto.ProfilingStatusDTO;
+import com.library.exception.BadRequestException;
+import com.library.service.ProfilingService;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+
+/**
+ * The continuous recording's controls and downloads, on the actuator rather
+ * than under {@code /api}: a recording shows what the service has been doing
+ * in detail, so it belongs on the management port with the other operational
+ * endpoints.
+ * <ul>
+ *     <li>{@code GET /actuator/profiling}: recording status</li>
+ *     <li>{@code POST /actuator/profiling/start} and {@code /stop}</li>
+ *     <li>{@code GET /actuator/profiling/recording}: the recording as a {@code .jfr} file</li>
+ *     <li>{@code GET /actuator/profiling/summary?top=20}: hot methods, allocation sites and book operations</li>
+ * </ul>
+ */
+@WebEndpoint(id = "profiling")
+public class ProfilingEndpoint {
+
+    private final ProfilingService profilingService;
+
+    public ProfilingEndpoint(ProfilingService profilingService) {
+        this.profilingService = profilingService;
+    }
+
+    @ReadOperation
+    public ProfilingStatusDTO status() {
+        return profilingService.status();
+    }
+
+    @WriteOperation
+    public ProfilingStatusDTO control(@Selector String action) {
+        return switch (action) {
+            case "start" -> profilingService.start();
+            case "stop" -> profilingService.stop();
+            default -> throw new BadRequestException("Unknown profiling action '" + action + "'");
+        };
+    }
+
+    @ReadOperation(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public WebEndpointResponse<Object> view(@Selector String view, @Nullable Integer top) throws IOException {
+        return switch (view) {
+            case "recording" -> new WebEndpointResponse<>(new FileSystemResource(profilingService.dump()),
+                    MimeTypeUtils.APPLICATION_OCTET_STREAM);
+            case "summary" -> new WebEndpointResponse<>(profilingService.summarize(top == null ? 20 : top),
+                    MimeTypeUtils.APPLICATION_JSON);
+            default -> throw new BadRequestException("Unknown profiling view '" + view + "'");
+        };
+    }
+}
@@ -0,0 +1,199 @@
+package com.library.profiling;
+
+import com.library.dto.HotspotDTO;
+import com.library.dto.LookupProfileDTO;
+import com.library.dto.OperationProfileDTO;
+import com.library.dto.RecordingSummaryDTO;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summarizes a JFR recording: the methods most often on top of the stack in
+ * CPU samples, the allocation sites with the most sampled bytes, and the
+ * {@link BookOperationEvent} and {@link BookLookupEvent} totals.
+ * <p>
+ * Reads the file with the JDK's own parser, so it works offline on any
+ * dump, including one copied from another host:
+ * <pre>
+ * java -cp target/classes com.library.profiling.RecordingAnalyzer recording.jfr [top]
+ * </pre>
+ */
+public final class RecordingAnalyzer {
+
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    private static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+    private static final String BOOK_OPERATION = "com.library.BookOperation";
+    private static final String BOOK_LOOKUP = "com.library.BookLookup";
+
+    private RecordingAnalyzer() {
+    }
+
+    /**
+     * @param top how many methods and allocation sites to report
+     */
+    public static RecordingSummaryDTO analyze(Path recording, int top) throws IOException {
+        Map<String, Long> methods = new HashMap<>();
+        Map<String, Long> allocations = new HashMap<>();
+        Map<String, OperationTotals> operations = new TreeMap<>();
+        Map<String, long[]> lookups = new TreeMap<>();
+        long samples = 0;
+        long allocated = 0;
+        Instant start = null;
+        Instant end = null;
+
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                start = start == null || event.getStartTime().isBefore(start) ? event.getStartTime() : start;
+                end = end == null || event.getEndTime().isAfter(end) ? event.getEndTime() : end;
+                switch (event.getEventType().getName()) {
+                    case EXECUTION_SAMPLE -> {
+                        RecordedFrame frame = topFrame(event.getStackTrace());
+                        if (frame != null) {
+                            methods.merge(method(frame), 1L, Long::sum);
+                            samples++;
+                        }
+                    }
+                    case ALLOCATION_SAMPLE -> {
+                        RecordedFrame frame = topFrame(event.getStackTrace());
+                        long weight = event.getLong("weight");
+                        if (frame != null) {
+                            allocations.merge(typeName(event.getClass("objectClass").getName()) + " at " + method(frame)
+                                    + ":" + frame.getLineNumber(), weight, Long::sum);
+                            allocated += weight;
+                        }
+                    }
+                    case BOOK_OPERATION -> operations
+                            .computeIfAbsent(event.getString("operation"), operation -> new OperationTotals())
+                            .add(event.getDuration().toNanos(), event.getInt("rows"), event.getBoolean("failed"));
+                    case BOOK_LOOKUP -> {
+                        long[] totals = lookups.computeIfAbsent(event.getString("structure"), structure -> new long[2]);
+                        totals[0]++;
+                        totals[1] += event.getBoolean("hit") ? 1 : 0;
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        return new RecordingSummaryDTO(localTime(start), localTime(end),
+                samples, ranked(methods, samples, top),
+                allocated, ranked(allocations, allocated, top),
+                operations.entrySet().stream().map(entry -> entry.getValue().toDTO(entry.getKey())).toList(),
+                lookups.entrySet().stream()
+                        .map(entry -> new LookupProfileDTO(entry.getKey(), entry.getValue()[0], entry.getValue()[1]))
+                        .toList());
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: RecordingAnalyzer <recording.jfr> [top]");
+            System.exit(2);
+        }
+        RecordingSummaryDTO summary = analyze(Path.of(args[0]), args.length > 1 ? Integer.parseInt(args[1]) : 20);
+
+        System.out.printf("Recording %s to %s%n", summary.getStart(), summary.getEnd());
+        System.out.printf("%nHot methods (%,d execution samples)%n", summary.getExecutionSamples());
+        summary.getHotMethods().forEach(hotspot ->
+                System.out.printf("  %6.2f%%  %,10d  %s%n", hotspot.getPercent(), hotspot.getWeight(), hotspot.getFrame()));
+        System.out.printf("%nAllocation sites (%,d sampled bytes)%n", summary.getSampledAllocationBytes());
+        summary.getAllocationSites().forEach(hotspot ->
+                System.out.printf("  %6.2f%%  %,14d  %s%n", hotspot.getPercent(), hotspot.getWeight(), hotspot.getFrame()));
+        System.out.printf("%nBook operations%n");
+        summary.getOperations().forEach(operation ->
+                System.out.printf("  %-24s %,8d calls %,6d failed %,10d rows  mean %8.3f ms  max %8.3f ms%n",
+                        operation.getOperation(), operation.getCalls(), operation.getFailures(), operation.getRows(),
+                        operation.getMeanMillis(), operation.getMaxMillis()));
+        System.out.printf("%nLookups%n");
+        summary.getLookups().forEach(lookup ->
+                System.out.printf("  %-24s %,8d lookups %,8d hits%n",
+                        lookup.getStructure(), lookup.getLookups(), lookup.getHits()));
+    }
+
+    private static RecordedFrame topFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return null;
+        }
+        return stackTrace.getFrames().stream().filter(RecordedFrame::isJavaFrame).findFirst().orElse(null);
+    }
+
+    private static String method(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    /**
+     * Turns JVM array descriptors such as {@code [[B} or
+     * {@code [Ljava.lang.String;} into {@code byte[][]} and
+     * {@code java.lang.String[]}.
+     */
+    static String typeName(String name) {
+        int dimensions = 0;
+        while (dimensions < name.length() && name.charAt(dimensions) == '[') {
+            dimensions++;
+        }
+        if (dimensions == 0) {
+            return name;
+        }
+        String element = switch (name.charAt(dimensions)) {
+            case 'Z' -> "boolean";
+            case 'B' -> "byte";
+            case 'C' -> "char";
+            case 'S' -> "short";
+            case 'I' -> "int";
+            case 'J' -> "long";
+            case 'F' -> "float";
+            case 'D' -> "double";
+            default -> name.substring(dimensions + 1, name.length() - 1);
+        };
+        return element + "[]".repeat(dimensions);
+    }
+
+    private static List<HotspotDTO> ranked(Map<String, Long> weights, long total, int top) {
+        return weights.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(top)
+                .map(entry -> new HotspotDTO(entry.getKey(), entry.getValue(), 100.0 * entry.getValue() / total))
+                .toList();
+    }
+
+    private static LocalDateTime localTime(Instant instant) {
+        return instant == null ? null : LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    private static final class OperationTotals {
+
+        private long calls;
+        private long failures;
+        private long rows;
+        private long totalNanos;
+        private long maxNanos;
+
+        void add(long nanos, int rows, boolean failed) {
+            calls++;
+            failures += failed ? 1 : 0;
+            this.rows += rows;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        OperationProfileDTO toDTO(String operation) {
+            return new OperationProfileDTO(operation, calls, failures, rows,
+                    totalNanos / 1e6 / calls, maxNanos / 1e6);
+        }
+    }
+}
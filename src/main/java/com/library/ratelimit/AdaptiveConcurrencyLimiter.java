@@ -0,0 +1,84 @@
+package com.library.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps the number of in-flight requests and adapts the cap to database pool
+ * pressure (AIMD): while the smoothed connection acquire time stays below the
+ * target the limit grows by one per adjustment interval, once it exceeds the
+ * target the limit is cut by a quarter.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double EWMA_ALPHA = 0.2;
+    private static final long ADJUST_INTERVAL_NANOS = 100_000_000L;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetPoolWaitNanos;
+    private final LongSupplier clock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger limit;
+    private final AtomicLong poolWaitEwmaBits = new AtomicLong(Double.doubleToLongBits(0.0));
+    private final AtomicLong lastAdjustment;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      long targetPoolWaitNanos, LongSupplier clock) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetPoolWaitNanos = targetPoolWaitNanos;
+        this.clock = clock;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+        this.lastAdjustment = new AtomicLong(clock.getAsLong());
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Called with the time a request spent waiting for a pooled connection.
+     */
+    public void recordPoolWait(long waitNanos) {
+        poolWaitEwmaBits.getAndUpdate(bits ->
+                Double.doubleToLongBits(EWMA_ALPHA * waitNanos + (1 - EWMA_ALPHA) * Double.longBitsToDouble(bits)));
+
+        long now = clock.getAsLong();
+        long last = lastAdjustment.get();
+        if (now - last < ADJUST_INTERVAL_NANOS || !lastAdjustment.compareAndSet(last, now)) {
+            return;
+        }
+        if (getPoolWaitEwmaNanos() > targetPoolWaitNanos) {
+            limit.updateAndGet(current -> Math.max(minLimit, current - Math.max(1, current / 4)));
+        } else {
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public double getPoolWaitEwmaNanos() {
+        return Double.longBitsToDouble(poolWaitEwmaBits.get());
+    }
+}
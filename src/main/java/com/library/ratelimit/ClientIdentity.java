@@ -0,0 +1,46 @@
+package com.library.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Set;
+
+/**
+ * Tells API clients apart for rate limiting, idempotency scopes and
+ * read-your-writes. Only API keys listed in {@code library.rate-limit.api-keys}
+ * identify a client; any other value of the header is ignored, so a client
+ * cannot become someone new by making up keys.
+ */
+public class ClientIdentity {
+
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+
+    public ClientIdentity(String apiKeyHeader, Set<String> apiKeys) {
+        this.apiKeyHeader = apiKeyHeader;
+        this.apiKeys = Set.copyOf(apiKeys);
+    }
+
+    public static ClientIdentity of(RateLimitProperties properties) {
+        return new ClientIdentity(properties.getApiKeyHeader(), properties.getApiKeys());
+    }
+
+    /**
+     * @return {@code key:<key>} for a known API key, otherwise {@link #addressOf}
+     */
+    public String keyOf(HttpServletRequest request) {
+        String apiKey = knownApiKey(request);
+        return apiKey != null ? "key:" + apiKey : addressOf(request);
+    }
+
+    /**
+     * @return the request's API key if it is a known one, otherwise null
+     */
+    public String knownApiKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        return apiKey != null && apiKeys.contains(apiKey) ? apiKey : null;
+    }
+
+    public static String addressOf(HttpServletRequest request) {
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,78 @@
+package com.library.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * One {@link TokenBucket} per client key (API key or remote address), for at
+ * most {@code maxClients} clients. When that many are tracked, a new client
+ * triggers a sweep of buckets that have fully refilled, at most once per
+ * refill period (a bucket cannot become idle faster than that). New clients
+ * that still find the map full share a single overflow bucket, so a flood of
+ * made-up keys costs neither memory nor a scan per request, and is limited
+ * as one client.
+ */
+public class ClientRateLimiter {
+
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final double tokensPerSecond;
+    private final int burstCapacity;
+    private final int maxClients;
+    private final LongSupplier clock;
+    private final TokenBucket overflow;
+    private final long sweepIntervalNanos;
+    private final AtomicLong nextSweep;
+
+    public ClientRateLimiter(double tokensPerSecond, int burstCapacity, int maxClients, LongSupplier clock) {
+        this.tokensPerSecond = tokensPerSecond;
+        this.burstCapacity = burstCapacity;
+        this.maxClients = maxClients;
+        this.clock = clock;
+        this.overflow = new TokenBucket(tokensPerSecond, burstCapacity, clock);
+        this.sweepIntervalNanos = Math.max(1L, (long) (burstCapacity * 1_000_000_000L / tokensPerSecond));
+        this.nextSweep = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * @return 0 if the request is allowed, otherwise the nanoseconds the client has to wait
+     */
+    public long tryAcquire(String clientKey, int cost) {
+        TokenBucket bucket = buckets.get(clientKey);
+        if (bucket == null) {
+            bucket = bucketForNewClient(clientKey);
+        }
+        return bucket.tryConsume(cost);
+    }
+
+    public int getTrackedClients() {
+        return buckets.size();
+    }
+
+    private TokenBucket bucketForNewClient(String clientKey) {
+        if (buckets.size() >= maxClients) {
+            sweepIfDue();
+            if (buckets.size() >= maxClients) {
+                return overflow;
+            }
+        }
+        return buckets.computeIfAbsent(clientKey, key -> new TokenBucket(tokensPerSecond, burstCapacity, clock));
+    }
+
+    /**
+     * Evicts idle buckets if a refill period has passed since the last sweep;
+     * only the thread that claims the sweep runs it.
+     */
+    private void sweepIfDue() {
+        long now = clock.getAsLong();
+        long due = nextSweep.get();
+        if (now - due >= 0 && nextSweep.compareAndSet(due, now + sweepIntervalNanos)) {
+            evictIdleBuckets();
+        }
+    }
+
+    void evictIdleBuckets() {
+        buckets.values().removeIf(TokenBucket::isIdle);
+    }
+}
@@ -0,0 +1,139 @@
+package com.library.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.exception.CoarseClock;
+import com.library.exception.GlobalExceptionHandler.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the per-client token buckets and the adaptive concurrency limit to
+ * {@code /api/**}. Full listings and Containing searches are charged
+ * {@code expensiveCost} tokens, everything else {@code lookupCost}.
+ * <p>
+ * Every request is charged to its remote address. A request with a known API
+ * key is also charged to that key, which limits the key across addresses.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String BOOKS_PATH = "/api/books";
+
+    private final RateLimitProperties properties;
+    private final ClientRateLimiter clientRateLimiter;
+    private final ClientIdentity clientIdentity;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ObjectMapper objectMapper;
+
+    private final Counter clientAllowed;
+    private final Counter clientRejected;
+    private final Counter concurrencyAllowed;
+    private final Counter concurrencyRejected;
+
+    public RateLimitFilter(RateLimitProperties properties,
+                           ClientRateLimiter clientRateLimiter,
+                           AdaptiveConcurrencyLimiter concurrencyLimiter,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.clientRateLimiter = clientRateLimiter;
+        this.clientIdentity = ClientIdentity.of(properties);
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.objectMapper = objectMapper;
+
+        this.clientAllowed = requestCounter(meterRegistry, "client", "allowed");
+        this.clientRejected = requestCounter(meterRegistry, "client", "rejected");
+        this.concurrencyAllowed = requestCounter(meterRegistry, "concurrency", "allowed");
+        this.concurrencyRejected = requestCounter(meterRegistry, "concurrency", "rejected");
+        meterRegistry.gauge("library.ratelimit.clients", clientRateLimiter, ClientRateLimiter::getTrackedClients);
+        meterRegistry.gauge("library.ratelimit.concurrency.limit", concurrencyLimiter,
+                AdaptiveConcurrencyLimiter::getLimit);
+        meterRegistry.gauge("library.ratelimit.concurrency.inflight", concurrencyLimiter,
+                AdaptiveConcurrencyLimiter::getInFlight);
+        meterRegistry.gauge("library.ratelimit.pool.wait.ewma", concurrencyLimiter,
+                limiter -> limiter.getPoolWaitEwmaNanos() / 1_000_000.0);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        int cost = cost(request);
+        long waitNanos = clientRateLimiter.tryAcquire(ClientIdentity.addressOf(request), cost);
+        String apiKey = clientIdentity.knownApiKey(request);
+        if (waitNanos == 0 && apiKey != null) {
+            waitNanos = clientRateLimiter.tryAcquire("key:" + apiKey, cost);
+        }
+        if (waitNanos > 0) {
+            clientRejected.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS,
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)),
+                    "Rate limit exceeded");
+            return;
+        }
+        clientAllowed.increment();
+
+        if (!properties.getConcurrency().isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            concurrencyRejected.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE,
+                    properties.getConcurrency().getRetryAfterSeconds(),
+                    "Server is overloaded, please retry later");
+            return;
+        }
+        concurrencyAllowed.increment();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            concurrencyLimiter.release();
+        }
+    }
+
+    int cost(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return properties.getLookupCost();
+        }
+        String path = request.getRequestURI();
+        if (path.equals(BOOKS_PATH) || path.equals(BOOKS_PATH + "/")
+                || path.equals(BOOKS_PATH + "/available")
+                || path.startsWith(BOOKS_PATH + "/search/")) {
+            return properties.getExpensiveCost();
+        }
+        return properties.getLookupCost();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(status.value(), message, CoarseClock.now()));
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String limiter, String outcome) {
+        return Counter.builder("library.ratelimit.requests")
+                .tag("limiter", limiter)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,62 @@
+package com.library.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "library.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Header carrying the client's API key.
+     */
+    private String apiKeyHeader = "X-API-Key";
+
+    /**
+     * API keys that identify a client; requests without one of them are told
+     * apart by remote address only.
+     */
+    private Set<String> apiKeys = new HashSet<>();
+
+    private double tokensPerSecond = 50;
+
+    private int burstCapacity = 100;
+
+    /**
+     * Tokens charged for id/ISBN lookups and writes.
+     */
+    private int lookupCost = 1;
+
+    /**
+     * Tokens charged for full listings and Containing searches.
+     */
+    private int expensiveCost = 10;
+
+    private int maxClients = 100_000;
+
+    private Concurrency concurrency = new Concurrency();
+
+    @Data
+    public static class Concurrency {
+
+        private boolean enabled = true;
+
+        private int initialLimit = 64;
+
+        private int minLimit = 8;
+
+        private int maxLimit = 256;
+
+        /**
+         * Smoothed connection pool wait above which the limit is reduced.
+         */
+        private long targetPoolWaitMillis = 20;
+
+        private int retryAfterSeconds = 1;
+    }
+}
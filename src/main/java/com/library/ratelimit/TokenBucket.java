@@ -0,0 +1,57 @@
+package com.library.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket implemented as a generic cell rate algorithm: the
+ * whole bucket state is a single "theoretical arrival time" that is advanced
+ * with compare-and-set, so concurrent consumers never block each other.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int capacity;
+    private final LongSupplier clock;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(double tokensPerSecond, int capacity, LongSupplier clock) {
+        if (tokensPerSecond <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Rate and capacity must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1L, (long) (1_000_000_000L / tokensPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * capacity;
+        this.capacity = capacity;
+        this.clock = clock;
+    }
+
+    /**
+     * Takes {@code cost} tokens if they are available.
+     *
+     * @return 0 if the tokens were taken, otherwise the nanoseconds until they will be
+     */
+    public long tryConsume(int cost) {
+        long increment = emissionIntervalNanos * Math.min(cost, capacity);
+        long now = clock.getAsLong();
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long newArrival = Math.max(arrival, now) + increment;
+            long allowedAt = newArrival - burstToleranceNanos;
+            if (allowedAt > now) {
+                return allowedAt - now;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, newArrival)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A bucket is idle once it has refilled completely; dropping it is then
+     * indistinguishable from keeping it.
+     */
+    public boolean isIdle() {
+        return theoreticalArrival.get() <= clock.getAsLong();
+    }
+}
@@ -0,0 +1,205 @@
+package com.library.replica;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stand-in for database replication when the primary and replicas are local
+ * H2 databases: every interval it copies each table of the primary into every
+ * replica, replacing the replica's rows in one transaction so readers never
+ * see a half-applied copy. The schema is copied whenever the replica is
+ * missing a table.
+ * <p>
+ * The heartbeat table is read first, so a replica that shows a heartbeat has
+ * every commit made before it, as real replication would guarantee. Copying
+ * whole tables is only meant for development-sized catalogs.
+ */
+@Slf4j
+public class H2ReplicationStub {
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final long intervalMillis;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "h2-replication-stub");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param replicas connections that can write to the replicas
+     */
+    public H2ReplicationStub(DataSource primary, List<DataSource> replicas, long intervalMillis) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.intervalMillis = intervalMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                replicateOnce();
+            } catch (SQLException | RuntimeException e) {
+                log.warn("Replication stub pass failed: {}", e.getMessage());
+            }
+        }, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void replicateOnce() throws SQLException {
+        Map<String, TableCopy> tables = new LinkedHashMap<>();
+        List<String> schema;
+        try (Connection source = primary.getConnection()) {
+            for (String table : tableNames(source)) {
+                tables.put(table, TableCopy.read(source, table));
+            }
+            schema = schemaScript(source);
+        }
+        for (DataSource replica : replicas) {
+            try (Connection target = replica.getConnection()) {
+                apply(target, tables, schema);
+            }
+        }
+    }
+
+    private static void apply(Connection target, Map<String, TableCopy> tables, List<String> schema)
+            throws SQLException {
+        if (!new HashSet<>(tableNames(target)).containsAll(tables.keySet())) {
+            try (Statement statement = target.createStatement()) {
+                statement.execute("drop all objects");
+                for (String sql : schema) {
+                    statement.execute(sql);
+                }
+            }
+        }
+        target.setAutoCommit(false);
+        try (Statement statement = target.createStatement()) {
+            statement.execute("set referential_integrity false");
+            for (TableCopy table : tables.values()) {
+                statement.executeUpdate("delete from " + table.name);
+                table.insertInto(target);
+            }
+            target.commit();
+        } catch (SQLException e) {
+            target.rollback();
+            throw e;
+        } finally {
+            try (Statement statement = target.createStatement()) {
+                statement.execute("set referential_integrity true");
+            }
+            target.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Base tables of the default schema, heartbeat first.
+     */
+    private static List<String> tableNames(Connection connection) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select table_name from information_schema.tables "
+                     + "where table_schema = 'PUBLIC' and table_type = 'BASE TABLE'")) {
+            while (rs.next()) {
+                names.add('"' + rs.getString(1) + '"');
+            }
+        }
+        String heartbeat = '"' + ReplicaLagMonitor.HEARTBEAT_TABLE.toUpperCase() + '"';
+        if (names.remove(heartbeat)) {
+            names.add(0, heartbeat);
+        }
+        return names;
+    }
+
+    private static List<String> schemaScript(Connection connection) throws SQLException {
+        List<String> statements = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("script nodata nopasswords nosettings")) {
+            while (rs.next()) {
+                String sql = rs.getString(1);
+                if (!sql.startsWith("CREATE USER")) {
+                    statements.add(sql);
+                }
+            }
+        }
+        return statements;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record TableCopy(String name, List<String> columns, List<Object[]> rows) {
+
+        static TableCopy read(Connection connection, String table) throws SQLException {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("select * from " + table)) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                List<String> columns = new ArrayList<>();
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    columns.add('"' + metaData.getColumnName(i) + '"');
+                }
+                List<Object[]> rows = new ArrayList<>();
+                while (rs.next()) {
+                    Object[] row = new Object[columns.size()];
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = detach(rs.getObject(i + 1));
+                    }
+                    rows.add(row);
+                }
+                return new TableCopy(table, columns, rows);
+            }
+        }
+
+        void insertInto(Connection connection) throws SQLException {
+            if (rows.isEmpty()) {
+                return;
+            }
+            String sql = "insert into " + name + " (" + String.join(", ", columns) + ") values ("
+                    + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+            try (PreparedStatement insert = connection.prepareStatement(sql)) {
+                for (Object[] row : rows) {
+                    for (int i = 0; i < row.length; i++) {
+                        insert.setObject(i + 1, row[i]);
+                    }
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+
+        /**
+         * LOBs are only valid on the connection that read them.
+         */
+        private static Object detach(Object value) throws SQLException {
+            if (value instanceof Clob clob) {
+                return clob.getSubString(1, (int) clob.length());
+            }
+            if (value instanceof Blob blob) {
+                return blob.getBytes(1, (int) blob.length());
+            }
+            return value;
+        }
+    }
+}
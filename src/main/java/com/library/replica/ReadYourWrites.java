@@ -0,0 +1,83 @@
+package com.library.replica;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers when each client last wrote, so that its following reads only go
+ * to replicas that have applied the write.
+ * <p>
+ * A scope spans one request. Once the request itself has written, its
+ * remaining reads go to the primary; when it ends, the client's write time is
+ * recorded and later requests accept any replica whose heartbeat is newer.
+ * Write times older than {@code windowMillis} are dropped, since replicas that
+ * far behind are not read from anyway.
+ * <p>
+ * Write times are per instance, so stickiness across instances needs the load
+ * balancer to keep a client on one instance.
+ */
+public class ReadYourWrites {
+
+    private static final int PRUNE_THRESHOLD = 1024;
+
+    private final long windowMillis;
+    private final LongSupplier clockMillis;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final ThreadLocal<Scope> scope = new ThreadLocal<>();
+
+    public ReadYourWrites(long windowMillis, LongSupplier clockMillis) {
+        this.windowMillis = windowMillis;
+        this.clockMillis = clockMillis;
+    }
+
+    public void begin(String client) {
+        Long lastWrite = lastWrites.get(client);
+        scope.set(new Scope(client, lastWrite != null ? lastWrite + 1 : 0));
+    }
+
+    public void end() {
+        Scope current = scope.get();
+        scope.remove();
+        if (current != null && current.wrote) {
+            long now = clockMillis.getAsLong();
+            lastWrites.put(current.client, now);
+            if (lastWrites.size() > PRUNE_THRESHOLD) {
+                lastWrites.values().removeIf(writtenAt -> writtenAt < now - windowMillis);
+            }
+        }
+    }
+
+    /**
+     * Called when the current thread takes a read-write connection. Outside
+     * a scope there is no client to remember it for.
+     */
+    public void noteWrite() {
+        Scope current = scope.get();
+        if (current != null) {
+            current.wrote = true;
+            current.requiredAppliedMillis = Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * The oldest heartbeat a replica may have applied and still serve the
+     * current thread: one stamped after the client's last write.
+     */
+    public long requiredAppliedMillis() {
+        Scope current = scope.get();
+        return current != null ? current.requiredAppliedMillis : 0;
+    }
+
+    private static final class Scope {
+
+        private final String client;
+        private long requiredAppliedMillis;
+        private boolean wrote;
+
+        private Scope(String client, long requiredAppliedMillis) {
+            this.client = client;
+            this.requiredAppliedMillis = requiredAppliedMillis;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.library.replica;
+
+import com.library.ratelimit.ClientIdentity;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Opens a {@link ReadYourWrites} scope for each API request, keyed by
+ * {@link ClientIdentity}: by known API key, otherwise by remote address.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReadYourWrites readYourWrites;
+    private final ClientIdentity clientIdentity;
+
+    public ReadYourWritesFilter(ReadYourWrites readYourWrites, ClientIdentity clientIdentity) {
+        this.readYourWrites = readYourWrites;
+        this.clientIdentity = clientIdentity;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        readYourWrites.begin(clientIdentity.keyOf(request));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            readYourWrites.end();
+        }
+    }
+}
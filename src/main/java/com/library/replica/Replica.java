@@ -0,0 +1,57 @@
+package com.library.replica;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.function.IntSupplier;
+
+/**
+ * A read replica and the newest primary heartbeat it has applied.
+ */
+public final class Replica implements AutoCloseable {
+
+    private final String name;
+    private final DataSource dataSource;
+    private final IntSupplier load;
+    private volatile long appliedAtMillis;
+
+    /**
+     * @param load connections in use or awaited, for least-loaded selection
+     */
+    public Replica(String name, DataSource dataSource, IntSupplier load) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.load = load;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    public int load() {
+        return load.getAsInt();
+    }
+
+    /**
+     * Replicas start infinitely behind, so nothing is read from them until
+     * their first heartbeat has been seen.
+     */
+    public long appliedAtMillis() {
+        return appliedAtMillis;
+    }
+
+    void applied(long heartbeatMillis) {
+        appliedAtMillis = heartbeatMillis;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (dataSource instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
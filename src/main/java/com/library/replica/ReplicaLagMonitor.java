@@ -0,0 +1,105 @@
+package com.library.replica;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Measures replica lag with a heartbeat row: the primary stamps the current
+ * time into {@value #HEARTBEAT_TABLE} every interval, and the stamp a replica
+ * returns is the point up to which it has applied the primary's commits.
+ * This works with any replication that applies commits in order, and its
+ * resolution is the heartbeat interval.
+ * <p>
+ * A replica that cannot be read keeps its last stamp, so its lag grows until
+ * the router stops using it.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    static final String HEARTBEAT_TABLE = "replication_heartbeat";
+
+    private final JdbcTemplate primary;
+    private final TransactionTemplate primaryWrites;
+    private final List<Replica> replicas;
+    private final long intervalMillis;
+    private final LongSupplier clockMillis;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplicaLagMonitor(DataSource primary, List<Replica> replicas, long intervalMillis, LongSupplier clockMillis,
+                             MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.primaryWrites = new TransactionTemplate(new DataSourceTransactionManager(primary));
+        this.replicas = replicas;
+        this.intervalMillis = intervalMillis;
+        this.clockMillis = clockMillis;
+        for (Replica replica : replicas) {
+            TimeGauge.builder("library.replica.lag", replica, TimeUnit.MILLISECONDS,
+                            r -> clockMillis.getAsLong() - r.appliedAtMillis())
+                    .tag("replica", replica.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        primaryWrites.executeWithoutResult(status -> primary.execute("create table if not exists " + HEARTBEAT_TABLE
+                + " (id int primary key, beat_millis bigint not null)"));
+        executor.scheduleWithFixedDelay(this::tick, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes one heartbeat and reads every replica's. Only called from the
+     * monitor thread, or from tests. The heartbeat is written in its own
+     * transaction, since a pool with auto-commit off would otherwise roll it
+     * back when the connection is returned.
+     */
+    void tick() {
+        try {
+            long now = clockMillis.getAsLong();
+            primaryWrites.executeWithoutResult(status -> {
+                if (primary.update("update " + HEARTBEAT_TABLE + " set beat_millis = ? where id = 1", now) == 0) {
+                    primary.update("insert into " + HEARTBEAT_TABLE + " (id, beat_millis) values (1, ?)", now);
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("Could not write replication heartbeat: {}", e.getMessage());
+        }
+        replicas.forEach(this::probe);
+    }
+
+    private void probe(Replica replica) {
+        try {
+            List<Long> beats = new JdbcTemplate(replica.dataSource()).queryForList(
+                    "select beat_millis from " + HEARTBEAT_TABLE + " where id = 1", Long.class);
+            if (!beats.isEmpty()) {
+                replica.applied(beats.get(0));
+            }
+        } catch (DataAccessException e) {
+            log.debug("Could not read replication heartbeat from {}: {}", replica.name(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,63 @@
+package com.library.replica;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "library.replicas")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    private Selection selection = Selection.ROUND_ROBIN;
+
+    /**
+     * Read-only transactions go to the primary when no replica is within
+     * this lag. It also bounds how long a client's own writes pin its reads.
+     */
+    private Duration maxLag = Duration.ofSeconds(1);
+
+    /**
+     * How often the primary writes a heartbeat and each replica's lag is read.
+     */
+    private Duration heartbeatInterval = Duration.ofMillis(250);
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    private ReplicationStub replicationStub = new ReplicationStub();
+
+    public enum Selection {
+        ROUND_ROBIN,
+        LEAST_LOADED
+    }
+
+    @Data
+    public static class Replica {
+
+        private String name;
+
+        private String url;
+
+        private String username = "sa";
+
+        private String password = "";
+
+        private int maximumPoolSize = 10;
+    }
+
+    /**
+     * Copies the primary into the replicas on a timer, for running replicas
+     * locally on H2. Leave off when the database replicates itself.
+     */
+    @Data
+    public static class ReplicationStub {
+
+        private boolean enabled = false;
+
+        private Duration interval = Duration.ofMillis(200);
+    }
+}
@@ -0,0 +1,123 @@
+package com.library.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Sends connections for read-only transactions to a replica and everything
+ * else to the primary.
+ * <p>
+ * A replica is only eligible if its last applied heartbeat is within
+ * {@code maxLagMillis} and not older than the current client's last write
+ * (see {@link ReadYourWrites}); when none is, the read falls back to the
+ * primary. Among eligible replicas the next one in turn is used, or the one
+ * with the fewest busy connections.
+ * <p>
+ * The routing decision needs the transaction's read-only flag, which Spring
+ * sets after the connection is requested, so this must sit behind a
+ * {@code LazyConnectionDataSourceProxy}, and Hibernate must release
+ * connections after each transaction rather than hold them for the session.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<Replica> replicas;
+    private final ReplicaProperties.Selection selection;
+    private final long maxLagMillis;
+    private final ReadYourWrites readYourWrites;
+    private final LongSupplier clockMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryRoutes;
+    private final Counter fallbacks;
+    private final Map<String, Counter> replicaRoutes = new HashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, ReplicaProperties.Selection selection,
+                                    long maxLagMillis, ReadYourWrites readYourWrites, LongSupplier clockMillis,
+                                    MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.maxLagMillis = maxLagMillis;
+        this.readYourWrites = readYourWrites;
+        this.clockMillis = clockMillis;
+        this.primaryRoutes = meterRegistry.counter("library.replica.routes", "target", "primary");
+        this.fallbacks = meterRegistry.counter("library.replica.fallbacks");
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (Replica replica : replicas) {
+            targets.put(replica.name(), replica.dataSource());
+            replicaRoutes.put(replica.name(), meterRegistry.counter("library.replica.routes", "target", replica.name()));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public List<Replica> replicas() {
+        return replicas;
+    }
+
+    /**
+     * @return the replica name, or {@code null} for the primary
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWrites.noteWrite();
+            primaryRoutes.increment();
+            return null;
+        }
+        long freshAfter = Math.max(clockMillis.getAsLong() - maxLagMillis, readYourWrites.requiredAppliedMillis());
+        Replica replica = select(freshAfter);
+        if (replica == null) {
+            fallbacks.increment();
+            primaryRoutes.increment();
+            return null;
+        }
+        replicaRoutes.get(replica.name()).increment();
+        return replica.name();
+    }
+
+    private Replica select(long freshAfter) {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        Replica chosen = null;
+        for (int i = 0; i < size; i++) {
+            Replica candidate = replicas.get((start + i) % size);
+            if (candidate.appliedAtMillis() < freshAfter) {
+                continue;
+            }
+            if (selection == ReplicaProperties.Selection.ROUND_ROBIN) {
+                return candidate;
+            }
+            if (chosen == null || candidate.load() < chosen.load()) {
+                chosen = candidate;
+            }
+        }
+        return chosen;
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            try {
+                replica.close();
+            } catch (Exception e) {
+                log.warn("Could not close replica {}", replica.name(), e);
+            }
+        }
+    }
+}
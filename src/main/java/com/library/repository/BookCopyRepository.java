@@ -0,0 +1,54 @@
+package com.library.repository;
+
+import com.library.model.BookCopy;
+import com.library.model.CopyStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Copy status changes are single conditional {@code UPDATE}s that only match
+ * when the copy is still in the expected state and version; a return value
+ * of 0 means another transaction got there first.
+ */
+@Repository
+public interface BookCopyRepository extends JpaRepository<BookCopy, Long> {
+
+    List<BookCopy> findByBookId(Long bookId);
+
+    List<BookCopy> findByBookIdAndStatus(Long bookId, CopyStatus status, Pageable pageable);
+
+    long countByBookIdAndStatus(Long bookId, CopyStatus status);
+
+    boolean existsByBookIdAndStatus(Long bookId, CopyStatus status);
+
+    boolean existsByBookId(Long bookId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BookCopy c set c.status = com.library.model.CopyStatus.ON_LOAN, c.version = c.version + 1 " +
+            "where c.id = :id and c.version = :version and c.status = com.library.model.CopyStatus.AVAILABLE")
+    int checkOutIfAvailable(@Param("id") Long id, @Param("version") Long version);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BookCopy c set c.status = com.library.model.CopyStatus.ON_LOAN, c.heldForPatron = null, " +
+            "c.version = c.version + 1 " +
+            "where c.id = :id and c.status = com.library.model.CopyStatus.ON_HOLD and c.heldForPatron = :patronId")
+    int checkOutIfHeldFor(@Param("id") Long id, @Param("patronId") String patronId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BookCopy c set c.status = com.library.model.CopyStatus.ON_HOLD, c.heldForPatron = :patronId, " +
+            "c.version = c.version + 1 " +
+            "where c.id = :id and c.status = :expected")
+    int holdFor(@Param("id") Long id, @Param("expected") CopyStatus expected, @Param("patronId") String patronId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BookCopy c set c.status = com.library.model.CopyStatus.AVAILABLE, c.heldForPatron = null, " +
+            "c.version = c.version + 1 " +
+            "where c.id = :id and c.status = :expected")
+    int release(@Param("id") Long id, @Param("expected") CopyStatus expected);
+}
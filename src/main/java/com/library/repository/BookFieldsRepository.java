@@ -0,0 +1,22 @@
+package com.library.repository;
+
+import com.library.dto.BookDTO;
+import com.library.model.Book;
+import com.library.model.BookField;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads only some columns of the books table, for clients that do not need
+ * whole books.
+ */
+public interface BookFieldsRepository {
+
+    /**
+     * Books matching {@code where} (all books if null), in id order, with
+     * only {@code fields} set. The id is always read.
+     */
+    List<BookDTO> findFields(Specification<Book> where, Set<BookField> fields);
+}
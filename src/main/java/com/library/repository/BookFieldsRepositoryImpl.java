@@ -0,0 +1,81 @@
+package com.library.repository;
+
+import com.library.dto.BookDTO;
+import com.library.model.Book;
+import com.library.model.BookField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds the select list from the requested fields with the Criteria API,
+ * so unrequested columns are never read, and {@code book_descriptions} is
+ * only joined when {@code description} is requested.
+ */
+public class BookFieldsRepositoryImpl implements BookFieldsRepository {
+
+    private final EntityManager entityManager;
+
+    public BookFieldsRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<BookDTO> findFields(Specification<Book> where, Set<BookField> fields) {
+        Set<BookField> selected = EnumSet.of(BookField.ID);
+        selected.addAll(fields);
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Book> book = query.from(Book.class);
+        List<Selection<?>> columns = new ArrayList<>(selected.size());
+        for (BookField field : selected) {
+            Path<?> column = field == BookField.DESCRIPTION
+                    ? book.join(field.property(), JoinType.LEFT).get("text")
+                    : book.get(field.property());
+            columns.add(column.alias(field.property()));
+        }
+        query.multiselect(columns);
+        if (where != null) {
+            query.where(where.toPredicate(book, query, builder));
+        }
+        query.orderBy(builder.asc(book.get(BookField.ID.property())));
+
+        List<Tuple> rows = entityManager.createQuery(query).getResultList();
+        List<BookDTO> books = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            books.add(toDTO(row, selected));
+        }
+        return books;
+    }
+
+    private static BookDTO toDTO(Tuple row, Set<BookField> fields) {
+        BookDTO dto = new BookDTO();
+        for (BookField field : fields) {
+            Object value = row.get(field.property());
+            switch (field) {
+                case ID -> dto.setId((Long) value);
+                case TITLE -> dto.setTitle((String) value);
+                case AUTHOR -> dto.setAuthor((String) value);
+                case ISBN -> dto.setIsbn((String) value);
+                case PUBLICATION_DATE -> dto.setPublicationDate((LocalDate) value);
+                case GENRE -> dto.setGenre((String) value);
+                case AVAILABLE -> dto.setAvailable((Boolean) value);
+                case DESCRIPTION -> dto.setDescription((String) value);
+            }
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,35 @@
+package com.library.repository;
+
+import com.library.model.Book;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.Comparator;
+
+/**
+ * Java ordering of books matching the database's, for catalogs that sort
+ * books themselves.
+ */
+public final class BookOrdering {
+
+    public static final Comparator<Book> BY_ID = Comparator.comparing(Book::getId);
+
+    private BookOrdering() {
+    }
+
+    /**
+     * Orders by the sorted properties, with nulls first when ascending, then
+     * by id.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Comparator<Book> of(Sort sort) {
+        Comparator<Book> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<Book> byProperty = Comparator.comparing(
+                    book -> (Comparable) new BeanWrapperImpl(book).getPropertyValue(order.getProperty()),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator.thenComparing(BY_ID);
+    }
+}
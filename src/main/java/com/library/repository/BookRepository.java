@@ -1,15 +1,30 @@
 package com.library.repository;
 
 import com.library.model.Book;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookFieldsRepository {
 
+    /**
+     * Fetches the description in the same query, since it is shown with
+     * single books. Other finders leave it to be loaded on access.
+     */
+    @Override
+    @EntityGraph(attributePaths = "description")
+    Optional<Book> findById(Long id);
+
+    @EntityGraph(attributePaths = "description")
     Optional<Book> findByIsbn(String isbn);
 
     List<Book> findByAuthorContainingIgnoreCase(String author);
@@ -21,4 +36,66 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     List<Book> findByAvailable(Boolean available);
 
     boolean existsByIsbn(String isbn);
+
+    @EntityGraph(attributePaths = "description")
+    List<Book> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "description")
+    List<Book> findByIsbnIn(Collection<String> isbns);
+
+    /**
+     * The given ISBNs that are already in the catalog, without loading the books.
+     */
+    @Query("select b.isbn from Book b where b.isbn in :isbns")
+    List<String> findIsbnsIn(@Param("isbns") Collection<String> isbns);
+
+    /**
+     * Keyset-paged titles and authors, for building in-memory indexes without
+     * loading whole entities.
+     */
+    @Query("select b.id as id, b.title as title, b.author as author from Book b where b.id > :afterId order by b.id")
+    List<BookTerms> findTermsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select b.genre as facet, count(b) as books from Book b group by b.genre")
+    List<FacetCount> countByGenre();
+
+    @Query("select b.available as facet, count(b) as books from Book b group by b.available")
+    List<FacetCount> countByAvailable();
+
+    @Query("select year(b.publicationDate) as facet, count(b) as books from Book b group by year(b.publicationDate)")
+    List<FacetCount> countByPublicationYear();
+
+    @Query("select b.author as facet, count(b) as books from Book b group by b.author")
+    List<FacetCount> countByAuthor();
+
+    /**
+     * Sets {@code available} unless it already has that value, and bumps the
+     * version like any other update so that the book's ETag changes.
+     *
+     * @return 1 if the flag changed, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Book b set b.available = :available, b.version = b.version + 1 " +
+            "where b.id = :id and (b.available is null or b.available <> :available)")
+    int updateAvailability(@Param("id") Long id, @Param("available") boolean available);
+
+    interface BookTerms {
+
+        Long getId();
+
+        String getTitle();
+
+        String getAuthor();
+    }
+
+    /**
+     * Number of books sharing one value of a column. On a sharded catalog a
+     * value is counted per shard, so it may appear more than once.
+     */
+    interface FacetCount {
+
+        Object getFacet();
+
+        long getBooks();
+    }
 }
@@ -0,0 +1,73 @@
+package com.library.repository;
+
+import com.library.model.Book;
+import com.library.model.BookField;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+
+/**
+ * Criteria equivalents of {@link BookRepository}'s derived searches, for
+ * {@link BookFieldsRepository#findFields}. They match the same books as the
+ * derived queries: upper-cased comparison, with {@code %} and {@code _} in
+ * the search text taken literally.
+ */
+public final class BookSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private BookSpecifications() {
+    }
+
+    public static BookCriterion authorContains(String author) {
+        return new BookCriterion(BookField.AUTHOR, Match.CONTAINS_IGNORE_CASE, author);
+    }
+
+    public static BookCriterion titleContains(String title) {
+        return new BookCriterion(BookField.TITLE, Match.CONTAINS_IGNORE_CASE, title);
+    }
+
+    public static BookCriterion genreIs(String genre) {
+        return new BookCriterion(BookField.GENRE, Match.EQUALS_IGNORE_CASE, genre);
+    }
+
+    public static BookCriterion availableIs(boolean available) {
+        return new BookCriterion(BookField.AVAILABLE, Match.EQUALS, available);
+    }
+
+    private static String containing(String text) {
+        String escaped = text.toUpperCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    public enum Match {
+        CONTAINS_IGNORE_CASE,
+        EQUALS_IGNORE_CASE,
+        EQUALS
+    }
+
+    /**
+     * A condition on one property. Kept as data rather than a lambda so that
+     * catalogs without a database can evaluate it too.
+     */
+    public record BookCriterion(BookField field, Match match, Object value) implements Specification<Book> {
+
+        @Override
+        public Predicate toPredicate(Root<Book> book, CriteriaQuery<?> query, CriteriaBuilder builder) {
+            return switch (match) {
+                case CONTAINS_IGNORE_CASE ->
+                        builder.like(builder.upper(book.get(field.property())), containing((String) value), ESCAPE);
+                case EQUALS_IGNORE_CASE ->
+                        builder.equal(builder.upper(book.get(field.property())), ((String) value).toUpperCase(Locale.ROOT));
+                case EQUALS -> builder.equal(book.get(field.property()), value);
+            };
+        }
+    }
+}
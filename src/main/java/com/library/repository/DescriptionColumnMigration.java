@@ -0,0 +1,58 @@
+package com.library.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Moves descriptions out of the {@code books.description} column that
+ * databases created before descriptions got their own table still have.
+ * Schema updates add {@code book_descriptions} and
+ * {@code books.description_id} but never drop a column, so until this runs
+ * those books would read as having no description.
+ * <p>
+ * Each description is copied to a new {@code book_descriptions} row, the
+ * book is pointed at it and the old column is dropped. A book that already
+ * has a {@code description_id} is left alone, so a run that fails before the
+ * drop can simply be repeated.
+ */
+@Slf4j
+public class DescriptionColumnMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public DescriptionColumnMigration(DataSource dataSource, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * @return the number of descriptions moved, 0 if the old column is gone
+     */
+    public int run() {
+        Integer oldColumns = jdbcTemplate.queryForObject("select count(*) from information_schema.columns "
+                + "where table_schema = current_schema and lower(table_name) = 'books' "
+                + "and lower(column_name) = 'description'", Integer.class);
+        if (oldColumns == null || oldColumns == 0) {
+            return 0;
+        }
+        int moved = transactionTemplate.execute(status -> {
+            Long offset = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from book_descriptions", Long.class);
+            int copied = jdbcTemplate.update("insert into book_descriptions (id, text) select id + ?, description "
+                    + "from books where description is not null and description_id is null", offset);
+            jdbcTemplate.update("update books set description_id = id + ? "
+                    + "where description is not null and description_id is null", offset);
+            return copied;
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            Long next = jdbcTemplate.queryForObject("select coalesce(max(id), 0) + 1 from book_descriptions", Long.class);
+            jdbcTemplate.execute("alter table book_descriptions alter column id restart with " + next);
+            jdbcTemplate.execute("alter table books drop column description");
+        });
+        log.info("Moved {} book descriptions out of books.description and dropped the column", moved);
+        return moved;
+    }
+}
@@ -0,0 +1,55 @@
+package com.library.repository;
+
+import com.library.model.Hold;
+import com.library.model.HoldStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+
+    List<Hold> findByBookIdAndStatusOrderByIdAsc(Long bookId, HoldStatus status, Pageable pageable);
+
+    Optional<Hold> findFirstByBookIdAndPatronIdAndStatus(Long bookId, String patronId, HoldStatus status);
+
+    List<Hold> findByIdInAndStatus(Collection<Long> ids, HoldStatus status);
+
+    List<Hold> findByIdInAndStatusAndExpiresAtLessThanEqual(Collection<Long> ids, HoldStatus status,
+                                                            LocalDateTime expiresAt);
+
+    @Query("select h.id as id, h.expiresAt as expiresAt from Hold h " +
+            "where h.status = com.library.model.HoldStatus.READY and h.id > :afterId order by h.id")
+    List<ReadyHold> findReadyAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    boolean existsByBookIdAndPatronIdAndStatusIn(Long bookId, String patronId, Collection<HoldStatus> statuses);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Hold h set h.status = com.library.model.HoldStatus.READY, h.copyId = :copyId, " +
+            "h.expiresAt = :expiresAt where h.id = :id and h.status = com.library.model.HoldStatus.WAITING")
+    int markReady(@Param("id") Long id, @Param("copyId") Long copyId, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Hold h set h.status = com.library.model.HoldStatus.EXPIRED where h.id in :ids " +
+            "and h.status = com.library.model.HoldStatus.READY and h.expiresAt <= :now")
+    int expireReady(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Hold h set h.status = :target where h.id = :id and h.status = :expected")
+    int transition(@Param("id") Long id, @Param("expected") HoldStatus expected, @Param("target") HoldStatus target);
+
+    interface ReadyHold {
+
+        Long getId();
+
+        LocalDateTime getExpiresAt();
+    }
+}
@@ -0,0 +1,14 @@
+package com.library.repository;
+
+import com.library.model.ImportError;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ImportErrorRepository extends JpaRepository<ImportError, Long> {
+
+    List<ImportError> findByJobIdOrderByLine(Long jobId, Pageable pageable);
+}
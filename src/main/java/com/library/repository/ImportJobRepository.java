@@ -0,0 +1,17 @@
+package com.library.repository;
+
+import com.library.model.ImportJob;
+import com.library.model.ImportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    List<ImportJob> findTop50ByOrderByIdDesc();
+
+    List<ImportJob> findByStatusIn(Collection<ImportJobStatus> statuses);
+}
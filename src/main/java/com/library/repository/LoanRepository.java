@@ -0,0 +1,23 @@
+package com.library.repository;
+
+import com.library.model.Loan;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LoanRepository extends JpaRepository<Loan, Long> {
+
+    List<Loan> findByPatronIdAndReturnedAtIsNull(String patronId);
+
+    long countByCopyIdAndReturnedAtIsNull(Long copyId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Loan l set l.returnedAt = :returnedAt where l.id = :id and l.returnedAt is null")
+    int markReturned(@Param("id") Long id, @Param("returnedAt") LocalDateTime returnedAt);
+}
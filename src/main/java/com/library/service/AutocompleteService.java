@@ -0,0 +1,286 @@
+package com.library.service;
+
+import com.library.dto.BookDTO;
+import com.library.dto.SuggestionDTO;
+import com.library.exception.BadRequestException;
+import com.library.profiling.BookLookupEvent;
+import com.library.repository.BookRepository;
+import com.library.util.SuggestionTrie;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Search-box suggestions for titles and authors, served from an in-memory
+ * {@link SuggestionTrie} instead of a {@code LIKE '%x%'} scan per keystroke.
+ * <p>
+ * Every title and author is indexed under its full normalized text and under
+ * the suffix starting at each later word, so "code" suggests "Clean Code".
+ * Matches on the typed prefix come first; when there are fewer than the
+ * requested number, prefixes within one edit (two for longer queries) fill
+ * the rest. Within a distance, suggestions rank by the recent views of their
+ * books ({@link PopularityChangedEvent}) plus one per book, so an author with
+ * several books outranks one with a single book nobody looks at.
+ * <p>
+ * The index is built when the application starts and kept current from
+ * {@link BookChangedEvent}s after each write commits.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AutocompleteService {
+
+    static final int MAX_LIMIT = 20;
+    static final int MAX_QUERY_LENGTH = 64;
+    private static final int MAX_WORD_KEYS = 8;
+    private static final int MAX_BOOK_IDS = 10;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final BookRepository bookRepository;
+
+    private final SuggestionTrie<Suggestion> trie = new SuggestionTrie<>();
+    private final Map<String, Suggestion> suggestions = new HashMap<>();
+    private final Map<Long, IndexedBook> books = new HashMap<>();
+    private Map<Long, Long> popularity = Map.of();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public List<SuggestionDTO> suggest(String query, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        String prefix = normalize(query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+
+        BookLookupEvent event = new BookLookupEvent();
+        event.begin();
+        List<SuggestionDTO> found;
+        lock.readLock().lock();
+        try {
+            found = trie.search(prefix, maxEdits(prefix), limit).stream()
+                    .map(Suggestion::toDTO)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+        event.commit(BookLookupEvent.AUTOCOMPLETE, prefix, !found.isEmpty(), found.size());
+        return found;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Pageable page = PageRequest.of(0, REBUILD_PAGE_SIZE);
+        long afterId = 0;
+        List<BookRepository.BookTerms> terms;
+        do {
+            terms = bookRepository.findTermsAfter(afterId, page);
+            for (BookRepository.BookTerms book : terms) {
+                index(book.getId(), book.getTitle(), book.getAuthor());
+                afterId = book.getId();
+            }
+        } while (terms.size() == REBUILD_PAGE_SIZE);
+        log.info("Autocomplete index holds {} suggestions for {} books", suggestionCount(), bookCount());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        BookDTO book = event.book();
+        if (book == null) {
+            remove(event.bookId());
+        } else {
+            index(book.getId(), book.getTitle(), book.getAuthor());
+        }
+    }
+
+    @EventListener
+    public void onPopularityChanged(PopularityChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Set<Long> changed = new HashSet<>(popularity.keySet());
+            changed.addAll(event.scores().keySet());
+            changed.removeIf(bookId -> Objects.equals(popularity.get(bookId), event.scores().get(bookId)));
+            popularity = event.scores();
+
+            Set<Suggestion> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Long bookId : changed) {
+                IndexedBook book = books.get(bookId);
+                if (book != null) {
+                    affected.add(suggestions.get(suggestionKey(SuggestionDTO.Type.TITLE, book.title())));
+                    affected.add(suggestions.get(suggestionKey(SuggestionDTO.Type.AUTHOR, book.author())));
+                }
+            }
+            affected.remove(null);
+            affected.forEach(this::reweigh);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void index(Long bookId, String title, String author) {
+        lock.writeLock().lock();
+        try {
+            IndexedBook existing = books.get(bookId);
+            if (existing != null && Objects.equals(existing.title(), title) && Objects.equals(existing.author(), author)) {
+                return;
+            }
+            if (existing != null) {
+                unlink(bookId, existing);
+            }
+            books.put(bookId, new IndexedBook(title, author));
+            link(bookId, SuggestionDTO.Type.TITLE, title);
+            link(bookId, SuggestionDTO.Type.AUTHOR, author);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            IndexedBook existing = books.remove(bookId);
+            if (existing != null) {
+                unlink(bookId, existing);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int suggestionCount() {
+        lock.readLock().lock();
+        try {
+            return suggestions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int bookCount() {
+        lock.readLock().lock();
+        try {
+            return books.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void link(Long bookId, SuggestionDTO.Type type, String text) {
+        String normalized = text == null ? "" : normalize(text);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        Suggestion suggestion = suggestions.computeIfAbsent(type + ":" + normalized,
+                key -> new Suggestion(text, type, keysOf(normalized)));
+        suggestion.bookIds.add(bookId);
+        reweigh(suggestion);
+    }
+
+    private void unlink(Long bookId, IndexedBook book) {
+        unlink(bookId, SuggestionDTO.Type.TITLE, book.title());
+        unlink(bookId, SuggestionDTO.Type.AUTHOR, book.author());
+    }
+
+    private void unlink(Long bookId, SuggestionDTO.Type type, String text) {
+        String suggestionKey = suggestionKey(type, text);
+        if (suggestionKey == null) {
+            return;
+        }
+        Suggestion suggestion = suggestions.get(suggestionKey);
+        if (suggestion == null || !suggestion.bookIds.remove(bookId)) {
+            return;
+        }
+        if (suggestion.bookIds.isEmpty()) {
+            suggestions.remove(suggestionKey);
+            suggestion.keys.forEach(key -> trie.remove(key, suggestion));
+        } else {
+            reweigh(suggestion);
+        }
+    }
+
+    private void reweigh(Suggestion suggestion) {
+        long weight = suggestion.bookIds.stream()
+                .mapToLong(bookId -> 1 + popularity.getOrDefault(bookId, 0L))
+                .sum();
+        suggestion.keys.forEach(key -> trie.put(key, suggestion, weight));
+    }
+
+    private static String suggestionKey(SuggestionDTO.Type type, String text) {
+        return text == null ? null : type + ":" + normalize(text);
+    }
+
+    /**
+     * Lower-cases, strips accents and collapses punctuation and whitespace to
+     * single spaces, so "Café-Society" and "cafe society" share a key.
+     */
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Edit budget grows with the query: a one-character typo in two letters is
+     * a different word.
+     */
+    static int maxEdits(String prefix) {
+        if (prefix.length() < 3) {
+            return 0;
+        }
+        return prefix.length() < 6 ? 1 : 2;
+    }
+
+    private static List<String> keysOf(String normalized) {
+        List<String> keys = new ArrayList<>();
+        keys.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0 && keys.size() < MAX_WORD_KEYS; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return keys;
+    }
+
+    private record IndexedBook(String title, String author) {
+    }
+
+    private static final class Suggestion {
+
+        private final String text;
+        private final SuggestionDTO.Type type;
+        private final List<String> keys;
+        private final Set<Long> bookIds = new LinkedHashSet<>();
+
+        private Suggestion(String text, SuggestionDTO.Type type, List<String> keys) {
+            this.text = text;
+            this.type = type;
+            this.keys = keys;
+        }
+
+        private SuggestionDTO toDTO() {
+            return new SuggestionDTO(text, type, bookIds.stream().limit(MAX_BOOK_IDS).collect(Collectors.toList()));
+        }
+    }
+}
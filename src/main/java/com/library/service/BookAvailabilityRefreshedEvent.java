@@ -0,0 +1,9 @@
+package com.library.service;
+
+/**
+ * Published by {@link BookAvailabilityUpdater} after it changed a book's
+ * {@code available} flag to match its copies. {@code previous} is the flag
+ * before the change and may be null.
+ */
+public record BookAvailabilityRefreshedEvent(Long bookId, Boolean previous, boolean available) {
+}
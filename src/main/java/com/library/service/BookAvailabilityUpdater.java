@@ -0,0 +1,88 @@
+package com.library.service;
+
+import com.library.model.Book;
+import com.library.model.CopyStatus;
+import com.library.repository.BookCopyRepository;
+import com.library.repository.BookRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps {@code Book.available} in line with the book's copies.
+ * <p>
+ * Refreshing the book row inside the checkout transaction deadlocks: the
+ * checkout holds a copy row while waiting for the book row, and the refresh
+ * holds the book row while reading copies. Refreshing synchronously after
+ * commit would need a second pooled connection per request. Instead, book ids
+ * are queued after commit and refreshed by a single background thread, which
+ * also coalesces bursts of changes to the same book into one update. A book
+ * id is dequeued before its refresh runs, so a change committed meanwhile
+ * queues it again and the flag always converges to the committed state.
+ * <p>
+ * Copies are read and the book is updated in two statements rather than one
+ * correlated update, because in sharded mode the book row lives in a
+ * different database from its copies. The flag is read before the update so
+ * that listeners know what it changed from, which may be null.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookAvailabilityUpdater {
+
+    private final BookRepository bookRepository;
+    private final BookCopyRepository bookCopyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Set<Long> pendingBookIds = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "book-availability-updater");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCopyAvailabilityChanged(CopyAvailabilityChangedEvent event) {
+        if (pendingBookIds.add(event.bookId())) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        Iterator<Long> iterator = pendingBookIds.iterator();
+        while (iterator.hasNext()) {
+            Long bookId = iterator.next();
+            iterator.remove();
+            try {
+                BookAvailabilityRefreshedEvent refreshed = transactionTemplate.execute(status -> {
+                    boolean hasAvailableCopy = bookCopyRepository.existsByBookIdAndStatus(bookId, CopyStatus.AVAILABLE);
+                    Boolean previous = bookRepository.findById(bookId).map(Book::getAvailable).orElse(null);
+                    return bookRepository.updateAvailability(bookId, hasAvailableCopy) > 0
+                            ? new BookAvailabilityRefreshedEvent(bookId, previous, hasAvailableCopy) : null;
+                });
+                if (refreshed != null) {
+                    eventPublisher.publishEvent(refreshed);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not refresh availability of book {}", bookId, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
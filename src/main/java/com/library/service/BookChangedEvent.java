@@ -0,0 +1,12 @@
+package com.library.service;
+
+import com.library.dto.BookDTO;
+
+/**
+ * Published by {@link BookService} after a book is created, updated or
+ * deleted, and by {@link BookImportService} for each imported book.
+ * {@code book} is the new state, or null if the book was deleted;
+ * {@code previous} is the state before the change, or null if it was created.
+ */
+public record BookChangedEvent(Long bookId, BookDTO book, BookDTO previous) {
+}
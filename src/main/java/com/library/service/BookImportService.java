@@ -0,0 +1,403 @@
+package com.library.service;
+
+import com.library.config.ImportProperties;
+import com.library.dto.BookDTO;
+import com.library.dto.ImportErrorDTO;
+import com.library.dto.ImportJobDTO;
+import com.library.exception.BadRequestException;
+import com.library.exception.ResourceNotFoundException;
+import com.library.importing.BookFileFormat;
+import com.library.importing.CompiledBookValidator;
+import com.library.importing.CsvBookFormat;
+import com.library.importing.Marc21BookFormat;
+import com.library.importing.ParsedChunk;
+import com.library.importing.ParsedRecord;
+import com.library.model.Book;
+import com.library.model.ImportError;
+import com.library.model.ImportFormat;
+import com.library.model.ImportJob;
+import com.library.model.ImportJobStatus;
+import com.library.repository.BookRepository;
+import com.library.repository.ImportErrorRepository;
+import com.library.repository.ImportJobRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+
+/**
+ * Imports books from uploaded CSV or MARC 21 files.
+ * <p>
+ * A job runs as a pipeline. Its file is cut into slices on record
+ * boundaries, and the slices are memory-mapped, parsed and validated on a
+ * fork-join pool, a bounded number ahead of the writer. The writer takes
+ * slices in file order and commits their records in batches. Each batch
+ * drops ISBNs already in the catalog or earlier in the file, with one query,
+ * and saves the rest together with the job's progress. A failed, cancelled
+ * or interrupted job can therefore be resumed from its last commit without
+ * importing anything twice.
+ * <p>
+ * Jobs run one at a time. A batch that collides with a book created
+ * concurrently through the API fails the job; resuming it re-checks the ISBNs.
+ */
+@Slf4j
+@Service
+public class BookImportService {
+
+    private static final int ERROR_MESSAGE_LENGTH = 500;
+    private static final int FAILURE_MESSAGE_LENGTH = 1000;
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportErrorRepository importErrorRepository;
+    private final BookRepository bookRepository;
+    private final CompiledBookValidator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ImportProperties properties;
+    private final ForkJoinPool parsers;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "book-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Long> cancellations = ConcurrentHashMap.newKeySet();
+
+    public BookImportService(ImportJobRepository importJobRepository, ImportErrorRepository importErrorRepository,
+                             BookRepository bookRepository, CompiledBookValidator validator,
+                             ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+                             ImportProperties properties) {
+        this.importJobRepository = importJobRepository;
+        this.importErrorRepository = importErrorRepository;
+        this.bookRepository = bookRepository;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.parsers = new ForkJoinPool(Math.max(1, properties.getParallelism()));
+    }
+
+    /**
+     * Jobs that were queued or running when the application stopped can
+     * only be resumed by hand.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void markInterruptedJobs() {
+        for (ImportJob job : importJobRepository.findByStatusIn(
+                EnumSet.of(ImportJobStatus.QUEUED, ImportJobStatus.RUNNING))) {
+            job.setStatus(ImportJobStatus.INTERRUPTED);
+            importJobRepository.save(job);
+        }
+    }
+
+    /**
+     * Stores the file and queues its import.
+     *
+     * @param format the file's format, or {@code null} to go by its extension
+     */
+    public ImportJobDTO submit(String fileName, InputStream content, ImportFormat format) {
+        ImportFormat resolved = format != null ? format : formatOf(fileName);
+        Path stored = properties.getDirectory().resolve(UUID.randomUUID() + "." + resolved.name().toLowerCase(Locale.ROOT));
+        try {
+            Files.createDirectories(stored.getParent());
+            Files.copy(content, stored);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store import file " + fileName, e);
+        }
+
+        ImportJob job = new ImportJob();
+        job.setFileName(fileName);
+        job.setStoredPath(stored.toString());
+        job.setFormat(resolved);
+        job.setStatus(ImportJobStatus.QUEUED);
+        job.setFileSize(stored.toFile().length());
+        job.setCreatedAt(LocalDateTime.now());
+        ImportJob saved = importJobRepository.save(job);
+        runner.execute(() -> run(saved.getId()));
+        return convertToDTO(saved);
+    }
+
+    public ImportJobDTO getJob(Long id) {
+        return convertToDTO(findJob(id));
+    }
+
+    public List<ImportJobDTO> getRecentJobs() {
+        return importJobRepository.findTop50ByOrderByIdDesc().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    public List<ImportErrorDTO> getErrors(Long id, int limit) {
+        findJob(id);
+        if (limit < 1 || limit > properties.getMaxReportedErrors()) {
+            throw new BadRequestException("Limit must be between 1 and " + properties.getMaxReportedErrors());
+        }
+        return importErrorRepository.findByJobIdOrderByLine(id, PageRequest.of(0, limit)).stream()
+                .map(error -> new ImportErrorDTO(error.getLine(), error.getIsbn(), error.getMessage()))
+                .collect(Collectors.toList());
+    }
+
+    public ImportJobDTO resume(Long id) {
+        ImportJob job = findJob(id);
+        if (!job.getStatus().isResumable() || !Files.exists(Path.of(job.getStoredPath()))) {
+            throw new BadRequestException("Import job " + id + " is " + job.getStatus() + " and cannot be resumed");
+        }
+        job.setStatus(ImportJobStatus.QUEUED);
+        job.setFinishedAt(null);
+        job.setFailureMessage(null);
+        ImportJob saved = importJobRepository.save(job);
+        runner.execute(() -> run(id));
+        return convertToDTO(saved);
+    }
+
+    /**
+     * Stops the job after the batch being written; it can be resumed later.
+     */
+    public ImportJobDTO cancel(Long id) {
+        ImportJob job = findJob(id);
+        if (job.getStatus() != ImportJobStatus.QUEUED && job.getStatus() != ImportJobStatus.RUNNING) {
+            throw new BadRequestException("Import job " + id + " is " + job.getStatus() + " and cannot be cancelled");
+        }
+        cancellations.add(id);
+        return convertToDTO(job);
+    }
+
+    private void run(Long id) {
+        ImportJob job = findJob(id);
+        if (cancellations.remove(id)) {
+            finish(job, ImportJobStatus.CANCELLED, null);
+            return;
+        }
+        job.setStatus(ImportJobStatus.RUNNING);
+        job = importJobRepository.save(job);
+        Progress progress = new Progress(job, System.currentTimeMillis());
+        Deque<ForkJoinTask<ParsedChunk>> parsing = new ArrayDeque<>();
+        try (FileChannel channel = FileChannel.open(Path.of(job.getStoredPath()), StandardOpenOption.READ)) {
+            BookFileFormat format = job.getFormat() == ImportFormat.CSV ? CsvBookFormat.open(channel) : new Marc21BookFormat();
+            if (job.getResumeOffset() < format.firstRecordOffset()) {
+                job.setResumeOffset(format.firstRecordOffset());
+                job.setLinesCommitted(format.headerLines());
+            }
+
+            long size = channel.size();
+            long next = job.getResumeOffset();
+            int ahead = Math.max(2, properties.getParallelism() * 2);
+            while (next < size || !parsing.isEmpty()) {
+                while (next < size && parsing.size() < ahead) {
+                    long start = next;
+                    long end = format.nextBoundary(channel, start, properties.getChunkSize().toBytes());
+                    parsing.add(parsers.submit(() -> parse(channel, format, start, end)));
+                    next = end;
+                }
+                job = write(job, parsing.poll().join(), progress);
+                if (cancellations.remove(id)) {
+                    finish(job, ImportJobStatus.CANCELLED, null);
+                    return;
+                }
+            }
+            Files.deleteIfExists(Path.of(job.getStoredPath()));
+            finish(job, ImportJobStatus.COMPLETED, null);
+            log.info("Import job {} completed: {} imported, {} duplicates, {} invalid", id, job.getImported(),
+                    job.getDuplicates(), job.getInvalid());
+        } catch (Exception e) {
+            log.warn("Import job {} failed", id, e);
+            finish(findJob(id), ImportJobStatus.FAILED, e.getMessage() != null ? e.getMessage() : e.toString());
+        } finally {
+            parsing.forEach(task -> task.cancel(true));
+        }
+    }
+
+    private ParsedChunk parse(FileChannel channel, BookFileFormat format, long start, long end) {
+        try {
+            MappedByteBuffer slice = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            ParsedChunk chunk = format.parse(slice, start);
+            List<ParsedRecord> records = new ArrayList<>(chunk.records().size());
+            for (ParsedRecord record : chunk.records()) {
+                String error = record.isValid() ? validator.validate(record.book()) : null;
+                records.add(error == null ? record
+                        : ParsedRecord.invalid(record.line(), record.endLine(), record.endOffset(), record.isbn(), error));
+            }
+            return new ParsedChunk(chunk.startOffset(), chunk.endOffset(), chunk.lines(), records);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Commits the slice in batches; the last batch also moves the checkpoint
+     * past any blank lines at the end of the slice.
+     */
+    private ImportJob write(ImportJob job, ParsedChunk chunk, Progress progress) {
+        long baseLine = job.getLinesCommitted();
+        List<ParsedRecord> records = chunk.records();
+        int batchSize = Math.max(1, properties.getBatchSize());
+        int from = 0;
+        do {
+            int to = Math.min(records.size(), from + batchSize);
+            List<ParsedRecord> batch = records.subList(from, to);
+            boolean lastBatch = to == records.size();
+            long resumeOffset = lastBatch ? chunk.endOffset() : batch.get(batch.size() - 1).endOffset();
+            long linesCommitted = lastBatch ? baseLine + chunk.lines() : baseLine + batch.get(batch.size() - 1).endLine();
+            ImportJob current = job;
+            job = transactionTemplate.execute(status ->
+                    writeBatch(current, batch, baseLine, resumeOffset, linesCommitted, progress));
+            from = to;
+        } while (from < records.size());
+        return job;
+    }
+
+    private ImportJob writeBatch(ImportJob job, List<ParsedRecord> batch, long baseLine, long resumeOffset,
+                                 long linesCommitted, Progress progress) {
+        Set<String> candidates = new HashSet<>();
+        for (ParsedRecord record : batch) {
+            if (record.isValid()) {
+                candidates.add(record.book().getIsbn());
+            }
+        }
+        Set<String> taken = candidates.isEmpty() ? new HashSet<>() : new HashSet<>(bookRepository.findIsbnsIn(candidates));
+
+        List<Book> books = new ArrayList<>();
+        List<ImportError> errors = new ArrayList<>();
+        long reported = job.getInvalid() + job.getDuplicates();
+        for (ParsedRecord record : batch) {
+            String error = record.error();
+            if (record.isValid() && !taken.add(record.book().getIsbn())) {
+                error = "Duplicate ISBN " + record.book().getIsbn();
+                job.setDuplicates(job.getDuplicates() + 1);
+            } else if (record.isValid()) {
+                books.add(convertToEntity(record.book()));
+            } else {
+                job.setInvalid(job.getInvalid() + 1);
+            }
+            if (error != null && reported++ < properties.getMaxReportedErrors()) {
+                errors.add(new ImportError(null, job.getId(), baseLine + record.line() + 1,
+                        truncate(record.isbn(), 32), truncate(error, ERROR_MESSAGE_LENGTH)));
+            }
+        }
+
+        List<Book> saved = bookRepository.saveAll(books);
+        importErrorRepository.saveAll(errors);
+        job.setImported(job.getImported() + saved.size());
+        job.setRecordsRead(job.getRecordsRead() + batch.size());
+        job.setResumeOffset(resumeOffset);
+        job.setLinesCommitted(linesCommitted);
+        job.setElapsedMillis(progress.elapsedMillis());
+        ImportJob updated = importJobRepository.save(job);
+        saved.forEach(book -> eventPublisher.publishEvent(new BookChangedEvent(book.getId(), convertToDTO(book), null)));
+        return updated;
+    }
+
+    private void finish(ImportJob job, ImportJobStatus status, String failureMessage) {
+        job.setStatus(status);
+        job.setFinishedAt(LocalDateTime.now());
+        job.setFailureMessage(truncate(failureMessage, FAILURE_MESSAGE_LENGTH));
+        importJobRepository.save(job);
+    }
+
+    private ImportJob findJob(Long id) {
+        return importJobRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found with id: " + id));
+    }
+
+    private static ImportFormat formatOf(String fileName) {
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return ImportFormat.CSV;
+        }
+        if (name.endsWith(".mrc") || name.endsWith(".marc")) {
+            return ImportFormat.MARC21;
+        }
+        throw new BadRequestException("Cannot tell the format of " + fileName + ", pass format=CSV or MARC21");
+    }
+
+    private static String truncate(String value, int length) {
+        return value == null || value.length() <= length ? value : value.substring(0, length);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        parsers.shutdownNow();
+    }
+
+    private ImportJobDTO convertToDTO(ImportJob job) {
+        ImportJobDTO dto = new ImportJobDTO();
+        dto.setId(job.getId());
+        dto.setFileName(job.getFileName());
+        dto.setFormat(job.getFormat());
+        dto.setStatus(job.getStatus());
+        dto.setFileSize(job.getFileSize());
+        dto.setBytesProcessed(job.getResumeOffset());
+        dto.setPercentComplete(job.getFileSize() == 0 ? 100.0
+                : Math.min(100.0, 100.0 * job.getResumeOffset() / job.getFileSize()));
+        dto.setRecordsRead(job.getRecordsRead());
+        dto.setImported(job.getImported());
+        dto.setDuplicates(job.getDuplicates());
+        dto.setInvalid(job.getInvalid());
+        dto.setRecordsPerSecond(job.getElapsedMillis() == 0 ? 0
+                : job.getRecordsRead() * 1000.0 / job.getElapsedMillis());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        dto.setFailureMessage(job.getFailureMessage());
+        return dto;
+    }
+
+    private BookDTO convertToDTO(Book book) {
+        return new BookDTO(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(),
+                book.getPublicationDate(), book.getGenre(), book.getAvailable(), book.getDescription(), book.getVersion());
+    }
+
+    private Book convertToEntity(BookDTO dto) {
+        Book book = new Book();
+        book.setTitle(dto.getTitle());
+        book.setAuthor(dto.getAuthor());
+        book.setIsbn(dto.getIsbn());
+        book.setPublicationDate(dto.getPublicationDate());
+        book.setGenre(dto.getGenre());
+        book.setAvailable(dto.getAvailable() != null ? dto.getAvailable() : true);
+        book.setDescription(dto.getDescription());
+        return book;
+    }
+
+    /**
+     * Running time of the current run, on top of earlier runs.
+     */
+    private record Progress(long elapsedBefore, long startedAtMillis) {
+
+        Progress(ImportJob job, long startedAtMillis) {
+            this(job.getElapsedMillis(), startedAtMillis);
+        }
+
+        long elapsedMillis() {
+            return elapsedBefore + System.currentTimeMillis() - startedAtMillis;
+        }
+    }
+}
@@ -1,131 +1,402 @@
 package com.library.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.library.cache.BookCache;
+import com.library.dto.BatchLookupResponse;
 import com.library.dto.BookDTO;
+import com.library.exception.BadRequestException;
+import com.library.exception.CirculationConflictException;
 import com.library.exception.DuplicateResourceException;
+import com.library.exception.PreconditionFailedException;
 import com.library.exception.ResourceNotFoundException;
 import com.library.model.Book;
+import com.library.model.BookField;
+import com.library.profiling.BookOperationEvent;
+import com.library.repository.BookCopyRepository;
 import com.library.repository.BookRepository;
+import com.library.repository.BookSpecifications;
+import com.library.util.IsbnValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BookService {
 
+    /**
+     * Upper bound on the number of bind parameters in a single IN clause.
+     * Larger batches are split into several queries of this size.
+     */
+    static final int BATCH_CHUNK_SIZE = 500;
+
+    /**
+     * Properties a merge patch may set; id and version are read-only.
+     */
+    private static final Set<String> PATCHABLE = Set.of("title", "author", "isbn", "publicationDate", "genre",
+            "available", "description");
+
     private final BookRepository bookRepository;
+    private final BookCopyRepository bookCopyRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PopularityService popularityService;
+    private final BookCache bookCache;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    /**
+     * Also reject ISBN lookups with a wrong check digit before querying. Only
+     * enable this when the catalog holds checksum-valid ISBNs exclusively.
+     */
+    @Value("${library.isbn.validate-checksum:false}")
+    private boolean validateIsbnChecksum;
 
     @Transactional(readOnly = true)
     public List<BookDTO> getAllBooks() {
-        return bookRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return BookOperationEvent.record("getAllBooks", null, null, () -> bookRepository.findAll().stream()
+                .map(this::convertToListedDTO)
+                .collect(Collectors.toList()));
     }
 
+    /**
+     * Like {@link #getAllBooks()}, but only reads and sets the given fields
+     * (and the id), in id order.
+     */
     @Transactional(readOnly = true)
+    public List<BookDTO> getAllBooks(Set<BookField> fields) {
+        return BookOperationEvent.record("getAllBooks", null, null, () -> bookRepository.findFields(null, fields));
+    }
+
+    /**
+     * Served from the node-local {@link BookCache}; not transactional, so a
+     * cache hit never takes a connection from the pool.
+     */
     public BookDTO getBookById(Long id) {
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
-        return convertToDTO(book);
+        BookDTO book = BookOperationEvent.record("getBookById", id, null, () -> bookCache.get(id, this::loadBook));
+        popularityService.recordView(id);
+        return book;
     }
 
     @Transactional(readOnly = true)
     public BookDTO getBookByIsbn(String isbn) {
-        Book book = bookRepository.findByIsbn(isbn)
-                .orElseThrow(() -> new ResourceNotFoundException("Book not found with ISBN: " + isbn));
+        if (!isSearchableIsbn(isbn)) {
+            throw new ResourceNotFoundException("Book not found with ISBN: " + isbn);
+        }
+        Book book = BookOperationEvent.record("getBookByIsbn", null, isbn, () -> bookRepository.findByIsbn(isbn)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found with ISBN: " + isbn)));
+        popularityService.recordView(book.getId());
         return convertToDTO(book);
     }
 
     @Transactional(readOnly = true)
     public List<BookDTO> getBooksByAuthor(String author) {
-        return bookRepository.findByAuthorContainingIgnoreCase(author).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return BookOperationEvent.record("getBooksByAuthor", null, null, () -> bookRepository.findByAuthorContainingIgnoreCase(author).stream()
+                .map(this::convertToListedDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookDTO> getBooksByAuthor(String author, Set<BookField> fields) {
+        return BookOperationEvent.record("getBooksByAuthor", null, null,
+                () -> bookRepository.findFields(BookSpecifications.authorContains(author), fields));
     }
 
     @Transactional(readOnly = true)
     public List<BookDTO> getBooksByTitle(String title) {
-        return bookRepository.findByTitleContainingIgnoreCase(title).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return BookOperationEvent.record("getBooksByTitle", null, null, () -> bookRepository.findByTitleContainingIgnoreCase(title).stream()
+                .map(this::convertToListedDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookDTO> getBooksByTitle(String title, Set<BookField> fields) {
+        return BookOperationEvent.record("getBooksByTitle", null, null,
+                () -> bookRepository.findFields(BookSpecifications.titleContains(title), fields));
     }
 
     @Transactional(readOnly = true)
     public List<BookDTO> getBooksByGenre(String genre) {
-        return bookRepository.findByGenreIgnoreCase(genre).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return BookOperationEvent.record("getBooksByGenre", null, null, () -> bookRepository.findByGenreIgnoreCase(genre).stream()
+                .map(this::convertToListedDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookDTO> getBooksByGenre(String genre, Set<BookField> fields) {
+        return BookOperationEvent.record("getBooksByGenre", null, null,
+                () -> bookRepository.findFields(BookSpecifications.genreIs(genre), fields));
     }
 
     @Transactional(readOnly = true)
     public List<BookDTO> getAvailableBooks() {
-        return bookRepository.findByAvailable(true).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return BookOperationEvent.record("getAvailableBooks", null, null, () -> bookRepository.findByAvailable(true).stream()
+                .map(this::convertToListedDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookDTO> getAvailableBooks(Set<BookField> fields) {
+        return BookOperationEvent.record("getAvailableBooks", null, null,
+                () -> bookRepository.findFields(BookSpecifications.availableIs(true), fields));
+    }
+
+    @Transactional(readOnly = true)
+    public BatchLookupResponse<Long> getBooksByIds(List<Long> ids) {
+        return BookOperationEvent.record("getBooksByIds", null, null,
+                () -> batchLookup(ids, id -> true, bookRepository::findByIdIn, Book::getId),
+                response -> response.getFound().size());
+    }
+
+    @Transactional(readOnly = true)
+    public BatchLookupResponse<String> getBooksByIsbns(List<String> isbns) {
+        return BookOperationEvent.record("getBooksByIsbns", null, null,
+                () -> batchLookup(isbns, this::isSearchableIsbn, bookRepository::findByIsbnIn, Book::getIsbn),
+                response -> response.getFound().size());
     }
 
     @Transactional
     public BookDTO createBook(BookDTO bookDTO) {
-        if (bookRepository.existsByIsbn(bookDTO.getIsbn())) {
-            throw new DuplicateResourceException("Book with ISBN " + bookDTO.getIsbn() + " already exists");
-        }
+        return BookOperationEvent.record("createBook", null, bookDTO.getIsbn(), () -> {
+            if (bookRepository.existsByIsbn(bookDTO.getIsbn())) {
+                throw new DuplicateResourceException("Book with ISBN " + bookDTO.getIsbn() + " already exists");
+            }
 
-        Book book = convertToEntity(bookDTO);
-        if (book.getAvailable() == null) {
-            book.setAvailable(true);
-        }
-        Book savedBook = bookRepository.save(book);
-        return convertToDTO(savedBook);
+            Book book = convertToEntity(bookDTO);
+            if (book.getAvailable() == null) {
+                book.setAvailable(true);
+            }
+            Book savedBook = bookRepository.save(book);
+            return published(convertToDTO(savedBook), null);
+        });
     }
 
     @Transactional
     public BookDTO updateBook(Long id, BookDTO bookDTO) {
-        Book existingBook = bookRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
+        return BookOperationEvent.record("updateBook", id, bookDTO.getIsbn(), () -> {
+            Book existingBook = bookRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
+            checkVersion(existingBook, bookDTO.getVersion());
+            checkAvailabilityIsManual(existingBook, bookDTO.getAvailable());
 
-        // Check if ISBN is being changed and if it already exists
-        if (!existingBook.getIsbn().equals(bookDTO.getIsbn()) && 
-            bookRepository.existsByIsbn(bookDTO.getIsbn())) {
-            throw new DuplicateResourceException("Book with ISBN " + bookDTO.getIsbn() + " already exists");
-        }
+            // Check if ISBN is being changed and if it already exists
+            if (!existingBook.getIsbn().equals(bookDTO.getIsbn()) && 
+                bookRepository.existsByIsbn(bookDTO.getIsbn())) {
+                throw new DuplicateResourceException("Book with ISBN " + bookDTO.getIsbn() + " already exists");
+            }
 
-        existingBook.setTitle(bookDTO.getTitle());
-        existingBook.setAuthor(bookDTO.getAuthor());
-        existingBook.setIsbn(bookDTO.getIsbn());
-        existingBook.setPublicationDate(bookDTO.getPublicationDate());
-        existingBook.setGenre(bookDTO.getGenre());
-        existingBook.setDescription(bookDTO.getDescription());
+            BookDTO previous = convertToDTO(existingBook);
+            existingBook.setTitle(bookDTO.getTitle());
+            existingBook.setAuthor(bookDTO.getAuthor());
+            existingBook.setIsbn(bookDTO.getIsbn());
+            existingBook.setPublicationDate(bookDTO.getPublicationDate());
+            existingBook.setGenre(bookDTO.getGenre());
+            existingBook.setDescription(bookDTO.getDescription());
         
-        if (bookDTO.getAvailable() != null) {
-            existingBook.setAvailable(bookDTO.getAvailable());
+            if (bookDTO.getAvailable() != null) {
+                existingBook.setAvailable(bookDTO.getAvailable());
+            }
+
+            Book updatedBook = bookRepository.save(existingBook);
+            return published(convertToDTO(updatedBook), previous);
+        });
+    }
+
+    /**
+     * Applies a JSON Merge Patch (RFC 7396): members with a value replace the
+     * property, members set to null clear it and absent members keep it. Only
+     * the columns whose value changes are written, and a patch that changes
+     * nothing writes nothing.
+     *
+     * @param expectedVersion the version the client read, or {@code null} to
+     *                        skip the check
+     * @throws PreconditionFailedException if the book has another version
+     */
+    @Transactional
+    public BookDTO patchBook(Long id, JsonNode patch, Long expectedVersion) {
+        if (!patch.isObject()) {
+            throw new BadRequestException("A merge patch must be a JSON object");
         }
+        return BookOperationEvent.record("patchBook", id, null, () -> {
+            Book book = bookRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
+            checkVersion(book, expectedVersion);
+
+            BookDTO previous = convertToDTO(book);
+            BookDTO patched = merged(previous, (ObjectNode) patch);
+            if (patched.equals(previous)) {
+                return previous;
+            }
+            checkAvailabilityIsManual(book, patched.getAvailable());
+            if (!previous.getIsbn().equals(patched.getIsbn()) && bookRepository.existsByIsbn(patched.getIsbn())) {
+                throw new DuplicateResourceException("Book with ISBN " + patched.getIsbn() + " already exists");
+            }
 
-        Book updatedBook = bookRepository.save(existingBook);
-        return convertToDTO(updatedBook);
+            book.setTitle(patched.getTitle());
+            book.setAuthor(patched.getAuthor());
+            book.setIsbn(patched.getIsbn());
+            book.setPublicationDate(patched.getPublicationDate());
+            book.setGenre(patched.getGenre());
+            book.setAvailable(patched.getAvailable());
+            book.setDescription(patched.getDescription());
+            Book updatedBook = bookRepository.save(book);
+            return published(convertToDTO(updatedBook), previous);
+        });
     }
 
     @Transactional
     public void deleteBook(Long id) {
-        if (!bookRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Book not found with id: " + id);
-        }
-        bookRepository.deleteById(id);
+        BookOperationEvent.record("deleteBook", id, () -> {
+            BookDTO previous = loadBook(id);
+            bookRepository.deleteById(id);
+            eventPublisher.publishEvent(new BookChangedEvent(id, null, previous));
+        });
     }
 
     @Transactional
     public BookDTO updateBookAvailability(Long id, Boolean available) {
-        Book book = bookRepository.findById(id)
+        return BookOperationEvent.record("updateBookAvailability", id, null, () -> {
+            Book book = bookRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
+            checkAvailabilityIsManual(book, available);
+
+            BookDTO previous = convertToDTO(book);
+            book.setAvailable(available);
+            Book updatedBook = bookRepository.save(book);
+            return published(convertToDTO(updatedBook), previous);
+        });
+    }
+
+    private BookDTO loadBook(Long id) {
+        return bookRepository.findById(id)
+                .map(this::convertToDTO)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
-        
-        book.setAvailable(available);
-        Book updatedBook = bookRepository.save(book);
-        return convertToDTO(updatedBook);
+    }
+
+    /**
+     * Once a book has copies, {@link BookAvailabilityUpdater} derives its
+     * availability from them and would overwrite a manual change.
+     */
+    private void checkAvailabilityIsManual(Book book, Boolean requested) {
+        if (requested != null && !requested.equals(book.getAvailable())
+                && bookCopyRepository.existsByBookId(book.getId())) {
+            throw new CirculationConflictException("Availability of book " + book.getId()
+                    + " follows its copies and cannot be set directly");
+        }
+    }
+
+    private static void checkVersion(Book book, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(book.getVersion())) {
+            throw new PreconditionFailedException("Book " + book.getId() + " is at version " + book.getVersion()
+                    + ", not " + expectedVersion);
+        }
+    }
+
+    private BookDTO merged(BookDTO current, ObjectNode patch) {
+        ObjectNode merged = objectMapper.valueToTree(current);
+        patch.fields().forEachRemaining(member -> {
+            if (!PATCHABLE.contains(member.getKey())) {
+                throw new BadRequestException("Cannot patch '" + member.getKey() + "', expected any of "
+                        + String.join(", ", PATCHABLE.stream().sorted().toList()));
+            }
+            merged.set(member.getKey(), member.getValue());
+        });
+
+        BookDTO patched;
+        try {
+            patched = objectMapper.treeToValue(merged, BookDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Invalid merge patch: " + e.getOriginalMessage());
+        }
+        Set<ConstraintViolation<BookDTO>> violations = validator.validate(patched);
+        if (!violations.isEmpty()) {
+            throw new BadRequestException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        if (patched.getAvailable() == null) {
+            throw new BadRequestException("Available cannot be cleared");
+        }
+        return patched;
+    }
+
+    private BookDTO published(BookDTO book, BookDTO previous) {
+        eventPublisher.publishEvent(new BookChangedEvent(book.getId(), book, previous));
+        return book;
+    }
+
+    /**
+     * Books are stored with any ISBN that passes the entity's size rules, so
+     * only keys breaking those are skipped; the check digit is only trusted
+     * when the catalog is known to be checksum-clean.
+     */
+    private boolean isSearchableIsbn(String isbn) {
+        return validateIsbnChecksum ? IsbnValidator.hasValidChecksum(isbn) : IsbnValidator.isStorable(isbn);
+    }
+
+    /**
+     * Resolves the given keys with chunked IN queries and returns the found books
+     * in request order, followed by the keys that did not match any book.
+     * Duplicate and null keys are ignored; keys rejected by {@code searchable}
+     * are reported missing without being queried.
+     */
+    private <K> BatchLookupResponse<K> batchLookup(List<K> keys,
+                                                   Predicate<K> searchable,
+                                                   Function<Collection<K>, List<Book>> finder,
+                                                   Function<Book, K> keyExtractor) {
+        List<K> uniqueKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+        uniqueKeys.removeIf(key -> key == null);
+        List<K> queryKeys = uniqueKeys.stream().filter(searchable).collect(Collectors.toList());
+
+        Map<K, Book> booksByKey = new HashMap<>(queryKeys.size() * 2);
+        for (int from = 0; from < queryKeys.size(); from += BATCH_CHUNK_SIZE) {
+            List<K> chunk = queryKeys.subList(from, Math.min(from + BATCH_CHUNK_SIZE, queryKeys.size()));
+            for (Book book : finder.apply(chunk)) {
+                booksByKey.put(keyExtractor.apply(book), book);
+            }
+        }
+
+        List<BookDTO> found = new ArrayList<>(booksByKey.size());
+        List<K> missing = new ArrayList<>();
+        for (K key : uniqueKeys) {
+            Book book = booksByKey.get(key);
+            if (book != null) {
+                found.add(convertToDTO(book));
+            } else {
+                missing.add(key);
+            }
+        }
+        return new BatchLookupResponse<>(found, missing);
     }
 
     private BookDTO convertToDTO(Book book) {
+        BookDTO dto = convertToListedDTO(book);
+        dto.setDescription(book.getDescription());
+        return dto;
+    }
+
+    /**
+     * Everything but the description, which would be loaded row by row.
+     */
+    private BookDTO convertToListedDTO(Book book) {
         BookDTO dto = new BookDTO();
         dto.setId(book.getId());
         dto.setTitle(book.getTitle());
@@ -134,7 +405,7 @@ public class BookService {
         dto.setPublicationDate(book.getPublicationDate());
         dto.setGenre(book.getGenre());
         dto.setAvailable(book.getAvailable());
-        dto.setDescription(book.getDescription());
+        dto.setVersion(book.getVersion());
         return dto;
     }
 
@@ -0,0 +1,280 @@
+package com.library.service;
+
+import com.library.config.StatisticsProperties;
+import com.library.dto.AuthorCountDTO;
+import com.library.dto.BookDTO;
+import com.library.dto.CatalogStatisticsDTO;
+import com.library.exception.BadRequestException;
+import com.library.repository.BookRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Book counts per genre, availability, publication year and author, kept in
+ * memory so that dashboards do not have to scan the catalog.
+ * <p>
+ * Each committed book change is applied as a delta: the counts of the old
+ * state go down and those of the new state go up. Every reconcile interval
+ * the counts are replaced by {@code GROUP BY} queries, which also picks up
+ * changes made by other instances or directly in the database. Changes that
+ * arrive while those queries run are replayed on their result, so a change
+ * that committed just before the queries may be counted twice until the
+ * next reconcile.
+ * <p>
+ * Requests are answered from an immutable snapshot that is rebuilt at most
+ * once per refresh interval, so their cost does not depend on catalog size.
+ */
+@Slf4j
+@Service
+public class CatalogStatisticsService {
+
+    private static final Comparator<Map.Entry<String, Long>> MOST_BOOKS =
+            Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private final BookRepository bookRepository;
+    private final StatisticsProperties properties;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-statistics");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object lock = new Object();
+
+    // Guarded by lock
+    private Counts counts = new Counts();
+    private List<Consumer<Counts>> journal;
+    private boolean changed = true;
+    private LocalDateTime reconciledAt;
+
+    private volatile CatalogStatisticsDTO snapshot;
+
+    public CatalogStatisticsService(BookRepository bookRepository, StatisticsProperties properties) {
+        this.bookRepository = bookRepository;
+        this.properties = properties;
+        refresh();
+    }
+
+    public CatalogStatisticsDTO getStatistics(int authors) {
+        if (authors < 0 || authors > properties.getTopAuthors()) {
+            throw new BadRequestException("Authors must be between 0 and " + properties.getTopAuthors());
+        }
+        CatalogStatisticsDTO current = snapshot;
+        return new CatalogStatisticsDTO(current.getTotalBooks(), current.getAvailableBooks(),
+                current.getUnavailableBooks(), current.getBooksByGenre(), current.getBooksWithoutGenre(),
+                current.getBooksByPublicationYear(), current.getAuthors(),
+                current.getTopAuthors().subList(0, Math.min(authors, current.getTopAuthors().size())),
+                current.getAsOf(), current.getReconciledAt());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        Facets removed = Facets.of(event.previous());
+        Facets added = Facets.of(event.book());
+        if (Objects.equals(removed, added)) {
+            return;
+        }
+        change(counts -> {
+            counts.add(removed, -1);
+            counts.add(added, 1);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookAvailabilityRefreshed(BookAvailabilityRefreshedEvent event) {
+        long delta = (event.available() ? 1 : 0) - (Boolean.TRUE.equals(event.previous()) ? 1 : 0);
+        if (delta != 0) {
+            change(counts -> counts.available += delta);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long reconcileMillis = properties.getReconcileInterval().toMillis();
+        long refreshMillis = properties.getRefreshInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::reconcile, 0, reconcileMillis, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::refresh, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Recounts the catalog and replaces the live counts, keeping changes that
+     * arrived meanwhile.
+     */
+    void reconcile() {
+        synchronized (lock) {
+            journal = new ArrayList<>();
+        }
+        Counts counted;
+        try {
+            counted = countCatalog();
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                journal = null;
+            }
+            log.warn("Could not reconcile catalog statistics", e);
+            return;
+        }
+
+        int corrected;
+        boolean first;
+        synchronized (lock) {
+            journal.forEach(delta -> delta.accept(counted));
+            journal = null;
+            corrected = counted.differences(counts);
+            first = reconciledAt == null;
+            counts = counted;
+            reconciledAt = LocalDateTime.now();
+            changed = true;
+        }
+        if (corrected > 0 && !first) {
+            log.info("Reconciling catalog statistics corrected {} counts", corrected);
+        }
+    }
+
+    /**
+     * Publishes a new snapshot if the counts changed since the last one.
+     */
+    void refresh() {
+        long total;
+        long available;
+        Map<String, Long> genres;
+        Map<Integer, Long> years;
+        Map<String, Long> authors;
+        LocalDateTime reconciled;
+        synchronized (lock) {
+            if (!changed) {
+                return;
+            }
+            changed = false;
+            total = counts.total;
+            available = counts.available;
+            genres = new HashMap<>(counts.genres);
+            years = new HashMap<>(counts.years);
+            authors = new HashMap<>(counts.authors);
+            reconciled = reconciledAt;
+        }
+
+        Long withoutGenre = genres.remove(null);
+        years.remove(null);
+        authors.remove(null);
+        snapshot = new CatalogStatisticsDTO(total, available, total - available, new TreeMap<>(genres),
+                withoutGenre == null ? 0 : withoutGenre, new TreeMap<>(years), authors.size(),
+                topAuthors(authors, properties.getTopAuthors()), LocalDateTime.now(), reconciled);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void change(Consumer<Counts> delta) {
+        synchronized (lock) {
+            delta.accept(counts);
+            if (journal != null) {
+                journal.add(delta);
+            }
+            changed = true;
+        }
+    }
+
+    private Counts countCatalog() {
+        Counts counted = new Counts();
+        for (BookRepository.FacetCount row : bookRepository.countByAvailable()) {
+            counted.total += row.getBooks();
+            counted.available += Boolean.TRUE.equals(row.getFacet()) ? row.getBooks() : 0;
+        }
+        bookRepository.countByGenre().forEach(row -> Counts.bump(counted.genres, (String) row.getFacet(), row.getBooks()));
+        bookRepository.countByPublicationYear().forEach(row -> Counts.bump(counted.years,
+                row.getFacet() == null ? null : ((Number) row.getFacet()).intValue(), row.getBooks()));
+        bookRepository.countByAuthor().forEach(row -> Counts.bump(counted.authors, (String) row.getFacet(), row.getBooks()));
+        return counted;
+    }
+
+    private static List<AuthorCountDTO> topAuthors(Map<String, Long> authors, int limit) {
+        PriorityQueue<Map.Entry<String, Long>> top = new PriorityQueue<>(MOST_BOOKS.reversed());
+        for (Map.Entry<String, Long> entry : authors.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Map.Entry<String, Long>> ranked = new ArrayList<>(top);
+        ranked.sort(MOST_BOOKS);
+        return ranked.stream().map(entry -> new AuthorCountDTO(entry.getKey(), entry.getValue())).toList();
+    }
+
+    /**
+     * The counted properties of one book.
+     */
+    private record Facets(String genre, boolean available, Integer year, String author) {
+
+        static Facets of(BookDTO book) {
+            if (book == null) {
+                return null;
+            }
+            return new Facets(book.getGenre(), Boolean.TRUE.equals(book.getAvailable()),
+                    book.getPublicationDate() == null ? null : book.getPublicationDate().getYear(), book.getAuthor());
+        }
+    }
+
+    /**
+     * Mutable counts; buckets that drop to zero are removed.
+     */
+    private static final class Counts {
+
+        private long total;
+        private long available;
+        private final Map<String, Long> genres = new HashMap<>();
+        private final Map<Integer, Long> years = new HashMap<>();
+        private final Map<String, Long> authors = new HashMap<>();
+
+        void add(Facets facets, int sign) {
+            if (facets == null) {
+                return;
+            }
+            total += sign;
+            available += facets.available() ? sign : 0;
+            bump(genres, facets.genre(), sign);
+            bump(years, facets.year(), sign);
+            bump(authors, facets.author(), sign);
+        }
+
+        int differences(Counts other) {
+            return (total != other.total ? 1 : 0) + (available != other.available ? 1 : 0)
+                    + differences(genres, other.genres) + differences(years, other.years)
+                    + differences(authors, other.authors);
+        }
+
+        static <K> void bump(Map<K, Long> counts, K key, long delta) {
+            counts.merge(key, delta, (current, added) -> current + added == 0 ? null : current + added);
+        }
+
+        private static <K> int differences(Map<K, Long> counts, Map<K, Long> other) {
+            int different = 0;
+            for (Map.Entry<K, Long> entry : counts.entrySet()) {
+                different += entry.getValue().equals(other.get(entry.getKey())) ? 0 : 1;
+            }
+            for (K key : other.keySet()) {
+                different += counts.containsKey(key) ? 0 : 1;
+            }
+            return different;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.library.service;
+
+import com.library.config.CirculationProperties;
+import com.library.dto.BookCopyDTO;
+import com.library.dto.HoldDTO;
+import com.library.dto.LoanDTO;
+import com.library.exception.BadRequestException;
+import com.library.exception.CirculationConflictException;
+import com.library.exception.ResourceNotFoundException;
+import com.library.model.BookCopy;
+import com.library.model.CopyStatus;
+import com.library.model.Hold;
+import com.library.model.HoldStatus;
+import com.library.model.Loan;
+import com.library.repository.BookCopyRepository;
+import com.library.repository.BookRepository;
+import com.library.repository.HoldRepository;
+import com.library.repository.LoanRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Checkout engine for book copies, loans and the holds queue.
+ * <p>
+ * Every state change is a conditional {@code UPDATE ... WHERE status = expected}
+ * (optimistic, row-level), so concurrent desks race on individual rows rather
+ * than locking tables: exactly one of them sees an update count of 1, the
+ * others move on to the next candidate copy or get a 409.
+ * <p>
+ * Checkout claims each candidate copy in its own short transaction. Some
+ * databases (H2 among them) keep the row lock of an update whose condition
+ * no longer matched; a transaction that tried several copies would then hold
+ * several copy locks and could deadlock against returns.
+ */
+@Service
+@RequiredArgsConstructor
+public class CirculationService {
+
+    private static final int CHECKOUT_ROUNDS = 3;
+    private static final Pageable NEXT_HOLDS = PageRequest.of(0, 16);
+
+    private final BookRepository bookRepository;
+    private final BookCopyRepository bookCopyRepository;
+    private final LoanRepository loanRepository;
+    private final HoldRepository holdRepository;
+    private final CirculationProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Transactional
+    public List<BookCopyDTO> addCopies(Long bookId, int count) {
+        requireBook(bookId);
+        if (count < 1 || count > 1000) {
+            throw new BadRequestException("Copy count must be between 1 and 1000");
+        }
+        List<BookCopy> copies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BookCopy copy = new BookCopy();
+            copy.setBookId(bookId);
+            copy.setStatus(CopyStatus.AVAILABLE);
+            copies.add(copy);
+        }
+        List<BookCopyDTO> saved = bookCopyRepository.saveAll(copies).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        eventPublisher.publishEvent(new CopyAvailabilityChangedEvent(bookId));
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookCopyDTO> getCopies(Long bookId) {
+        requireBook(bookId);
+        return bookCopyRepository.findByBookId(bookId).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    public LoanDTO checkout(Long bookId, String patronId) {
+        requireBook(bookId);
+
+        LoanDTO heldLoan = transactionTemplate.execute(status -> checkoutHeldCopy(bookId, patronId));
+        if (heldLoan != null) {
+            return heldLoan;
+        }
+
+        Pageable candidatesPage = PageRequest.of(0, properties.getCheckoutCandidates());
+        for (int round = 0; round < CHECKOUT_ROUNDS; round++) {
+            List<BookCopy> candidates = new ArrayList<>(
+                    bookCopyRepository.findByBookIdAndStatus(bookId, CopyStatus.AVAILABLE, candidatesPage));
+            if (candidates.isEmpty()) {
+                break;
+            }
+            Collections.shuffle(candidates, ThreadLocalRandom.current());
+            for (BookCopy candidate : candidates) {
+                LoanDTO loan = tryCheckout(candidate, patronId);
+                if (loan != null) {
+                    eventPublisher.publishEvent(new CopyAvailabilityChangedEvent(bookId));
+                    return loan;
+                }
+            }
+        }
+        throw new CirculationConflictException("No copy of book " + bookId + " is available");
+    }
+
+    /**
+     * Checks out the copy set aside for the patron's READY hold, if any. The hold
+     * is claimed first: once FULFILLED it can no longer expire or be cancelled.
+     * If the copy is then no longer held for the patron, the conflict rolls the
+     * hold back to READY rather than fulfilling it without a loan.
+     */
+    private LoanDTO checkoutHeldCopy(Long bookId, String patronId) {
+        Optional<Hold> readyHold = holdRepository.findFirstByBookIdAndPatronIdAndStatus(
+                bookId, patronId, HoldStatus.READY);
+        if (readyHold.isEmpty()) {
+            return null;
+        }
+        Hold hold = readyHold.get();
+        if (holdRepository.transition(hold.getId(), HoldStatus.READY, HoldStatus.FULFILLED) == 0) {
+            return null;
+        }
+        if (bookCopyRepository.checkOutIfHeldFor(hold.getCopyId(), patronId) == 0) {
+            throw new CirculationConflictException("Copy " + hold.getCopyId() + " is no longer held for hold "
+                    + hold.getId());
+        }
+        return createLoan(hold.getCopyId(), bookId, patronId);
+    }
+
+    /**
+     * @return the new loan, or null if another transaction claimed the copy first
+     */
+    private LoanDTO tryCheckout(BookCopy candidate, String patronId) {
+        try {
+            return transactionTemplate.execute(status ->
+                    bookCopyRepository.checkOutIfAvailable(candidate.getId(), candidate.getVersion()) == 1
+                            ? createLoan(candidate.getId(), candidate.getBookId(), patronId)
+                            : null);
+        } catch (ConcurrencyFailureException e) {
+            return null;
+        }
+    }
+
+    @Transactional
+    public LoanDTO returnLoan(Long loanId) {
+        Loan loan = loanRepository.findById(loanId)
+                .orElseThrow(() -> new ResourceNotFoundException("Loan not found with id: " + loanId));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (loanRepository.markReturned(loanId, now) == 0) {
+            throw new CirculationConflictException("Loan " + loanId + " has already been returned");
+        }
+        loan.setReturnedAt(now);
+
+        passCopyOn(loan.getCopyId(), loan.getBookId(), CopyStatus.ON_LOAN);
+        eventPublisher.publishEvent(new CopyAvailabilityChangedEvent(loan.getBookId()));
+        return convertToDTO(loan);
+    }
+
+    @Transactional(readOnly = true)
+    public LoanDTO getLoan(Long loanId) {
+        return loanRepository.findById(loanId)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Loan not found with id: " + loanId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<LoanDTO> getActiveLoans(String patronId) {
+        return loanRepository.findByPatronIdAndReturnedAtIsNull(patronId).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public HoldDTO placeHold(Long bookId, String patronId) {
+        requireBook(bookId);
+        if (bookCopyRepository.countByBookIdAndStatus(bookId, CopyStatus.AVAILABLE) > 0) {
+            throw new CirculationConflictException("Book " + bookId + " has available copies, check it out instead");
+        }
+        if (holdRepository.existsByBookIdAndPatronIdAndStatusIn(bookId, patronId,
+                EnumSet.of(HoldStatus.WAITING, HoldStatus.READY))) {
+            throw new CirculationConflictException("Patron " + patronId + " already holds book " + bookId);
+        }
+
+        Hold hold = new Hold();
+        hold.setBookId(bookId);
+        hold.setPatronId(patronId);
+        hold.setStatus(HoldStatus.WAITING);
+        hold.setCreatedAt(LocalDateTime.now());
+        return convertToDTO(holdRepository.save(hold));
+    }
+
+    @Transactional
+    public void cancelHold(Long holdId) {
+        Hold hold = holdRepository.findById(holdId)
+                .orElseThrow(() -> new ResourceNotFoundException("Hold not found with id: " + holdId));
+
+        if (hold.getStatus() == HoldStatus.WAITING
+                && holdRepository.transition(holdId, HoldStatus.WAITING, HoldStatus.CANCELLED) == 1) {
+            return;
+        }
+        if (hold.getStatus() == HoldStatus.READY
+                && holdRepository.transition(holdId, HoldStatus.READY, HoldStatus.CANCELLED) == 1) {
+            passCopyOn(hold.getCopyId(), hold.getBookId(), CopyStatus.ON_HOLD);
+            eventPublisher.publishEvent(new CopyAvailabilityChangedEvent(hold.getBookId()));
+            return;
+        }
+        throw new CirculationConflictException("Hold " + holdId + " is no longer active");
+    }
+
+    /**
+     * Expires the given holds if they are still READY and past their deadline,
+     * passing each freed copy on. Holds that were checked out or cancelled
+     * meanwhile are skipped, so ids may be offered more than once.
+     *
+     * @return the number of holds expired
+     */
+    @Transactional
+    public int expireHolds(Collection<Long> holdIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> dueIds = holdRepository.findByIdInAndStatusAndExpiresAtLessThanEqual(holdIds, HoldStatus.READY, now)
+                .stream()
+                .map(Hold::getId)
+                .collect(Collectors.toList());
+        if (dueIds.isEmpty() || holdRepository.expireReady(dueIds, now) == 0) {
+            return 0;
+        }
+
+        List<Hold> expired = holdRepository.findByIdInAndStatus(dueIds, HoldStatus.EXPIRED);
+        Set<Long> bookIds = new HashSet<>();
+        for (Hold hold : expired) {
+            passCopyOn(hold.getCopyId(), hold.getBookId(), CopyStatus.ON_HOLD);
+            bookIds.add(hold.getBookId());
+        }
+        bookIds.forEach(bookId -> eventPublisher.publishEvent(new CopyAvailabilityChangedEvent(bookId)));
+        return expired.size();
+    }
+
+    @Transactional(readOnly = true)
+    public List<HoldDTO> getWaitingHolds(Long bookId) {
+        return holdRepository.findByBookIdAndStatusOrderByIdAsc(bookId, HoldStatus.WAITING, Pageable.unpaged())
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Sets the copy aside for the first waiting patron, or puts it back on the
+     * shelf if nobody is waiting. Throws if the copy is no longer in
+     * {@code currentStatus}, so that the caller's changes roll back rather
+     * than leave a READY hold without its copy.
+     */
+    private void passCopyOn(Long copyId, Long bookId, CopyStatus currentStatus) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(properties.getHoldPeriod());
+        for (Hold hold : holdRepository.findByBookIdAndStatusOrderByIdAsc(bookId, HoldStatus.WAITING, NEXT_HOLDS)) {
+            if (holdRepository.markReady(hold.getId(), copyId, expiresAt) == 1) {
+                if (bookCopyRepository.holdFor(copyId, currentStatus, hold.getPatronId()) == 0) {
+                    throw copyMoved(copyId, currentStatus);
+                }
+                eventPublisher.publishEvent(new HoldReadyEvent(hold.getId(), expiresAt));
+                return;
+            }
+        }
+        if (bookCopyRepository.release(copyId, currentStatus) == 0) {
+            throw copyMoved(copyId, currentStatus);
+        }
+    }
+
+    private static CirculationConflictException copyMoved(Long copyId, CopyStatus expected) {
+        return new CirculationConflictException("Copy " + copyId + " is no longer " + expected);
+    }
+
+    private LoanDTO createLoan(Long copyId, Long bookId, String patronId) {
+        LocalDateTime now = LocalDateTime.now();
+        Loan loan = new Loan();
+        loan.setCopyId(copyId);
+        loan.setBookId(bookId);
+        loan.setPatronId(patronId);
+        loan.setCheckedOutAt(now);
+        loan.setDueAt(now.plus(properties.getLoanPeriod()));
+        return convertToDTO(loanRepository.save(loan));
+    }
+
+    private void requireBook(Long bookId) {
+        if (!bookRepository.existsById(bookId)) {
+            throw new ResourceNotFoundException("Book not found with id: " + bookId);
+        }
+    }
+
+    private BookCopyDTO convertToDTO(BookCopy copy) {
+        BookCopyDTO dto = new BookCopyDTO();
+        dto.setId(copy.getId());
+        dto.setBookId(copy.getBookId());
+        dto.setStatus(copy.getStatus());
+        dto.setHeldForPatron(copy.getHeldForPatron());
+        return dto;
+    }
+
+    private LoanDTO convertToDTO(Loan loan) {
+        LoanDTO dto = new LoanDTO();
+        dto.setId(loan.getId());
+        dto.setCopyId(loan.getCopyId());
+        dto.setBookId(loan.getBookId());
+        dto.setPatronId(loan.getPatronId());
+        dto.setCheckedOutAt(loan.getCheckedOutAt());
+        dto.setDueAt(loan.getDueAt());
+        dto.setReturnedAt(loan.getReturnedAt());
+        return dto;
+    }
+
+    private HoldDTO convertToDTO(Hold hold) {
+        HoldDTO dto = new HoldDTO();
+        dto.setId(hold.getId());
+        dto.setBookId(hold.getBookId());
+        dto.setPatronId(hold.getPatronId());
+        dto.setStatus(hold.getStatus());
+        dto.setCopyId(hold.getCopyId());
+        dto.setCreatedAt(hold.getCreatedAt());
+        dto.setExpiresAt(hold.getExpiresAt());
+        return dto;
+    }
+}
@@ -0,0 +1,8 @@
+package com.library.service;
+
+/**
+ * Published by {@link CirculationService} whenever copies of a book may have
+ * become available or unavailable.
+ */
+public record CopyAvailabilityChangedEvent(Long bookId) {
+}
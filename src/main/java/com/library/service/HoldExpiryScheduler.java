@@ -0,0 +1,143 @@
+package com.library.service;
+
+import com.library.config.CirculationProperties;
+import com.library.repository.HoldRepository;
+import com.library.util.HierarchicalTimingWheel;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires READY holds when their pickup window closes.
+ * <p>
+ * Deadlines live in an in-process {@link HierarchicalTimingWheel} rather than
+ * in one scheduled task per hold or a periodic table scan: scheduling is O(1)
+ * and each tick only touches the holds that are actually due, which are then
+ * expired in batches of {@code library.circulation.expiry-batch-size}.
+ * <p>
+ * The wheel is owned by a single scheduler thread. Holds that become READY are
+ * handed over through a lock-free queue after their transaction commits, and
+ * the wheel is rebuilt from the database on startup. Firing is only a hint:
+ * {@link CirculationService#expireHolds} re-checks status and deadline, so a
+ * hold checked out or cancelled in the meantime is left alone.
+ */
+@Slf4j
+@Component
+public class HoldExpiryScheduler {
+
+    private static final int BITS_PER_LEVEL = 8;
+    private static final int LEVELS = 4;
+    private static final int RELOAD_PAGE_SIZE = 1000;
+
+    private final CirculationService circulationService;
+    private final HoldRepository holdRepository;
+    private final long tickMillis;
+    private final int batchSize;
+    private final HierarchicalTimingWheel<Long> wheel;
+    private final Queue<PendingExpiry> incoming = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hold-expiry-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public HoldExpiryScheduler(CirculationService circulationService, HoldRepository holdRepository,
+                               CirculationProperties properties) {
+        this.circulationService = circulationService;
+        this.holdRepository = holdRepository;
+        this.tickMillis = properties.getExpiryTick().toMillis();
+        this.batchSize = properties.getExpiryBatchSize();
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, BITS_PER_LEVEL, LEVELS, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.execute(this::reloadReadyHolds);
+        executor.scheduleWithFixedDelay(() -> tick(System.currentTimeMillis()),
+                tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldReady(HoldReadyEvent event) {
+        schedule(event.holdId(), event.expiresAt());
+    }
+
+    public void schedule(Long holdId, LocalDateTime expiresAt) {
+        incoming.add(new PendingExpiry(holdId, toEpochMillis(expiresAt)));
+    }
+
+    /**
+     * Runs one scheduler tick. Only called from the scheduler thread, or from
+     * tests that never start it.
+     */
+    void tick(long nowMillis) {
+        for (PendingExpiry pending; (pending = incoming.poll()) != null; ) {
+            wheel.add(pending.holdId(), pending.deadlineMillis());
+        }
+
+        List<Long> due = wheel.advanceTo(nowMillis);
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                circulationService.expireHolds(batch);
+            } catch (RuntimeException e) {
+                log.warn("Could not expire {} holds, retrying on the next tick", batch.size(), e);
+                batch.forEach(holdId -> wheel.add(holdId, nowMillis));
+            }
+        }
+    }
+
+    int pendingCount() {
+        return wheel.size() + incoming.size();
+    }
+
+    private void reloadReadyHolds() {
+        try {
+            log.info("Scheduled expiry of {} ready holds", loadReadyHolds());
+        } catch (RuntimeException e) {
+            log.error("Could not load ready holds; they will not expire until the next restart", e);
+        }
+    }
+
+    private int loadReadyHolds() {
+        Pageable page = PageRequest.of(0, RELOAD_PAGE_SIZE);
+        long afterId = 0;
+        int reloaded = 0;
+        List<HoldRepository.ReadyHold> holds;
+        do {
+            holds = holdRepository.findReadyAfter(afterId, page);
+            for (HoldRepository.ReadyHold hold : holds) {
+                wheel.add(hold.getId(), toEpochMillis(hold.getExpiresAt()));
+                afterId = hold.getId();
+            }
+            reloaded += holds.size();
+        } while (holds.size() == RELOAD_PAGE_SIZE);
+        return reloaded;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record PendingExpiry(Long holdId, long deadlineMillis) {
+    }
+}
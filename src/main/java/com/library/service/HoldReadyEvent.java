@@ -0,0 +1,9 @@
+package com.library.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a copy is set aside for a waiting patron.
+ */
+public record HoldReadyEvent(Long holdId, LocalDateTime expiresAt) {
+}
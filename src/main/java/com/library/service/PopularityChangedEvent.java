@@ -0,0 +1,10 @@
+package com.library.service;
+
+import java.util.Map;
+
+/**
+ * Published by {@link PopularityService} after each ranking with the scores
+ * of the current most viewed books. Books not in the map score zero.
+ */
+public record PopularityChangedEvent(Map<Long, Long> scores) {
+}
@@ -0,0 +1,186 @@
+package com.library.service;
+
+import com.library.config.PopularityProperties;
+import com.library.dto.TrendingBookDTO;
+import com.library.exception.BadRequestException;
+import com.library.model.Book;
+import com.library.model.BookPopularity;
+import com.library.repository.BookPopularityRepository;
+import com.library.repository.BookRepository;
+import com.library.util.CountMinSketch;
+import com.library.util.HeavyHitters;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Approximate, decaying view counts per book, kept in memory so that a book
+ * lookup never writes to the database.
+ * <p>
+ * Views go into a {@link CountMinSketch} with lock-free atomic adds, and keys
+ * whose estimate is high enough are offered to a {@link HeavyHitters} top-K.
+ * A maintenance thread re-ranks the top-K, halves the sketch every decay
+ * interval so the ranking follows recent interest, and checkpoints the top-K
+ * to {@code book_popularity} so a restart does not start cold.
+ * <p>
+ * Besides the trending list, the scores feed autocomplete ranking through
+ * {@link PopularityChangedEvent}, and {@link #admit} offers a frequency-based
+ * admission test for caches.
+ */
+@Slf4j
+@Service
+public class PopularityService {
+
+    private final BookRepository bookRepository;
+    private final BookPopularityRepository bookPopularityRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final PopularityProperties properties;
+    private final CountMinSketch sketch;
+    private final HeavyHitters heavyHitters;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "popularity-maintenance");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Map<Long, Long> publishedScores = Map.of();
+
+    /**
+     * Checkpoints replace the stored rows, so they are only written once the
+     * previous checkpoint has been read back.
+     */
+    private volatile boolean restored;
+
+    public PopularityService(BookRepository bookRepository, BookPopularityRepository bookPopularityRepository,
+                             ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+                             PopularityProperties properties) {
+        this.bookRepository = bookRepository;
+        this.bookPopularityRepository = bookPopularityRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.sketch = new CountMinSketch(properties.getSketchWidth(), properties.getSketchDepth());
+        this.heavyHitters = new HeavyHitters(properties.getTopK());
+    }
+
+    public void recordView(Long bookId) {
+        heavyHitters.offer(bookId, sketch.add(bookId, 1));
+    }
+
+    public long estimate(Long bookId) {
+        return sketch.estimate(bookId);
+    }
+
+    /**
+     * TinyLFU-style admission: a cache that is full should only replace
+     * {@code victim} with {@code candidate} if the candidate is viewed more.
+     */
+    public boolean admit(Long candidate, Long victim) {
+        return sketch.estimate(candidate) > sketch.estimate(victim);
+    }
+
+    public List<TrendingBookDTO> getTrending(int limit) {
+        if (limit < 1 || limit > properties.getTopK()) {
+            throw new BadRequestException("Limit must be between 1 and " + properties.getTopK());
+        }
+        List<HeavyHitters.Scored> top = heavyHitters.ranking();
+        top = top.subList(0, Math.min(limit, top.size()));
+        if (top.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Book> books = bookRepository.findByIdIn(top.stream().map(HeavyHitters.Scored::key).toList())
+                .stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        List<TrendingBookDTO> trending = new ArrayList<>(top.size());
+        for (HeavyHitters.Scored entry : top) {
+            Book book = books.get(entry.key());
+            if (book != null) {
+                trending.add(new TrendingBookDTO(book.getId(), book.getTitle(), book.getAuthor(), entry.score()));
+            }
+        }
+        return trending;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.execute(this::restore);
+        long rankMillis = properties.getRankInterval().toMillis();
+        long decayMillis = properties.getDecayInterval().toMillis();
+        long checkpointMillis = properties.getCheckpointInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::rank, rankMillis, rankMillis, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::decay, decayMillis, decayMillis, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::checkpoint, checkpointMillis, checkpointMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Re-ranks the top-K and publishes the scores if they changed.
+     */
+    void rank() {
+        Map<Long, Long> scores = new LinkedHashMap<>();
+        heavyHitters.rank(sketch::estimate).forEach(entry -> scores.put(entry.key(), entry.score()));
+        if (!scores.equals(publishedScores)) {
+            publishedScores = scores;
+            eventPublisher.publishEvent(new PopularityChangedEvent(Map.copyOf(scores)));
+        }
+    }
+
+    void decay() {
+        sketch.halve();
+        rank();
+    }
+
+    void checkpoint() {
+        if (!restored) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<BookPopularity> rows = heavyHitters.ranking().stream()
+                .map(entry -> new BookPopularity(entry.key(), entry.score(), now))
+                .collect(Collectors.toList());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                bookPopularityRepository.deleteAllInBatch();
+                bookPopularityRepository.saveAll(rows);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not checkpoint popularity of {} books", rows.size(), e);
+        }
+    }
+
+    void restore() {
+        try {
+            List<BookPopularity> rows = bookPopularityRepository.findAll();
+            rows.forEach(row -> heavyHitters.offer(row.getBookId(), sketch.add(row.getBookId(), row.getScore())));
+            rank();
+            restored = true;
+            log.info("Restored popularity of {} books", rows.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not restore popularity checkpoint", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            checkpoint();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.library.service;
+
+import com.library.config.ProfilingProperties;
+import com.library.dto.ProfilingStatusDTO;
+import com.library.dto.RecordingSummaryDTO;
+import com.library.exception.BadRequestException;
+import com.library.exception.ResourceNotFoundException;
+import com.library.profiling.RecordingAnalyzer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a rolling JDK Flight Recorder recording of the last
+ * {@code library.profiling.max-age} and dumps it on demand.
+ * <p>
+ * The recording also captures {@code BookOperationEvent}s and
+ * {@code BookLookupEvent}s, which cost nothing while it is stopped. It leaves
+ * out the events that copy the environment, system properties and JVM
+ * arguments, since those carry credentials and dumps leave the host.
+ */
+@Slf4j
+@Service
+public class ProfilingService {
+
+    static final String RECORDING_NAME = "library-continuous";
+    static final List<String> PRIVATE_EVENTS =
+            List.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+    private static final DateTimeFormatter DUMP_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final ProfilingProperties properties;
+    private final Object lock = new Object();
+
+    // Guarded by lock
+    private Recording recording;
+
+    public ProfilingService(ProfilingProperties properties) {
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnReady() {
+        if (!properties.isStartOnReady()) {
+            return;
+        }
+        try {
+            start();
+        } catch (RuntimeException e) {
+            log.warn("Could not start the continuous JFR recording", e);
+        }
+    }
+
+    /**
+     * Starts the rolling recording, unless it is already running.
+     *
+     * @throws IllegalStateException if this JVM has no Flight Recorder or
+     *                               the settings cannot be read
+     */
+    public ProfilingStatusDTO start() {
+        synchronized (lock) {
+            if (recording == null) {
+                if (!FlightRecorder.isAvailable()) {
+                    throw new IllegalStateException("JDK Flight Recorder is not available in this JVM");
+                }
+                Recording started = new Recording(settings());
+                started.setName(RECORDING_NAME);
+                started.setToDisk(true);
+                started.setMaxAge(properties.getMaxAge());
+                started.setMaxSize(properties.getMaxSize().toBytes());
+                started.start();
+                recording = started;
+                log.info("Started continuous JFR recording with '{}' settings, keeping {}",
+                        properties.getSettings(), properties.getMaxAge());
+            }
+            return status();
+        }
+    }
+
+    /**
+     * Stops the recording and discards what it held.
+     */
+    public ProfilingStatusDTO stop() {
+        synchronized (lock) {
+            if (recording != null) {
+                recording.close();
+                recording = null;
+                log.info("Stopped continuous JFR recording");
+            }
+            return status();
+        }
+    }
+
+    public ProfilingStatusDTO status() {
+        synchronized (lock) {
+            boolean running = recording != null && recording.getState() == RecordingState.RUNNING;
+            return new ProfilingStatusDTO(running, properties.getSettings(),
+                    running ? LocalDateTime.ofInstant(recording.getStartTime(), ZoneId.systemDefault()) : null,
+                    properties.getMaxAge(), properties.getMaxSize().toBytes());
+        }
+    }
+
+    /**
+     * Writes what the running recording holds to a new file in the dump
+     * directory, deleting the oldest dumps beyond
+     * {@code library.profiling.retained-dumps}.
+     *
+     * @throws ResourceNotFoundException if no recording is running
+     */
+    public Path dump() throws IOException {
+        Path directory = properties.getDirectory();
+        Files.createDirectories(directory);
+        Path file = directory.resolve(RECORDING_NAME + "-" + LocalDateTime.now().format(DUMP_TIMESTAMP) + ".jfr");
+        synchronized (lock) {
+            if (recording == null) {
+                throw new ResourceNotFoundException("No profiling recording is running");
+            }
+            recording.dump(file);
+        }
+        pruneDumps(directory);
+        return file;
+    }
+
+    /**
+     * Dumps the running recording and summarizes it.
+     */
+    public RecordingSummaryDTO summarize(int top) throws IOException {
+        if (top < 1 || top > 100) {
+            throw new BadRequestException("Top must be between 1 and 100");
+        }
+        return RecordingAnalyzer.analyze(dump(), top);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stop();
+    }
+
+    private Map<String, String> settings() {
+        String settings = properties.getSettings();
+        Configuration configuration;
+        try {
+            configuration = settings.endsWith(".jfc") ? Configuration.create(Path.of(settings))
+                    : Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Cannot read JFR settings '" + settings + "'", e);
+        }
+        Map<String, String> values = new HashMap<>(configuration.getSettings());
+        PRIVATE_EVENTS.forEach(event -> values.put(event + "#enabled", "false"));
+        return values;
+    }
+
+    private void pruneDumps(Path directory) throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(directory)) {
+            dumps = files.filter(path -> path.getFileName().toString().startsWith(RECORDING_NAME + "-"))
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList();
+        }
+        for (Path old : dumps.subList(Math.min(properties.getRetainedDumps(), dumps.size()), dumps.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.library.sharding;
+
+import com.library.model.Book;
+import com.library.model.BookDescription;
+import com.library.repository.BookFieldsRepositoryImpl;
+import com.library.repository.BookRepository;
+import com.library.repository.DescriptionColumnMigration;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * One book database: its own pool, persistence unit and {@link BookRepository},
+ * with transactions that are independent of the primary datasource's.
+ * <p>
+ * Ids are interleaved across shards: shard {@code i} only issues ids equal to
+ * {@code i} modulo {@link #MAX_SHARDS}, so ids stay globally unique and the
+ * shard that created a book can be read from its id.
+ */
+public final class BookShard implements AutoCloseable {
+
+    public static final int MAX_SHARDS = 64;
+
+    private final int index;
+    private final String name;
+    private final HikariDataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final BookRepository repository;
+    private final TransactionTemplate writes;
+    private final TransactionTemplate reads;
+
+    private BookShard(int index, String name, HikariDataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.index = index;
+        this.name = name;
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        this.repository = new JpaRepositoryFactory(entityManager).getRepository(BookRepository.class,
+                RepositoryComposition.RepositoryFragments.just(new BookFieldsRepositoryImpl(entityManager)));
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        this.writes = new TransactionTemplate(transactionManager);
+        this.reads = new TransactionTemplate(transactionManager);
+        this.reads.setReadOnly(true);
+    }
+
+    public static BookShard open(int index, ShardingProperties.Shard config, EntityManagerFactoryBuilder builder,
+                                 Map<String, Object> hibernateSettings) {
+        return open(index, config, builder, hibernateSettings, pool -> {
+        });
+    }
+
+    /**
+     * Connects to the shard, creates or updates its {@code books} table with
+     * the given Hibernate settings, moves descriptions out of an old
+     * {@code books.description} column and reserves its id residue. The pool
+     * gets {@code poolDefaults} first, so that settings such as
+     * {@code autoCommit} agree with the Hibernate settings, and then the
+     * shard's name and size.
+     */
+    public static BookShard open(int index, ShardingProperties.Shard config, EntityManagerFactoryBuilder builder,
+                                 Map<String, Object> hibernateSettings, Consumer<HikariDataSource> poolDefaults) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(config.getUrl())
+                .username(config.getUsername())
+                .password(config.getPassword())
+                .build();
+        poolDefaults.accept(dataSource);
+        dataSource.setPoolName("books-" + config.getName());
+        dataSource.setMaximumPoolSize(config.getMaximumPoolSize());
+        try {
+            LocalContainerEntityManagerFactoryBean factory = builder.dataSource(dataSource)
+                    .managedTypes(PersistenceManagedTypes.of(Book.class.getName(), BookDescription.class.getName()))
+                    .persistenceUnit("books-" + config.getName())
+                    .properties(hibernateSettings)
+                    .build();
+            factory.afterPropertiesSet();
+            BookShard shard = new BookShard(index, config.getName(), dataSource, factory.getObject());
+            new DescriptionColumnMigration(dataSource, shard.writes).run();
+            shard.reserveIdResidue();
+            shard.createLayoutTable();
+            return shard;
+        } catch (RuntimeException e) {
+            dataSource.close();
+            throw e;
+        }
+    }
+
+    public int index() {
+        return index;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public <T> T read(Function<BookRepository, T> query) {
+        return reads.execute(status -> query.apply(repository));
+    }
+
+    public <T> T write(Function<BookRepository, T> update) {
+        return writes.execute(status -> update.apply(repository));
+    }
+
+    /**
+     * Inserts a book that keeps the id it was given on another shard, at the
+     * given version, with a new description row. JPA would assign a new
+     * identity, so this is plain SQL.
+     */
+    public void insertWithId(Book book, long version) {
+        String description = book.getDescription();
+        writes.executeWithoutResult(status -> {
+            Number descriptionId = description == null ? null
+                    : new SimpleJdbcInsert(dataSource)
+                    .withTableName("book_descriptions")
+                    .usingColumns("text")
+                    .usingGeneratedKeyColumns("id")
+                    .executeAndReturnKey(Map.of("text", description));
+            new JdbcTemplate(dataSource).update(
+                    "insert into books (id, title, author, isbn, publication_date, genre, available, description_id, " +
+                            "version) values (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(), book.getPublicationDate(),
+                    book.getGenre(), book.getAvailable(), descriptionId == null ? null : descriptionId.longValue(),
+                    version);
+        });
+    }
+
+    /**
+     * @return the shard layout this database was last balanced under, if any
+     */
+    public Optional<String> recordedLayout() {
+        return new JdbcTemplate(dataSource).queryForList("select layout from book_shard_layout", String.class)
+                .stream()
+                .findFirst();
+    }
+
+    public void recordLayout(String layout) {
+        writes.executeWithoutResult(status -> {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.update("delete from book_shard_layout");
+            jdbcTemplate.update("insert into book_shard_layout (layout) values (?)", layout);
+        });
+    }
+
+    /**
+     * @return the ISBN of every book on this shard, by id in id order
+     */
+    public Map<Long, String> isbnsById() {
+        Map<Long, String> isbns = new LinkedHashMap<>();
+        new JdbcTemplate(dataSource).query("select id, isbn from books order by id",
+                (RowCallbackHandler) row -> isbns.put(row.getLong("id"), row.getString("isbn")));
+        return isbns;
+    }
+
+    private void createLayoutTable() {
+        writes.executeWithoutResult(status -> new JdbcTemplate(dataSource)
+                .execute("create table if not exists book_shard_layout (layout varchar(4000) not null)"));
+    }
+
+    /**
+     * Restarts the identity column at the next free id in this shard's
+     * residue class, stepping by {@link #MAX_SHARDS}.
+     */
+    private void reserveIdResidue() {
+        writes.executeWithoutResult(status -> {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from books", Long.class);
+            long next = (maxId / MAX_SHARDS + 1) * MAX_SHARDS + index;
+            jdbcTemplate.execute("alter table books alter column id restart with " + next
+                    + " set increment by " + MAX_SHARDS);
+        });
+    }
+
+    @Override
+    public void close() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+}
@@ -0,0 +1,428 @@
+package com.library.sharding;
+
+import com.library.dto.BookDTO;
+import com.library.model.Book;
+import com.library.repository.BookOrdering;
+import com.library.repository.BookRepository;
+import com.library.util.ConsistentHashRing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link BookRepository} over several {@link BookShard}s.
+ * <p>
+ * A book lives on the shard its ISBN hashes to on a {@link ConsistentHashRing},
+ * so ISBN lookups touch one shard and each shard's unique constraint on
+ * {@code isbn} is enough to keep ISBNs unique across the catalog. Changing a
+ * book's ISBN moves it to the new ISBN's shard under the same id.
+ * <p>
+ * Id lookups try the shard that issued the id first and only ask the others
+ * when the book is not there, which happens for moved books and unknown ids.
+ * Searches and listings are sent to every shard in parallel; sorted results
+ * are merged, pages are cut after the merge.
+ * <p>
+ * Each call runs in its own transaction on the shard it touches, independent
+ * of any transaction on the primary datasource. A move commits the insert on
+ * the new shard before deleting from the old one, so a crash in between
+ * leaves two copies rather than none.
+ * <p>
+ * Adding shards or changing the virtual nodes changes which shard owns an
+ * ISBN, so {@link #rebalance(int)} moves the affected books at startup.
+ */
+@Slf4j
+public class ShardedBookRepository implements InvocationHandler, AutoCloseable {
+
+    private static final Set<String> SCATTERED_SEARCHES = Set.of(
+            "findByAuthorContainingIgnoreCase",
+            "findByTitleContainingIgnoreCase",
+            "findByGenreIgnoreCase",
+            "findByAvailable");
+    private static final Comparator<Book> BY_ID = BookOrdering.BY_ID;
+
+    private final List<BookShard> shards;
+    private final ConsistentHashRing ring;
+    private final ExecutorService executor;
+    private final BookRepository repository;
+
+    public ShardedBookRepository(List<BookShard> shards, ConsistentHashRing ring) {
+        this.shards = List.copyOf(shards);
+        this.ring = ring;
+        this.executor = Executors.newFixedThreadPool(Math.max(2, shards.size() * 2), runnable -> {
+            Thread thread = new Thread(runnable, "book-shard-query");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.repository = (BookRepository) Proxy.newProxyInstance(BookRepository.class.getClassLoader(),
+                new Class<?>[]{BookRepository.class}, this);
+    }
+
+    public BookRepository asRepository() {
+        return repository;
+    }
+
+    public BookShard shardForIsbn(String isbn) {
+        return shards.get(ring.nodeFor(isbn));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> "ShardedBookRepository" + shards.stream().map(BookShard::name).toList();
+            };
+        }
+        Object[] arguments = args == null ? new Object[0] : args;
+        String name = method.getName();
+        if (SCATTERED_SEARCHES.contains(name)) {
+            return scatter(repository -> (List<Book>) invokeOn(repository, method, arguments), BY_ID);
+        }
+        return switch (name) {
+            case "save" -> save((Book) arguments[0]);
+            case "saveAll" -> {
+                List<Book> saved = new ArrayList<>();
+                ((Iterable<Book>) arguments[0]).forEach(book -> saved.add(save(book)));
+                yield saved;
+            }
+            case "findById" -> locate((Long) arguments[0]).map(Located::book);
+            case "existsById" -> locate((Long) arguments[0]).isPresent();
+            case "deleteById" -> {
+                deleteById((Long) arguments[0]);
+                yield null;
+            }
+            case "delete" -> {
+                deleteById(((Book) arguments[0]).getId());
+                yield null;
+            }
+            case "findByIsbn" -> shardForIsbn((String) arguments[0]).read(books -> books.findByIsbn((String) arguments[0]));
+            case "existsByIsbn" -> shardForIsbn((String) arguments[0]).read(books -> books.existsByIsbn((String) arguments[0]));
+            case "findByIdIn", "findAllById" -> findByIds((Iterable<Long>) arguments[0]);
+            case "findByIsbnIn" -> byIsbnShard((Collection<String>) arguments[0], BookRepository::findByIsbnIn);
+            case "findIsbnsIn" -> byIsbnShard((Collection<String>) arguments[0], BookRepository::findIsbnsIn);
+            case "findAll" -> findAll(arguments);
+            case "count" -> fanOut(shard -> shard.read(BookRepository::count)).stream().mapToLong(Long::longValue).sum();
+            case "countByGenre", "countByAvailable", "countByPublicationYear", "countByAuthor" ->
+                    fanOut(shard -> shard.read(books -> (List<?>) invokeOn(books, method, arguments))).stream()
+                            .flatMap(List::stream)
+                            .toList();
+            case "findFields" -> merge(fanOut(shard -> shard.read(books -> (List<BookDTO>) invokeOn(books, method, arguments))),
+                    Comparator.comparing(BookDTO::getId), Integer.MAX_VALUE);
+            case "findTermsAfter" -> findTermsAfter((Long) arguments[0], (Pageable) arguments[1]);
+            case "updateAvailability" -> locate((Long) arguments[0])
+                    .map(located -> located.shard().write(books ->
+                            books.updateAvailability((Long) arguments[0], (Boolean) arguments[1])))
+                    .orElse(0);
+            default -> throw new UnsupportedOperationException(name + " is not supported on a sharded catalog");
+        };
+    }
+
+    private Book save(Book book) {
+        BookShard target = shardForIsbn(book.getIsbn());
+        if (book.getId() == null) {
+            return target.write(books -> books.save(book));
+        }
+        Optional<Located> current = locate(book.getId());
+        if (current.isEmpty() || current.get().shard() == target) {
+            return target.write(books -> books.save(book));
+        }
+        BookShard source = current.get().shard();
+        Long version = current.get().book().getVersion();
+        if (book.getVersion() != null && !book.getVersion().equals(version)) {
+            throw new ObjectOptimisticLockingFailureException(Book.class, book.getId());
+        }
+        move(book, source, target, version == null ? 0 : version + 1);
+        log.info("Moved book {} from shard {} to {} after its ISBN changed", book.getId(), source.name(), target.name());
+        return target.read(books -> books.findById(book.getId())).orElse(book);
+    }
+
+    private static void move(Book book, BookShard source, BookShard target, long version) {
+        target.insertWithId(book, version);
+        try {
+            deleteFrom(source, book.getId());
+        } catch (RuntimeException e) {
+            deleteFrom(target, book.getId());
+            throw e;
+        }
+    }
+
+    private static void deleteFrom(BookShard shard, Long id) {
+        shard.write(books -> {
+            books.deleteById(id);
+            return null;
+        });
+    }
+
+    /**
+     * Brings the shards in line with the configured layout: the shard names
+     * in order and the virtual nodes per shard. Every shard records the layout
+     * it was last balanced under. Shards can only be appended, because a
+     * shard's position is part of the ids it issued, so any other change fails
+     * startup. When shards were appended or the virtual nodes changed, every
+     * book whose ISBN now hashes to another shard is moved there under its id
+     * before the new layout is recorded; an interrupted rebalance is finished
+     * on the next start. Must run before the repository serves requests.
+     *
+     * @return the number of books moved
+     */
+    public int rebalance(int virtualNodes) {
+        List<String> names = shards.stream().map(BookShard::name).toList();
+        String layout = virtualNodes + ":" + String.join(",", names);
+        List<Optional<String>> recorded = fanOut(BookShard::recordedLayout);
+        for (Optional<String> previous : recorded) {
+            previous.ifPresent(value -> checkAppendOnly(value, names));
+        }
+        if (recorded.stream().allMatch(previous -> previous.filter(layout::equals).isPresent())) {
+            return 0;
+        }
+        int moved = 0;
+        for (BookShard source : shards) {
+            for (Map.Entry<Long, String> entry : source.isbnsById().entrySet()) {
+                BookShard target = shardForIsbn(entry.getValue());
+                if (target != source) {
+                    moveForRebalance(entry.getKey(), source, target);
+                    moved++;
+                }
+            }
+        }
+        shards.forEach(shard -> shard.recordLayout(layout));
+        log.info("Rebalanced book shards to layout {}, moved {} books", layout, moved);
+        return moved;
+    }
+
+    private static void checkAppendOnly(String recorded, List<String> names) {
+        List<String> previous = List.of(recorded.substring(recorded.indexOf(':') + 1).split(","));
+        if (previous.size() > names.size() || !names.subList(0, previous.size()).equals(previous)) {
+            throw new IllegalStateException("library.sharding.shards must start with the shards " + previous
+                    + " it was balanced under, in that order; shards can only be appended, got " + names);
+        }
+    }
+
+    /**
+     * Moves a book at its current version. A copy already on the target is
+     * left over from an interrupted move, so only the source row is deleted.
+     */
+    private static void moveForRebalance(Long id, BookShard source, BookShard target) {
+        if (target.read(books -> books.existsById(id))) {
+            deleteFrom(source, id);
+            return;
+        }
+        source.read(books -> books.findById(id).map(book -> {
+            book.getDescription();
+            return book;
+        })).ifPresent(book -> move(book, source, target, book.getVersion() == null ? 0 : book.getVersion()));
+    }
+
+    private void deleteById(Long id) {
+        locate(id).ifPresent(located -> deleteFrom(located.shard(), id));
+    }
+
+    private Optional<Located> locate(Long id) {
+        BookShard home = homeShard(id);
+        if (home != null) {
+            Optional<Book> book = home.read(books -> books.findById(id));
+            if (book.isPresent()) {
+                return Optional.of(new Located(home, book.get()));
+            }
+        }
+        return fanOut(shard -> shard == home ? Optional.<Located>empty()
+                : shard.read(books -> books.findById(id)).map(book -> new Located(shard, book)))
+                .stream()
+                .flatMap(Optional::stream)
+                .findFirst();
+    }
+
+    private BookShard homeShard(Long id) {
+        int index = (int) Math.floorMod(id, (long) BookShard.MAX_SHARDS);
+        return index < shards.size() ? shards.get(index) : null;
+    }
+
+    private List<Book> findByIds(Iterable<Long> ids) {
+        Map<BookShard, List<Long>> byHome = new LinkedHashMap<>();
+        Set<Long> unique = new HashSet<>();
+        for (Long id : ids) {
+            if (id != null && unique.add(id)) {
+                BookShard home = homeShard(id);
+                byHome.computeIfAbsent(home, shard -> new ArrayList<>()).add(id);
+            }
+        }
+        List<Book> found = new ArrayList<>(inParallel(byHome, (shard, shardIds) ->
+                shard == null ? List.of() : shard.read(books -> books.findByIdIn(shardIds))));
+        found.forEach(book -> unique.remove(book.getId()));
+        if (!unique.isEmpty()) {
+            found.addAll(scatter(books -> books.findByIdIn(unique), BY_ID));
+        }
+        return found;
+    }
+
+    private <T> List<T> byIsbnShard(Collection<String> isbns, BiFunction<BookRepository, List<String>, List<T>> query) {
+        Map<BookShard, List<String>> byShard = new LinkedHashMap<>();
+        for (String isbn : isbns) {
+            if (isbn != null) {
+                byShard.computeIfAbsent(shardForIsbn(isbn), shard -> new ArrayList<>()).add(isbn);
+            }
+        }
+        return inParallel(byShard, (shard, shardIsbns) -> shard.read(books -> query.apply(books, shardIsbns)));
+    }
+
+    private Object findAll(Object[] arguments) {
+        if (arguments.length == 0) {
+            return scatter(BookRepository::findAll, BY_ID);
+        }
+        if (arguments[0] instanceof Sort sort) {
+            return scatter(books -> books.findAll(sort), BookOrdering.of(sort));
+        }
+        if (arguments[0] instanceof Pageable pageable) {
+            return findPage(pageable);
+        }
+        throw new UnsupportedOperationException("findAll(" + arguments[0].getClass().getSimpleName()
+                + ") is not supported on a sharded catalog");
+    }
+
+    /**
+     * Fetches the first {@code offset + size} rows of every shard in the
+     * requested order, merges them and cuts the page from the merged list.
+     */
+    private Page<Book> findPage(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(scatter(books -> books.findAll(pageable.getSort()), BookOrdering.of(pageable.getSort())));
+        }
+        int window = Math.toIntExact(pageable.getOffset() + pageable.getPageSize());
+        PageRequest shardRequest = PageRequest.of(0, window, pageable.getSort());
+        List<Page<Book>> pages = fanOut(shard -> shard.read(books -> books.findAll(shardRequest)));
+        long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        List<Book> merged = merge(pages.stream().map(Page::getContent).toList(), BookOrdering.of(pageable.getSort()), window);
+        List<Book> content = merged.subList(Math.min((int) pageable.getOffset(), merged.size()), merged.size());
+        return new PageImpl<>(new ArrayList<>(content), pageable, total);
+    }
+
+    private List<BookRepository.BookTerms> findTermsAfter(Long afterId, Pageable pageable) {
+        PageRequest firstPage = PageRequest.of(0, pageable.getPageSize());
+        List<List<BookRepository.BookTerms>> pages = fanOut(shard -> shard.read(books -> books.findTermsAfter(afterId, firstPage)));
+        return merge(pages, Comparator.comparing(BookRepository.BookTerms::getId), pageable.getPageSize());
+    }
+
+    private List<Book> scatter(Function<BookRepository, List<Book>> query, Comparator<Book> order) {
+        return merge(fanOut(shard -> shard.read(query)), order, Integer.MAX_VALUE);
+    }
+
+    /**
+     * k-way merge of lists that are each sorted by {@code order}.
+     */
+    private static <T> List<T> merge(List<List<T>> sorted, Comparator<? super T> order, int limit) {
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>((a, b) -> order.compare(a.value, b.value));
+        for (List<T> list : sorted) {
+            Iterator<T> iterator = list.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head<>(iterator.next(), iterator));
+            }
+        }
+        List<T> merged = new ArrayList<>();
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Head<T> head = heads.poll();
+            merged.add(head.value);
+            if (head.rest.hasNext()) {
+                heads.add(new Head<>(head.rest.next(), head.rest));
+            }
+        }
+        return merged;
+    }
+
+    private <T> List<T> fanOut(Function<BookShard, T> query) {
+        if (shards.size() == 1) {
+            return List.of(query.apply(shards.get(0)));
+        }
+        List<Future<T>> futures = shards.stream()
+                .map(shard -> executor.submit(() -> query.apply(shard)))
+                .collect(Collectors.toList());
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+    private <K, T> List<T> inParallel(Map<BookShard, K> work, ShardQuery<K, List<T>> query) {
+        List<Future<List<T>>> futures = new ArrayList<>(work.size());
+        work.forEach((shard, keys) -> futures.add(executor.submit(() -> query.run(shard, keys))));
+        List<T> results = new ArrayList<>();
+        for (Future<List<T>> future : futures) {
+            results.addAll(await(future));
+        }
+        return results;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying book shards", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Object invokeOn(BookRepository repository, Method method, Object[] arguments) {
+        try {
+            return method.invoke(repository, arguments);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        shards.forEach(BookShard::close);
+    }
+
+    private record Located(BookShard shard, Book book) {
+    }
+
+    private record Head<T>(T value, Iterator<T> rest) {
+    }
+
+    @FunctionalInterface
+    private interface ShardQuery<K, R> {
+
+        R run(BookShard shard, K keys);
+    }
+}
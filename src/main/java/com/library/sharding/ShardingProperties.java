@@ -0,0 +1,43 @@
+package com.library.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "library.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Points per shard on the hash ring; more points even out the split.
+     * Changing it moves books between shards at the next start.
+     */
+    private int virtualNodes = 128;
+
+    /**
+     * Book databases. A shard's position in this list is part of the ids it
+     * has issued, so new shards must be appended; startup fails otherwise.
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+
+        /**
+         * Stable name that places the shard on the hash ring.
+         */
+        private String name;
+
+        private String url;
+
+        private String username = "sa";
+
+        private String password = "";
+
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,85 @@
+package com.library.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min Sketch over {@code long} keys: {@code depth} rows of
+ * {@code width} counters, each key hashed to one counter per row. The
+ * estimate is the smallest of those counters, so it never undercounts and
+ * overcounts by at most {@code e / width} of the total with probability
+ * {@code 1 - e^-depth}.
+ * <p>
+ * Counters are {@link AtomicLongArray} cells updated with a single atomic add,
+ * so concurrent writers never block each other. {@link #halve()} ages every
+ * counter by half, which turns raw counts into an exponentially decaying
+ * recent-activity score.
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int widthMask;
+    private final AtomicLongArray counters;
+
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || Integer.bitCount(width) != 1 || depth <= 0 || (long) width * depth > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Width must be a power of two and depth positive");
+        }
+        this.depth = depth;
+        this.widthMask = width - 1;
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    /**
+     * Adds {@code count} to the key's counters.
+     *
+     * @return the key's estimate including this addition
+     */
+    public long add(long key, long count) {
+        long hash = mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.addAndGet(index(row, h1 + row * h2), count));
+        }
+        return min;
+    }
+
+    public long estimate(long key) {
+        long hash = mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.get(index(row, h1 + row * h2)));
+        }
+        return min;
+    }
+
+    /**
+     * Halves every counter. Increments racing with the halving may be halved
+     * or not; either way the estimate stays within one increment of exact.
+     */
+    public void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, value -> value >>> 1);
+        }
+    }
+
+    private int index(int row, int hash) {
+        return row * (widthMask + 1) + (hash & widthMask);
+    }
+
+    /**
+     * MurmurHash3 finalizer; ids are sequential, so they must be spread before
+     * being masked to a column.
+     */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -0,0 +1,78 @@
+package com.library.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Tracks the top {@code k} keys by an externally supplied estimate, such as a
+ * {@link CountMinSketch}.
+ * <p>
+ * {@link #offer} is on the hot path: a key is only admitted as a candidate
+ * once its estimate beats the smallest score of the last ranking, and an
+ * existing candidate is updated with a plain atomic store. {@link #rank}
+ * re-scores the candidates, keeps the best {@code k} and raises the admission
+ * threshold; it is meant to run periodically on a single maintenance thread.
+ */
+public class HeavyHitters {
+
+    private final int k;
+    private final Map<Long, AtomicLong> candidates = new ConcurrentHashMap<>();
+    private volatile long threshold;
+    private volatile List<Scored> ranking = List.of();
+
+    public HeavyHitters(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        this.k = k;
+    }
+
+    public void offer(long key, long estimate) {
+        AtomicLong score = candidates.get(key);
+        if (score != null) {
+            score.lazySet(estimate);
+        } else if (estimate > threshold) {
+            candidates.putIfAbsent(key, new AtomicLong(estimate));
+        }
+    }
+
+    /**
+     * Re-scores the candidates with {@code estimator}, drops all but the top
+     * {@code k} and returns them best first.
+     */
+    public List<Scored> rank(LongUnaryOperator estimator) {
+        List<Scored> scored = new ArrayList<>(candidates.size());
+        candidates.forEach((key, score) -> {
+            long estimate = estimator.applyAsLong(key);
+            score.set(estimate);
+            scored.add(new Scored(key, estimate));
+        });
+        scored.sort(Comparator.comparingLong(Scored::score).reversed().thenComparingLong(Scored::key));
+        List<Scored> top = new ArrayList<>(Math.min(k, scored.size()));
+        for (Scored entry : scored) {
+            if (top.size() < k && entry.score() > 0) {
+                top.add(entry);
+            } else {
+                candidates.remove(entry.key());
+            }
+        }
+        threshold = top.size() < k ? 0 : top.get(top.size() - 1).score();
+        ranking = List.copyOf(top);
+        return ranking;
+    }
+
+    /**
+     * The result of the last {@link #rank} call.
+     */
+    public List<Scored> ranking() {
+        return ranking;
+    }
+
+    public record Scored(long key, long score) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.library.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel (Varghese and Lauck): several wheels of
+ * {@code 2^bitsPerLevel} slots each, where every level counts in ticks of the
+ * full span of the level below, like the hands of a clock. Adding a timer is
+ * O(1); a timer on an upper level is moved down ("cascaded") when that
+ * level's hand reaches its slot, so each timer is touched at most once per
+ * level on its way to expiry.
+ * <p>
+ * Time is measured in whole ticks. A timer fires on the first tick at or
+ * after its deadline, never earlier. Timers further out than the top level
+ * can represent wait in an overflow list that is re-examined whenever the top
+ * level completes a turn.
+ * <p>
+ * Not thread-safe; the owner must confine it to a single thread.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int bitsPerLevel;
+    private final int levels;
+    private final int slotMask;
+    private final Entry<T>[][] slots;
+
+    private Entry<T> overflow;
+    private Entry<T> due;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int bitsPerLevel, int levels, long startMillis) {
+        if (tickMillis <= 0 || bitsPerLevel <= 0 || levels <= 0 || (long) bitsPerLevel * levels > 62) {
+            throw new IllegalArgumentException("Invalid timing wheel geometry");
+        }
+        this.tickMillis = tickMillis;
+        this.bitsPerLevel = bitsPerLevel;
+        this.levels = levels;
+        this.slotMask = (1 << bitsPerLevel) - 1;
+        this.slots = new Entry[levels][1 << bitsPerLevel];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules {@code value} to fire at {@code deadlineMillis}. A deadline that
+     * has already passed fires on the next {@link #advanceTo} call.
+     */
+    public void add(T value, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        insert(new Entry<>(value, deadlineTick));
+        size++;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis}.
+     *
+     * @return the values whose deadline has been reached, in no particular order
+     */
+    public List<T> advanceTo(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        collectDue(expired);
+
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            collectDue(expired);
+            int slot = (int) (currentTick & slotMask);
+            collect(slots[0][slot], expired);
+            slots[0][slot] = null;
+        }
+        size -= expired.size();
+        return expired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Places an entry on the level of the most significant group of bits in
+     * which its deadline differs from the current tick. The slot index on that
+     * level is then strictly ahead of the level's hand.
+     */
+    private void insert(Entry<T> entry) {
+        long deadlineTick = entry.deadlineTick;
+        if (deadlineTick <= currentTick) {
+            entry.next = due;
+            due = entry;
+            return;
+        }
+        long differing = deadlineTick ^ currentTick;
+        int level = (63 - Long.numberOfLeadingZeros(differing)) / bitsPerLevel;
+        if (level >= levels) {
+            entry.next = overflow;
+            overflow = entry;
+            return;
+        }
+        int slot = (int) ((deadlineTick >>> (level * bitsPerLevel)) & slotMask);
+        entry.next = slots[level][slot];
+        slots[level][slot] = entry;
+    }
+
+    /**
+     * When the hand of a level wraps to zero, the hand of the level above moves
+     * one slot; the entries in that slot now share every higher digit with the
+     * current tick and are re-inserted on the levels below. Upper levels are
+     * cascaded first because they may refill a slot that a lower level is
+     * about to cascade.
+     */
+    private void cascade() {
+        int level = 1;
+        while (level < levels && (currentTick & ((1L << (level * bitsPerLevel)) - 1)) == 0) {
+            level++;
+        }
+        if (level == levels && (currentTick & ((1L << (levels * bitsPerLevel)) - 1)) == 0) {
+            Entry<T> pending = overflow;
+            overflow = null;
+            reinsert(pending);
+        }
+        for (int l = level - 1; l >= 1; l--) {
+            int slot = (int) ((currentTick >>> (l * bitsPerLevel)) & slotMask);
+            Entry<T> pending = slots[l][slot];
+            slots[l][slot] = null;
+            reinsert(pending);
+        }
+    }
+
+    private void reinsert(Entry<T> entry) {
+        while (entry != null) {
+            Entry<T> next = entry.next;
+            entry.next = null;
+            insert(entry);
+            entry = next;
+        }
+    }
+
+    private void collectDue(List<T> into) {
+        collect(due, into);
+        due = null;
+    }
+
+    private static <T> void collect(Entry<T> entry, List<T> into) {
+        for (; entry != null; entry = entry.next) {
+            into.add(entry.value);
+        }
+    }
+
+    private static final class Entry<T> {
+
+        private final T value;
+        private final long deadlineTick;
+        private Entry<T> next;
+
+        private Entry(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.library.util;
+
+/**
+ * Allocation-free ISBN-10/ISBN-13 checks used to reject lookups that cannot
+ * match before they reach the database.
+ */
+public final class IsbnValidator {
+
+    private IsbnValidator() {
+    }
+
+    /**
+     * True if a book could be stored with this ISBN: not blank and 10 to 13
+     * characters, the same rules as {@code Book.isbn}. A lookup for anything
+     * else cannot match.
+     */
+    public static boolean isStorable(String isbn) {
+        if (isbn == null || isbn.length() < 10 || isbn.length() > 13) {
+            return false;
+        }
+        for (int i = 0; i < isbn.length(); i++) {
+            if (!Character.isWhitespace(isbn.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True for 13 digits, or 9 digits followed by a digit or {@code X}.
+     */
+    public static boolean isWellFormed(String isbn) {
+        if (isbn == null) {
+            return false;
+        }
+        int length = isbn.length();
+        if (length != 10 && length != 13) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = isbn.charAt(i);
+            boolean digit = c >= '0' && c <= '9';
+            boolean checkX = length == 10 && i == 9 && (c == 'X' || c == 'x');
+            if (!digit && !checkX) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * True if the ISBN is well formed and its check digit is correct.
+     */
+    public static boolean hasValidChecksum(String isbn) {
+        if (!isWellFormed(isbn)) {
+            return false;
+        }
+        return isbn.length() == 10 ? isbn10ChecksumValid(isbn) : isbn13ChecksumValid(isbn);
+    }
+
+    private static boolean isbn10ChecksumValid(String isbn) {
+        int sum = 0;
+        for (int i = 0; i < 10; i++) {
+            char c = isbn.charAt(i);
+            int value = (c == 'X' || c == 'x') ? 10 : c - '0';
+            sum += value * (10 - i);
+        }
+        return sum % 11 == 0;
+    }
+
+    private static boolean isbn13ChecksumValid(String isbn) {
+        int sum = 0;
+        for (int i = 0; i < 13; i++) {
+            int value = isbn.charAt(i) - '0';
+            sum += (i % 2 == 0) ? value : value * 3;
+        }
+        return sum % 10 == 0;
+    }
+}
@@ -0,0 +1,239 @@
+package com.library.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Many short strings stored as UTF-8 in one growing byte array. A string is
+ * addressed by a {@code long} reference packing its offset and length, so a
+ * column of strings is a {@code long[]} rather than one {@code String} object
+ * (with its header, hash and separate backing array) per value.
+ * <p>
+ * Bytes once written are never overwritten: growing and {@link #compact}
+ * copy into a new array, so a {@link Text} taken from the arena stays valid
+ * whatever happens to it later. Released strings are garbage until the next
+ * compaction. Not thread-safe.
+ */
+public class StringArena {
+
+    public static final long NULL = -1L;
+
+    private byte[] bytes;
+    private int used;
+    private long garbage;
+
+    public StringArena() {
+        this(1024);
+    }
+
+    public StringArena(int initialCapacity) {
+        this.bytes = new byte[Math.max(16, initialCapacity)];
+    }
+
+    /**
+     * Stores a string, returning its reference ({@link #NULL} for null).
+     */
+    public long put(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(encoded.length);
+        System.arraycopy(encoded, 0, bytes, used, encoded.length);
+        long ref = reference(used, encoded.length);
+        used += encoded.length;
+        return ref;
+    }
+
+    public String get(long ref) {
+        return ref == NULL ? null : new String(bytes, offset(ref), length(ref), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The stored string without decoding it yet, or null.
+     */
+    public Text text(long ref) {
+        return ref == NULL ? null : new Text(bytes, offset(ref), length(ref));
+    }
+
+    /**
+     * Marks a string as no longer referenced.
+     */
+    public void release(long ref) {
+        if (ref != NULL) {
+            garbage += length(ref);
+        }
+    }
+
+    /**
+     * Whether the stored string is {@code encoded}, compared byte by byte.
+     */
+    public boolean matches(long ref, byte[] encoded) {
+        if (ref == NULL || length(ref) != encoded.length) {
+            return false;
+        }
+        int offset = offset(ref);
+        return Arrays.equals(bytes, offset, offset + encoded.length, encoded, 0, encoded.length);
+    }
+
+    /**
+     * Hash of the stored bytes, equal to {@link #hash(byte[])} of the encoded string.
+     */
+    public int hash(long ref) {
+        return hash(bytes, offset(ref), length(ref));
+    }
+
+    public static int hash(byte[] encoded) {
+        return hash(encoded, 0, encoded.length);
+    }
+
+    public static byte[] encode(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Whether the upper-cased string contains the needle. ASCII strings are
+     * searched in place; others are decoded, since upper-casing some
+     * non-ASCII characters yields ASCII ones.
+     */
+    public boolean containsIgnoreCase(long ref, Needle needle) {
+        if (ref == NULL) {
+            return false;
+        }
+        int offset = offset(ref);
+        int end = offset + length(ref);
+        for (int i = offset; i < end; i++) {
+            if (bytes[i] < 0) {
+                return get(ref).toUpperCase(Locale.ROOT).contains(needle.upper);
+            }
+        }
+        if (needle.ascii == null) {
+            return false;
+        }
+        byte[] pattern = needle.ascii;
+        int last = end - pattern.length;
+        outer:
+        for (int start = offset; start <= last; start++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (upper(bytes[start + j]) != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Bytes held, including garbage.
+     */
+    public int size() {
+        return used;
+    }
+
+    public long garbage() {
+        return garbage;
+    }
+
+    /**
+     * Copies the strings referenced by {@code refs[0..count)} into a new
+     * array, rewriting the references in place. Strings not referenced
+     * there are dropped.
+     */
+    public void compact(long[] refs, int count) {
+        int live = 0;
+        for (int i = 0; i < count; i++) {
+            live += refs[i] == NULL ? 0 : length(refs[i]);
+        }
+        byte[] compacted = new byte[Math.max(16, live + live / 4)];
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            long ref = refs[i];
+            if (ref != NULL) {
+                int length = length(ref);
+                System.arraycopy(bytes, offset(ref), compacted, position, length);
+                refs[i] = reference(position, length);
+                position += length;
+            }
+        }
+        bytes = compacted;
+        used = position;
+        garbage = 0;
+    }
+
+    public static Needle needle(String text) {
+        String upper = text.toUpperCase(Locale.ROOT);
+        boolean ascii = upper.chars().allMatch(c -> c < 0x80);
+        return new Needle(upper, ascii ? upper.getBytes(StandardCharsets.US_ASCII) : null);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (bytes.length - used < extra) {
+            long needed = (long) used + extra;
+            if (needed > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("String arena is full");
+            }
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, (long) bytes.length * 2));
+            byte[] grown = new byte[capacity];
+            System.arraycopy(bytes, 0, grown, 0, used);
+            bytes = grown;
+        }
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static byte upper(byte b) {
+        return b >= 'a' && b <= 'z' ? (byte) (b - ('a' - 'A')) : b;
+    }
+
+    private static long reference(int offset, int length) {
+        return ((long) offset << 32) | length;
+    }
+
+    private static int offset(long ref) {
+        return (int) (ref >>> 32);
+    }
+
+    private static int length(long ref) {
+        return (int) ref;
+    }
+
+    /**
+     * Search text, upper-cased once, with its ASCII bytes when it has no
+     * other characters.
+     */
+    public record Needle(String upper, byte[] ascii) {
+    }
+
+    /**
+     * A stored string, decoded on first use.
+     */
+    public static final class Text {
+
+        private final byte[] bytes;
+        private final int offset;
+        private final int length;
+        private String decoded;
+
+        private Text(byte[] bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public String toString() {
+            if (decoded == null) {
+                decoded = new String(bytes, offset, length, StandardCharsets.UTF_8);
+            }
+            return decoded;
+        }
+    }
+}
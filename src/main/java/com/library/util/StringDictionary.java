@@ -0,0 +1,62 @@
+package com.library.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Interns strings to dense {@code int} codes, so a column with few distinct
+ * values, such as genres or authors, is an {@code int[]} of codes plus one
+ * copy of each value. Codes are never reused; a value no row uses any more
+ * keeps its code. Not thread-safe.
+ */
+public class StringDictionary {
+
+    public static final int NULL = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[16];
+    private int size;
+
+    /**
+     * The value's code, assigning the next one if it is new ({@link #NULL} for null).
+     */
+    public int intern(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = value;
+        codes.put(value, size);
+        return size++;
+    }
+
+    public String value(int code) {
+        return code == NULL ? null : values[code];
+    }
+
+    /**
+     * Codes of the values that satisfy {@code predicate}, each value tested once.
+     */
+    public BitSet matching(Predicate<String> predicate) {
+        BitSet matching = new BitSet(size);
+        for (int code = 0; code < size; code++) {
+            if (predicate.test(values[code])) {
+                matching.set(code);
+            }
+        }
+        return matching;
+    }
+
+    public int size() {
+        return size;
+    }
+}
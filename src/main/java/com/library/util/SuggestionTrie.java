@@ -0,0 +1,355 @@
+package com.library.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Compressed (radix) trie from normalized keys to weighted values, answering
+ * top-K prefix queries with an optional edit-distance budget.
+ * <p>
+ * Every node caches the highest weight in its subtree, so the top-K matches
+ * below a prefix are found best-first without visiting the rest of the
+ * subtree. Fuzzy lookups walk the trie with one Levenshtein row per character
+ * and prune a branch as soon as every cell of the row exceeds the budget; a
+ * key qualifies when some prefix of it is within the budget of the query.
+ * <p>
+ * The same value may be stored under several keys; it is returned once, at
+ * its best distance. Not thread-safe.
+ */
+public class SuggestionTrie<V> {
+
+    private static final Node<?>[] NO_CHILDREN = new Node<?>[0];
+
+    /**
+     * Heaviest first; on equal weight a value comes before a subtree, so values
+     * are emitted as soon as nothing heavier can still appear.
+     */
+    private static final Comparator<Candidate<?>> CANDIDATE_ORDER = Comparator
+            .comparingLong((Candidate<?> candidate) -> candidate.weight()).reversed()
+            .thenComparing(candidate -> candidate.entry() == null);
+
+    private final Node<V> root = new Node<>("");
+    private int size;
+
+    /**
+     * Stores {@code value} under {@code key}, or updates its weight if it is
+     * already stored there.
+     */
+    public void put(String key, V value, long weight) {
+        if (insert(root, key, 0, value, weight)) {
+            size++;
+        }
+    }
+
+    public void remove(String key, V value) {
+        if (delete(root, key, 0, value)) {
+            size--;
+        }
+    }
+
+    /**
+     * Number of (key, value) pairs stored.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns up to {@code limit} values whose key starts with {@code prefix}
+     * within {@code maxEdits} edits, ordered by edit distance and then by
+     * descending weight.
+     */
+    public List<V> search(String prefix, int maxEdits, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<List<Node<V>>> rootsByDistance = new ArrayList<>(maxEdits + 1);
+        for (int d = 0; d <= maxEdits; d++) {
+            rootsByDistance.add(new ArrayList<>());
+        }
+        int[] firstRow = new int[prefix.length() + 1];
+        for (int j = 0; j < firstRow.length; j++) {
+            firstRow[j] = j;
+        }
+        if (firstRow[prefix.length()] <= maxEdits) {
+            rootsByDistance.get(firstRow[prefix.length()]).add(root);
+        }
+        if (firstRow[prefix.length()] > 0) {
+            collectRoots(root, prefix, firstRow, maxEdits, firstRow[prefix.length()], rootsByDistance);
+        }
+
+        List<V> results = new ArrayList<>(limit);
+        Set<V> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (List<Node<V>> roots : rootsByDistance) {
+            if (results.size() >= limit) {
+                break;
+            }
+            bestFirst(roots, limit, results, seen);
+        }
+        return results;
+    }
+
+    /**
+     * Depth-first Levenshtein walk. {@code bestSoFar} is the smallest distance
+     * at which an ancestor already qualified; descending further is only
+     * useful while the row can still reach a smaller one.
+     */
+    private void collectRoots(Node<V> node, String query, int[] row, int maxEdits, int bestSoFar,
+                              List<List<Node<V>>> rootsByDistance) {
+        int m = query.length();
+        for (Node<V> child : node.children) {
+            int[] current = row;
+            int edgeBest = bestSoFar;
+            boolean pruned = false;
+            for (int i = 0; i < child.label.length(); i++) {
+                current = nextRow(current, query, child.label.charAt(i));
+                if (current[m] <= maxEdits) {
+                    edgeBest = Math.min(edgeBest, current[m]);
+                }
+                int rowMin = min(current);
+                if (rowMin > maxEdits || rowMin >= edgeBest) {
+                    pruned = true;
+                    break;
+                }
+            }
+            if (edgeBest < bestSoFar) {
+                rootsByDistance.get(edgeBest).add(child);
+            }
+            if (!pruned) {
+                collectRoots(child, query, current, maxEdits, edgeBest, rootsByDistance);
+            }
+        }
+    }
+
+    private static int[] nextRow(int[] previous, String query, char c) {
+        int[] row = new int[previous.length];
+        row[0] = previous[0] + 1;
+        for (int j = 1; j < row.length; j++) {
+            int substitution = previous[j - 1] + (query.charAt(j - 1) == c ? 0 : 1);
+            row[j] = Math.min(substitution, Math.min(previous[j] + 1, row[j - 1] + 1));
+        }
+        return row;
+    }
+
+    private static int min(int[] row) {
+        int min = Integer.MAX_VALUE;
+        for (int value : row) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    /**
+     * Pops subtrees and values in descending weight order; a subtree's cached
+     * maximum bounds everything below it, so values come out ranked.
+     */
+    private void bestFirst(List<Node<V>> roots, int limit, List<V> results, Set<V> seen) {
+        PriorityQueue<Candidate<V>> queue = new PriorityQueue<>(CANDIDATE_ORDER);
+        for (Node<V> node : roots) {
+            queue.add(new Candidate<>(node.maxWeight, node, null));
+        }
+        while (!queue.isEmpty() && results.size() < limit) {
+            Candidate<V> candidate = queue.poll();
+            if (candidate.entry() != null) {
+                if (seen.add(candidate.entry().value)) {
+                    results.add(candidate.entry().value);
+                }
+                continue;
+            }
+            for (Entry<V> entry : candidate.node().entries) {
+                queue.add(new Candidate<>(entry.weight, null, entry));
+            }
+            for (Node<V> child : candidate.node().children) {
+                queue.add(new Candidate<>(child.maxWeight, child, null));
+            }
+        }
+    }
+
+    private boolean insert(Node<V> node, String key, int offset, V value, long weight) {
+        boolean added;
+        if (offset == key.length()) {
+            added = node.putEntry(value, weight);
+        } else {
+            Node<V> child = node.child(key.charAt(offset));
+            if (child == null) {
+                child = new Node<>(key.substring(offset));
+                node.addChild(child);
+            } else {
+                int common = commonPrefix(child.label, key, offset);
+                if (common < child.label.length()) {
+                    child = node.split(child, common);
+                }
+            }
+            added = insert(child, key, offset + child.label.length(), value, weight);
+        }
+        node.recomputeMaxWeight();
+        return added;
+    }
+
+    private boolean delete(Node<V> node, String key, int offset, V value) {
+        boolean removed;
+        if (offset == key.length()) {
+            removed = node.removeEntry(value);
+        } else {
+            Node<V> child = node.child(key.charAt(offset));
+            if (child == null || !key.startsWith(child.label, offset)) {
+                return false;
+            }
+            removed = delete(child, key, offset + child.label.length(), value);
+            if (child.entries.isEmpty() && child.children.length == 0) {
+                node.removeChild(child);
+            } else if (child.entries.isEmpty() && child.children.length == 1) {
+                node.mergeWithOnlyChild(child);
+            }
+        }
+        node.recomputeMaxWeight();
+        return removed;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private record Candidate<V>(long weight, Node<V> node, Entry<V> entry) {
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private long weight;
+
+        private Entry(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Node<V> {
+
+        private String label;
+        private Node<V>[] children;
+        private List<Entry<V>> entries = Collections.emptyList();
+        private long maxWeight = Long.MIN_VALUE;
+
+        @SuppressWarnings("unchecked")
+        private Node(String label) {
+            this.label = label;
+            this.children = (Node<V>[]) NO_CHILDREN;
+        }
+
+        private Node<V> child(char first) {
+            int index = indexOf(first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        /**
+         * Children are kept sorted by first character and found by binary search.
+         */
+        private int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midChar = children[mid].label.charAt(0);
+                if (midChar < first) {
+                    low = mid + 1;
+                } else if (midChar > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private void addChild(Node<V> child) {
+            int insertAt = -(indexOf(child.label.charAt(0)) + 1);
+            Node<V>[] grown = Arrays.copyOf(children, children.length + 1);
+            System.arraycopy(grown, insertAt, grown, insertAt + 1, children.length - insertAt);
+            grown[insertAt] = child;
+            children = grown;
+        }
+
+        private void removeChild(Node<V> child) {
+            int index = indexOf(child.label.charAt(0));
+            Node<V>[] shrunk = Arrays.copyOf(children, children.length - 1);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk;
+        }
+
+        /**
+         * Splits {@code child}'s edge after {@code at} characters and returns the
+         * new intermediate node.
+         */
+        private Node<V> split(Node<V> child, int at) {
+            int index = indexOf(child.label.charAt(0));
+            Node<V> middle = new Node<>(child.label.substring(0, at));
+            child.label = child.label.substring(at);
+            middle.addChild(child);
+            middle.recomputeMaxWeight();
+            children[index] = middle;
+            return middle;
+        }
+
+        private void mergeWithOnlyChild(Node<V> child) {
+            Node<V> grandchild = child.children[0];
+            grandchild.label = child.label + grandchild.label;
+            children[indexOf(child.label.charAt(0))] = grandchild;
+        }
+
+        private boolean putEntry(V value, long weight) {
+            for (Entry<V> entry : entries) {
+                if (entry.value == value) {
+                    entry.weight = weight;
+                    return false;
+                }
+            }
+            if (entries.isEmpty()) {
+                entries = new ArrayList<>(1);
+            }
+            entries.add(new Entry<>(value, weight));
+            return true;
+        }
+
+        private boolean removeEntry(V value) {
+            return entries.removeIf(entry -> entry.value == value);
+        }
+
+        private void recomputeMaxWeight() {
+            long max = Long.MIN_VALUE;
+            for (Entry<V> entry : entries) {
+                max = Math.max(max, entry.weight);
+            }
+            for (Node<V> child : children) {
+                max = Math.max(max, child.maxWeight);
+            }
+            maxWeight = max;
+        }
+    }
+
+    /**
+     * Exposed for tests: number of nodes, to check that edges stay compressed.
+     */
+    int nodeCount() {
+        return count(root);
+    }
+
+    private static int count(Node<?> node) {
+        int total = 1;
+        for (Node<?> child : node.children) {
+            total += count(child);
+        }
+        return total;
+    }
+}
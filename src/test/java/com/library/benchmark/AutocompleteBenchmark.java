@@ -0,0 +1,83 @@
+package com.library.benchmark;
+
+import com.library.dto.BookDTO;
+import com.library.service.AutocompleteService;
+import com.library.service.BookChangedEvent;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Keystroke latency of {@link AutocompleteService} over 100k synthetic books,
+ * for plain prefixes and for prefixes with a typo, against a case-insensitive
+ * substring scan over all titles (what {@code /search/title} asks the
+ * database to do).
+ */
+@Tag("benchmark")
+class AutocompleteBenchmark {
+
+    private static final int BOOKS = 100_000;
+    private static final String[] WORDS = {
+            "java", "clean", "code", "effective", "patterns", "design", "domain", "driven", "systems", "data",
+            "intensive", "applications", "refactoring", "pragmatic", "programmer", "algorithms", "structures",
+            "concurrency", "practice", "distributed", "microservices", "architecture", "testing", "kotlin",
+            "spring", "boot", "cloud", "native", "performance", "engineering", "reliable", "scalable"};
+
+    private static AutocompleteService autocompleteService;
+    private static List<String> titles;
+
+    @BeforeAll
+    static void setUp() {
+        autocompleteService = new AutocompleteService(null);
+        titles = new ArrayList<>(BOOKS);
+        Random random = new Random(11);
+        for (long id = 1; id <= BOOKS; id++) {
+            String title = randomWords(random, 2 + random.nextInt(4)) + " " + id;
+            BookDTO book = new BookDTO();
+            book.setId(id);
+            book.setTitle(title);
+            book.setAuthor("Author " + (id % 5_000));
+            autocompleteService.onBookChanged(new BookChangedEvent(id, book, null));
+            titles.add(title);
+        }
+    }
+
+    @Test
+    void suggestVersusSubstringScan() throws Exception {
+        String[] prefixes = {"cl", "clea", "effective ja", "distributed sys", "author 42", "prag"};
+        String[] typos = {"efective", "concurency", "archtecture", "microservises"};
+
+        BenchmarkSupport.Result scan = BenchmarkSupport.measure("substring scan over 100k titles", 10, 100, () ->
+                titles.stream()
+                        .filter(title -> title.toLowerCase(Locale.ROOT).contains("clea"))
+                        .collect(Collectors.toList()));
+        int[] next = new int[1];
+        BenchmarkSupport.Result prefix = BenchmarkSupport.measure("autocomplete prefix", 10_000, 100_000, () ->
+                autocompleteService.suggest(prefixes[next[0]++ % prefixes.length], 10));
+        BenchmarkSupport.Result fuzzy = BenchmarkSupport.measure("autocomplete with typo", 10_000, 100_000, () ->
+                autocompleteService.suggest(typos[next[0]++ % typos.length], 10));
+
+        assertTrue(prefix.opsPerSecond() > scan.opsPerSecond());
+        assertTrue(fuzzy.opsPerSecond() > scan.opsPerSecond());
+    }
+
+    private static String randomWords(Random random, int count) {
+        StringBuilder words = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                words.append(' ');
+            }
+            String word = WORDS[random.nextInt(WORDS.length)];
+            words.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+        }
+        return words.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package com.library.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.model.Book;
+import com.library.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares resolving 200 books with one batch request against 200 single
+ * {@code GET /api/books/{id}} requests.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BatchLookupBenchmark {
+
+    private static final int BOOKS_PER_PAGE = 200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS_PER_PAGE; i++) {
+            Book book = new Book();
+            book.setTitle("Benchmark Book " + i);
+            book.setAuthor("Benchmark Author");
+            book.setIsbn(String.format("97800000%05d", i));
+            book.setPublicationDate(LocalDate.of(2020, 1, 1));
+            book.setGenre("Benchmark");
+            book.setAvailable(true);
+            book.setDescription("Benchmark description " + i);
+            books.add(book);
+        }
+        ids = bookRepository.saveAll(books).stream().map(Book::getId).toList();
+    }
+
+    @Test
+    void batchLookup_VersusLoopedSingleLookups() throws Exception {
+        String body = objectMapper.writeValueAsString(ids);
+
+        BenchmarkSupport.Result looped = BenchmarkSupport.measure("looped GET /api/books/{id} x200", 20, 100, () -> {
+            for (Long id : ids) {
+                mockMvc.perform(get("/api/books/{id}", id)).andExpect(status().isOk());
+            }
+        });
+
+        BenchmarkSupport.Result batched = BenchmarkSupport.measure("POST /api/books/batch/ids (200 ids)", 20, 100, () ->
+                mockMvc.perform(post("/api/books/batch/ids")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                        .andExpect(status().isOk()));
+
+        assertTrue(batched.opsPerSecond() > looped.opsPerSecond());
+    }
+}
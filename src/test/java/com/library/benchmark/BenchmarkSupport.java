@@ -0,0 +1,66 @@
+package com.library.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Minimal timing helpers shared by the benchmark tests. Benchmarks are tagged
+ * {@code benchmark} and only run with {@code mvn test -Pbenchmark}.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    interface Operation {
+        void run() throws Exception;
+    }
+
+    static Result measure(String name, int warmupIterations, int iterations, Operation operation) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            operation.run();
+        }
+
+        long[] samples = new long[iterations];
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            long opStart = System.nanoTime();
+            operation.run();
+            samples[i] = System.nanoTime() - opStart;
+        }
+        long total = System.nanoTime() - start;
+
+        Arrays.sort(samples);
+        Result result = new Result(name, iterations, total, samples);
+        System.out.println(result);
+        return result;
+    }
+
+    static final class Result {
+        final String name;
+        final int iterations;
+        final long totalNanos;
+        final long[] sortedSamples;
+
+        Result(String name, int iterations, long totalNanos, long[] sortedSamples) {
+            this.name = name;
+            this.iterations = iterations;
+            this.totalNanos = totalNanos;
+            this.sortedSamples = sortedSamples;
+        }
+
+        double opsPerSecond() {
+            return iterations / (totalNanos / 1_000_000_000.0);
+        }
+
+        double percentileMicros(double percentile) {
+            int index = (int) Math.min(sortedSamples.length - 1, Math.ceil(percentile * sortedSamples.length) - 1);
+            return sortedSamples[Math.max(0, index)] / 1_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[benchmark] %-40s %10.1f ops/s  p50=%8.1f us  p99=%8.1f us",
+                    name, opsPerSecond(), percentileMicros(0.50), percentileMicros(0.99));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.library.benchmark;
+
+import com.library.dto.BookDTO;
+import com.library.dto.ImportJobDTO;
+import com.library.model.ImportFormat;
+import com.library.model.ImportJobStatus;
+import com.library.repository.BookRepository;
+import com.library.service.BookImportService;
+import com.library.service.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares importing a 20,000-row CSV through {@link BookImportService}
+ * against creating the same books one by one through {@link BookService},
+ * the way a client script calling {@code POST /api/books} would.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkImportBenchmark {
+
+    private static final int ROWS = 20_000;
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final AtomicInteger run = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    void bulkImport_VersusSingleCreates() throws Exception {
+        BenchmarkSupport.Result single = BenchmarkSupport.measure("createBook x" + ROWS, 1, 3, () -> {
+            int prefix = run.incrementAndGet();
+            for (int i = 0; i < ROWS; i++) {
+                BookDTO book = new BookDTO(null, "Imported Book " + i, author(prefix, i), isbn(prefix, i),
+                        LocalDate.of(2001, 1, 1), "Benchmark", true, null, null);
+                bookService.createBook(book);
+            }
+        });
+
+        BenchmarkSupport.Result imported = BenchmarkSupport.measure("CSV import of " + ROWS + " rows", 1, 3, () -> {
+            byte[] csv = csv(run.incrementAndGet());
+            Long id = bookImportService.submit("benchmark.csv", new ByteArrayInputStream(csv), ImportFormat.CSV).getId();
+            ImportJobDTO job = bookImportService.getJob(id);
+            while (job.getStatus() == ImportJobStatus.QUEUED || job.getStatus() == ImportJobStatus.RUNNING) {
+                Thread.sleep(10);
+                job = bookImportService.getJob(id);
+            }
+            assertEquals(ROWS, job.getImported());
+        });
+
+        System.out.printf("single creates: %.0f books/s, import: %.0f books/s%n",
+                single.opsPerSecond() * ROWS, imported.opsPerSecond() * ROWS);
+        assertTrue(imported.opsPerSecond() > single.opsPerSecond());
+    }
+
+    private static byte[] csv(int prefix) {
+        StringBuilder csv = new StringBuilder("title,author,isbn,publication_date,genre\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append("\"Imported Book ").append(i).append("\",").append(author(prefix, i))
+                    .append(",").append(isbn(prefix, i)).append(",2001,Benchmark\n");
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String author(int prefix, int i) {
+        return "Author " + prefix + "-" + i % 1000;
+    }
+
+    private static String isbn(int prefix, int i) {
+        return String.format("978%03d%07d", prefix, i);
+    }
+}
@@ -0,0 +1,135 @@
+package com.library.benchmark;
+
+import com.library.model.Book;
+import com.library.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Measures ISBN lookup latency on an idle catalog and while 16 clients
+ * create books as fast as they can, with the write bulkhead admitting two
+ * creates at a time and queueing the rest.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "library.bulkheads.enabled=true",
+        "library.bulkheads.write.max-concurrent=2",
+        "library.bulkheads.write.max-queue=64",
+        "library.bulkheads.write.max-wait=5s",
+        "library.bulkheads.write.pool-size=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BulkheadBenchmark {
+
+    private static final int BOOKS = 500;
+    private static final int WRITERS = 16;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = new Book();
+            book.setTitle("Benchmark Book " + i);
+            book.setAuthor("Benchmark Author " + i);
+            book.setIsbn(String.format("97800000%05d", i));
+            book.setPublicationDate(LocalDate.of(2020, 1, 1));
+            book.setGenre("Fiction");
+            book.setAvailable(true);
+            books.add(book);
+        }
+        bookRepository.saveAll(books);
+    }
+
+    @Test
+    void lookupByIsbn_IdleVersusDuringBulkWrites() throws Exception {
+        BenchmarkSupport.Result idle = BenchmarkSupport.measure("GET /isbn/{isbn}, idle", 200, 1_000, this::lookup);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong created = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            futures.add(writers.submit(() -> {
+                int n = 0;
+                while (running.get()) {
+                    int status = mockMvc.perform(post("/api/books")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(newBook(writer, n++)))
+                            .andReturn().getResponse().getStatus();
+                    if (status == 201) {
+                        created.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                        Thread.sleep(10);
+                    }
+                }
+                return null;
+            }));
+        }
+        BenchmarkSupport.Result loaded;
+        long started = System.nanoTime();
+        try {
+            Thread.sleep(500);
+            loaded = BenchmarkSupport.measure("GET /isbn/{isbn}, " + WRITERS + " writers", 200, 1_000, this::lookup);
+        } finally {
+            running.set(false);
+            writers.shutdown();
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("Writers created %,d books (%.0f/s), %,d creates were turned away%n",
+                created.get(), created.get() / seconds, rejected.get());
+
+        assertTrue(created.get() > 0);
+        assertTrue(loaded.percentileMicros(0.99) < Math.max(5 * idle.percentileMicros(0.99), 20_000),
+                "lookup p99 went from " + idle.percentileMicros(0.99) + " us to " + loaded.percentileMicros(0.99));
+    }
+
+    private void lookup() throws Exception {
+        String isbn = String.format("97800000%05d", lookups.getAndIncrement() % BOOKS);
+        mockMvc.perform(get("/api/books/isbn/{isbn}", isbn)).andExpect(status().isOk());
+    }
+
+    private static String newBook(int writer, int n) {
+        return String.format("{\"title\": \"Load %d-%d\", \"author\": \"Writer %d\", \"isbn\": \"98%02d%09d\", "
+                + "\"publicationDate\": \"2021-01-01\", \"description\": \"%s\"}", writer, n, writer, writer, n,
+                "x".repeat(500));
+    }
+}
@@ -0,0 +1,93 @@
+package com.library.benchmark;
+
+import com.library.model.Book;
+import com.library.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Measures what a listing of 2,000 books with 1,000-character descriptions
+ * reads: the text in the {@code books} table it scans against the
+ * descriptions it no longer touches, and {@code GET /api/books} against the
+ * same listing with descriptions joined back in.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DescriptionStorageBenchmark {
+
+    private static final int BOOKS = 2_000;
+    private static final String ALL_FIELDS = "id,title,author,isbn,publicationDate,genre,available,description";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        String description = "x".repeat(1_000);
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = new Book();
+            book.setTitle("Benchmark Book " + i);
+            book.setAuthor("Benchmark Author " + i % 100);
+            book.setIsbn(String.format("97800000%05d", i));
+            book.setPublicationDate(LocalDate.of(2020, 1, 1));
+            book.setGenre("Fiction");
+            book.setAvailable(true);
+            book.setDescription(description);
+            books.add(book);
+        }
+        bookRepository.saveAll(books);
+    }
+
+    @Test
+    void listBooks_WithoutVersusWithDescriptions() throws Exception {
+        long listedBytes = textBytes("books", "title", "author", "isbn", "genre");
+        long descriptionBytes = textBytes("book_descriptions", "text");
+        System.out.printf("Text read per listing: %,d bytes, %,d with descriptions inline (%.1fx)%n",
+                listedBytes, listedBytes + descriptionBytes, (listedBytes + descriptionBytes) / (double) listedBytes);
+
+        BenchmarkSupport.Result listed = BenchmarkSupport.measure("GET /api/books", 5, 30, () ->
+                mockMvc.perform(get("/api/books")).andExpect(status().isOk()));
+        BenchmarkSupport.Result joined = BenchmarkSupport.measure("GET /api/books?fields=<all>", 5, 30, () ->
+                mockMvc.perform(get("/api/books").param("fields", ALL_FIELDS)).andExpect(status().isOk()));
+
+        assertTrue(descriptionBytes > 2 * listedBytes);
+        assertTrue(listed.opsPerSecond() > joined.opsPerSecond());
+    }
+
+    /**
+     * Total length of the given text columns over all rows of the table.
+     */
+    private long textBytes(String table, String... columns) {
+        String lengths = Arrays.stream(columns)
+                .map(column -> "coalesce(octet_length(" + column + "), 0)")
+                .collect(Collectors.joining(" + "));
+        return jdbcTemplate.queryForObject("select coalesce(sum(" + lengths + "), 0) from " + table, Long.class);
+    }
+}
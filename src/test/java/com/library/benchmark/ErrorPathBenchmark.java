@@ -0,0 +1,70 @@
+package com.library.benchmark;
+
+import com.library.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 404 throughput on the error hot path. The first pair isolates the cost of
+ * a stack-filling exception (the previous behaviour) against the stackless
+ * {@link ResourceNotFoundException} at a servlet-like stack depth; the HTTP
+ * runs show a missing id (one DB query), a missing but well-formed ISBN (one
+ * DB query) and a malformed ISBN (rejected before the DB).
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ErrorPathBenchmark {
+
+    private static final int STACK_DEPTH = 120;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void exceptionConstruction_StackTraceVersusStackless() throws Exception {
+        BenchmarkSupport.Result withStack = BenchmarkSupport.measure("throw RuntimeException (stack trace)",
+                20_000, 200_000, () -> throwAtDepth(STACK_DEPTH, true));
+        BenchmarkSupport.Result stackless = BenchmarkSupport.measure("throw ResourceNotFoundException (stackless)",
+                20_000, 200_000, () -> throwAtDepth(STACK_DEPTH, false));
+
+        assertTrue(stackless.opsPerSecond() > withStack.opsPerSecond());
+    }
+
+    @Test
+    void notFoundResponses() throws Exception {
+        BenchmarkSupport.measure("GET /api/books/{id} -> 404", 2_000, 20_000, () ->
+                mockMvc.perform(get("/api/books/999999")).andExpect(status().isNotFound()));
+        BenchmarkSupport.measure("GET /api/books/isbn/{valid} -> 404", 2_000, 20_000, () ->
+                mockMvc.perform(get("/api/books/isbn/9999999999")).andExpect(status().isNotFound()));
+        BenchmarkSupport.measure("GET /api/books/isbn/{malformed} -> 404", 2_000, 20_000, () ->
+                mockMvc.perform(get("/api/books/isbn/not-an-isbn")).andExpect(status().isNotFound()));
+    }
+
+    private static void throwAtDepth(int depth, boolean fillStackTrace) {
+        try {
+            recurse(depth, fillStackTrace);
+        } catch (RuntimeException expected) {
+            // measured path ends here
+        }
+    }
+
+    private static void recurse(int depth, boolean fillStackTrace) {
+        if (depth == 0) {
+            throw fillStackTrace
+                    ? new RuntimeException("Book not found with id: 1")
+                    : new ResourceNotFoundException("Book not found with id: 1");
+        }
+        recurse(depth - 1, fillStackTrace);
+    }
+}
@@ -0,0 +1,88 @@
+package com.library.benchmark;
+
+import com.library.model.Book;
+import com.library.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares listing 2,000 books with 1,000-character descriptions in full
+ * against listing only {@code id,title,isbn}, for {@code GET /api/books} and
+ * {@code GET /api/books/search/genre}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FieldSelectionBenchmark {
+
+    private static final int BOOKS = 2_000;
+    private static final String FIELDS = "id,title,isbn";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        String description = "x".repeat(1_000);
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = new Book();
+            book.setTitle("Benchmark Book " + i);
+            book.setAuthor("Benchmark Author " + i % 100);
+            book.setIsbn(String.format("97800000%05d", i));
+            book.setPublicationDate(LocalDate.of(2020, 1, 1));
+            book.setGenre(i % 4 == 0 ? "Poetry" : "Fiction");
+            book.setAvailable(true);
+            book.setDescription(description);
+            books.add(book);
+        }
+        bookRepository.saveAll(books);
+    }
+
+    @Test
+    void getAllBooks_FullVersusSelectedFields() throws Exception {
+        compare("GET /api/books", get("/api/books"), get("/api/books").param("fields", FIELDS));
+    }
+
+    @Test
+    void getBooksByGenre_FullVersusSelectedFields() throws Exception {
+        compare("GET /api/books/search/genre",
+                get("/api/books/search/genre").param("genre", "fiction"),
+                get("/api/books/search/genre").param("genre", "fiction").param("fields", FIELDS));
+    }
+
+    private void compare(String name, RequestBuilder full, RequestBuilder selected) throws Exception {
+        int fullBytes = mockMvc.perform(full).andReturn().getResponse().getContentAsByteArray().length;
+        int selectedBytes = mockMvc.perform(selected).andReturn().getResponse().getContentAsByteArray().length;
+        System.out.printf("%s payload: %,d bytes in full, %,d bytes with fields=%s%n",
+                name, fullBytes, selectedBytes, FIELDS);
+
+        BenchmarkSupport.Result all = BenchmarkSupport.measure(name, 5, 30, () ->
+                mockMvc.perform(full).andExpect(status().isOk()));
+        BenchmarkSupport.Result narrowed = BenchmarkSupport.measure(name + "?fields=" + FIELDS, 5, 30, () ->
+                mockMvc.perform(selected).andExpect(status().isOk()));
+
+        assertTrue(selectedBytes * 5 < fullBytes);
+        assertTrue(narrowed.opsPerSecond() > all.opsPerSecond());
+    }
+}
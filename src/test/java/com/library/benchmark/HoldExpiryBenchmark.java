@@ -0,0 +1,73 @@
+package com.library.benchmark;
+
+import com.library.util.HierarchicalTimingWheel;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Scheduling a million pending hold expiries spread over 48 hours: the timing
+ * wheel used by {@code HoldExpiryScheduler} against one
+ * {@code ScheduledFuture} per hold, whose delay queue is a binary heap.
+ * Then drives the wheel through the full 48 hours at one-second ticks.
+ */
+@Tag("benchmark")
+class HoldExpiryBenchmark {
+
+    private static final int HOLDS = 1_000_000;
+    private static final long HOLD_PERIOD_MILLIS = TimeUnit.HOURS.toMillis(48);
+
+    @Test
+    void scheduleMillionHolds_WheelVersusScheduledFutures() throws Exception {
+        long[] deadlines = deadlines();
+
+        BenchmarkSupport.Result futures = BenchmarkSupport.measure("schedule 1M ScheduledFutures", 1, 5, () -> {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+            for (int i = 0; i < HOLDS; i++) {
+                executor.schedule(() -> { }, deadlines[i], TimeUnit.MILLISECONDS);
+            }
+            executor.shutdownNow();
+        });
+        BenchmarkSupport.Result wheel = BenchmarkSupport.measure("schedule 1M timing wheel entries", 1, 5, () -> {
+            HierarchicalTimingWheel<Integer> timingWheel = new HierarchicalTimingWheel<>(1_000, 8, 4, 0);
+            for (int i = 0; i < HOLDS; i++) {
+                timingWheel.add(i, deadlines[i]);
+            }
+        });
+
+        assertTrue(wheel.opsPerSecond() > futures.opsPerSecond());
+    }
+
+    @Test
+    void expireMillionHolds_OneSecondTicksOver48Hours() throws Exception {
+        long[] deadlines = deadlines();
+        int[] fired = new int[1];
+
+        BenchmarkSupport.measure("advance wheel 48h with 1M holds", 0, 1, () -> {
+            HierarchicalTimingWheel<Integer> timingWheel = new HierarchicalTimingWheel<>(1_000, 8, 4, 0);
+            for (int i = 0; i < HOLDS; i++) {
+                timingWheel.add(i, deadlines[i]);
+            }
+            for (long now = 0; now <= HOLD_PERIOD_MILLIS; now += 1_000) {
+                fired[0] += timingWheel.advanceTo(now).size();
+            }
+        });
+
+        assertEquals(HOLDS, fired[0]);
+    }
+
+    private static long[] deadlines() {
+        Random random = new Random(7);
+        long[] deadlines = new long[HOLDS];
+        for (int i = 0; i < HOLDS; i++) {
+            deadlines[i] = (long) (random.nextDouble() * HOLD_PERIOD_MILLIS);
+        }
+        return deadlines;
+    }
+}
@@ -0,0 +1,65 @@
+package com.library.benchmark;
+
+import com.library.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cost of a client retrying {@code POST /api/books} after a timeout: without
+ * a key every retry checks the ISBN and fails with 409, with an
+ * {@code Idempotency-Key} it replays the original 201.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotentRetryBenchmark {
+
+    private static final String BOOK = """
+            {"title": "Retried Book", "author": "Benchmark Author", "isbn": "9780000099999",
+             "publicationDate": "2020-01-01", "genre": "Benchmark"}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    void retriedCreate_WithoutVersusWithIdempotencyKey() throws Exception {
+        mockMvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON).content(BOOK)
+                        .header("Idempotency-Key", "create-retried-book"))
+                .andExpect(status().isCreated());
+
+        BenchmarkSupport.Result conflicts = BenchmarkSupport.measure("retry without key (409)", 500, 5_000, () ->
+                mockMvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON).content(BOOK))
+                        .andExpect(status().isConflict()));
+        BenchmarkSupport.Result replays = BenchmarkSupport.measure("retry with Idempotency-Key (replayed 201)", 500,
+                5_000, () ->
+                        mockMvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON).content(BOOK)
+                                        .header("Idempotency-Key", "create-retried-book"))
+                                .andExpect(status().isCreated())
+                                .andExpect(header().string("Idempotent-Replayed", "true")));
+
+        assertEquals(1, bookRepository.count());
+        assertTrue(replays.opsPerSecond() > conflicts.opsPerSecond());
+    }
+}
@@ -0,0 +1,95 @@
+package com.library.benchmark;
+
+import com.library.catalog.CatalogJournal;
+import com.library.catalog.InMemoryBookRepository;
+import com.library.model.Book;
+import com.library.model.BookField;
+import com.library.repository.BookRepository;
+import com.library.repository.BookSpecifications;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the same reads against the JPA repository and against the in-memory
+ * catalog loaded from its database, over 20,000 books with 200 authors and
+ * 8 genres: substring searches by author and title, ISBN lookups, listing
+ * two fields of one genre, and the genre facet.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InMemoryCatalogBenchmark {
+
+    private static final int BOOKS = 20_000;
+
+    @Autowired
+    private BookRepository jpaRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void reads_JpaRepositoryVersusInMemoryCatalog() throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("delete from books");
+        try (InMemoryBookRepository catalog = InMemoryBookRepository.load(jdbcTemplate, new CatalogJournal(
+                jpaRepository, dataSource, new TransactionTemplate(transactionManager), BOOKS))) {
+            List<Book> books = new ArrayList<>(BOOKS);
+            for (int i = 0; i < BOOKS; i++) {
+                books.add(book(i));
+            }
+            catalog.asRepository().saveAll(books);
+            catalog.flush();
+            assertEquals(BOOKS, jpaRepository.count());
+
+            for (BookRepository repository : List.of(jpaRepository, catalog.asRepository())) {
+                String backend = repository == jpaRepository ? "jpa" : "in-memory";
+                assertEquals(BOOKS / 200, repository.findByAuthorContainingIgnoreCase("author 017").size());
+                BenchmarkSupport.measure(backend + " author contains", 5, 50,
+                        () -> repository.findByAuthorContainingIgnoreCase("author 017"));
+                BenchmarkSupport.measure(backend + " title contains", 5, 50,
+                        () -> repository.findByTitleContainingIgnoreCase("book 1999"));
+                BenchmarkSupport.measure(backend + " isbn lookup", 500, 5_000,
+                        () -> repository.findByIsbn(isbn(ThreadLocalRandom.current().nextInt(BOOKS))));
+                BenchmarkSupport.measure(backend + " genre listing (title,isbn)", 5, 50,
+                        () -> repository.findFields(BookSpecifications.genreIs("genre 3"),
+                                EnumSet.of(BookField.TITLE, BookField.ISBN)));
+                BenchmarkSupport.measure(backend + " genre facet", 5, 50, repository::countByGenre);
+            }
+        }
+    }
+
+    private static Book book(int n) {
+        Book book = new Book();
+        book.setTitle("Benchmark Book " + n);
+        book.setAuthor(String.format("Author %03d", n % 200));
+        book.setIsbn(isbn(n));
+        book.setPublicationDate(LocalDate.of(1950 + n % 70, 1, 1));
+        book.setGenre("Genre " + n % 8);
+        book.setAvailable(n % 3 != 0);
+        return book;
+    }
+
+    private static String isbn(int n) {
+        return String.format("979%010d", n);
+    }
+}
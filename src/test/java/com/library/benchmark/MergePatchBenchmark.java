@@ -0,0 +1,98 @@
+package com.library.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.dto.BookDTO;
+import com.library.model.Book;
+import com.library.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares changing the genre of books with 1,000-character descriptions by
+ * reading the book and sending it back with {@code PUT}, as a client without
+ * {@code PATCH} has to, against sending only the genre as a merge patch.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MergePatchBenchmark {
+
+    private static final int BOOKS = 200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        String description = "x".repeat(1_000);
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = new Book();
+            book.setTitle("Benchmark Book " + i);
+            book.setAuthor("Benchmark Author " + i);
+            book.setIsbn(String.format("97800000%05d", i));
+            book.setPublicationDate(LocalDate.of(2020, 1, 1));
+            book.setGenre("Fiction");
+            book.setAvailable(true);
+            book.setDescription(description);
+            books.add(book);
+        }
+        bookRepository.saveAll(books).forEach(book -> ids.add(book.getId()));
+    }
+
+    @Test
+    void changeGenre_PutVersusMergePatch() throws Exception {
+        AtomicInteger puts = new AtomicInteger();
+        BenchmarkSupport.Result replaced = BenchmarkSupport.measure("GET + PUT /api/books/{id}", 50, 400, () -> {
+            int n = puts.getAndIncrement();
+            long id = ids.get(n % BOOKS);
+            String body = mockMvc.perform(get("/api/books/{id}", id)).andReturn().getResponse().getContentAsString();
+            BookDTO book = objectMapper.readValue(body, BookDTO.class);
+            book.setGenre("Genre " + n);
+            mockMvc.perform(put("/api/books/{id}", id)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .header("If-Match", "\"" + book.getVersion() + "\"")
+                            .content(objectMapper.writeValueAsString(book)))
+                    .andExpect(status().isOk());
+        });
+
+        AtomicInteger patches = new AtomicInteger();
+        BenchmarkSupport.Result patched = BenchmarkSupport.measure("PATCH /api/books/{id}", 50, 400, () -> {
+            int n = patches.getAndIncrement();
+            mockMvc.perform(patch("/api/books/{id}", ids.get(n % BOOKS))
+                            .contentType("application/merge-patch+json")
+                            .content("{\"genre\": \"Patched " + n + "\"}"))
+                    .andExpect(status().isOk());
+        });
+
+        assertTrue(patched.opsPerSecond() > replaced.opsPerSecond());
+    }
+}
@@ -0,0 +1,98 @@
+package com.library.benchmark;
+
+import com.library.BookLibraryApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Boots the application once with the default properties and once with the
+ * {@code prod} profile and compares read throughput over HTTP.
+ */
+@Tag("benchmark")
+class PersistenceProfileBenchmark {
+
+    private static final int CLIENT_THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 500;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    void prodProfile_VersusDefaults() throws Exception {
+        double defaults = runAgainst("default settings", new String[0],
+                "--server.port=0",
+                "--library.rate-limit.enabled=false");
+        double prod = runAgainst("prod profile", new String[]{"prod"},
+                "--server.port=0",
+                "--library.rate-limit.enabled=false",
+                "--spring.datasource.url=jdbc:h2:file:" + dataDirectory.resolve("booklibrarydb") + ";MV_STORE=TRUE");
+
+        System.out.printf("[benchmark] prod/default throughput ratio: %.2fx%n", prod / defaults);
+    }
+
+    private double runAgainst(String name, String[] profiles, String... args) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BookLibraryApplication.class)
+                .profiles(profiles)
+                .run(args);
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI listUri = URI.create("http://localhost:" + port + "/api/books");
+            URI byIdUri = URI.create("http://localhost:" + port + "/api/books/1");
+
+            // warm up
+            fire(listUri, byIdUri, 100);
+
+            long start = System.nanoTime();
+            fire(listUri, byIdUri, REQUESTS_PER_THREAD);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            double throughput = CLIENT_THREADS * REQUESTS_PER_THREAD / seconds;
+            System.out.printf("[benchmark] %-40s %10.1f req/s%n", name, throughput);
+            return throughput;
+        } finally {
+            context.close();
+        }
+    }
+
+    private void fire(URI listUri, URI byIdUri, int requestsPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENT_THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < CLIENT_THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < requestsPerThread; i++) {
+                        URI uri = i % 2 == 0 ? listUri : byIdUri;
+                        HttpResponse<Void> response = httpClient.send(
+                                HttpRequest.newBuilder(uri).GET().build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        assertEquals(200, response.statusCode());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
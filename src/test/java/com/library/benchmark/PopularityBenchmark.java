@@ -0,0 +1,86 @@
+package com.library.benchmark;
+
+import com.library.util.CountMinSketch;
+import com.library.util.HeavyHitters;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counting book views from eight lookup threads over a skewed key
+ * distribution: the Count-Min Sketch and heavy-hitters candidates used by
+ * {@code PopularityService} against an exact {@code ConcurrentHashMap}
+ * counter. Hot keys make both contend on a few cells, so throughput is of
+ * the same order; the sketch's footprint is fixed while the exact map grows
+ * with every distinct book viewed. Checks that the top ten still agree.
+ */
+@Tag("benchmark")
+class PopularityBenchmark {
+
+    private static final int THREADS = 8;
+    private static final int VIEWS_PER_THREAD = 1_000_000;
+    private static final int BOOKS = 100_000;
+
+    @Test
+    void recordViews_SketchVersusExactCounters() throws Exception {
+        long[] keys = skewedKeys();
+
+        ConcurrentHashMap<Long, Long> counts = new ConcurrentHashMap<>();
+        BenchmarkSupport.measure("8M views, ConcurrentHashMap counters", 1, 5, () -> {
+            counts.clear();
+            runConcurrently(keys, key -> counts.merge(key, 1L, Long::sum));
+        });
+        List<List<HeavyHitters.Scored>> ranking = new ArrayList<>(List.of(List.of()));
+        BenchmarkSupport.measure("8M views, Count-Min Sketch + top-K", 1, 5, () -> {
+            CountMinSketch countMinSketch = new CountMinSketch(16_384, 4);
+            HeavyHitters heavyHitters = new HeavyHitters(100);
+            runConcurrently(keys, key -> heavyHitters.offer(key, countMinSketch.add(key, 1)));
+            ranking.set(0, heavyHitters.rank(countMinSketch::estimate));
+        });
+
+        List<Long> exactTop = counts.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .limit(10)
+                .map(Map.Entry::getKey)
+                .toList();
+        List<Long> sketchTop = ranking.get(0).stream().limit(10).map(HeavyHitters.Scored::key).toList();
+        assertEquals(exactTop, sketchTop);
+    }
+
+    private static void runConcurrently(long[] keys, LongConsumer recordView) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t * VIEWS_PER_THREAD;
+            executor.execute(() -> {
+                for (int i = 0; i < VIEWS_PER_THREAD; i++) {
+                    recordView.accept(keys[offset + i]);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Roughly Zipfian: a few books take most of the views.
+     */
+    private static long[] skewedKeys() {
+        Random random = new Random(42);
+        long[] keys = new long[THREADS * VIEWS_PER_THREAD];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (long) Math.pow(BOOKS, random.nextDouble()) + 1;
+        }
+        return keys;
+    }
+}
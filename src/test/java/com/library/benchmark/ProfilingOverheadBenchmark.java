@@ -0,0 +1,87 @@
+package com.library.benchmark;
+
+import com.library.model.Book;
+import com.library.repository.BookRepository;
+import com.library.service.ProfilingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Throughput of a mix of book reads with the continuous JFR recording
+ * stopped and running, to check that it can stay on in production.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProfilingOverheadBenchmark {
+
+    private static final int BOOKS = 200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ProfilingService profilingService;
+
+    private List<Long> ids;
+    private int next;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = new Book();
+            book.setTitle("Benchmark Book " + i);
+            book.setAuthor("Benchmark Author " + i % 20);
+            book.setIsbn(String.format("97800000%05d", i));
+            book.setPublicationDate(LocalDate.of(2020, 1, 1));
+            book.setGenre(i % 2 == 0 ? "Poetry" : "Fiction");
+            book.setAvailable(true);
+            books.add(book);
+        }
+        ids = bookRepository.saveAll(books).stream().map(Book::getId).toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        profilingService.stop();
+    }
+
+    @Test
+    void bookReads_WithoutVersusWithRecording() throws Exception {
+        BenchmarkSupport.measure("book reads, warmup", 500, 1, this::readBooks);
+        profilingService.start();
+        BenchmarkSupport.Result recorded = BenchmarkSupport.measure("book reads, continuous recording", 200, 2_000,
+                this::readBooks);
+        profilingService.stop();
+        BenchmarkSupport.Result plain = BenchmarkSupport.measure("book reads, no recording", 200, 2_000, this::readBooks);
+
+        assertTrue(recorded.opsPerSecond() > plain.opsPerSecond() * 0.7);
+    }
+
+    private void readBooks() throws Exception {
+        Long id = ids.get(next++ % ids.size());
+        mockMvc.perform(get("/api/books/{id}", id)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/books/search/genre").param("genre", "poetry")).andExpect(status().isOk());
+    }
+}
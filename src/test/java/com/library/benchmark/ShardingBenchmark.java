@@ -0,0 +1,99 @@
+package com.library.benchmark;
+
+import com.library.model.Book;
+import com.library.repository.BookRepository;
+import com.library.sharding.BookShard;
+import com.library.sharding.ShardedBookRepository;
+import com.library.sharding.ShardingProperties;
+import com.library.util.ConsistentHashRing;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Book inserts from eight threads through {@link ShardedBookRepository} with
+ * one, two and four H2 file shards. Each shard has its own pool and commits
+ * independently, so throughput grows with the shard count until CPU or disk
+ * is the bottleneck; on a single core the gain is small. Each reported op is one batch of
+ * {@code THREADS * WRITES_PER_THREAD} inserts.
+ */
+@Tag("benchmark")
+class ShardingBenchmark {
+
+    private static final int THREADS = 8;
+    private static final int WRITES_PER_THREAD = 250;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void save_WriteThroughputByShardCount() throws Exception {
+        for (int shardCount : new int[]{1, 2, 4}) {
+            measure(shardCount);
+        }
+    }
+
+    private void measure(int shardCount) throws Exception {
+        EntityManagerFactoryBuilder builder = new EntityManagerFactoryBuilder(new HibernateJpaVendorAdapter(), Map.of(), null);
+        List<BookShard> shards = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            ShardingProperties.Shard config = new ShardingProperties.Shard();
+            config.setName("shard" + i);
+            config.setUrl("jdbc:h2:file:" + directory.resolve(shardCount + "-" + i));
+            config.setMaximumPoolSize(THREADS);
+            shards.add(BookShard.open(i, config, builder, Map.of("hibernate.hbm2ddl.auto", "update")));
+            names.add(config.getName());
+        }
+
+        AtomicLong sequence = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try (ShardedBookRepository sharded = new ShardedBookRepository(shards, new ConsistentHashRing(names, 128))) {
+            BookRepository bookRepository = sharded.asRepository();
+            BenchmarkSupport.Result result = BenchmarkSupport.measure(
+                    THREADS * WRITES_PER_THREAD + " inserts, " + shardCount + " shard(s)", 1, 5, () -> {
+                        List<Future<?>> writers = new ArrayList<>();
+                        for (int t = 0; t < THREADS; t++) {
+                            writers.add(executor.submit(() -> {
+                                for (int i = 0; i < WRITES_PER_THREAD; i++) {
+                                    bookRepository.save(book(sequence.incrementAndGet()));
+                                }
+                            }));
+                        }
+                        for (Future<?> writer : writers) {
+                            writer.get();
+                        }
+                    });
+            System.out.printf("[benchmark] %d shard(s): %.0f inserts/s%n", shardCount,
+                    result.opsPerSecond() * THREADS * WRITES_PER_THREAD);
+            assertEquals(sequence.get(), bookRepository.count());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Book book(long n) {
+        Book book = new Book();
+        book.setIsbn(String.format("979%010d", n));
+        book.setTitle("Benchmark Book " + n);
+        book.setAuthor("Author " + (n % 500));
+        book.setGenre("Fiction");
+        book.setPublicationDate(LocalDate.of(2000, 1, 1));
+        book.setAvailable(true);
+        return book;
+    }
+}
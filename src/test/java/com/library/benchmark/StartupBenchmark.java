@@ -0,0 +1,119 @@
+package com.library.benchmark;
+
+import com.library.BookLibraryApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the time from process launch to the first successful
+ * {@code GET /api/books/1} for the default configuration, the
+ * {@code fast-startup} profile and, when {@code mvn package -Paot} has been
+ * run, the AOT-processed jar with its AppCDS archive.
+ */
+@Tag("benchmark")
+class StartupBenchmark {
+
+    private static final int RUNS = 3;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+    private static final Path CDS_DIRECTORY = Paths.get("target", "cds");
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    void timeToFirstSuccessfulLookup() throws Exception {
+        String databaseUrl = "--spring.datasource.url=jdbc:h2:file:" + dataDirectory.resolve("booklibrarydb");
+        String classpath = System.getProperty("java.class.path");
+        String mainClass = BookLibraryApplication.class.getName();
+
+        // The first default run seeds the sample data that the fast-startup runs will read
+        measure("default settings", List.of("-cp", classpath, mainClass, databaseUrl));
+        measure("fast-startup profile", List.of("-cp", classpath, mainClass, databaseUrl,
+                "--spring.profiles.active=fast-startup"));
+
+        Path archive = CDS_DIRECTORY.resolve("app.jsa");
+        Path jar = CDS_DIRECTORY.resolve("book-library-api-1.0.0-cds.jar");
+        if (Files.exists(archive) && Files.exists(jar)) {
+            measure("fast-startup + AOT + AppCDS", List.of(
+                    "-XX:SharedArchiveFile=" + archive.toAbsolutePath(),
+                    "-Dspring.aot.enabled=true",
+                    "-jar", jar.toAbsolutePath().toString(), databaseUrl,
+                    "--spring.profiles.active=fast-startup"));
+        } else {
+            System.out.println("[benchmark] skipping AOT + AppCDS run, build it with: mvn package -Paot -DskipTests");
+        }
+    }
+
+    private void measure(String name, List<String> arguments) throws Exception {
+        long[] samples = new long[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            samples[run] = timeToFirstLookup(arguments);
+        }
+        Arrays.sort(samples);
+        System.out.printf("[benchmark] %-40s median=%6d ms  min=%6d ms  max=%6d ms%n",
+                name, samples[RUNS / 2], samples[0], samples[RUNS - 1]);
+    }
+
+    private long timeToFirstLookup(List<String> arguments) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(arguments);
+        command.add("--server.port=" + port);
+
+        URI uri = URI.create("http://localhost:" + port + "/api/books/1");
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).GET().build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            long deadline = start + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with code " + process.exitValue());
+                }
+                try {
+                    HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("No successful lookup within " + STARTUP_TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
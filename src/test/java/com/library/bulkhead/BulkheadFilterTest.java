@@ -0,0 +1,115 @@
+package com.library.bulkhead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<Workload, DataSource> pools = new EnumMap<>(Workload.class);
+
+    private Bulkheads bulkheads;
+    private BulkheadFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        Map<Workload, Bulkhead> compartments = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            compartments.put(workload, new Bulkhead(workload, 1, 0, 0));
+            pools.put(workload, Mockito.mock(DataSource.class));
+        }
+        bulkheads = new Bulkheads(compartments);
+        filter = new BulkheadFilter(bulkheads, 2, new ObjectMapper().registerModule(new JavaTimeModule()),
+                meterRegistry);
+    }
+
+    @Test
+    void classify_ShouldSeparatePointReadsScansAndWrites() {
+        assertEquals(Workload.POINT_READ, filter.classify(request("GET", "/api/books/1")));
+        assertEquals(Workload.POINT_READ, filter.classify(request("GET", "/api/books/isbn/1234567890")));
+        assertEquals(Workload.POINT_READ, filter.classify(request("POST", "/api/books/batch/ids")));
+        assertEquals(Workload.SCAN, filter.classify(request("GET", "/api/books")));
+        assertEquals(Workload.SCAN, filter.classify(request("GET", "/api/books/available")));
+        assertEquals(Workload.SCAN, filter.classify(request("GET", "/api/books/search/title")));
+        assertEquals(Workload.WRITE, filter.classify(request("POST", "/api/books")));
+        assertEquals(Workload.WRITE, filter.classify(request("PATCH", "/api/books/1")));
+        assertEquals(Workload.WRITE, filter.classify(request("DELETE", "/api/books/1")));
+    }
+
+    @Test
+    void doFilter_ShouldRouteConnectionsToTheWorkloadPoolWhileTheRequestRuns() throws Exception {
+        // Arrange
+        WorkloadRoutingDataSource dataSource = new WorkloadRoutingDataSource(pools, bulkheads);
+        Connection scanConnection = Mockito.mock(Connection.class);
+        Mockito.when(pools.get(Workload.SCAN).getConnection()).thenReturn(scanConnection);
+        AtomicReference<Connection> used = new AtomicReference<>();
+
+        // Act
+        filter.doFilter(request("GET", "/api/books"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    try {
+                        used.set(dataSource.getConnection());
+                    } catch (SQLException e) {
+                        throw new ServletException(e);
+                    }
+                });
+
+        // Assert
+        assertSame(scanConnection, used.get());
+        assertNull(bulkheads.current());
+        assertEquals(0, bulkheads.get(Workload.SCAN).getActive());
+    }
+
+    @Test
+    void doFilter_WhenWorkloadIsFull_ShouldReturn503AndLeaveOtherWorkloadsAlone() throws Exception {
+        // Arrange
+        assertTrue(bulkheads.get(Workload.WRITE).tryAcquire());
+        MockHttpServletResponse write = new MockHttpServletResponse();
+        MockHttpServletResponse read = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request("POST", "/api/books"), write, (request, response) -> fail("write was admitted"));
+        filter.doFilter(request("GET", "/api/books/1"), read, (request, response) -> { });
+
+        // Assert
+        assertEquals(503, write.getStatus());
+        assertEquals("2", write.getHeader("Retry-After"));
+        assertTrue(write.getContentAsString().contains("write requests"));
+        assertEquals(200, read.getStatus());
+        assertEquals(1.0, meterRegistry.get("library.bulkhead.requests")
+                .tag("workload", "write").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void getConnection_OutsideARequest_ShouldUseTheWritePool() throws Exception {
+        // Arrange
+        WorkloadRoutingDataSource dataSource = new WorkloadRoutingDataSource(pools, bulkheads);
+        Connection writeConnection = Mockito.mock(Connection.class);
+        Mockito.when(pools.get(Workload.WRITE).getConnection()).thenReturn(writeConnection);
+
+        // Act & Assert
+        assertSame(writeConnection, dataSource.getConnection());
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+}
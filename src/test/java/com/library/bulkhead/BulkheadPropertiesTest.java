@@ -0,0 +1,35 @@
+package com.library.bulkhead;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadPropertiesTest {
+
+    @Test
+    void poolSizeOf_ShouldSplitTheConfiguredPoolBetweenWorkloads() {
+        // Arrange
+        BulkheadProperties properties = new BulkheadProperties();
+
+        // Act
+        int pointRead = properties.get(Workload.POINT_READ).poolSizeOf(16);
+        int scan = properties.get(Workload.SCAN).poolSizeOf(16);
+        int write = properties.get(Workload.WRITE).poolSizeOf(16);
+
+        // Assert
+        assertEquals(8, pointRead);
+        assertEquals(3, scan);
+        assertEquals(5, write);
+    }
+
+    @Test
+    void poolSizeOf_WhenPoolSizeIsSet_ShouldUseItAndNeverGoBelowOne() {
+        // Arrange
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.getWrite().setPoolSize(2);
+
+        // Act & Assert
+        assertEquals(2, properties.get(Workload.WRITE).poolSizeOf(16));
+        assertEquals(1, properties.get(Workload.SCAN).poolSizeOf(1));
+    }
+}
@@ -0,0 +1,86 @@
+package com.library.bulkhead;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    @Test
+    void tryAcquire_WhenSlotsAreFree_ShouldAdmitUpToTheCap() throws Exception {
+        // Arrange
+        Bulkhead bulkhead = new Bulkhead(Workload.SCAN, 2, 0, 0);
+
+        // Act & Assert
+        assertTrue(bulkhead.tryAcquire());
+        assertTrue(bulkhead.tryAcquire());
+        assertFalse(bulkhead.tryAcquire());
+        assertEquals(2, bulkhead.getActive());
+    }
+
+    @Test
+    void tryAcquire_WhenQueueIsFull_ShouldRejectWithoutWaiting() throws Exception {
+        // Arrange
+        Bulkhead bulkhead = new Bulkhead(Workload.WRITE, 1, 1, TimeUnit.SECONDS.toNanos(30));
+        assertTrue(bulkhead.tryAcquire());
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> acquire(bulkhead));
+        while (bulkhead.getQueued() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Act
+        long started = System.nanoTime();
+        boolean admitted = bulkhead.tryAcquire();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        // Assert
+        assertFalse(admitted);
+        assertTrue(elapsedMillis < 1_000, "rejected after " + elapsedMillis + " ms");
+        bulkhead.release();
+        assertTrue(waiting.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void tryAcquire_WhenWaitTimesOut_ShouldRejectAndLeaveTheQueue() throws Exception {
+        // Arrange
+        Bulkhead bulkhead = new Bulkhead(Workload.POINT_READ, 1, 4, TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(bulkhead.tryAcquire());
+
+        // Act
+        boolean admitted = bulkhead.tryAcquire();
+
+        // Assert
+        assertFalse(admitted);
+        assertEquals(0, bulkhead.getQueued());
+    }
+
+    @Test
+    void tryAcquire_WhenSlotIsReleasedWhileWaiting_ShouldAdmit() throws Exception {
+        // Arrange
+        Bulkhead bulkhead = new Bulkhead(Workload.POINT_READ, 1, 4, TimeUnit.SECONDS.toNanos(30));
+        assertTrue(bulkhead.tryAcquire());
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> acquire(bulkhead));
+        while (bulkhead.getQueued() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Act
+        bulkhead.release();
+
+        // Assert
+        assertTrue(waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(1, bulkhead.getActive());
+    }
+
+    private static boolean acquire(Bulkhead bulkhead) {
+        try {
+            return bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.library.cache;
+
+import com.library.dto.BookDTO;
+import com.library.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<Long, BookDTO> loader = id -> {
+        loads.incrementAndGet();
+        return book(id);
+    };
+
+    @Test
+    void get_WhenCached_ShouldNotLoadAgain() {
+        // Arrange
+        BookCache cache = new BookCache(10, Duration.ofMinutes(5), (candidate, victim) -> true, now::get);
+        BookDTO first = cache.get(1L, loader);
+
+        // Act
+        BookDTO second = cache.get(1L, loader);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void get_AfterTtl_ShouldLoadAgain() {
+        // Arrange
+        BookCache cache = new BookCache(10, Duration.ofSeconds(30), (candidate, victim) -> true, now::get);
+        cache.get(1L, loader);
+
+        // Act
+        now.addAndGet(30_000);
+        cache.get(1L, loader);
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_WhenInvalidatedDuringLoad_ShouldNotCacheResult() {
+        // Arrange
+        BookCache cache = new BookCache(10, Duration.ofMinutes(5), (candidate, victim) -> true, now::get);
+
+        // Act
+        cache.get(1L, id -> {
+            cache.invalidate(id, now.get());
+            return book(id);
+        });
+
+        // Assert
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_WhenLoaderThrows_ShouldPropagateAndCacheNothing() {
+        // Arrange
+        BookCache cache = new BookCache(10, Duration.ofMinutes(5), (candidate, victim) -> true, now::get);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> cache.get(1L, id -> {
+            throw new ResourceNotFoundException("Book not found with id: " + id);
+        }));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_WhenFullAndAdmissionRejects_ShouldKeepExistingEntry() {
+        // Arrange
+        BookCache cache = new BookCache(1, Duration.ofMinutes(5), (candidate, victim) -> candidate > victim, now::get);
+        cache.get(5L, loader);
+
+        // Act
+        cache.get(3L, loader);
+        cache.get(5L, loader);
+
+        // Assert
+        assertEquals(1, cache.size());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_WhenFullAndAdmissionAccepts_ShouldReplaceVictim() {
+        // Arrange
+        BookCache cache = new BookCache(1, Duration.ofMinutes(5), (candidate, victim) -> candidate > victim, now::get);
+        cache.get(3L, loader);
+
+        // Act
+        cache.get(5L, loader);
+        cache.get(5L, loader);
+
+        // Assert
+        assertEquals(1, cache.size());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_WhenReadAfterWrite_ShouldReportStaleRead() {
+        // Arrange
+        BookCache cache = new BookCache(10, Duration.ofMinutes(5), (candidate, victim) -> true, now::get);
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+        long writtenAt = now.addAndGet(10);
+        now.addAndGet(5);
+        cache.get(1L, loader);
+
+        // Act & Assert
+        assertTrue(cache.invalidate(1L, writtenAt));
+        assertFalse(cache.invalidate(2L, writtenAt));
+        assertEquals(0, cache.size());
+    }
+
+    private static BookDTO book(Long id) {
+        BookDTO book = new BookDTO();
+        book.setId(id);
+        book.setTitle("Book " + id);
+        return book;
+    }
+}
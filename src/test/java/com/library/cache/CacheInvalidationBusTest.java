@@ -0,0 +1,114 @@
+package com.library.cache;
+
+import com.library.dto.BookDTO;
+import com.library.service.BookAvailabilityRefreshedEvent;
+import com.library.service.BookChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheInvalidationBusTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final LoopbackInvalidationTransport transport = new LoopbackInvalidationTransport();
+    private final Function<Long, BookDTO> loader = CacheInvalidationBusTest::book;
+
+    private BookCache cacheA;
+    private BookCache cacheB;
+    private CacheInvalidationBus busA;
+    private SimpleMeterRegistry registryB;
+
+    @BeforeEach
+    void setUp() {
+        cacheA = new BookCache(10, Duration.ofMinutes(5), (candidate, victim) -> true, now::get);
+        cacheB = new BookCache(10, Duration.ofMinutes(5), (candidate, victim) -> true, now::get);
+        busA = new CacheInvalidationBus("a", cacheA, transport, now::get, new SimpleMeterRegistry());
+        registryB = new SimpleMeterRegistry();
+        CacheInvalidationBus busB = new CacheInvalidationBus("b", cacheB, transport, now::get, registryB);
+        busA.start();
+        busB.start();
+    }
+
+    @Test
+    void onBookChanged_ShouldEvictOnEveryNode() {
+        // Arrange
+        cacheA.get(1L, loader);
+        cacheB.get(1L, loader);
+        cacheB.get(2L, loader);
+
+        // Act
+        busA.onBookChanged(new BookChangedEvent(1L, book(1L), null));
+
+        // Assert
+        assertEquals(0, cacheA.size());
+        assertEquals(1, cacheB.size());
+        assertEquals(1, registryB.counter("library.cache.invalidations", "source", "remote").count());
+    }
+
+    @Test
+    void onBookAvailabilityRefreshed_ShouldEvictOnPeers() {
+        // Arrange
+        cacheB.get(1L, loader);
+
+        // Act
+        busA.onBookAvailabilityRefreshed(new BookAvailabilityRefreshedEvent(1L, true, false));
+
+        // Assert
+        assertEquals(0, cacheB.size());
+    }
+
+    @Test
+    void receive_WhenPeerServedBookAfterWrite_ShouldCountStaleReadAndLag() {
+        // Arrange
+        cacheB.get(1L, loader);
+        long writtenAt = now.addAndGet(10);
+        now.addAndGet(20);
+        cacheB.get(1L, loader);
+
+        // Act
+        transport.send(new InvalidationMessage("a", 1L, writtenAt));
+
+        // Assert
+        assertEquals(1, registryB.counter("library.cache.stale.reads").count());
+        assertEquals(20, registryB.timer("library.cache.invalidation.lag")
+                .totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void receive_Flush_ShouldDropEverything() {
+        // Arrange
+        cacheB.get(1L, loader);
+        cacheB.get(2L, loader);
+
+        // Act
+        transport.send(new InvalidationMessage("a", null, now.get()));
+
+        // Assert
+        assertEquals(0, cacheB.size());
+    }
+
+    @Test
+    void receive_OwnMessage_ShouldBeIgnored() {
+        // Arrange
+        cacheA.get(1L, loader);
+
+        // Act
+        transport.send(new InvalidationMessage("a", 1L, now.get()));
+
+        // Assert
+        assertEquals(1, cacheA.size());
+    }
+
+    private static BookDTO book(Long id) {
+        BookDTO book = new BookDTO();
+        book.setId(id);
+        return book;
+    }
+}
@@ -0,0 +1,82 @@
+package com.library.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TcpInvalidationTransportTest {
+
+    private final List<TcpInvalidationTransport> started = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        started.forEach(TcpInvalidationTransport::stop);
+    }
+
+    @Test
+    void send_ShouldDeliverToPeer() throws Exception {
+        // Arrange
+        int portA = freePort();
+        int portB = freePort();
+        BlockingQueue<InvalidationMessage> receivedByB = new LinkedBlockingQueue<>();
+        start(new TcpInvalidationTransport("b", portB, peer(portA), 50, 100), receivedByB::add);
+        TcpInvalidationTransport a = start(new TcpInvalidationTransport("a", portA, peer(portB), 50, 100),
+                message -> { });
+
+        // Act
+        a.send(new InvalidationMessage("a", 42L, 1234L));
+
+        // Assert
+        assertEquals(new InvalidationMessage("a", 42L, 1234L), receivedByB.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void send_WhenPeerWasDown_ShouldFlushItOnceReachable() throws Exception {
+        // Arrange
+        int portA = freePort();
+        int portB = freePort();
+        TcpInvalidationTransport a = start(new TcpInvalidationTransport("a", portA, peer(portB), 50, 100),
+                message -> { });
+        a.send(new InvalidationMessage("a", 1L, 1L));
+        Thread.sleep(200);
+
+        // Act
+        BlockingQueue<InvalidationMessage> receivedByB = new LinkedBlockingQueue<>();
+        start(new TcpInvalidationTransport("b", portB, List.of(), 50, 100), receivedByB::add);
+
+        // Assert
+        InvalidationMessage first = receivedByB.poll(5, TimeUnit.SECONDS);
+        assertNotNull(first);
+        assertTrue(first.isFlush());
+        a.send(new InvalidationMessage("a", 2L, 2L));
+        assertEquals(new InvalidationMessage("a", 2L, 2L), receivedByB.poll(5, TimeUnit.SECONDS));
+    }
+
+    private TcpInvalidationTransport start(TcpInvalidationTransport transport,
+                                           Consumer<InvalidationMessage> receiver) {
+        transport.start(receiver);
+        started.add(transport);
+        return transport;
+    }
+
+    private static List<InetSocketAddress> peer(int port) {
+        return List.of(InetSocketAddress.createUnresolved("localhost", port));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.library.catalog;
+
+import com.library.dto.BookDTO;
+import com.library.model.Book;
+import com.library.model.BookField;
+import com.library.repository.BookRepository;
+import com.library.repository.BookSpecifications;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the in-memory catalog over the JPA repository's database, outside a
+ * test transaction so the journal's writes are visible to the assertions.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InMemoryBookRepositoryTest {
+
+    @Autowired
+    private BookRepository jpaRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private InMemoryBookRepository catalog;
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("delete from books");
+        jdbcTemplate.update("delete from book_descriptions");
+        catalog = open();
+        bookRepository = catalog.asRepository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalog.close();
+    }
+
+    @Test
+    void save_ShouldAssignIncreasingIdsAndFindBooksByIdAndIsbn() {
+        // Act
+        Book first = bookRepository.save(book("9780000000001", "First", "Ann Lee"));
+        Book second = bookRepository.save(book("9780000000002", "Second", "Ann Lee"));
+
+        // Assert
+        assertTrue(second.getId() > first.getId());
+        assertEquals(0L, first.getVersion());
+        assertEquals("First", bookRepository.findById(first.getId()).orElseThrow().getTitle());
+        assertEquals(second.getId(), bookRepository.findByIsbn("9780000000002").orElseThrow().getId());
+        assertTrue(bookRepository.existsByIsbn("9780000000001"));
+        assertFalse(bookRepository.existsByIsbn("9999999999999"));
+        assertFalse(bookRepository.findById(999_999L).isPresent());
+        assertEquals(2, bookRepository.count());
+    }
+
+    @Test
+    void derivedSearches_ShouldMatchLikeTheJpaRepository() {
+        // Arrange
+        Book fiction = book("9780000000003", "Crème Brûlée Stories", "Ann Lee");
+        fiction.setGenre("Fiction");
+        Book poetry = book("9780000000004", "Test Poems", "Bob Stone");
+        poetry.setGenre("Poetry");
+        poetry.setAvailable(false);
+        bookRepository.saveAll(List.of(fiction, poetry));
+
+        // Act & Assert
+        assertEquals(List.of("Ann Lee"), authors(bookRepository.findByAuthorContainingIgnoreCase("LEE")));
+        assertEquals(List.of("Ann Lee"), authors(bookRepository.findByTitleContainingIgnoreCase("brûlée")));
+        assertEquals(List.of("Bob Stone"), authors(bookRepository.findByTitleContainingIgnoreCase("poem")));
+        assertEquals(List.of("Bob Stone"), authors(bookRepository.findByGenreIgnoreCase("poetry")));
+        assertTrue(bookRepository.findByGenreIgnoreCase("poet").isEmpty());
+        assertEquals(List.of("Ann Lee"), authors(bookRepository.findByAvailable(true)));
+    }
+
+    @Test
+    void saveAll_ShouldInsertNewBooksOnceAndUpdateExistingOnes() {
+        // Arrange
+        Book existing = bookRepository.save(book("9780000000021", "Existing", "A"));
+        existing.setTitle("Updated");
+
+        // Act
+        List<Book> saved = bookRepository.saveAll(List.of(existing, book("9780000000022", "New", "A")));
+
+        // Assert
+        assertEquals(List.of("Updated", "New"), saved.stream().map(Book::getTitle).toList());
+        assertEquals(2, bookRepository.count());
+        assertEquals(1L, bookRepository.findById(existing.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void save_WhenIsbnBelongsToAnotherBook_ShouldThrowDataIntegrityViolation() {
+        // Arrange
+        bookRepository.save(book("9780000000005", "Taken", "A"));
+        Book other = bookRepository.save(book("9780000000006", "Other", "A"));
+        other.setIsbn("9780000000005");
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class,
+                () -> bookRepository.save(book("9780000000005", "Duplicate", "A")));
+        assertThrows(DataIntegrityViolationException.class, () -> bookRepository.save(other));
+        assertEquals(2, bookRepository.count());
+        assertEquals("9780000000006", bookRepository.findById(other.getId()).orElseThrow().getIsbn());
+    }
+
+    @Test
+    void save_WhenRequiredFieldIsMissing_ShouldThrowDataIntegrityViolation() {
+        // Arrange
+        Book undated = book("9780000000020", "Undated", "A");
+        undated.setPublicationDate(null);
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> bookRepository.save(undated));
+        assertEquals(0, bookRepository.count());
+    }
+
+    @Test
+    void save_WhenVersionIsStale_ShouldThrowOptimisticLockingFailure() {
+        // Arrange
+        Book saved = bookRepository.save(book("9780000000007", "Versioned", "A"));
+        Book stale = bookRepository.findById(saved.getId()).orElseThrow();
+        Book fresh = bookRepository.findById(saved.getId()).orElseThrow();
+        fresh.setTitle("Renamed");
+        Book renamed = bookRepository.save(fresh);
+        stale.setTitle("Lost Update");
+
+        // Act & Assert
+        assertEquals(1L, renamed.getVersion());
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> bookRepository.save(stale));
+        assertEquals("Renamed", bookRepository.findById(saved.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void save_WhenNothingChanges_ShouldKeepTheVersion() {
+        // Arrange
+        Book saved = bookRepository.save(book("9780000000008", "Same", "A"));
+
+        // Act
+        Book again = bookRepository.save(bookRepository.findById(saved.getId()).orElseThrow());
+
+        // Assert
+        assertEquals(0L, again.getVersion());
+    }
+
+    @Test
+    void updateAvailability_WhenFlagChanges_ShouldBumpTheVersion() {
+        // Arrange
+        Book saved = bookRepository.save(book("9780000000031", "Lent", "A"));
+
+        // Act
+        int changed = bookRepository.updateAvailability(saved.getId(), false);
+        int unchanged = bookRepository.updateAvailability(saved.getId(), false);
+
+        // Assert
+        assertEquals(1, changed);
+        assertEquals(0, unchanged);
+        assertEquals(1L, bookRepository.findById(saved.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void flush_ShouldWriteEveryChangeToTheDatabase() {
+        // Arrange
+        Book kept = bookRepository.save(book("9780000000009", "Kept", "A"));
+        Book removed = bookRepository.save(book("9780000000010", "Removed", "A"));
+        kept.setDescription("Written behind");
+        kept.setTitle("Kept and Renamed");
+        bookRepository.save(kept);
+        bookRepository.updateAvailability(kept.getId(), false);
+        bookRepository.deleteById(removed.getId());
+
+        // Act
+        catalog.flush();
+
+        // Assert
+        Book stored = jpaRepository.findById(kept.getId()).orElseThrow();
+        assertEquals("Kept and Renamed", stored.getTitle());
+        assertEquals("Written behind", stored.getDescription());
+        assertFalse(stored.getAvailable());
+        assertEquals(bookRepository.findById(kept.getId()).orElseThrow().getVersion(), stored.getVersion());
+        assertFalse(jpaRepository.existsById(removed.getId()));
+        assertEquals(1, jpaRepository.count());
+    }
+
+    @Test
+    void flush_ShouldMoveTheDatabaseIdentityPastInsertedIds() {
+        // Arrange
+        Book inserted = bookRepository.save(book("9780000000011", "Catalog Id", "A"));
+        catalog.flush();
+
+        // Act
+        Book direct = jpaRepository.save(book("9780000000012", "Database Id", "A"));
+
+        // Assert
+        assertTrue(direct.getId() > inserted.getId());
+    }
+
+    @Test
+    void load_ShouldRestoreTheCatalogFromTheDatabase() {
+        // Arrange
+        Book book = book("9780000000013", "Reloaded", "Ann Lee");
+        book.setDescription("Kept across restarts");
+        Book saved = bookRepository.save(book);
+        saved.setGenre("Poetry");
+        bookRepository.save(saved);
+        catalog.close();
+
+        // Act
+        catalog = open();
+        bookRepository = catalog.asRepository();
+
+        // Assert
+        Book reloaded = bookRepository.findByIsbn("9780000000013").orElseThrow();
+        assertEquals(saved.getId(), reloaded.getId());
+        assertEquals("Poetry", reloaded.getGenre());
+        assertEquals("Kept across restarts", reloaded.getDescription());
+        assertEquals(1L, reloaded.getVersion());
+        assertTrue(bookRepository.save(book("9780000000014", "Next", "A")).getId() > saved.getId());
+    }
+
+    @Test
+    void findFields_ShouldReadOnlyTheRequestedFieldsOfMatchingBooks() {
+        // Arrange
+        Book fiction = book("9780000000015", "100% Java", "Test Author");
+        fiction.setGenre("Fiction");
+        fiction.setDescription("Test Description");
+        Book poetry = book("9780000000016", "1000 Java Tips", "Other Author");
+        poetry.setGenre("Poetry");
+        bookRepository.saveAll(List.of(fiction, poetry));
+
+        // Act
+        List<BookDTO> byGenre = bookRepository.findFields(BookSpecifications.genreIs("fiction"),
+                EnumSet.of(BookField.TITLE, BookField.ISBN));
+        List<BookDTO> byWildcard = bookRepository.findFields(BookSpecifications.titleContains("0%"),
+                EnumSet.of(BookField.TITLE));
+        List<BookDTO> all = bookRepository.findFields(null, EnumSet.of(BookField.AUTHOR));
+
+        // Assert
+        assertEquals(1, byGenre.size());
+        assertEquals(fiction.getId(), byGenre.get(0).getId());
+        assertEquals("100% Java", byGenre.get(0).getTitle());
+        assertEquals("9780000000015", byGenre.get(0).getIsbn());
+        assertNull(byGenre.get(0).getAuthor());
+        assertNull(byGenre.get(0).getDescription());
+        assertEquals(List.of("100% Java"), byWildcard.stream().map(BookDTO::getTitle).toList());
+        assertEquals(List.of("Test Author", "Other Author"), all.stream().map(BookDTO::getAuthor).toList());
+    }
+
+    @Test
+    void findFields_WhenSpecificationIsNotACriterion_ShouldThrowUnsupportedOperation() {
+        // Act & Assert
+        assertThrows(UnsupportedOperationException.class,
+                () -> bookRepository.findFields((root, query, builder) -> null, EnumSet.of(BookField.TITLE)));
+    }
+
+    @Test
+    void facetCounts_ShouldGroupBooksByValue() {
+        // Arrange
+        for (int i = 0; i < 6; i++) {
+            Book book = book("97800000001" + String.format("%02d", i), "Book " + i, i % 2 == 0 ? "Ann" : "Bob");
+            book.setGenre(i % 3 == 0 ? "Poetry" : "Fiction");
+            book.setAvailable(i < 4);
+            book.setPublicationDate(LocalDate.of(2018 + i % 3, 5, 1));
+            bookRepository.save(book);
+        }
+
+        // Act
+        Map<Object, Long> byGenre = facets(bookRepository.countByGenre());
+        Map<Object, Long> byAuthor = facets(bookRepository.countByAuthor());
+        Map<Object, Long> byAvailable = facets(bookRepository.countByAvailable());
+        Map<Object, Long> byYear = facets(bookRepository.countByPublicationYear());
+
+        // Assert
+        assertEquals(Map.of("Poetry", 2L, "Fiction", 4L), byGenre);
+        assertEquals(Map.of("Ann", 3L, "Bob", 3L), byAuthor);
+        assertEquals(Map.of(true, 4L, false, 2L), byAvailable);
+        assertEquals(Map.of(2018, 2L, 2019, 2L, 2020, 2L), byYear);
+    }
+
+    @Test
+    void findAll_WithPageable_ShouldSortAndSliceTheCatalog() {
+        // Arrange
+        for (int i = 0; i < 25; i++) {
+            bookRepository.save(book("97822222222" + String.format("%02d", i), String.format("Title %02d", 24 - i), "A"));
+        }
+
+        // Act
+        Page<Book> page = bookRepository.findAll(PageRequest.of(1, 10, Sort.by("title")));
+
+        // Assert
+        assertEquals(25, page.getTotalElements());
+        assertEquals(List.of("Title 10", "Title 11", "Title 12", "Title 13", "Title 14",
+                        "Title 15", "Title 16", "Title 17", "Title 18", "Title 19"),
+                page.getContent().stream().map(Book::getTitle).toList());
+    }
+
+    @Test
+    void findTermsAfter_ShouldPageThroughTheCatalogInIdOrder() {
+        // Arrange
+        List<Long> saved = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            saved.add(bookRepository.save(book("97833333333" + String.format("%02d", i), "T" + i, "A")).getId());
+        }
+        bookRepository.deleteById(saved.get(7));
+
+        // Act
+        List<Long> ids = new ArrayList<>();
+        long afterId = 0;
+        List<BookRepository.BookTerms> page;
+        do {
+            page = bookRepository.findTermsAfter(afterId, PageRequest.of(0, 7));
+            for (BookRepository.BookTerms terms : page) {
+                ids.add(terms.getId());
+                afterId = terms.getId();
+            }
+        } while (page.size() == 7);
+
+        // Assert
+        saved.remove(7);
+        assertEquals(saved, ids);
+    }
+
+    @Test
+    void findByIdIn_ShouldReturnOnlyExistingBooksOnce() {
+        // Arrange
+        Book first = bookRepository.save(book("9780000000017", "One", "A"));
+        Book second = bookRepository.save(book("9780000000018", "Two", "A"));
+
+        // Act
+        List<Book> found = bookRepository.findByIdIn(List.of(first.getId(), second.getId(), first.getId(), 999_999L));
+
+        // Assert
+        assertEquals(2, found.size());
+    }
+
+    @Test
+    void reads_WhileBooksAreWritten_ShouldAlwaysSeeConsistentBooks() throws Exception {
+        // Arrange
+        Book anchor = bookRepository.save(book("9780000000019", "Anchor", "Ann Lee"));
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+
+        // Act
+        Future<?> writer = pool.submit(() -> {
+            try {
+                for (int i = 0; i < 300; i++) {
+                    bookRepository.save(book("97844444444" + String.format("%03d", i), "Written " + i, "Writer"));
+                    if (i % 50 == 0) {
+                        bookRepository.deleteById(bookRepository.findByIsbn("97844444444" + String.format("%03d", i))
+                                .orElseThrow().getId());
+                    }
+                }
+            } finally {
+                writing.set(false);
+            }
+        });
+        List<Future<?>> readers = new ArrayList<>();
+        for (int r = 0; r < 2; r++) {
+            readers.add(pool.submit(() -> {
+                long lastCount = 0;
+                while (writing.get()) {
+                    Book read = bookRepository.findById(anchor.getId()).orElseThrow();
+                    assertEquals("Anchor", read.getTitle());
+                    assertEquals("9780000000019", read.getIsbn());
+                    assertEquals(anchor.getId(), bookRepository.findByIsbn("9780000000019").orElseThrow().getId());
+                    assertEquals(1, bookRepository.findByAuthorContainingIgnoreCase("ann").size());
+                    long count = bookRepository.count();
+                    assertTrue(count >= lastCount - 1, "count went from " + lastCount + " to " + count);
+                    lastCount = count;
+                }
+            }));
+        }
+        writer.get();
+        for (Future<?> reader : readers) {
+            reader.get();
+        }
+        pool.shutdown();
+
+        // Assert
+        assertEquals(1 + 300 - 6, bookRepository.count());
+    }
+
+    private InMemoryBookRepository open() {
+        return InMemoryBookRepository.load(jdbcTemplate,
+                new CatalogJournal(jpaRepository, dataSource, new TransactionTemplate(transactionManager), 100));
+    }
+
+    private static List<String> authors(List<Book> books) {
+        return books.stream().map(Book::getAuthor).toList();
+    }
+
+    private static Map<Object, Long> facets(List<BookRepository.FacetCount> counts) {
+        Map<Object, Long> facets = new HashMap<>();
+        counts.forEach(count -> facets.put(count.getFacet(), count.getBooks()));
+        return facets;
+    }
+
+    private static Book book(String isbn, String title, String author) {
+        Book book = new Book();
+        book.setIsbn(isbn);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setPublicationDate(LocalDate.of(2020, 1, 1));
+        book.setAvailable(true);
+        return book;
+    }
+}
@@ -0,0 +1,47 @@
+package com.library.config;
+
+import com.library.dto.BookDTO;
+import com.library.exception.GlobalExceptionHandler;
+import com.library.model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeHintsConfigTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new NativeHintsConfig.BookLibraryRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_ShouldRegisterDtoAccessors() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(BookDTO.class.getMethod("getTitle")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(BookDTO.class.getMethod("setTitle", String.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(GlobalExceptionHandler.ErrorResponse.class.getMethod("getMessage")).test(hints));
+    }
+
+    @Test
+    void registerHints_ShouldRegisterEntityFieldsAndConstructors() {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(Book.class)
+                .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                .test(hints));
+    }
+
+    @Test
+    void registerHints_ShouldRegisterSwaggerUiResources() {
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/resources/webjars/swagger-ui/4.18.3/index.html").test(hints));
+    }
+}
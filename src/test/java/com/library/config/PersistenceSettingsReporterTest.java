@@ -0,0 +1,107 @@
+package com.library.config;
+
+import com.library.bulkhead.Bulkhead;
+import com.library.bulkhead.Bulkheads;
+import com.library.bulkhead.Workload;
+import com.library.bulkhead.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistenceSettingsReporterTest {
+
+    @Test
+    void checkSettings_WhenProdProfileUsesDevelopmentSettings_ShouldWarn() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.url", "jdbc:h2:mem:booklibrarydb")
+                .withProperty("spring.jpa.show-sql", "true");
+        environment.setActiveProfiles("prod");
+        PersistenceSettingsReporter reporter = new PersistenceSettingsReporter(environment, new HikariDataSource());
+
+        // Act
+        List<String> warnings = reporter.checkSettings();
+
+        // Assert
+        assertEquals(3, warnings.size());
+    }
+
+    @Test
+    void checkSettings_WhenProdProfileIsTuned_ShouldNotWarn() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.url", "jdbc:h2:file:./data/booklibrarydb")
+                .withProperty("spring.jpa.show-sql", "false")
+                .withProperty("spring.jpa.open-in-view", "false");
+        environment.setActiveProfiles("prod");
+        PersistenceSettingsReporter reporter = new PersistenceSettingsReporter(environment, new HikariDataSource());
+
+        // Act
+        List<String> warnings = reporter.checkSettings();
+
+        // Assert
+        assertTrue(warnings.isEmpty());
+    }
+
+    @Test
+    void checkSettings_WhenProdProfileIsNotActive_ShouldNotWarn() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.url", "jdbc:h2:mem:booklibrarydb")
+                .withProperty("spring.jpa.show-sql", "true");
+        PersistenceSettingsReporter reporter = new PersistenceSettingsReporter(environment, new HikariDataSource());
+
+        // Act
+        List<String> warnings = reporter.checkSettings();
+
+        // Assert
+        assertTrue(warnings.isEmpty());
+    }
+
+    @Test
+    void describeSettings_ShouldIncludePoolAndHibernateSettings() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.jpa.properties.hibernate.jdbc.batch_size", "50");
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(16);
+        PersistenceSettingsReporter reporter = new PersistenceSettingsReporter(environment, dataSource);
+
+        // Act
+        String description = reporter.describeSettings();
+
+        // Assert
+        assertTrue(description.contains("maxPoolSize=16"));
+        assertTrue(description.contains("jdbcBatchSize=50"));
+    }
+
+    @Test
+    void describeSettings_WhenBulkheadsSplitThePool_ShouldReportEveryPool() {
+        // Arrange
+        Map<Workload, Bulkhead> compartments = new EnumMap<>(Workload.class);
+        Map<Workload, DataSource> pools = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            compartments.put(workload, new Bulkhead(workload, 1, 0, 0));
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("BookLibraryPool-" + workload.tag());
+            pools.put(workload, pool);
+        }
+        PersistenceSettingsReporter reporter = new PersistenceSettingsReporter(new MockEnvironment(),
+                new WorkloadRoutingDataSource(pools, new Bulkheads(compartments)));
+
+        // Act
+        String description = reporter.describeSettings();
+
+        // Assert
+        for (Workload workload : Workload.values()) {
+            assertTrue(description.contains("pool=BookLibraryPool-" + workload.tag()), description);
+        }
+    }
+}
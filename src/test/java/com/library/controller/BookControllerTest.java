@@ -1,20 +1,28 @@
 package com.library.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.dto.BatchLookupResponse;
 import com.library.dto.BookDTO;
+import com.library.exception.PreconditionFailedException;
 import com.library.exception.ResourceNotFoundException;
+import com.library.model.Book;
+import com.library.model.BookField;
 import com.library.service.BookService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -60,7 +68,8 @@ class BookControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$[0].title").value("Test Book"))
-                .andExpect(jsonPath("$[0].author").value("Test Author"));
+                .andExpect(jsonPath("$[0].author").value("Test Author"))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
 
         verify(bookService, times(1)).getAllBooks();
     }
@@ -75,7 +84,8 @@ class BookControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.title").value("Test Book"))
-                .andExpect(jsonPath("$.author").value("Test Author"));
+                .andExpect(jsonPath("$.author").value("Test Author"))
+                .andExpect(jsonPath("$.description").value("Test Description"));
 
         verify(bookService, times(1)).getBookById(1L);
     }
@@ -118,7 +128,10 @@ class BookControllerTest {
         mockMvc.perform(post("/api/books")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(invalidBook)))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.errors.title").exists())
+                .andExpect(jsonPath("$.timestamp").exists());
 
         verify(bookService, never()).createBook(any(BookDTO.class));
     }
@@ -195,4 +208,157 @@ class BookControllerTest {
 
         verify(bookService, times(1)).getAvailableBooks();
     }
+
+    @Test
+    void getBooksByIds_ShouldReturnFoundAndMissing() throws Exception {
+        // Arrange
+        when(bookService.getBooksByIds(List.of(1L, 2L)))
+                .thenReturn(new BatchLookupResponse<>(List.of(testBookDTO), List.of(2L)));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/books/batch/ids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(1, 2))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found[0].title").value("Test Book"))
+                .andExpect(jsonPath("$.missing[0]").value(2));
+
+        verify(bookService, times(1)).getBooksByIds(List.of(1L, 2L));
+    }
+
+    @Test
+    void getBooksByIsbns_ShouldReturnFoundAndMissing() throws Exception {
+        // Arrange
+        when(bookService.getBooksByIsbns(List.of("1234567890", "0000000000")))
+                .thenReturn(new BatchLookupResponse<>(List.of(testBookDTO), List.of("0000000000")));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/books/batch/isbns")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of("1234567890", "0000000000"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found[0].isbn").value("1234567890"))
+                .andExpect(jsonPath("$.missing[0]").value("0000000000"));
+
+        verify(bookService, times(1)).getBooksByIsbns(List.of("1234567890", "0000000000"));
+    }
+
+    @Test
+    void getBooksByGenre_WithFields_ShouldWriteOnlyThoseFields() throws Exception {
+        // Arrange
+        when(bookService.getBooksByGenre("Fiction", EnumSet.of(BookField.ID, BookField.TITLE)))
+                .thenReturn(List.of(testBookDTO));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/books/search/genre")
+                        .param("genre", "Fiction")
+                        .param("fields", "id,Title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].title").value("Test Book"))
+                .andExpect(jsonPath("$[0].author").doesNotExist())
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+    }
+
+    @Test
+    void getAllBooks_WithUnknownField_ShouldReturn400() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/books").param("fields", "title,price"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    void createBook_WithFields_ShouldIgnoreThem() throws Exception {
+        // Arrange
+        when(bookService.createBook(any(BookDTO.class))).thenReturn(testBookDTO);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/books")
+                        .param("fields", "bogus")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testBookDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.title").value("Test Book"))
+                .andExpect(jsonPath("$.description").value(testBookDTO.getDescription()));
+    }
+
+    @Test
+    void getBookById_WhenBookHasVersion_ShouldReturnETag() throws Exception {
+        // Arrange
+        testBookDTO.setVersion(3L);
+        when(bookService.getBookById(1L)).thenReturn(testBookDTO);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/books/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.version").value(3));
+    }
+
+    @Test
+    void patchBook_WithIfMatch_ShouldPatchThatVersion() throws Exception {
+        // Arrange
+        testBookDTO.setGenre("Poetry");
+        testBookDTO.setVersion(4L);
+        JsonNode patch = objectMapper.readTree("{\"genre\": \"Poetry\"}");
+        when(bookService.patchBook(1L, patch, 3L)).thenReturn(testBookDTO);
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/books/1")
+                        .contentType(BookController.MERGE_PATCH_JSON)
+                        .header("If-Match", "\"3\"")
+                        .content(patch.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.genre").value("Poetry"));
+
+        verify(bookService, times(1)).patchBook(1L, patch, 3L);
+    }
+
+    @Test
+    void patchBook_WhenVersionIsStale_ShouldReturn412() throws Exception {
+        // Arrange
+        when(bookService.patchBook(eq(1L), any(JsonNode.class), eq(3L)))
+                .thenThrow(new PreconditionFailedException("Book 1 is at version 4, not 3"));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/books/1")
+                        .contentType(BookController.MERGE_PATCH_JSON)
+                        .header("If-Match", "\"3\"")
+                        .content("{\"genre\": \"Poetry\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void patchBook_WithWeakOrMalformedIfMatch_ShouldReturn400() throws Exception {
+        // Act & Assert
+        mockMvc.perform(patch("/api/books/1")
+                        .contentType(BookController.MERGE_PATCH_JSON)
+                        .header("If-Match", "W/\"3\"")
+                        .content("{\"genre\": \"Poetry\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/books/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("If-Match", "three")
+                        .content(objectMapper.writeValueAsString(testBookDTO)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    void updateBook_WhenConcurrentlyModified_ShouldReturn409() throws Exception {
+        // Arrange
+        when(bookService.updateBook(eq(1L), any(BookDTO.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Book.class, 1L));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/books/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("If-Match", "*")
+                        .content(objectMapper.writeValueAsString(testBookDTO)))
+                .andExpect(status().isConflict());
+    }
 }
@@ -0,0 +1,109 @@
+package com.library.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.dto.CirculationRequest;
+import com.library.dto.LoanDTO;
+import com.library.exception.CirculationConflictException;
+import com.library.exception.ResourceNotFoundException;
+import com.library.service.CirculationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(LoanController.class)
+class LoanControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private CirculationService circulationService;
+
+    private LoanDTO testLoanDTO;
+
+    @BeforeEach
+    void setUp() {
+        testLoanDTO = new LoanDTO();
+        testLoanDTO.setId(1L);
+        testLoanDTO.setCopyId(10L);
+        testLoanDTO.setBookId(1L);
+        testLoanDTO.setPatronId("alice");
+        testLoanDTO.setCheckedOutAt(LocalDateTime.of(2024, 1, 1, 10, 0));
+        testLoanDTO.setDueAt(LocalDateTime.of(2024, 1, 22, 10, 0));
+    }
+
+    @Test
+    void checkout_WhenCopyAvailable_ShouldReturnCreatedLoan() throws Exception {
+        // Arrange
+        when(circulationService.checkout(1L, "alice")).thenReturn(testLoanDTO);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/loans")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CirculationRequest(1L, "alice"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.copyId").value(10))
+                .andExpect(jsonPath("$.patronId").value("alice"));
+    }
+
+    @Test
+    void checkout_WhenNoCopyAvailable_ShouldReturnConflict() throws Exception {
+        // Arrange
+        when(circulationService.checkout(1L, "alice"))
+                .thenThrow(new CirculationConflictException("No copy of book 1 is available"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/loans")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CirculationRequest(1L, "alice"))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("No copy of book 1 is available"));
+    }
+
+    @Test
+    void checkout_WhenPatronMissing_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/loans")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CirculationRequest(1L, ""))))
+                .andExpect(status().isBadRequest());
+
+        verify(circulationService, never()).checkout(any(), any());
+    }
+
+    @Test
+    void returnLoan_WhenLoanNotFound_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(circulationService.returnLoan(99L)).thenThrow(new ResourceNotFoundException("Loan not found with id: 99"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/loans/99/return"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getActiveLoans_ShouldReturnPatronLoans() throws Exception {
+        // Arrange
+        when(circulationService.getActiveLoans("alice")).thenReturn(List.of(testLoanDTO));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/loans").param("patronId", "alice"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1));
+    }
+}
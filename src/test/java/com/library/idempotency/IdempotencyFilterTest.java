@@ -0,0 +1,211 @@
+package com.library.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.library.ratelimit.ClientIdentity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest {
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setWaitTimeout(Duration.ofMillis(100));
+        filter = new IdempotencyFilter(properties,
+                new IdempotencyStore(properties.getMaxEntries(), properties.getTtl(), System::currentTimeMillis),
+                new ClientIdentity("X-API-Key", Set.of("other")),
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void doFilter_WhenRetriedWithSameKey_ShouldReplayWithoutExecuting() throws Exception {
+        // Arrange
+        MockHttpServletResponse first = perform(post("key-1", "{\"isbn\":\"1\"}"), created());
+
+        // Act
+        MockHttpServletResponse retry = perform(post("key-1", "{\"isbn\":\"1\"}"), created());
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals("/api/books/1", retry.getHeader("Location"));
+        assertEquals("application/json", retry.getContentType());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void doFilter_WhenKeyReusedForOtherBody_ShouldReturn422() throws Exception {
+        // Arrange
+        perform(post("key-1", "{\"isbn\":\"1\"}"), created());
+
+        // Act
+        MockHttpServletResponse other = perform(post("key-1", "{\"isbn\":\"2\"}"), created());
+
+        // Assert
+        assertEquals(422, other.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void doFilter_WithDifferentClientsOrNoKey_ShouldExecuteEachRequest() throws Exception {
+        // Arrange
+        MockHttpServletRequest otherClient = post("key-1", "{}");
+        otherClient.addHeader("X-API-Key", "other");
+        MockHttpServletRequest withoutKey = post("key-1", "{}");
+        withoutKey.removeHeader("Idempotency-Key");
+
+        // Act
+        perform(post("key-1", "{}"), created());
+        perform(otherClient, created());
+        perform(withoutKey, created());
+
+        // Assert
+        assertEquals(3, executions.get());
+    }
+
+    @Test
+    void doFilter_WithUnknownApiKey_ShouldScopeTheKeyToTheAddress() throws Exception {
+        // Arrange
+        MockHttpServletRequest madeUpKey = post("key-1", "{}");
+        madeUpKey.addHeader("X-API-Key", "made-up");
+
+        // Act
+        perform(post("key-1", "{}"), created());
+        MockHttpServletResponse retry = perform(madeUpKey, created());
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void doFilter_WhenFirstAttemptFailsWithServerError_ShouldExecuteTheRetry() throws Exception {
+        // Arrange
+        perform(post("key-1", "{}"), (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(503);
+        });
+
+        // Act
+        MockHttpServletResponse retry = perform(post("key-1", "{}"), created());
+
+        // Assert
+        assertEquals(2, executions.get());
+        assertEquals(201, retry.getStatus());
+    }
+
+    @Test
+    void doFilter_ShouldPassTheBodyOnToTheChain() throws Exception {
+        // Arrange
+        String[] seen = new String[1];
+
+        // Act
+        perform(post("key-1", "{\"title\":\"Dune\"}"), (request, response) ->
+                seen[0] = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+
+        // Assert
+        assertEquals("{\"title\":\"Dune\"}", seen[0]);
+    }
+
+    @Test
+    void doFilter_ShouldServeTheBodyToReadListeners() throws Exception {
+        // Arrange
+        ByteArrayOutputStream seen = new ByteArrayOutputStream();
+        boolean[] allRead = new boolean[1];
+
+        // Act
+        perform(post("key-1", "{\"title\":\"Dune\"}"), (request, response) -> {
+            ServletInputStream input = request.getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[4];
+                    while (input.isReady() && !input.isFinished()) {
+                        seen.write(buffer, 0, input.read(buffer));
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allRead[0] = true;
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    fail(t);
+                }
+            });
+        });
+
+        // Assert
+        assertEquals("{\"title\":\"Dune\"}", seen.toString(StandardCharsets.UTF_8));
+        assertTrue(allRead[0]);
+    }
+
+    @Test
+    void doFilter_WhenEveryKeyIsInFlight_ShouldReturn503() throws Exception {
+        // Arrange
+        IdempotencyProperties properties = new IdempotencyProperties();
+        IdempotencyStore store = new IdempotencyStore(1, properties.getTtl(), System::currentTimeMillis);
+        filter = new IdempotencyFilter(properties, store, new ClientIdentity("X-API-Key", Set.of()),
+                new ObjectMapper().registerModule(new JavaTimeModule()), new SimpleMeterRegistry());
+        MockHttpServletResponse overflow = new MockHttpServletResponse();
+
+        // Act
+        perform(post("key-1", "{}"), (request, response) -> filter.doFilter(post("key-2", "{}"), overflow, created()));
+
+        // Assert
+        assertEquals(503, overflow.getStatus());
+        assertNotNull(overflow.getHeader("Retry-After"));
+        assertEquals(0, executions.get());
+    }
+
+    private FilterChain created() {
+        return (request, response) -> {
+            int execution = executions.incrementAndGet();
+            HttpServletResponse http = (HttpServletResponse) response;
+            http.setStatus(201);
+            http.setHeader("Location", "/api/books/1");
+            http.setContentType("application/json");
+            http.getWriter().write("{\"id\":1,\"execution\":" + execution + "}");
+        };
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest post(String idempotencyKey, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/books");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        request.addHeader("Idempotency-Key", idempotencyKey);
+        return request;
+    }
+}
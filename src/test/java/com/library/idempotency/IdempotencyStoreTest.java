@@ -0,0 +1,141 @@
+package com.library.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    private final AtomicLong now = new AtomicLong();
+    private final IdempotencyStore store = new IdempotencyStore(2, Duration.ofMinutes(1), now::get);
+
+    @Test
+    void claim_WhenKeyCompleted_ShouldReplayResponse() throws Exception {
+        // Arrange
+        IdempotencyStore.Claim first = store.claim("key", "body", WAIT);
+        store.complete(first, response(201));
+
+        // Act
+        IdempotencyStore.Claim retry = store.claim("key", "body", WAIT);
+
+        // Assert
+        assertEquals(IdempotencyStore.Outcome.EXECUTE, first.outcome());
+        assertEquals(IdempotencyStore.Outcome.REPLAY, retry.outcome());
+        assertEquals(201, retry.response().status());
+    }
+
+    @Test
+    void claim_WhenFingerprintDiffers_ShouldReportMismatch() throws Exception {
+        // Arrange
+        store.claim("key", "body", WAIT);
+
+        // Act
+        IdempotencyStore.Claim other = store.claim("key", "other body", WAIT);
+
+        // Assert
+        assertEquals(IdempotencyStore.Outcome.MISMATCH, other.outcome());
+    }
+
+    @Test
+    void claim_WhenKeyInFlight_ShouldWaitForTheFirstExecution() throws Exception {
+        // Arrange
+        IdempotencyStore.Claim first = store.claim("key", "body", WAIT);
+        CompletableFuture<IdempotencyStore.Claim> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return store.claim("key", "body", WAIT);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Act
+        Thread.sleep(50);
+        assertFalse(waiter.isDone());
+        store.complete(first, response(200));
+
+        // Assert
+        IdempotencyStore.Claim replayed = waiter.get(5, TimeUnit.SECONDS);
+        assertEquals(IdempotencyStore.Outcome.REPLAY, replayed.outcome());
+        assertEquals(200, replayed.response().status());
+    }
+
+    @Test
+    void claim_WhenFirstExecutionReleased_ShouldLetTheWaiterExecute() throws Exception {
+        // Arrange
+        IdempotencyStore.Claim first = store.claim("key", "body", WAIT);
+        CompletableFuture<IdempotencyStore.Claim> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return store.claim("key", "body", WAIT);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Act
+        Thread.sleep(50);
+        store.release(first);
+
+        // Assert
+        assertEquals(IdempotencyStore.Outcome.EXECUTE, waiter.get(5, TimeUnit.SECONDS).outcome());
+    }
+
+    @Test
+    void claim_WhenWaitTimesOut_ShouldReportInProgress() throws Exception {
+        // Arrange
+        store.claim("key", "body", WAIT);
+
+        // Act
+        IdempotencyStore.Claim retry = store.claim("key", "body", Duration.ofMillis(10));
+
+        // Assert
+        assertEquals(IdempotencyStore.Outcome.IN_PROGRESS, retry.outcome());
+    }
+
+    @Test
+    void claim_WhenKeyExpiredOrEvicted_ShouldExecuteAgain() throws Exception {
+        // Arrange
+        store.complete(store.claim("expiring", "body", WAIT), response(201));
+        now.addAndGet(Duration.ofMinutes(1).toMillis());
+        store.complete(store.claim("a", "body", WAIT), response(201));
+        store.complete(store.claim("b", "body", WAIT), response(201));
+
+        // Act
+        IdempotencyStore.Claim expired = store.claim("expiring", "body", WAIT);
+
+        // Assert
+        assertEquals(IdempotencyStore.Outcome.EXECUTE, expired.outcome());
+        assertEquals(2, store.size());
+        assertEquals(IdempotencyStore.Outcome.EXECUTE, store.claim("a", "body", WAIT).outcome());
+    }
+
+    @Test
+    void claim_WhenFull_ShouldEvictOnlyCompletedKeys() throws Exception {
+        // Arrange
+        IdempotencyStore.Claim inFlight = store.claim("in-flight", "body", WAIT);
+        store.complete(store.claim("done", "body", WAIT), response(201));
+
+        // Act
+        IdempotencyStore.Claim fresh = store.claim("fresh", "body", WAIT);
+        IdempotencyStore.Claim overflow = store.claim("overflow", "body", WAIT);
+
+        // Assert
+        assertEquals(IdempotencyStore.Outcome.EXECUTE, fresh.outcome());
+        assertEquals(IdempotencyStore.Outcome.FULL, overflow.outcome());
+        assertEquals(2, store.size());
+        store.complete(inFlight, response(201));
+        assertEquals(IdempotencyStore.Outcome.REPLAY, store.claim("in-flight", "body", WAIT).outcome());
+    }
+
+    private static StoredResponse response(int status) {
+        return new StoredResponse(status, Map.of("Content-Type", List.of("application/json")), "{}".getBytes());
+    }
+}
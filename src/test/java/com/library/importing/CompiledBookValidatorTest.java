@@ -0,0 +1,76 @@
+package com.library.importing;
+
+import com.library.dto.BookDTO;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledBookValidatorTest {
+
+    private static ValidatorFactory factory;
+    private static Validator validator;
+    private static CompiledBookValidator compiled;
+
+    @BeforeAll
+    static void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+        compiled = new CompiledBookValidator(validator);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        factory.close();
+    }
+
+    @Test
+    void validate_WhenBookIsValid_ShouldReturnNull() {
+        // Arrange
+        BookDTO book = book("Clean Code", "Robert Martin", "9780132350884");
+
+        // Act & Assert
+        assertNull(compiled.validate(book));
+    }
+
+    @Test
+    void validate_WhenBookBreaksConstraints_ShouldReportTheSameMessagesAsTheValidator() {
+        // Arrange
+        BookDTO[] books = {
+                book(" ", "Robert Martin", "9780132350884"),
+                book("Clean Code", null, "123"),
+                book("T".repeat(201), "A".repeat(101), null),
+        };
+        books[1].setPublicationDate(null);
+        books[2].setGenre("G".repeat(51));
+
+        for (BookDTO book : books) {
+            // Act
+            String message = compiled.validate(book);
+
+            // Assert
+            Set<String> expected = validator.validate(book).stream()
+                    .map(violation -> violation.getMessage())
+                    .collect(Collectors.toSet());
+            assertEquals(expected, Set.copyOf(Arrays.asList(message.split("; "))));
+        }
+    }
+
+    private static BookDTO book(String title, String author, String isbn) {
+        BookDTO book = new BookDTO();
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setIsbn(isbn);
+        book.setPublicationDate(LocalDate.of(2008, 8, 1));
+        return book;
+    }
+}
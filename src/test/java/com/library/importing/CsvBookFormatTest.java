@@ -0,0 +1,124 @@
+package com.library.importing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvBookFormatTest {
+
+    private static final String HEADER = "Title,Author,ISBN-13,Published,Genre,Available\n";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void parse_WhenFieldsAreQuoted_ShouldKeepCommasQuotesAndLineBreaks() throws IOException {
+        // Arrange
+        Path file = write(HEADER
+                + "\"Clean Code, 2nd\",\"Martin, Robert\",978-0-13-235088-4,2008-08-01,Programming,yes\n"
+                + "\"The \"\"Quoted\"\"\nTitle\",Someone,9780134685991,2018,,no\n");
+
+        // Act
+        List<ParsedRecord> records = parseAll(file, Long.MAX_VALUE);
+
+        // Assert
+        assertEquals(2, records.size());
+        assertEquals("Clean Code, 2nd", records.get(0).book().getTitle());
+        assertEquals("Martin, Robert", records.get(0).book().getAuthor());
+        assertEquals("9780132350884", records.get(0).book().getIsbn());
+        assertEquals(LocalDate.of(2008, 8, 1), records.get(0).book().getPublicationDate());
+        assertTrue(records.get(0).book().getAvailable());
+        assertEquals("The \"Quoted\"\nTitle", records.get(1).book().getTitle());
+        assertEquals(LocalDate.of(2018, 1, 1), records.get(1).book().getPublicationDate());
+        assertFalse(records.get(1).book().getAvailable());
+        assertEquals(1, records.get(1).line());
+        assertEquals(3, records.get(1).endLine());
+    }
+
+    @Test
+    void parse_WhenFileIsSplitIntoSmallSlices_ShouldMatchParsingItWhole() throws IOException {
+        // Arrange
+        StringBuilder content = new StringBuilder(HEADER);
+        for (int i = 0; i < 200; i++) {
+            content.append("\"Book ").append(i).append(",\n part\",Author ").append(i)
+                    .append(",97800000").append(String.format("%05d", i)).append(",2001,,\n");
+            if (i % 17 == 0) {
+                content.append("\n");
+            }
+        }
+        Path file = write(content.toString());
+
+        // Act
+        List<ParsedRecord> whole = parseAll(file, Long.MAX_VALUE);
+        List<ParsedRecord> sliced = parseAll(file, 100);
+
+        // Assert
+        assertEquals(200, whole.size());
+        assertEquals(whole.stream().map(r -> r.book().getTitle()).toList(),
+                sliced.stream().map(r -> r.book().getTitle()).toList());
+        assertEquals(whole.stream().map(ParsedRecord::endOffset).toList(),
+                sliced.stream().map(ParsedRecord::endOffset).toList());
+    }
+
+    @Test
+    void parse_WhenDateIsInvalid_ShouldRejectOnlyThatRecord() throws IOException {
+        // Arrange
+        Path file = write(HEADER
+                + "Good,Author,9780134685991,2018,,\n"
+                + "Bad,Author,9780132350884,someday,,\n");
+
+        // Act
+        List<ParsedRecord> records = parseAll(file, Long.MAX_VALUE);
+
+        // Assert
+        assertTrue(records.get(0).isValid());
+        assertFalse(records.get(1).isValid());
+        assertEquals("9780132350884", records.get(1).isbn());
+        assertEquals("Invalid publication date: someday", records.get(1).error());
+    }
+
+    @Test
+    void open_WhenRequiredColumnIsMissing_ShouldThrowIllegalArgumentException() throws IOException {
+        // Arrange
+        Path file = write("Title,Author,Genre\nA,B,C\n");
+
+        // Act & Assert
+        try (FileChannel channel = FileChannel.open(file)) {
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> CsvBookFormat.open(channel));
+            assertTrue(exception.getMessage().contains("ISBN"));
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = directory.resolve("books.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static List<ParsedRecord> parseAll(Path file, long chunkSize) throws IOException {
+        List<ParsedRecord> records = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file)) {
+            CsvBookFormat format = CsvBookFormat.open(channel);
+            long start = format.firstRecordOffset();
+            while (start < channel.size()) {
+                long end = format.nextBoundary(channel, start, chunkSize);
+                ByteBuffer slice = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                records.addAll(format.parse(slice, start).records());
+                start = end;
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,104 @@
+package com.library.importing;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Marc21BookFormatTest {
+
+    private final Marc21BookFormat format = new Marc21BookFormat();
+
+    @Test
+    void parse_WhenRecordHasUsualFields_ShouldMapThemToBook() {
+        // Arrange
+        byte[] record = record(
+                "008", "080801s2008    nju           000 0 eng d",
+                "020", "  \u001Fa9780132350884 (pbk.)",
+                "100", "1 \u001FaMartin, Robert C.",
+                "245", "10\u001FaClean code :\u001Fba handbook of agile software craftsmanship /",
+                "264", " 1\u001FaUpper Saddle River :\u001FbPrentice Hall,\u001Fc[2009]",
+                "650", " 0\u001FaAgile software development.");
+
+        // Act
+        List<ParsedRecord> records = format.parse(ByteBuffer.wrap(record), 0).records();
+
+        // Assert
+        assertEquals(1, records.size());
+        ParsedRecord parsed = records.get(0);
+        assertTrue(parsed.isValid());
+        assertEquals("9780132350884", parsed.book().getIsbn());
+        assertEquals("Martin, Robert C.", parsed.book().getAuthor());
+        assertEquals("Clean code: a handbook of agile software craftsmanship", parsed.book().getTitle());
+        assertEquals(LocalDate.of(2009, 1, 1), parsed.book().getPublicationDate());
+        assertEquals("Agile software development", parsed.book().getGenre());
+        assertEquals(record.length, parsed.endOffset());
+    }
+
+    @Test
+    void parse_WhenPublicationFieldIsMissing_ShouldFallBackToFixedField() {
+        // Arrange
+        byte[] record = record(
+                "008", "950101s1994    nyu           000 0 eng d",
+                "020", "  \u001Fa0201633612",
+                "245", "10\u001FaDesign patterns.");
+
+        // Act
+        ParsedRecord parsed = format.parse(ByteBuffer.wrap(record), 0).records().get(0);
+
+        // Assert
+        assertEquals(LocalDate.of(1994, 1, 1), parsed.book().getPublicationDate());
+        assertEquals("Design patterns", parsed.book().getTitle());
+    }
+
+    @Test
+    void parse_WhenRecordIsTruncated_ShouldRejectItAndKeepGoing() {
+        // Arrange
+        byte[] good = record("020", "  \u001Fa0201633612", "245", "10\u001FaDesign patterns.");
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.writeBytes("00042nam".getBytes(StandardCharsets.US_ASCII));
+        file.write(0x1D);
+        file.writeBytes(good);
+        byte[] bytes = file.toByteArray();
+
+        // Act
+        List<ParsedRecord> records = format.parse(ByteBuffer.wrap(bytes), 100).records();
+
+        // Assert
+        assertEquals(2, records.size());
+        assertEquals("Truncated MARC record", records.get(0).error());
+        assertEquals(109, records.get(0).endOffset());
+        assertEquals(1, records.get(1).line());
+        assertEquals("0201633612", records.get(1).book().getIsbn());
+    }
+
+    /**
+     * Builds an ISO 2709 record from alternating tags and field contents.
+     */
+    private static byte[] record(String... tagsAndFields) {
+        ByteArrayOutputStream directory = new ByteArrayOutputStream();
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        for (int i = 0; i < tagsAndFields.length; i += 2) {
+            byte[] field = tagsAndFields[i + 1].getBytes(StandardCharsets.UTF_8);
+            directory.writeBytes(String.format("%s%04d%05d", tagsAndFields[i], field.length + 1, data.size())
+                    .getBytes(StandardCharsets.US_ASCII));
+            data.writeBytes(field);
+            data.write(0x1E);
+        }
+        directory.write(0x1E);
+        int baseAddress = 24 + directory.size();
+        int length = baseAddress + data.size() + 1;
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        record.writeBytes(String.format("%05dnam a22%05d   4500", length, baseAddress)
+                .getBytes(StandardCharsets.US_ASCII));
+        record.writeBytes(directory.toByteArray());
+        record.writeBytes(data.toByteArray());
+        record.write(0x1D);
+        return record.toByteArray();
+    }
+}
@@ -0,0 +1,65 @@
+package com.library.profiling;
+
+import com.library.service.ProfilingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=profiling")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProfilingEndpointIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProfilingService profilingService;
+
+    @AfterEach
+    void tearDown() {
+        profilingService.stop();
+    }
+
+    @Test
+    void status_ShouldNotStartRecordingWithTheApplication() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/actuator/profiling"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.running").value(false));
+    }
+
+    @Test
+    void recording_WhenStarted_ShouldDownloadAndSummarize() throws Exception {
+        // Arrange
+        mockMvc.perform(post("/actuator/profiling/start"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.running").value(true));
+
+        // Act
+        byte[] recording = mockMvc.perform(get("/actuator/profiling/recording"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        assertTrue(recording.length > 0);
+        mockMvc.perform(get("/actuator/profiling/summary").param("top", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hotMethods").isArray());
+        mockMvc.perform(get("/actuator/profiling/heap"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,71 @@
+package com.library.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long TARGET_WAIT = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void tryAcquire_WhenLimitReached_ShouldReject() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, TARGET_WAIT, now::get);
+
+        // Act & Assert
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void recordPoolWait_WhenWaitExceedsTarget_ShouldDecreaseLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(64, 8, 256, TARGET_WAIT, now::get);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            now.addAndGet(TimeUnit.MILLISECONDS.toNanos(150));
+            limiter.recordPoolWait(TimeUnit.MILLISECONDS.toNanos(500));
+        }
+
+        // Assert
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    void recordPoolWait_WhenWaitBelowTarget_ShouldIncreaseLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(64, 8, 256, TARGET_WAIT, now::get);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            now.addAndGet(TimeUnit.MILLISECONDS.toNanos(150));
+            limiter.recordPoolWait(TimeUnit.MICROSECONDS.toNanos(50));
+        }
+
+        // Assert
+        assertEquals(74, limiter.getLimit());
+    }
+
+    @Test
+    void recordPoolWait_WithinAdjustmentInterval_ShouldNotChangeLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(64, 8, 256, TARGET_WAIT, now::get);
+
+        // Act
+        limiter.recordPoolWait(TimeUnit.MILLISECONDS.toNanos(500));
+
+        // Assert
+        assertEquals(64, limiter.getLimit());
+        assertTrue(limiter.getPoolWaitEwmaNanos() > 0);
+    }
+}
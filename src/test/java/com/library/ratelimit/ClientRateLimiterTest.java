@@ -0,0 +1,65 @@
+package com.library.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void tryAcquire_WithManyDistinctKeys_ShouldTrackAtMostMaxClients() {
+        // Arrange
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 5, 100, now::get);
+
+        // Act
+        for (int i = 0; i < 50_000; i++) {
+            limiter.tryAcquire("flood-" + i, 1);
+        }
+
+        // Assert
+        assertEquals(100, limiter.getTrackedClients());
+    }
+
+    @Test
+    void tryAcquire_WhenFull_ShouldLimitNewClientsAsOneAndLeaveTrackedClientsAlone() {
+        // Arrange
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 5, 2, now::get);
+        limiter.tryAcquire("tracked", 1);
+        limiter.tryAcquire("other", 1);
+
+        // Act
+        int allowed = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (limiter.tryAcquire("flood-" + i, 1) == 0) {
+                allowed++;
+            }
+        }
+
+        // Assert
+        assertEquals(5, allowed);
+        assertEquals(0, limiter.tryAcquire("tracked", 1));
+        assertEquals(2, limiter.getTrackedClients());
+    }
+
+    @Test
+    void tryAcquire_WhenFullAndBucketsHaveRefilled_ShouldEvictThemForNewClients() {
+        // Arrange
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 5, 2, now::get);
+        limiter.tryAcquire("first", 1);
+        limiter.tryAcquire("second", 1);
+        now.addAndGet(5 * SECOND);
+
+        // Act
+        long waited = limiter.tryAcquire("newcomer", 5);
+
+        // Assert
+        assertEquals(0, waited);
+        assertEquals(1, limiter.getTrackedClients());
+    }
+}
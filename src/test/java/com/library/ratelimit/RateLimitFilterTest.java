@@ -0,0 +1,147 @@
+package com.library.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private RateLimitProperties properties;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setTokensPerSecond(1);
+        properties.setBurstCapacity(10);
+        properties.setExpensiveCost(10);
+        properties.setLookupCost(1);
+        properties.setApiKeys(Set.of("first", "second"));
+        concurrencyLimiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1_000_000L, now::get);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(properties,
+                new ClientRateLimiter(properties.getTokensPerSecond(), properties.getBurstCapacity(), 100, now::get),
+                concurrencyLimiter,
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                meterRegistry);
+    }
+
+    @Test
+    void doFilter_WhenFullListingExhaustsBucket_ShouldReturn429WithRetryAfter() throws Exception {
+        // Arrange
+        MockHttpServletResponse first = perform(get("/api/books"));
+
+        // Act
+        MockHttpServletResponse second = perform(get("/api/books"));
+
+        // Assert
+        assertEquals(200, first.getStatus());
+        assertEquals(429, second.getStatus());
+        assertEquals("10", second.getHeader("Retry-After"));
+        assertTrue(second.getContentAsString().contains("Rate limit exceeded"));
+        assertEquals(1.0, meterRegistry.get("library.ratelimit.requests")
+                .tag("limiter", "client").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void doFilter_WithDifferentAddresses_ShouldUseSeparateBuckets() throws Exception {
+        // Arrange
+        MockHttpServletRequest firstClient = get("/api/books");
+        MockHttpServletRequest secondClient = get("/api/books");
+        secondClient.setRemoteAddr("10.0.0.2");
+
+        // Act & Assert
+        assertEquals(200, perform(firstClient).getStatus());
+        assertEquals(200, perform(secondClient).getStatus());
+    }
+
+    @Test
+    void doFilter_WhenClientRotatesUnknownApiKeys_ShouldChargeItsAddress() throws Exception {
+        // Arrange
+        MockHttpServletRequest first = get("/api/books");
+        first.addHeader("X-API-Key", "made-up-1");
+        MockHttpServletRequest second = get("/api/books");
+        second.addHeader("X-API-Key", "made-up-2");
+
+        // Act & Assert
+        assertEquals(200, perform(first).getStatus());
+        assertEquals(429, perform(second).getStatus());
+    }
+
+    @Test
+    void doFilter_WithKnownApiKey_ShouldAlsoChargeTheKeyAcrossAddresses() throws Exception {
+        // Arrange
+        MockHttpServletRequest fromFirstAddress = get("/api/books");
+        fromFirstAddress.addHeader("X-API-Key", "first");
+        MockHttpServletRequest fromSecondAddress = get("/api/books");
+        fromSecondAddress.setRemoteAddr("10.0.0.2");
+        fromSecondAddress.addHeader("X-API-Key", "first");
+        MockHttpServletRequest otherKey = get("/api/books");
+        otherKey.setRemoteAddr("10.0.0.3");
+        otherKey.addHeader("X-API-Key", "second");
+
+        // Act & Assert
+        assertEquals(200, perform(fromFirstAddress).getStatus());
+        assertEquals(429, perform(fromSecondAddress).getStatus());
+        assertEquals(200, perform(otherKey).getStatus());
+    }
+
+    @Test
+    void cost_ShouldChargeMoreForListingsAndSearchesThanLookups() {
+        assertEquals(10, filter.cost(get("/api/books")));
+        assertEquals(10, filter.cost(get("/api/books/available")));
+        assertEquals(10, filter.cost(get("/api/books/search/title")));
+        assertEquals(1, filter.cost(get("/api/books/1")));
+        assertEquals(1, filter.cost(get("/api/books/isbn/1234567890")));
+    }
+
+    @Test
+    void doFilter_WhenConcurrencyLimitReached_ShouldReturn503() throws Exception {
+        // Arrange
+        assertTrue(concurrencyLimiter.tryAcquire());
+
+        // Act
+        MockHttpServletResponse response = perform(get("/api/books/1"));
+
+        // Assert
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+    }
+
+    @Test
+    void doFilter_ShouldReleaseConcurrencyPermitAfterRequest() throws Exception {
+        // Act
+        perform(get("/api/books/1"));
+
+        // Assert
+        assertEquals(0, concurrencyLimiter.getInFlight());
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+}
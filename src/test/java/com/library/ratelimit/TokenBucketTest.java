@@ -0,0 +1,93 @@
+package com.library.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void tryConsume_WithinCapacity_ShouldAllowBurst() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(10, 5, now::get);
+
+        // Act & Assert
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryConsume(1));
+        }
+        assertTrue(bucket.tryConsume(1) > 0);
+    }
+
+    @Test
+    void tryConsume_WhenEmpty_ShouldReturnWaitUntilRefill() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(10, 5, now::get);
+        bucket.tryConsume(5);
+
+        // Act
+        long wait = bucket.tryConsume(1);
+
+        // Assert
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait);
+        now.addAndGet(wait);
+        assertEquals(0, bucket.tryConsume(1));
+    }
+
+    @Test
+    void tryConsume_WithHigherCost_ShouldDrainFaster() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(10, 20, now::get);
+
+        // Act & Assert
+        assertEquals(0, bucket.tryConsume(10));
+        assertEquals(0, bucket.tryConsume(10));
+        assertTrue(bucket.tryConsume(10) > 0);
+        assertTrue(bucket.tryConsume(1) > 0);
+    }
+
+    @Test
+    void isIdle_AfterFullRefill_ShouldReturnTrue() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(10, 5, now::get);
+        bucket.tryConsume(3);
+        assertFalse(bucket.isIdle());
+
+        // Act
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(300));
+
+        // Assert
+        assertTrue(bucket.isIdle());
+    }
+
+    @Test
+    void tryConsume_UnderConcurrency_ShouldNeverExceedCapacity() throws Exception {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(1, 1000, now::get);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryConsume(1) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(1000, granted.get());
+    }
+}
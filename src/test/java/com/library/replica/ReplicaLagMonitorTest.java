@@ -0,0 +1,53 @@
+package com.library.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaLagMonitorTest {
+
+    private final String url = "jdbc:h2:mem:heartbeat-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    private HikariDataSource primary;
+    private Replica replica;
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        primary = new HikariDataSource();
+        primary.setJdbcUrl(url);
+        primary.setAutoCommit(false);
+        replica = new Replica("replica", new DriverManagerDataSource(url), () -> 0);
+        monitor = new ReplicaLagMonitor(primary, List.of(replica), 60_000, now::get, new SimpleMeterRegistry());
+        new JdbcTemplate(new DriverManagerDataSource(url)).execute("create table "
+                + ReplicaLagMonitor.HEARTBEAT_TABLE + " (id int primary key, beat_millis bigint not null)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.shutdown();
+        primary.close();
+    }
+
+    @Test
+    void tick_WhenPrimaryPoolHasAutoCommitOff_ShouldCommitTheHeartbeat() {
+        // Act
+        monitor.tick();
+        now.addAndGet(500);
+        monitor.tick();
+
+        // Assert
+        assertEquals(1_000_500L, replica.appliedAtMillis());
+    }
+}
@@ -0,0 +1,157 @@
+package com.library.replica;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final long MAX_LAG = 1_000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final AtomicInteger loadA = new AtomicInteger();
+    private final AtomicInteger loadB = new AtomicInteger();
+    private final ReadYourWrites readYourWrites = new ReadYourWrites(MAX_LAG, now::get);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private Replica replicaA;
+    private Replica replicaB;
+
+    @BeforeEach
+    void setUp() {
+        replicaA = new Replica("a", Mockito.mock(DataSource.class), loadA::get);
+        replicaB = new Replica("b", Mockito.mock(DataSource.class), loadB::get);
+        replicaA.applied(now.get());
+        replicaB.applied(now.get());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        readYourWrites.end();
+    }
+
+    @Test
+    void determineCurrentLookupKey_WhenNotReadOnly_ShouldUsePrimary() {
+        // Arrange
+        ReplicaRoutingDataSource routing = routing(ReplicaProperties.Selection.ROUND_ROBIN);
+
+        // Act & Assert
+        assertNull(routing.determineCurrentLookupKey());
+        assertEquals(1, meterRegistry.counter("library.replica.routes", "target", "primary").count());
+    }
+
+    @Test
+    void determineCurrentLookupKey_WhenRoundRobin_ShouldAlternateReplicas() {
+        // Arrange
+        ReplicaRoutingDataSource routing = routing(ReplicaProperties.Selection.ROUND_ROBIN);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        List<Object> keys = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            keys.add(routing.determineCurrentLookupKey());
+        }
+
+        // Assert
+        assertEquals(List.of("a", "b", "a", "b"), keys);
+    }
+
+    @Test
+    void determineCurrentLookupKey_WhenLeastLoaded_ShouldPickIdlerReplica() {
+        // Arrange
+        ReplicaRoutingDataSource routing = routing(ReplicaProperties.Selection.LEAST_LOADED);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        loadA.set(5);
+        loadB.set(1);
+
+        // Act & Assert
+        for (int i = 0; i < 4; i++) {
+            assertEquals("b", routing.determineCurrentLookupKey());
+        }
+    }
+
+    @Test
+    void determineCurrentLookupKey_WhenReplicaLags_ShouldSkipIt() {
+        // Arrange
+        ReplicaRoutingDataSource routing = routing(ReplicaProperties.Selection.ROUND_ROBIN);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        now.addAndGet(MAX_LAG + 500);
+        replicaB.applied(now.get() - 100);
+
+        // Act & Assert
+        for (int i = 0; i < 4; i++) {
+            assertEquals("b", routing.determineCurrentLookupKey());
+        }
+    }
+
+    @Test
+    void determineCurrentLookupKey_WhenAllReplicasLag_ShouldFallBackToPrimary() {
+        // Arrange
+        ReplicaRoutingDataSource routing = routing(ReplicaProperties.Selection.ROUND_ROBIN);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        now.addAndGet(MAX_LAG + 1);
+
+        // Act & Assert
+        assertNull(routing.determineCurrentLookupKey());
+        assertEquals(1, meterRegistry.counter("library.replica.fallbacks").count());
+    }
+
+    @Test
+    void determineCurrentLookupKey_AfterClientWrite_ShouldWaitForReplicaToApplyIt() {
+        // Arrange
+        ReplicaRoutingDataSource routing = routing(ReplicaProperties.Selection.ROUND_ROBIN);
+        readYourWrites.begin("alice");
+        routing.determineCurrentLookupKey();
+        readYourWrites.end();
+        now.addAndGet(10);
+
+        // Act
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        readYourWrites.begin("alice");
+        Object beforeCatchUp = routing.determineCurrentLookupKey();
+        replicaA.applied(now.get());
+        Object afterCatchUp = routing.determineCurrentLookupKey();
+        readYourWrites.end();
+        readYourWrites.begin("bob");
+        Object otherClient = routing.determineCurrentLookupKey();
+
+        // Assert
+        assertNull(beforeCatchUp);
+        assertEquals("a", afterCatchUp);
+        assertNotNull(otherClient);
+    }
+
+    @Test
+    void determineCurrentLookupKey_WhenRequestHasWritten_ShouldReadFromPrimary() {
+        // Arrange
+        ReplicaRoutingDataSource routing = routing(ReplicaProperties.Selection.ROUND_ROBIN);
+        readYourWrites.begin("alice");
+        routing.determineCurrentLookupKey();
+        replicaA.applied(now.get() + 1_000);
+        replicaB.applied(now.get() + 1_000);
+
+        // Act
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Object key = routing.determineCurrentLookupKey();
+
+        // Assert
+        assertNull(key);
+    }
+
+    private ReplicaRoutingDataSource routing(ReplicaProperties.Selection selection) {
+        return new ReplicaRoutingDataSource(Mockito.mock(DataSource.class), List.of(replicaA, replicaB), selection,
+                MAX_LAG, readYourWrites, now::get, meterRegistry);
+    }
+}
@@ -0,0 +1,118 @@
+package com.library.replica;
+
+import com.library.model.Book;
+import com.library.repository.BookRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Primary and two replicas as in-memory H2 databases kept in sync by the
+ * replication stub. Book reads must reach the database, so the in-memory
+ * catalog stays off even under {@code -Pin-memory-catalog}.
+ */
+@SpringBootTest(properties = {
+        "library.in-memory-catalog.enabled=false",
+        "library.replicas.enabled=true",
+        "library.replicas.heartbeat-interval=50ms",
+        "library.replicas.max-lag=2s",
+        "library.replicas.replicas[0].name=r1",
+        "library.replicas.replicas[0].url=jdbc:h2:mem:replica-it-1;DB_CLOSE_DELAY=-1",
+        "library.replicas.replicas[1].name=r2",
+        "library.replicas.replicas[1].url=jdbc:h2:mem:replica-it-2;DB_CLOSE_DELAY=-1",
+        "library.replicas.replication-stub.enabled=true",
+        "library.replicas.replication-stub.interval=50ms"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicaRoutingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void readOnlyQueries_ShouldBeServedByReplicasOnceTheyCatchUp() throws Exception {
+        // Arrange
+        Book book = bookRepository.save(book("9781111111111"));
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:replica-it-1", "sa", ""));
+        awaitTrue(() -> replica.queryForObject("select count(*) from books where id = ?", Long.class, book.getId()) == 1);
+        double before = replicaRoutes();
+
+        // Act
+        boolean found = bookRepository.findById(book.getId()).isPresent();
+
+        // Assert
+        assertTrue(found);
+        assertTrue(replicaRoutes() > before);
+    }
+
+    @Test
+    void request_AfterOwnWrite_ShouldSeeItImmediately() throws Exception {
+        // Arrange
+        String body = """
+                {"title": "Fresh Book", "author": "Writer", "isbn": "9782222222222",
+                 "publicationDate": "2020-01-01", "available": true}
+                """;
+
+        // Act
+        mockMvc.perform(post("/api/books").header("X-API-Key", "writer")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+
+        // Assert
+        mockMvc.perform(get("/api/books/isbn/9782222222222").header("X-API-Key", "writer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Fresh Book"));
+    }
+
+    private double replicaRoutes() {
+        return meterRegistry.counter("library.replica.routes", "target", "r1").count()
+                + meterRegistry.counter("library.replica.routes", "target", "r2").count();
+    }
+
+    private static void awaitTrue(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                if (condition.getAsBoolean()) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                // replica schema not copied yet
+            }
+            Thread.sleep(20);
+        }
+        fail("condition not met within 10s");
+    }
+
+    private static Book book(String isbn) {
+        Book book = new Book();
+        book.setTitle("Replicated Book");
+        book.setAuthor("Author");
+        book.setIsbn(isbn);
+        book.setPublicationDate(LocalDate.of(2020, 1, 1));
+        book.setAvailable(true);
+        return book;
+    }
+}
@@ -1,6 +1,9 @@
 package com.library.repository;
 
+import com.library.dto.BookDTO;
 import com.library.model.Book;
+import com.library.model.BookField;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,12 +11,16 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.library.repository.BookRepositoryTest$RecordingStatementInspector")
 class BookRepositoryTest {
 
     @Autowired
@@ -127,6 +134,22 @@ class BookRepositoryTest {
         assertFalse(unavailableBooks.get(0).getAvailable());
     }
 
+    @Test
+    void updateAvailability_WhenFlagChanges_ShouldBumpTheVersion() {
+        // Arrange
+        Book book = entityManager.persistFlushFind(testBook);
+        Long version = book.getVersion();
+
+        // Act
+        int changed = bookRepository.updateAvailability(book.getId(), false);
+        int unchanged = bookRepository.updateAvailability(book.getId(), false);
+
+        // Assert
+        assertEquals(1, changed);
+        assertEquals(0, unchanged);
+        assertEquals(version + 1, bookRepository.findById(book.getId()).orElseThrow().getVersion());
+    }
+
     @Test
     void existsByIsbn_WhenBookExists_ShouldReturnTrue() {
         // Arrange
@@ -148,4 +171,189 @@ class BookRepositoryTest {
         // Assert
         assertFalse(exists);
     }
+
+    @Test
+    void findByIsbnIn_ShouldReturnOnlyMatchingBooks() {
+        // Arrange
+        entityManager.persist(testBook);
+        entityManager.flush();
+
+        // Act
+        List<Book> found = bookRepository.findByIsbnIn(List.of("1234567890", "9999999999"));
+
+        // Assert
+        assertEquals(1, found.size());
+        assertEquals(testBook.getIsbn(), found.get(0).getIsbn());
+    }
+
+    @Test
+    void findByIdIn_ShouldReturnOnlyMatchingBooks() {
+        // Arrange
+        Book persisted = entityManager.persist(testBook);
+        entityManager.flush();
+
+        // Act
+        List<Book> found = bookRepository.findByIdIn(List.of(persisted.getId(), persisted.getId() + 1000));
+
+        // Assert
+        assertEquals(1, found.size());
+        assertEquals(persisted.getId(), found.get(0).getId());
+    }
+
+    @Test
+    void countByPublicationYear_ShouldGroupBooksByYear() {
+        // Arrange
+        entityManager.persist(testBook);
+        Book sameYear = new Book(null, "Other Book", "Other Author", "0987654321", LocalDate.of(2023, 12, 31),
+                null, false, null, null);
+        entityManager.persist(sameYear);
+        entityManager.flush();
+
+        // Act
+        List<BookRepository.FacetCount> byYear = bookRepository.countByPublicationYear();
+        List<BookRepository.FacetCount> byGenre = bookRepository.countByGenre();
+
+        // Assert
+        assertEquals(1, byYear.size());
+        assertEquals(2023, ((Number) byYear.get(0).getFacet()).intValue());
+        assertEquals(2, byYear.get(0).getBooks());
+        assertEquals(2, byGenre.size());
+    }
+
+    @Test
+    void findFields_ShouldReadOnlyTheRequestedFieldsOfMatchingBooks() {
+        // Arrange
+        entityManager.persist(testBook);
+        entityManager.persist(new Book(null, "Other Book", "Other Author", "0987654321", LocalDate.of(2020, 1, 1),
+                "Poetry", true, "Other Description", null));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<BookDTO> found = bookRepository.findFields(BookSpecifications.genreIs("fiction"),
+                EnumSet.of(BookField.TITLE, BookField.ISBN));
+
+        // Assert
+        assertEquals(1, found.size());
+        assertEquals(testBook.getId(), found.get(0).getId());
+        assertEquals("Test Book", found.get(0).getTitle());
+        assertEquals("1234567890", found.get(0).getIsbn());
+        assertNull(found.get(0).getAuthor());
+        assertNull(found.get(0).getDescription());
+    }
+
+    @Test
+    void findFields_WhenSearchContainsWildcard_ShouldMatchItLiterally() {
+        // Arrange
+        testBook.setTitle("100% Java");
+        entityManager.persist(testBook);
+        entityManager.persist(new Book(null, "1000 Java Tips", "Other Author", "0987654321", LocalDate.of(2020, 1, 1),
+                "Fiction", true, null, null));
+        entityManager.flush();
+
+        // Act
+        List<BookDTO> found = bookRepository.findFields(BookSpecifications.titleContains("0%"),
+                EnumSet.of(BookField.TITLE));
+
+        // Assert
+        assertEquals(1, found.size());
+        assertEquals("100% Java", found.get(0).getTitle());
+    }
+
+    @Test
+    void save_WhenOneFieldChanges_ShouldUpdateOnlyThatColumnAndTheVersion() {
+        // Arrange
+        Book persisted = entityManager.persistFlushFind(testBook);
+        RecordingStatementInspector.STATEMENTS.clear();
+
+        // Act
+        persisted.setGenre("Poetry");
+        bookRepository.saveAndFlush(persisted);
+
+        // Assert
+        List<String> updates = RecordingStatementInspector.STATEMENTS.stream()
+                .filter(sql -> sql.startsWith("update"))
+                .toList();
+        assertEquals(1, updates.size());
+        assertTrue(updates.get(0).matches("update books set genre=\\?,version=\\? where id=\\? and version=\\?"),
+                updates.get(0));
+        assertEquals(1L, persisted.getVersion());
+    }
+
+    @Test
+    void findAll_ShouldNotReadDescriptions() {
+        // Arrange
+        entityManager.persist(testBook);
+        entityManager.flush();
+        entityManager.clear();
+        RecordingStatementInspector.STATEMENTS.clear();
+
+        // Act
+        List<Book> found = bookRepository.findAll();
+
+        // Assert
+        assertEquals(1, found.size());
+        assertFalse(isLoaded(found.get(0), "description"));
+        assertTrue(RecordingStatementInspector.STATEMENTS.stream().noneMatch(sql -> sql.contains("book_descriptions")));
+    }
+
+    @Test
+    void findById_ShouldFetchDescriptionInTheSameQuery() {
+        // Arrange
+        Long id = entityManager.persistAndGetId(testBook, Long.class);
+        entityManager.flush();
+        entityManager.clear();
+        RecordingStatementInspector.STATEMENTS.clear();
+
+        // Act
+        Optional<Book> found = bookRepository.findById(id);
+
+        // Assert
+        assertTrue(found.isPresent());
+        assertTrue(isLoaded(found.get(), "description"));
+        assertEquals("Test Description", found.get().getDescription());
+        assertEquals(1, RecordingStatementInspector.STATEMENTS.size());
+    }
+
+    @Test
+    void save_WhenDescriptionChanges_ShouldReplaceItsRowAndBumpTheVersion() {
+        // Arrange
+        Book persisted = entityManager.persistFlushFind(testBook);
+
+        // Act
+        persisted.setDescription("Revised Description");
+        bookRepository.saveAndFlush(persisted);
+        entityManager.clear();
+        Book revised = bookRepository.findById(persisted.getId()).orElseThrow();
+        revised.setDescription(null);
+        bookRepository.saveAndFlush(revised);
+
+        // Assert
+        assertEquals(1L, persisted.getVersion());
+        assertEquals(2L, revised.getVersion());
+        assertNull(revised.getDescription());
+        assertEquals(0L, entityManager.getEntityManager()
+                .createQuery("select count(d) from BookDescription d", Long.class)
+                .getSingleResult());
+    }
+
+    private boolean isLoaded(Book book, String attribute) {
+        return entityManager.getEntityManager().getEntityManagerFactory().getPersistenceUnitUtil()
+                .isLoaded(book, attribute);
+    }
+
+    /**
+     * Records the SQL Hibernate sends, lower-cased and without spaces around
+     * operators.
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase().replaceAll("\\s+(?=[=,?])|(?<=[=,])\\s+", ""));
+            return sql;
+        }
+    }
 }
@@ -0,0 +1,77 @@
+package com.library.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DescriptionColumnMigrationTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DescriptionColumnMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:descriptions-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        migration = new DescriptionColumnMigration(dataSource,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        // The schema as an update leaves a database created before descriptions moved
+        jdbcTemplate.execute("create table book_descriptions (id bigint generated by default as identity primary key, "
+                + "text varchar(1000) not null)");
+        jdbcTemplate.execute("create table books (id bigint generated by default as identity primary key, "
+                + "title varchar(200) not null, description varchar(1000), description_id bigint unique "
+                + "references book_descriptions (id))");
+    }
+
+    @Test
+    void run_WhenOldColumnExists_ShouldMoveDescriptionsAndDropIt() {
+        // Arrange
+        jdbcTemplate.update("insert into books (id, title, description) values (1, 'Clean Code', 'Craftsmanship')");
+        jdbcTemplate.update("insert into books (id, title, description) values (2, 'Refactoring', null)");
+        jdbcTemplate.update("insert into book_descriptions (id, text) values (1, 'Written after the update')");
+        jdbcTemplate.update("insert into books (id, title, description_id) values (3, 'Effective Java', 1)");
+
+        // Act
+        int moved = migration.run();
+
+        // Assert
+        assertEquals(1, moved);
+        assertEquals(Map.of(1L, "Craftsmanship", 3L, "Written after the update"), descriptionsByBook());
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from information_schema.columns "
+                + "where lower(table_name) = 'books' and lower(column_name) = 'description'", Integer.class));
+        jdbcTemplate.update("insert into book_descriptions (text) values ('New')");
+        assertEquals(3, jdbcTemplate.queryForObject("select count(*) from book_descriptions", Integer.class));
+    }
+
+    @Test
+    void run_WhenOldColumnIsGone_ShouldDoNothing() {
+        // Arrange
+        jdbcTemplate.update("insert into books (id, title, description) values (1, 'Clean Code', 'Craftsmanship')");
+        migration.run();
+
+        // Act & Assert
+        assertEquals(0, migration.run());
+        assertEquals(Map.of(1L, "Craftsmanship"), descriptionsByBook());
+    }
+
+    private Map<Long, String> descriptionsByBook() {
+        return jdbcTemplate.query("select b.id, d.text from books b join book_descriptions d on d.id = b.description_id",
+                rs -> {
+                    Map<Long, String> descriptions = new HashMap<>();
+                    while (rs.next()) {
+                        descriptions.put(rs.getLong(1), rs.getString(2));
+                    }
+                    return descriptions;
+                });
+    }
+}
@@ -0,0 +1,133 @@
+package com.library.service;
+
+import com.library.dto.BookDTO;
+import com.library.dto.SuggestionDTO;
+import com.library.exception.BadRequestException;
+import com.library.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class AutocompleteServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private AutocompleteService autocompleteService;
+
+    @BeforeEach
+    void setUp() {
+        autocompleteService.index(1L, "Clean Code", "Robert C. Martin");
+        autocompleteService.index(2L, "Clean Architecture", "Robert C. Martin");
+        autocompleteService.index(3L, "Effective Java", "Joshua Bloch");
+    }
+
+    @Test
+    void suggest_WithTitlePrefix_ShouldReturnMatchingTitles() {
+        // Act
+        List<SuggestionDTO> result = autocompleteService.suggest("clea", 10);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertTrue(result.stream().allMatch(s -> s.getType() == SuggestionDTO.Type.TITLE));
+    }
+
+    @Test
+    void suggest_WithLaterWord_ShouldMatchInsideTitle() {
+        // Act
+        List<SuggestionDTO> result = autocompleteService.suggest("java", 10);
+
+        // Assert
+        assertEquals("Effective Java", result.get(0).getText());
+        assertEquals(List.of(3L), result.get(0).getBookIds());
+    }
+
+    @Test
+    void suggest_WithAuthorOfSeveralBooks_ShouldListAllBookIds() {
+        // Act
+        List<SuggestionDTO> result = autocompleteService.suggest("Robert", 10);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(SuggestionDTO.Type.AUTHOR, result.get(0).getType());
+        assertEquals(List.of(1L, 2L), result.get(0).getBookIds());
+    }
+
+    @Test
+    void suggest_WithTypo_ShouldStillSuggest() {
+        // Act
+        List<SuggestionDTO> result = autocompleteService.suggest("efective", 10);
+
+        // Assert
+        assertEquals("Effective Java", result.get(0).getText());
+    }
+
+    @Test
+    void suggest_WithBlankQuery_ShouldReturnEmptyList() {
+        assertTrue(autocompleteService.suggest("  - ", 10).isEmpty());
+    }
+
+    @Test
+    void suggest_WithLimitOutOfRange_ShouldThrowException() {
+        assertThrows(BadRequestException.class, () -> autocompleteService.suggest("clean", 0));
+        assertThrows(BadRequestException.class,
+                () -> autocompleteService.suggest("clean", AutocompleteService.MAX_LIMIT + 1));
+    }
+
+    @Test
+    void onBookChanged_WhenTitleUpdated_ShouldReplaceOldSuggestion() {
+        // Arrange
+        BookDTO updated = new BookDTO();
+        updated.setId(3L);
+        updated.setTitle("Java Concurrency in Practice");
+        updated.setAuthor("Brian Goetz");
+
+        // Act
+        autocompleteService.onBookChanged(new BookChangedEvent(3L, updated, null));
+
+        // Assert
+        assertTrue(autocompleteService.suggest("effective", 10).isEmpty());
+        assertTrue(autocompleteService.suggest("bloch", 10).isEmpty());
+        assertEquals("Java Concurrency in Practice", autocompleteService.suggest("java conc", 10).get(0).getText());
+    }
+
+    @Test
+    void onBookChanged_WhenBookDeleted_ShouldRemoveOnlyItsSuggestions() {
+        // Act
+        autocompleteService.onBookChanged(new BookChangedEvent(1L, null, null));
+
+        // Assert
+        assertEquals(List.of("Clean Architecture"),
+                autocompleteService.suggest("clean", 10).stream().map(SuggestionDTO::getText).toList());
+        assertEquals(List.of(2L), autocompleteService.suggest("martin", 10).get(0).getBookIds());
+        assertEquals(2, autocompleteService.bookCount());
+    }
+
+    @Test
+    void onPopularityChanged_ShouldRankMoreViewedBooksFirst() {
+        // Act
+        autocompleteService.onPopularityChanged(new PopularityChangedEvent(Map.of(1L, 5L)));
+        List<String> before = autocompleteService.suggest("clean", 10).stream().map(SuggestionDTO::getText).toList();
+        autocompleteService.onPopularityChanged(new PopularityChangedEvent(Map.of(1L, 5L, 2L, 50L)));
+        List<String> after = autocompleteService.suggest("clean", 10).stream().map(SuggestionDTO::getText).toList();
+
+        // Assert
+        assertEquals(List.of("Clean Code", "Clean Architecture"), before);
+        assertEquals(List.of("Clean Architecture", "Clean Code"), after);
+    }
+
+    @Test
+    void normalize_ShouldStripAccentsAndPunctuation() {
+        assertEquals("cafe society", AutocompleteService.normalize("  Café-Society! "));
+    }
+}
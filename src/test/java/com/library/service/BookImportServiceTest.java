@@ -0,0 +1,162 @@
+package com.library.service;
+
+import com.library.dto.ImportErrorDTO;
+import com.library.dto.ImportJobDTO;
+import com.library.exception.BadRequestException;
+import com.library.model.Book;
+import com.library.model.ImportFormat;
+import com.library.model.ImportJob;
+import com.library.model.ImportJobStatus;
+import com.library.repository.BookRepository;
+import com.library.repository.ImportJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookImportServiceTest {
+
+    private static final String HEADER = "title,author,isbn,publication_date\n";
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @TempDir
+    Path directory;
+
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        prefix = String.format("%09d", ThreadLocalRandom.current().nextInt(1_000_000_000));
+    }
+
+    @Test
+    void submit_WhenFileHasDuplicatesAndInvalidRows_ShouldImportTheRestAndReportThem() throws Exception {
+        // Arrange
+        Book existing = new Book();
+        existing.setTitle("Already Here");
+        existing.setAuthor("Someone");
+        existing.setIsbn(isbn(1));
+        existing.setPublicationDate(LocalDate.of(2000, 1, 1));
+        existing.setAvailable(true);
+        bookRepository.save(existing);
+        String csv = HEADER
+                + "First,Author," + isbn(1) + ",2001\n"
+                + "Second,Author," + isbn(2) + ",2002\n"
+                + ",No Title," + isbn(3) + ",2003\n"
+                + "Third,Author," + isbn(2) + ",2004\n"
+                + "Fourth,Author," + isbn(4) + ",2005\n";
+
+        // Act
+        ImportJobDTO submitted = bookImportService.submit("books.csv",
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), null);
+        ImportJobDTO job = awaitFinished(submitted.getId());
+
+        // Assert
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(ImportFormat.CSV, job.getFormat());
+        assertEquals(5, job.getRecordsRead());
+        assertEquals(2, job.getImported());
+        assertEquals(2, job.getDuplicates());
+        assertEquals(1, job.getInvalid());
+        assertEquals(100.0, job.getPercentComplete());
+        assertTrue(bookRepository.existsByIsbn(isbn(4)));
+        List<ImportErrorDTO> errors = bookImportService.getErrors(job.getId(), 10);
+        assertEquals(List.of(2L, 4L, 5L), errors.stream().map(ImportErrorDTO::getLine).toList());
+        assertEquals("Title is required", errors.get(1).getMessage());
+    }
+
+    @Test
+    void resume_WhenJobFailedHalfway_ShouldContinueFromItsCheckpoint() throws Exception {
+        // Arrange
+        String firstRow = "First,Author," + isbn(1) + ",2001\n";
+        String csv = HEADER + firstRow
+                + "\n"
+                + "Second,Author," + isbn(2) + ",2002\n"
+                + "Bad,Author," + isbn(3) + ",someday\n";
+        Path file = directory.resolve("failed.csv");
+        Files.writeString(file, csv);
+        ImportJob failed = new ImportJob();
+        failed.setFileName("failed.csv");
+        failed.setStoredPath(file.toString());
+        failed.setFormat(ImportFormat.CSV);
+        failed.setStatus(ImportJobStatus.FAILED);
+        failed.setFileSize(Files.size(file));
+        failed.setResumeOffset(HEADER.length() + firstRow.length());
+        failed.setLinesCommitted(2);
+        failed.setRecordsRead(1);
+        failed.setImported(1);
+        failed.setCreatedAt(LocalDateTime.now());
+        Long id = importJobRepository.save(failed).getId();
+
+        // Act
+        bookImportService.resume(id);
+        ImportJobDTO job = awaitFinished(id);
+
+        // Assert
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(3, job.getRecordsRead());
+        assertEquals(2, job.getImported());
+        assertFalse(bookRepository.existsByIsbn(isbn(1)));
+        assertTrue(bookRepository.existsByIsbn(isbn(2)));
+        List<ImportErrorDTO> errors = bookImportService.getErrors(id, 10);
+        assertEquals(1, errors.size());
+        assertEquals(5L, errors.get(0).getLine());
+    }
+
+    @Test
+    void resume_WhenJobCompleted_ShouldThrowBadRequestException() throws Exception {
+        // Arrange
+        String csv = HEADER + "Only,Author," + isbn(1) + ",2001\n";
+        Long id = bookImportService.submit("books.csv",
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV).getId();
+        awaitFinished(id);
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> bookImportService.resume(id));
+    }
+
+    @Test
+    void submit_WhenFormatCannotBeInferred_ShouldThrowBadRequestException() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> bookImportService.submit("books.txt",
+                new ByteArrayInputStream(new byte[0]), null));
+    }
+
+    private String isbn(int n) {
+        return prefix + String.format("%04d", n);
+    }
+
+    private ImportJobDTO awaitFinished(Long id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        ImportJobDTO job = bookImportService.getJob(id);
+        while ((job.getStatus() == ImportJobStatus.QUEUED || job.getStatus() == ImportJobStatus.RUNNING)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            job = bookImportService.getJob(id);
+        }
+        return job;
+    }
+}
@@ -1,24 +1,41 @@
 package com.library.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.library.cache.BookCache;
+import com.library.dto.BatchLookupResponse;
 import com.library.dto.BookDTO;
+import com.library.exception.BadRequestException;
+import com.library.exception.CirculationConflictException;
 import com.library.exception.DuplicateResourceException;
+import com.library.exception.PreconditionFailedException;
 import com.library.exception.ResourceNotFoundException;
 import com.library.model.Book;
+import com.library.repository.BookCopyRepository;
 import com.library.repository.BookRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +44,26 @@ class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private BookCopyRepository bookCopyRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PopularityService popularityService;
+
+    @Spy
+    private BookCache bookCache = new BookCache(100, Duration.ofMinutes(5), (candidate, victim) -> true,
+            System::currentTimeMillis);
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private BookService bookService;
 
@@ -68,6 +105,7 @@ class BookServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(testBook.getTitle(), result.get(0).getTitle());
+        assertNull(result.get(0).getDescription());
         verify(bookRepository, times(1)).findAll();
     }
 
@@ -84,6 +122,22 @@ class BookServiceTest {
         assertEquals(testBook.getTitle(), result.getTitle());
         assertEquals(testBook.getAuthor(), result.getAuthor());
         verify(bookRepository, times(1)).findById(1L);
+        verify(popularityService, times(1)).recordView(1L);
+    }
+
+    @Test
+    void getBookById_WhenCached_ShouldNotQueryAgainButStillRecordView() {
+        // Arrange
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+        bookService.getBookById(1L);
+
+        // Act
+        BookDTO result = bookService.getBookById(1L);
+
+        // Assert
+        assertEquals(testBook.getTitle(), result.getTitle());
+        verify(bookRepository, times(1)).findById(1L);
+        verify(popularityService, times(2)).recordView(1L);
     }
 
     @Test
@@ -94,6 +148,7 @@ class BookServiceTest {
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> bookService.getBookById(1L));
         verify(bookRepository, times(1)).findById(1L);
+        verifyNoInteractions(popularityService);
     }
 
     @Test
@@ -108,6 +163,7 @@ class BookServiceTest {
         assertNotNull(result);
         assertEquals(testBook.getIsbn(), result.getIsbn());
         verify(bookRepository, times(1)).findByIsbn("1234567890");
+        verify(popularityService, times(1)).recordView(1L);
     }
 
     @Test
@@ -124,6 +180,7 @@ class BookServiceTest {
         assertEquals(testBookDTO.getTitle(), result.getTitle());
         verify(bookRepository, times(1)).existsByIsbn(testBookDTO.getIsbn());
         verify(bookRepository, times(1)).save(any(Book.class));
+        verify(eventPublisher, times(1)).publishEvent(new BookChangedEvent(1L, result, null));
     }
 
     @Test
@@ -135,6 +192,7 @@ class BookServiceTest {
         assertThrows(DuplicateResourceException.class, () -> bookService.createBook(testBookDTO));
         verify(bookRepository, times(1)).existsByIsbn(testBookDTO.getIsbn());
         verify(bookRepository, never()).save(any(Book.class));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -159,6 +217,7 @@ class BookServiceTest {
         assertNotNull(result);
         verify(bookRepository, times(1)).findById(1L);
         verify(bookRepository, times(1)).save(any(Book.class));
+        verify(eventPublisher, times(1)).publishEvent(new BookChangedEvent(1L, result, testBookDTO));
     }
 
     @Test
@@ -175,25 +234,26 @@ class BookServiceTest {
     @Test
     void deleteBook_WhenBookExists_ShouldDeleteBook() {
         // Arrange
-        when(bookRepository.existsById(1L)).thenReturn(true);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
         doNothing().when(bookRepository).deleteById(1L);
 
         // Act
         bookService.deleteBook(1L);
 
         // Assert
-        verify(bookRepository, times(1)).existsById(1L);
+        verify(bookRepository, times(1)).findById(1L);
         verify(bookRepository, times(1)).deleteById(1L);
+        verify(eventPublisher, times(1)).publishEvent(new BookChangedEvent(1L, null, testBookDTO));
     }
 
     @Test
     void deleteBook_WhenBookDoesNotExist_ShouldThrowException() {
         // Arrange
-        when(bookRepository.existsById(1L)).thenReturn(false);
+        when(bookRepository.findById(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> bookService.deleteBook(1L));
-        verify(bookRepository, times(1)).existsById(1L);
+        verify(bookRepository, times(1)).findById(1L);
         verify(bookRepository, never()).deleteById(1L);
     }
 
@@ -212,6 +272,33 @@ class BookServiceTest {
         verify(bookRepository, times(1)).save(any(Book.class));
     }
 
+    @Test
+    void updateBookAvailability_WhenBookHasCopies_ShouldThrowConflictWithoutSaving() {
+        // Arrange
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+        when(bookCopyRepository.existsByBookId(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(CirculationConflictException.class, () -> bookService.updateBookAvailability(1L, false));
+        verify(bookRepository, never()).save(any(Book.class));
+    }
+
+    @Test
+    void updateBook_WhenBookHasCopiesAndAvailabilityIsUnchanged_ShouldUpdate() {
+        // Arrange
+        testBookDTO.setTitle("Renamed");
+        testBookDTO.setAvailable(true);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+        when(bookRepository.save(any(Book.class))).thenReturn(testBook);
+
+        // Act
+        bookService.updateBook(1L, testBookDTO);
+
+        // Assert
+        verify(bookCopyRepository, never()).existsByBookId(any());
+        verify(bookRepository, times(1)).save(any(Book.class));
+    }
+
     @Test
     void getBooksByAuthor_ShouldReturnMatchingBooks() {
         // Arrange
@@ -240,4 +327,171 @@ class BookServiceTest {
         assertTrue(result.get(0).getAvailable());
         verify(bookRepository, times(1)).findByAvailable(true);
     }
+
+    @Test
+    void getBooksByIds_ShouldReturnFoundBooksInRequestOrderAndMisses() {
+        // Arrange
+        Book secondBook = new Book();
+        secondBook.setId(2L);
+        secondBook.setTitle("Second Book");
+        secondBook.setIsbn("0987654321");
+        when(bookRepository.findByIdIn(anyCollection())).thenReturn(Arrays.asList(testBook, secondBook));
+
+        // Act
+        BatchLookupResponse<Long> result = bookService.getBooksByIds(Arrays.asList(2L, 3L, 1L, 2L));
+
+        // Assert
+        assertEquals(2, result.getFound().size());
+        assertEquals(2L, result.getFound().get(0).getId());
+        assertEquals(1L, result.getFound().get(1).getId());
+        assertEquals(List.of(3L), result.getMissing());
+        verify(bookRepository, times(1)).findByIdIn(anyCollection());
+    }
+
+    @Test
+    void getBooksByIsbns_WhenInputExceedsChunkSize_ShouldSplitIntoSeveralQueries() {
+        // Arrange
+        List<String> isbns = new ArrayList<>();
+        for (int i = 0; i < BookService.BATCH_CHUNK_SIZE + 1; i++) {
+            isbns.add(String.format("%010d", i));
+        }
+        when(bookRepository.findByIsbnIn(anyCollection())).thenReturn(List.of());
+
+        // Act
+        BatchLookupResponse<String> result = bookService.getBooksByIsbns(isbns);
+
+        // Assert
+        assertTrue(result.getFound().isEmpty());
+        assertEquals(isbns, result.getMissing());
+        verify(bookRepository, times(2)).findByIsbnIn(anyCollection());
+    }
+
+    @Test
+    void getBookByIsbn_WhenIsbnCannotBeStored_ShouldThrowWithoutQuerying() {
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> bookService.getBookByIsbn("12345"));
+        verify(bookRepository, never()).findByIsbn(any());
+    }
+
+    @Test
+    void getBookByIsbn_WhenIsbnIsStorableButNotStandard_ShouldQueryAndReturnBook() {
+        // Arrange
+        testBook.setIsbn("978-01323508");
+        when(bookRepository.findByIsbn("978-01323508")).thenReturn(Optional.of(testBook));
+
+        // Act
+        BookDTO result = bookService.getBookByIsbn("978-01323508");
+
+        // Assert
+        assertEquals("978-01323508", result.getIsbn());
+    }
+
+    @Test
+    void getBookByIsbn_WhenChecksumValidationEnabledAndChecksumWrong_ShouldThrowWithoutQuerying() {
+        // Arrange
+        ReflectionTestUtils.setField(bookService, "validateIsbnChecksum", true);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> bookService.getBookByIsbn("9780132350885"));
+        verify(bookRepository, never()).findByIsbn(any());
+    }
+
+    @Test
+    void getBooksByIsbns_WhenSomeIsbnsAreMalformed_ShouldReportThemMissingWithoutQuerying() {
+        // Arrange
+        when(bookRepository.findByIsbnIn(List.of("1234567890"))).thenReturn(List.of(testBook));
+
+        // Act
+        BatchLookupResponse<String> result = bookService.getBooksByIsbns(List.of("bad", "1234567890"));
+
+        // Assert
+        assertEquals(1, result.getFound().size());
+        assertEquals(List.of("bad"), result.getMissing());
+        verify(bookRepository, times(1)).findByIsbnIn(List.of("1234567890"));
+    }
+
+    @Test
+    void getBookById_WhenBookDoesNotExist_ShouldThrowStacklessException() {
+        // Arrange
+        when(bookRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // Act
+        ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class, () -> bookService.getBookById(1L));
+
+        // Assert
+        assertEquals(0, ex.getStackTrace().length);
+    }
+
+    @Test
+    void patchBook_ShouldChangeOnlyThePatchedProperties() throws Exception {
+        // Arrange
+        testBook.setVersion(3L);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        BookDTO result = bookService.patchBook(1L,
+                objectMapper.readTree("{\"genre\": \"Poetry\", \"description\": null}"), 3L);
+
+        // Assert
+        assertEquals("Poetry", result.getGenre());
+        assertNull(result.getDescription());
+        assertEquals("Test Book", result.getTitle());
+        assertEquals(LocalDate.of(2023, 1, 1), result.getPublicationDate());
+        verify(bookRepository, never()).existsByIsbn(any());
+        verify(eventPublisher).publishEvent(any(BookChangedEvent.class));
+    }
+
+    @Test
+    void patchBook_WhenVersionIsStale_ShouldThrowWithoutSaving() throws Exception {
+        // Arrange
+        testBook.setVersion(4L);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class,
+                () -> bookService.patchBook(1L, objectMapper.readTree("{\"genre\": \"Poetry\"}"), 3L));
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    void patchBook_WhenPatchIsInvalid_ShouldThrowWithoutSaving() throws Exception {
+        // Arrange
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class,
+                () -> bookService.patchBook(1L, objectMapper.readTree("{\"version\": 9}"), null));
+        assertThrows(BadRequestException.class,
+                () -> bookService.patchBook(1L, objectMapper.readTree("{\"title\": null}"), null));
+        assertThrows(BadRequestException.class,
+                () -> bookService.patchBook(1L, objectMapper.readTree("{\"publicationDate\": \"soon\"}"), null));
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    void patchBook_WhenNothingChanges_ShouldNotSave() throws Exception {
+        // Arrange
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
+        // Act
+        BookDTO result = bookService.patchBook(1L, objectMapper.readTree("{\"genre\": \"Fiction\"}"), null);
+
+        // Assert
+        assertEquals("Fiction", result.getGenre());
+        verify(bookRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void updateBook_WhenVersionIsStale_ShouldThrowWithoutSaving() {
+        // Arrange
+        testBook.setVersion(4L);
+        testBookDTO.setVersion(3L);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(testBook));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class, () -> bookService.updateBook(1L, testBookDTO));
+        verify(bookRepository, never()).save(any());
+    }
 }
@@ -0,0 +1,189 @@
+package com.library.service;
+
+import com.library.config.StatisticsProperties;
+import com.library.dto.AuthorCountDTO;
+import com.library.dto.BookDTO;
+import com.library.dto.CatalogStatisticsDTO;
+import com.library.exception.BadRequestException;
+import com.library.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogStatisticsServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    private CatalogStatisticsService catalogStatisticsService;
+
+    @BeforeEach
+    void setUp() {
+        catalogStatisticsService = new CatalogStatisticsService(bookRepository, new StatisticsProperties());
+    }
+
+    @Test
+    void reconcile_ShouldPublishGroupedCounts() {
+        // Arrange
+        givenCatalog();
+
+        // Act
+        catalogStatisticsService.reconcile();
+        catalogStatisticsService.refresh();
+        CatalogStatisticsDTO statistics = catalogStatisticsService.getStatistics(10);
+
+        // Assert
+        assertEquals(4, statistics.getTotalBooks());
+        assertEquals(3, statistics.getAvailableBooks());
+        assertEquals(1, statistics.getUnavailableBooks());
+        assertEquals(Map.of("Fiction", 2L, "Poetry", 1L), statistics.getBooksByGenre());
+        assertEquals(1, statistics.getBooksWithoutGenre());
+        assertEquals(Map.of(1999, 1L, 2008, 3L), statistics.getBooksByPublicationYear());
+        assertEquals(2, statistics.getAuthors());
+        assertEquals(List.of(new AuthorCountDTO("Bob", 3), new AuthorCountDTO("Alice", 1)), statistics.getTopAuthors());
+        assertNotNull(statistics.getReconciledAt());
+    }
+
+    @Test
+    void onBookChanged_WhenBookUpdated_ShouldMoveItsCounts() {
+        // Arrange
+        givenCatalog();
+        catalogStatisticsService.reconcile();
+        BookDTO before = book("Poetry", true, 1999, "Alice");
+        BookDTO after = book("Fiction", false, 2008, "Bob");
+
+        // Act
+        catalogStatisticsService.onBookChanged(new BookChangedEvent(1L, after, before));
+        catalogStatisticsService.refresh();
+        CatalogStatisticsDTO statistics = catalogStatisticsService.getStatistics(10);
+
+        // Assert
+        assertEquals(4, statistics.getTotalBooks());
+        assertEquals(2, statistics.getAvailableBooks());
+        assertEquals(Map.of("Fiction", 3L), statistics.getBooksByGenre());
+        assertEquals(Map.of(2008, 4L), statistics.getBooksByPublicationYear());
+        assertEquals(List.of(new AuthorCountDTO("Bob", 4)), statistics.getTopAuthors());
+    }
+
+    @Test
+    void onBookChanged_WhenBookCreatedAndDeleted_ShouldAddAndRemoveIt() {
+        // Arrange
+        givenCatalog();
+        catalogStatisticsService.reconcile();
+
+        // Act
+        catalogStatisticsService.onBookChanged(new BookChangedEvent(5L, book("Drama", true, 2020, "Carol"), null));
+        catalogStatisticsService.onBookChanged(new BookChangedEvent(2L, null, book("Fiction", false, 2008, "Bob")));
+        catalogStatisticsService.onBookAvailabilityRefreshed(new BookAvailabilityRefreshedEvent(3L, true, false));
+        catalogStatisticsService.refresh();
+        CatalogStatisticsDTO statistics = catalogStatisticsService.getStatistics(10);
+
+        // Assert
+        assertEquals(4, statistics.getTotalBooks());
+        assertEquals(3, statistics.getAvailableBooks());
+        assertEquals(Map.of("Drama", 1L, "Fiction", 1L, "Poetry", 1L), statistics.getBooksByGenre());
+        assertEquals(Map.of(1999, 1L, 2008, 2L, 2020, 1L), statistics.getBooksByPublicationYear());
+        assertEquals(3, statistics.getAuthors());
+    }
+
+    @Test
+    void onBookAvailabilityRefreshed_WhenPreviousFlagWasNull_ShouldOnlyCountBooksBecomingAvailable() {
+        // Arrange
+        givenCatalog();
+        catalogStatisticsService.reconcile();
+
+        // Act
+        catalogStatisticsService.onBookAvailabilityRefreshed(new BookAvailabilityRefreshedEvent(6L, null, false));
+        catalogStatisticsService.onBookAvailabilityRefreshed(new BookAvailabilityRefreshedEvent(7L, null, true));
+        catalogStatisticsService.onBookAvailabilityRefreshed(new BookAvailabilityRefreshedEvent(2L, false, true));
+        catalogStatisticsService.refresh();
+        CatalogStatisticsDTO statistics = catalogStatisticsService.getStatistics(10);
+
+        // Assert
+        assertEquals(5, statistics.getAvailableBooks());
+    }
+
+    @Test
+    void reconcile_WhenBookChangesDuringQueries_ShouldKeepTheChange() {
+        // Arrange
+        givenCatalog();
+        when(bookRepository.countByAuthor()).thenAnswer(invocation -> {
+            catalogStatisticsService.onBookChanged(new BookChangedEvent(5L, book("Drama", true, 2020, "Carol"), null));
+            return List.of(facet("Alice", 1), facet("Bob", 3));
+        });
+
+        // Act
+        catalogStatisticsService.reconcile();
+        catalogStatisticsService.refresh();
+        CatalogStatisticsDTO statistics = catalogStatisticsService.getStatistics(10);
+
+        // Assert
+        assertEquals(5, statistics.getTotalBooks());
+        assertEquals(1L, statistics.getBooksByGenre().get("Drama"));
+        assertEquals(3, statistics.getAuthors());
+    }
+
+    @Test
+    void refresh_WhenNothingChanged_ShouldKeepTheSnapshot() {
+        // Arrange
+        givenCatalog();
+        catalogStatisticsService.reconcile();
+        catalogStatisticsService.refresh();
+        CatalogStatisticsDTO first = catalogStatisticsService.getStatistics(10);
+
+        // Act
+        catalogStatisticsService.refresh();
+
+        // Assert
+        assertEquals(first.getAsOf(), catalogStatisticsService.getStatistics(10).getAsOf());
+    }
+
+    @Test
+    void getStatistics_WhenAuthorsOutOfRange_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> catalogStatisticsService.getStatistics(101));
+        assertThrows(BadRequestException.class, () -> catalogStatisticsService.getStatistics(-1));
+        verifyNoInteractions(bookRepository);
+    }
+
+    private void givenCatalog() {
+        when(bookRepository.countByAvailable()).thenReturn(List.of(facet(true, 3), facet(false, 1)));
+        when(bookRepository.countByGenre()).thenReturn(List.of(facet("Fiction", 2), facet("Poetry", 1), facet(null, 1)));
+        when(bookRepository.countByPublicationYear()).thenReturn(List.of(facet(1999, 1), facet(2008, 3)));
+        when(bookRepository.countByAuthor()).thenReturn(List.of(facet("Alice", 1), facet("Bob", 3)));
+    }
+
+    private static BookDTO book(String genre, boolean available, int year, String author) {
+        BookDTO book = new BookDTO();
+        book.setTitle("Title");
+        book.setAuthor(author);
+        book.setGenre(genre);
+        book.setAvailable(available);
+        book.setPublicationDate(LocalDate.of(year, 6, 1));
+        return book;
+    }
+
+    private static BookRepository.FacetCount facet(Object value, long books) {
+        return new BookRepository.FacetCount() {
+            @Override
+            public Object getFacet() {
+                return value;
+            }
+
+            @Override
+            public long getBooks() {
+                return books;
+            }
+        };
+    }
+}
@@ -0,0 +1,226 @@
+package com.library.service;
+
+import com.library.dto.LoanDTO;
+import com.library.exception.CirculationConflictException;
+import com.library.model.Book;
+import com.library.model.CopyStatus;
+import com.library.model.HoldStatus;
+import com.library.repository.BookCopyRepository;
+import com.library.repository.BookRepository;
+import com.library.repository.HoldRepository;
+import com.library.repository.LoanRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many-thread stress test for the checkout engine: threads race to check out
+ * a small number of copies of one book and must never hold the same copy at
+ * the same time. Also checks that a failed held-copy checkout rolls back in
+ * the real database, and that the availability refresh changes the book's
+ * ETag.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CirculationConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private CirculationService circulationService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookCopyRepository bookCopyRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long bookId;
+
+    @BeforeEach
+    void setUp() {
+        Book book = new Book();
+        book.setTitle("Contended Book");
+        book.setAuthor("Stress Author");
+        book.setIsbn(String.format("%013d", System.nanoTime() % 10_000_000_000_000L));
+        book.setPublicationDate(LocalDate.of(2020, 1, 1));
+        book.setAvailable(true);
+        bookId = bookRepository.save(book).getId();
+    }
+
+    @Test
+    void checkout_WhenManyThreadsRaceForOneCopy_ShouldLendItExactlyOnce() throws Exception {
+        // Arrange
+        circulationService.addCopies(bookId, 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS * 4);
+
+        // Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS * 4; t++) {
+            String patron = "patron-" + t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    circulationService.checkout(bookId, patron);
+                    successes.incrementAndGet();
+                } catch (CirculationConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(1, successes.get());
+        assertEquals(THREADS * 4 - 1, conflicts.get());
+        assertTrue(awaitAvailability(false));
+    }
+
+    @Test
+    void checkoutAndReturn_UnderSustainedContention_ShouldNeverDoubleLendACopy() throws Exception {
+        // Arrange
+        int copies = 4;
+        int iterations = 30;
+        circulationService.addCopies(bookId, copies);
+        Set<Long> copiesOnLoan = ConcurrentHashMap.newKeySet();
+        AtomicInteger doubleCheckouts = new AtomicInteger();
+        AtomicInteger maxConcurrentLoans = new AtomicInteger();
+        AtomicInteger successes = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            String patron = "patron-" + t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < iterations; i++) {
+                    LoanDTO loan;
+                    try {
+                        loan = circulationService.checkout(bookId, patron);
+                    } catch (CirculationConflictException e) {
+                        continue;
+                    }
+                    successes.incrementAndGet();
+                    if (!copiesOnLoan.add(loan.getCopyId())) {
+                        doubleCheckouts.incrementAndGet();
+                    }
+                    maxConcurrentLoans.accumulateAndGet(copiesOnLoan.size(), Math::max);
+                    copiesOnLoan.remove(loan.getCopyId());
+                    circulationService.returnLoan(loan.getId());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(0, doubleCheckouts.get());
+        assertTrue(maxConcurrentLoans.get() <= copies);
+        assertTrue(successes.get() > 0);
+        assertEquals(copies, bookCopyRepository.countByBookIdAndStatus(bookId, CopyStatus.AVAILABLE));
+        bookCopyRepository.findByBookId(bookId).forEach(copy ->
+                assertEquals(0, loanRepository.countByCopyIdAndReturnedAtIsNull(copy.getId())));
+        assertTrue(awaitAvailability(true));
+    }
+
+    @Test
+    void checkout_WhenHeldCopyWasReleasedUnderTheHold_ShouldRollBackTheHoldClaim() {
+        // Arrange
+        circulationService.addCopies(bookId, 1);
+        LoanDTO loan = circulationService.checkout(bookId, "alice");
+        Long holdId = circulationService.placeHold(bookId, "bob").getId();
+        circulationService.returnLoan(loan.getId());
+        transactionTemplate.executeWithoutResult(status ->
+                bookCopyRepository.release(loan.getCopyId(), CopyStatus.ON_HOLD));
+
+        // Act & Assert
+        assertThrows(CirculationConflictException.class, () -> circulationService.checkout(bookId, "bob"));
+        assertEquals(HoldStatus.READY, holdRepository.findById(holdId).orElseThrow().getStatus());
+        assertEquals(0, loanRepository.countByCopyIdAndReturnedAtIsNull(loan.getCopyId()));
+    }
+
+    @Test
+    void checkout_WhenLastCopyIsLent_ShouldChangeTheBookETag() throws Exception {
+        // Arrange
+        circulationService.addCopies(bookId, 1);
+        assertTrue(awaitAvailability(true));
+        Long version = bookService.getBookById(bookId).getVersion();
+
+        // Act
+        circulationService.checkout(bookId, "alice");
+
+        // Assert
+        assertTrue(awaitVersionAfter(version));
+        assertFalse(bookService.getBookById(bookId).getAvailable());
+    }
+
+    /**
+     * Book.available is refreshed asynchronously after commit.
+     */
+    private boolean awaitAvailability(boolean expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (bookRepository.findById(bookId).orElseThrow().getAvailable() == expected) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+
+    /**
+     * Reads go through the book cache, which is invalidated after the refresh.
+     */
+    private boolean awaitVersionAfter(Long version) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (!version.equals(bookService.getBookById(bookId).getVersion())) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+}
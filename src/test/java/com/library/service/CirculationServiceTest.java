@@ -0,0 +1,406 @@
+package com.library.service;
+
+import com.library.config.CirculationProperties;
+import com.library.dto.HoldDTO;
+import com.library.dto.LoanDTO;
+import com.library.exception.BadRequestException;
+import com.library.exception.CirculationConflictException;
+import com.library.exception.ResourceNotFoundException;
+import com.library.model.BookCopy;
+import com.library.model.CopyStatus;
+import com.library.model.Hold;
+import com.library.model.HoldStatus;
+import com.library.model.Loan;
+import com.library.repository.BookCopyRepository;
+import com.library.repository.BookRepository;
+import com.library.repository.HoldRepository;
+import com.library.repository.LoanRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CirculationServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookCopyRepository bookCopyRepository;
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private HoldRepository holdRepository;
+
+    @Spy
+    private CirculationProperties properties = new CirculationProperties();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private CirculationService circulationService;
+
+    @Test
+    void checkout_WhenCopyAvailable_ShouldCreateLoanAndPublishEvent() {
+        // Arrange
+        runTransactionsInline();
+        when(bookRepository.existsById(1L)).thenReturn(true);
+        when(holdRepository.findFirstByBookIdAndPatronIdAndStatus(1L, "alice", HoldStatus.READY))
+                .thenReturn(Optional.empty());
+        when(bookCopyRepository.findByBookIdAndStatus(eq(1L), eq(CopyStatus.AVAILABLE), any()))
+                .thenReturn(List.of(copy(10L, 0L)));
+        when(bookCopyRepository.checkOutIfAvailable(10L, 0L)).thenReturn(1);
+        when(loanRepository.save(any(Loan.class))).thenAnswer(invocation -> withId(invocation.getArgument(0)));
+
+        // Act
+        LoanDTO result = circulationService.checkout(1L, "alice");
+
+        // Assert
+        assertEquals(10L, result.getCopyId());
+        assertEquals("alice", result.getPatronId());
+        assertEquals(result.getCheckedOutAt().plus(properties.getLoanPeriod()), result.getDueAt());
+        verify(eventPublisher).publishEvent(new CopyAvailabilityChangedEvent(1L));
+    }
+
+    @Test
+    void checkout_WhenFirstCandidateIsTaken_ShouldTryNextCandidate() {
+        // Arrange
+        runTransactionsInline();
+        when(bookRepository.existsById(1L)).thenReturn(true);
+        when(holdRepository.findFirstByBookIdAndPatronIdAndStatus(1L, "alice", HoldStatus.READY))
+                .thenReturn(Optional.empty());
+        when(bookCopyRepository.findByBookIdAndStatus(eq(1L), eq(CopyStatus.AVAILABLE), any()))
+                .thenReturn(List.of(copy(10L, 0L), copy(11L, 0L)));
+        when(bookCopyRepository.checkOutIfAvailable(any(), any())).thenReturn(0, 1);
+        when(loanRepository.save(any(Loan.class))).thenAnswer(invocation -> withId(invocation.getArgument(0)));
+
+        // Act
+        LoanDTO result = circulationService.checkout(1L, "alice");
+
+        // Assert
+        assertNotNull(result);
+        verify(bookCopyRepository, times(2)).checkOutIfAvailable(any(), eq(0L));
+        verify(loanRepository, times(1)).save(any(Loan.class));
+    }
+
+    @Test
+    void checkout_WhenClaimHitsLockFailure_ShouldTreatItAsLostRace() {
+        // Arrange
+        runTransactionsInline();
+        when(bookRepository.existsById(1L)).thenReturn(true);
+        when(holdRepository.findFirstByBookIdAndPatronIdAndStatus(1L, "alice", HoldStatus.READY))
+                .thenReturn(Optional.empty());
+        when(bookCopyRepository.findByBookIdAndStatus(eq(1L), eq(CopyStatus.AVAILABLE), any()))
+                .thenReturn(List.of(copy(10L, 0L)));
+        when(bookCopyRepository.checkOutIfAvailable(10L, 0L)).thenThrow(new CannotAcquireLockException("deadlock"));
+
+        // Act & Assert
+        assertThrows(CirculationConflictException.class, () -> circulationService.checkout(1L, "alice"));
+        verify(loanRepository, never()).save(any(Loan.class));
+    }
+
+    @Test
+    void checkout_WhenNoCopyAvailable_ShouldThrowConflict() {
+        // Arrange
+        runTransactionsInline();
+        when(bookRepository.existsById(1L)).thenReturn(true);
+        when(holdRepository.findFirstByBookIdAndPatronIdAndStatus(1L, "alice", HoldStatus.READY))
+                .thenReturn(Optional.empty());
+        when(bookCopyRepository.findByBookIdAndStatus(eq(1L), eq(CopyStatus.AVAILABLE), any()))
+                .thenReturn(Collections.emptyList());
+
+        // Act & Assert
+        assertThrows(CirculationConflictException.class, () -> circulationService.checkout(1L, "alice"));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void checkout_WhenPatronHasReadyHold_ShouldLendTheHeldCopy() {
+        // Arrange
+        runTransactionsInline();
+        Hold hold = hold(5L, HoldStatus.READY);
+        hold.setCopyId(20L);
+        when(bookRepository.existsById(1L)).thenReturn(true);
+        when(holdRepository.findFirstByBookIdAndPatronIdAndStatus(1L, "alice", HoldStatus.READY))
+                .thenReturn(Optional.of(hold));
+        when(holdRepository.transition(5L, HoldStatus.READY, HoldStatus.FULFILLED)).thenReturn(1);
+        when(bookCopyRepository.checkOutIfHeldFor(20L, "alice")).thenReturn(1);
+        when(loanRepository.save(any(Loan.class))).thenAnswer(invocation -> withId(invocation.getArgument(0)));
+
+        // Act
+        LoanDTO result = circulationService.checkout(1L, "alice");
+
+        // Assert
+        assertEquals(20L, result.getCopyId());
+        verify(bookCopyRepository, never()).findByBookIdAndStatus(any(), any(), any());
+    }
+
+    @Test
+    void checkout_WhenHeldCopyIsNoLongerOnHold_ShouldThrowConflictWithoutLending() {
+        // Arrange
+        runTransactionsInline();
+        Hold hold = hold(5L, HoldStatus.READY);
+        hold.setCopyId(20L);
+        when(bookRepository.existsById(1L)).thenReturn(true);
+        when(holdRepository.findFirstByBookIdAndPatronIdAndStatus(1L, "alice", HoldStatus.READY))
+                .thenReturn(Optional.of(hold));
+        when(holdRepository.transition(5L, HoldStatus.READY, HoldStatus.FULFILLED)).thenReturn(1);
+        when(bookCopyRepository.checkOutIfHeldFor(20L, "alice")).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(CirculationConflictException.class, () -> circulationService.checkout(1L, "alice"));
+        verify(loanRepository, never()).save(any(Loan.class));
+    }
+
+    @Test
+    void checkout_WhenBookDoesNotExist_ShouldThrowException() {
+        // Arrange
+        when(bookRepository.existsById(99L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> circulationService.checkout(99L, "alice"));
+        verifyNoInteractions(bookCopyRepository, transactionTemplate);
+    }
+
+    @Test
+    void returnLoan_WhenNobodyIsWaiting_ShouldReleaseCopy() {
+        // Arrange
+        Loan loan = loan(7L, 10L);
+        when(loanRepository.findById(7L)).thenReturn(Optional.of(loan));
+        when(loanRepository.markReturned(eq(7L), any(LocalDateTime.class))).thenReturn(1);
+        when(holdRepository.findByBookIdAndStatusOrderByIdAsc(eq(1L), eq(HoldStatus.WAITING), any()))
+                .thenReturn(Collections.emptyList());
+        when(bookCopyRepository.release(10L, CopyStatus.ON_LOAN)).thenReturn(1);
+
+        // Act
+        LoanDTO result = circulationService.returnLoan(7L);
+
+        // Assert
+        assertNotNull(result.getReturnedAt());
+        verify(bookCopyRepository).release(10L, CopyStatus.ON_LOAN);
+        verify(bookCopyRepository, never()).holdFor(any(), any(), anyString());
+    }
+
+    @Test
+    void returnLoan_WhenPatronIsWaiting_ShouldSetCopyAsideForThem() {
+        // Arrange
+        Loan loan = loan(7L, 10L);
+        Hold waiting = hold(5L, HoldStatus.WAITING);
+        when(loanRepository.findById(7L)).thenReturn(Optional.of(loan));
+        when(loanRepository.markReturned(eq(7L), any(LocalDateTime.class))).thenReturn(1);
+        when(holdRepository.findByBookIdAndStatusOrderByIdAsc(eq(1L), eq(HoldStatus.WAITING), any()))
+                .thenReturn(List.of(waiting));
+        when(holdRepository.markReady(eq(5L), eq(10L), any(LocalDateTime.class))).thenReturn(1);
+        when(bookCopyRepository.holdFor(10L, CopyStatus.ON_LOAN, "bob")).thenReturn(1);
+
+        // Act
+        circulationService.returnLoan(7L);
+
+        // Assert
+        verify(bookCopyRepository).holdFor(10L, CopyStatus.ON_LOAN, "bob");
+        verify(bookCopyRepository, never()).release(any(), any());
+    }
+
+    @Test
+    void returnLoan_WhenCopyCannotBeSetAside_ShouldThrowConflictWithoutAnnouncingTheHold() {
+        // Arrange
+        Loan loan = loan(7L, 10L);
+        Hold waiting = hold(5L, HoldStatus.WAITING);
+        when(loanRepository.findById(7L)).thenReturn(Optional.of(loan));
+        when(loanRepository.markReturned(eq(7L), any(LocalDateTime.class))).thenReturn(1);
+        when(holdRepository.findByBookIdAndStatusOrderByIdAsc(eq(1L), eq(HoldStatus.WAITING), any()))
+                .thenReturn(List.of(waiting));
+        when(holdRepository.markReady(eq(5L), eq(10L), any(LocalDateTime.class))).thenReturn(1);
+        when(bookCopyRepository.holdFor(10L, CopyStatus.ON_LOAN, "bob")).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(CirculationConflictException.class, () -> circulationService.returnLoan(7L));
+        verify(eventPublisher, never()).publishEvent(any(HoldReadyEvent.class));
+    }
+
+    @Test
+    void returnLoan_WhenAlreadyReturned_ShouldThrowConflict() {
+        // Arrange
+        when(loanRepository.findById(7L)).thenReturn(Optional.of(loan(7L, 10L)));
+        when(loanRepository.markReturned(eq(7L), any(LocalDateTime.class))).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(CirculationConflictException.class, () -> circulationService.returnLoan(7L));
+        verify(bookCopyRepository, never()).release(any(), any());
+    }
+
+    @Test
+    void placeHold_WhenCopiesAreAvailable_ShouldThrowConflict() {
+        // Arrange
+        when(bookRepository.existsById(1L)).thenReturn(true);
+        when(bookCopyRepository.countByBookIdAndStatus(1L, CopyStatus.AVAILABLE)).thenReturn(2L);
+
+        // Act & Assert
+        assertThrows(CirculationConflictException.class, () -> circulationService.placeHold(1L, "bob"));
+        verify(holdRepository, never()).save(any(Hold.class));
+    }
+
+    @Test
+    void placeHold_WhenAllCopiesAreOut_ShouldQueuePatron() {
+        // Arrange
+        when(bookRepository.existsById(1L)).thenReturn(true);
+        when(bookCopyRepository.countByBookIdAndStatus(1L, CopyStatus.AVAILABLE)).thenReturn(0L);
+        when(holdRepository.existsByBookIdAndPatronIdAndStatusIn(eq(1L), eq("bob"), any())).thenReturn(false);
+        when(holdRepository.save(any(Hold.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        HoldDTO result = circulationService.placeHold(1L, "bob");
+
+        // Assert
+        assertEquals(HoldStatus.WAITING, result.getStatus());
+        assertEquals("bob", result.getPatronId());
+    }
+
+    @Test
+    void cancelHold_WhenHoldIsReady_ShouldPassCopyOn() {
+        // Arrange
+        Hold hold = hold(5L, HoldStatus.READY);
+        hold.setCopyId(20L);
+        when(holdRepository.findById(5L)).thenReturn(Optional.of(hold));
+        when(holdRepository.transition(5L, HoldStatus.READY, HoldStatus.CANCELLED)).thenReturn(1);
+        when(holdRepository.findByBookIdAndStatusOrderByIdAsc(eq(1L), eq(HoldStatus.WAITING), any()))
+                .thenReturn(Collections.emptyList());
+        when(bookCopyRepository.release(20L, CopyStatus.ON_HOLD)).thenReturn(1);
+
+        // Act
+        circulationService.cancelHold(5L);
+
+        // Assert
+        verify(bookCopyRepository).release(20L, CopyStatus.ON_HOLD);
+        verify(eventPublisher).publishEvent(new CopyAvailabilityChangedEvent(1L));
+    }
+
+    @Test
+    void expireHolds_WhenHoldIsPastDeadline_ShouldExpireItAndPassCopyOn() {
+        // Arrange
+        Hold hold = hold(5L, HoldStatus.READY);
+        hold.setCopyId(20L);
+        when(holdRepository.findByIdInAndStatusAndExpiresAtLessThanEqual(eq(List.of(5L, 6L)), eq(HoldStatus.READY),
+                any(LocalDateTime.class))).thenReturn(List.of(hold));
+        when(holdRepository.expireReady(eq(List.of(5L)), any(LocalDateTime.class))).thenReturn(1);
+        when(holdRepository.findByIdInAndStatus(List.of(5L), HoldStatus.EXPIRED)).thenReturn(List.of(hold));
+        when(holdRepository.findByBookIdAndStatusOrderByIdAsc(eq(1L), eq(HoldStatus.WAITING), any()))
+                .thenReturn(Collections.emptyList());
+        when(bookCopyRepository.release(20L, CopyStatus.ON_HOLD)).thenReturn(1);
+
+        // Act
+        int expired = circulationService.expireHolds(List.of(5L, 6L));
+
+        // Assert
+        assertEquals(1, expired);
+        verify(bookCopyRepository).release(20L, CopyStatus.ON_HOLD);
+        verify(eventPublisher).publishEvent(new CopyAvailabilityChangedEvent(1L));
+    }
+
+    @Test
+    void expireHolds_WhenHoldWasAlreadyClaimed_ShouldDoNothing() {
+        // Arrange
+        when(holdRepository.findByIdInAndStatusAndExpiresAtLessThanEqual(eq(List.of(5L)), eq(HoldStatus.READY),
+                any(LocalDateTime.class))).thenReturn(Collections.emptyList());
+
+        // Act
+        int expired = circulationService.expireHolds(List.of(5L));
+
+        // Assert
+        assertEquals(0, expired);
+        verify(holdRepository, never()).expireReady(any(), any());
+        verifyNoInteractions(bookCopyRepository, eventPublisher);
+    }
+
+    @Test
+    void returnLoan_WhenPatronIsWaiting_ShouldScheduleHoldExpiry() {
+        // Arrange
+        when(loanRepository.findById(7L)).thenReturn(Optional.of(loan(7L, 10L)));
+        when(loanRepository.markReturned(eq(7L), any(LocalDateTime.class))).thenReturn(1);
+        when(holdRepository.findByBookIdAndStatusOrderByIdAsc(eq(1L), eq(HoldStatus.WAITING), any()))
+                .thenReturn(List.of(hold(5L, HoldStatus.WAITING)));
+        when(holdRepository.markReady(eq(5L), eq(10L), any(LocalDateTime.class))).thenReturn(1);
+        when(bookCopyRepository.holdFor(10L, CopyStatus.ON_LOAN, "bob")).thenReturn(1);
+
+        // Act
+        circulationService.returnLoan(7L);
+
+        // Assert
+        verify(eventPublisher).publishEvent(any(HoldReadyEvent.class));
+    }
+
+    @Test
+    void addCopies_WhenCountOutOfRange_ShouldThrowException() {
+        // Arrange
+        when(bookRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> circulationService.addCopies(1L, 0));
+        verify(bookCopyRepository, never()).saveAll(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private static BookCopy copy(Long id, Long version) {
+        BookCopy copy = new BookCopy();
+        copy.setId(id);
+        copy.setBookId(1L);
+        copy.setStatus(CopyStatus.AVAILABLE);
+        copy.setVersion(version);
+        return copy;
+    }
+
+    private static Hold hold(Long id, HoldStatus status) {
+        Hold hold = new Hold();
+        hold.setId(id);
+        hold.setBookId(1L);
+        hold.setPatronId(status == HoldStatus.READY ? "alice" : "bob");
+        hold.setStatus(status);
+        hold.setCreatedAt(LocalDateTime.now());
+        return hold;
+    }
+
+    private static Loan loan(Long id, Long copyId) {
+        Loan loan = new Loan();
+        loan.setId(id);
+        loan.setCopyId(copyId);
+        loan.setBookId(1L);
+        loan.setPatronId("alice");
+        loan.setCheckedOutAt(LocalDateTime.now());
+        loan.setDueAt(LocalDateTime.now().plusDays(21));
+        return loan;
+    }
+
+    private static Loan withId(Loan loan) {
+        loan.setId(100L);
+        return loan;
+    }
+}
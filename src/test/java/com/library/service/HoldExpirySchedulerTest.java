@@ -0,0 +1,92 @@
+package com.library.service;
+
+import com.library.config.CirculationProperties;
+import com.library.repository.HoldRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HoldExpirySchedulerTest {
+
+    @Mock
+    private CirculationService circulationService;
+
+    @Mock
+    private HoldRepository holdRepository;
+
+    private HoldExpiryScheduler scheduler;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        CirculationProperties properties = new CirculationProperties();
+        properties.setExpiryTick(Duration.ofMillis(100));
+        properties.setExpiryBatchSize(2);
+        scheduler = new HoldExpiryScheduler(circulationService, holdRepository, properties);
+        now = LocalDateTime.now().plusSeconds(1);
+    }
+
+    @Test
+    void tick_BeforeDeadline_ShouldNotExpireHold() {
+        // Arrange
+        scheduler.schedule(1L, now.plusMinutes(5));
+
+        // Act
+        scheduler.tick(millis(now));
+
+        // Assert
+        verifyNoInteractions(circulationService);
+        assertEquals(1, scheduler.pendingCount());
+    }
+
+    @Test
+    void tick_AfterDeadline_ShouldExpireDueHoldsInBatches() {
+        // Arrange
+        scheduler.schedule(1L, now);
+        scheduler.schedule(2L, now);
+        scheduler.schedule(3L, now);
+        scheduler.schedule(4L, now.plusHours(48));
+
+        // Act
+        scheduler.tick(millis(now.plusSeconds(1)));
+
+        // Assert
+        verify(circulationService, times(2)).expireHolds(anyList());
+        assertEquals(1, scheduler.pendingCount());
+    }
+
+    @Test
+    void tick_WhenExpiryFails_ShouldRetryOnNextTick() {
+        // Arrange
+        scheduler.schedule(1L, now);
+        when(circulationService.expireHolds(any()))
+                .thenThrow(new CannotAcquireLockException("locked"))
+                .thenReturn(1);
+
+        // Act
+        scheduler.tick(millis(now.plusSeconds(1)));
+        scheduler.tick(millis(now.plusSeconds(2)));
+
+        // Assert
+        verify(circulationService, times(2)).expireHolds(List.of(1L));
+        assertEquals(0, scheduler.pendingCount());
+    }
+
+    private static long millis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,176 @@
+package com.library.service;
+
+import com.library.config.PopularityProperties;
+import com.library.dto.TrendingBookDTO;
+import com.library.exception.BadRequestException;
+import com.library.model.Book;
+import com.library.model.BookPopularity;
+import com.library.repository.BookPopularityRepository;
+import com.library.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PopularityServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookPopularityRepository bookPopularityRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PopularityService popularityService;
+
+    @BeforeEach
+    void setUp() {
+        PopularityProperties properties = new PopularityProperties();
+        properties.setSketchWidth(1024);
+        properties.setTopK(3);
+        popularityService = new PopularityService(bookRepository, bookPopularityRepository, eventPublisher,
+                transactionTemplate, properties);
+    }
+
+    @Test
+    void getTrending_ShouldReturnMostViewedBooksFirst() {
+        // Arrange
+        view(1L, 3);
+        view(2L, 10);
+        view(3L, 1);
+        view(4L, 5);
+        popularityService.rank();
+        when(bookRepository.findByIdIn(anyCollection())).thenReturn(List.of(book(1L), book(2L), book(4L)));
+
+        // Act
+        List<TrendingBookDTO> result = popularityService.getTrending(3);
+
+        // Assert
+        assertEquals(List.of(2L, 4L, 1L), result.stream().map(TrendingBookDTO::getBookId).toList());
+        assertEquals(10, result.get(0).getScore());
+    }
+
+    @Test
+    void getTrending_WhenBookWasDeleted_ShouldSkipIt() {
+        // Arrange
+        view(1L, 2);
+        view(2L, 1);
+        popularityService.rank();
+        when(bookRepository.findByIdIn(anyCollection())).thenReturn(List.of(book(2L)));
+
+        // Act
+        List<TrendingBookDTO> result = popularityService.getTrending(3);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).getBookId());
+    }
+
+    @Test
+    void getTrending_WithLimitAboveTopK_ShouldThrowException() {
+        assertThrows(BadRequestException.class, () -> popularityService.getTrending(4));
+    }
+
+    @Test
+    void rank_WhenScoresChange_ShouldPublishThemOnce() {
+        // Arrange
+        view(1L, 2);
+
+        // Act
+        popularityService.rank();
+        popularityService.rank();
+
+        // Assert
+        verify(eventPublisher, times(1)).publishEvent(new PopularityChangedEvent(Map.of(1L, 2L)));
+    }
+
+    @Test
+    void decay_ShouldHalveScores() {
+        // Arrange
+        view(1L, 8);
+
+        // Act
+        popularityService.decay();
+
+        // Assert
+        assertEquals(4, popularityService.estimate(1L));
+    }
+
+    @Test
+    void admit_ShouldPreferMoreViewedCandidate() {
+        // Arrange
+        view(1L, 5);
+        view(2L, 1);
+
+        // Act & Assert
+        assertTrue(popularityService.admit(1L, 2L));
+        assertFalse(popularityService.admit(2L, 1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void restore_ThenCheckpoint_ShouldRoundTripTopBooks() {
+        // Arrange
+        when(bookPopularityRepository.findAll())
+                .thenReturn(List.of(new BookPopularity(7L, 40L, LocalDateTime.now())));
+        doAnswer(invocation -> {
+            ((Consumer<Object>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        // Act
+        popularityService.restore();
+        popularityService.checkpoint();
+
+        // Assert
+        assertEquals(40, popularityService.estimate(7L));
+        ArgumentCaptor<List<BookPopularity>> saved = ArgumentCaptor.forClass(List.class);
+        verify(bookPopularityRepository).deleteAllInBatch();
+        verify(bookPopularityRepository).saveAll(saved.capture());
+        assertEquals(7L, saved.getValue().get(0).getBookId());
+        assertEquals(40L, saved.getValue().get(0).getScore());
+    }
+
+    @Test
+    void checkpoint_BeforeRestore_ShouldNotOverwriteStoredScores() {
+        // Act
+        popularityService.checkpoint();
+
+        // Assert
+        verifyNoInteractions(transactionTemplate, bookPopularityRepository);
+    }
+
+    private void view(Long bookId, int times) {
+        for (int i = 0; i < times; i++) {
+            popularityService.recordView(bookId);
+        }
+    }
+
+    private static Book book(Long id) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle("Book " + id);
+        book.setAuthor("Author");
+        return book;
+    }
+}
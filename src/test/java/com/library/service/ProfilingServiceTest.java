@@ -0,0 +1,123 @@
+package com.library.service;
+
+import com.library.config.ProfilingProperties;
+import com.library.dto.LookupProfileDTO;
+import com.library.dto.OperationProfileDTO;
+import com.library.dto.RecordingSummaryDTO;
+import com.library.exception.ResourceNotFoundException;
+import com.library.profiling.BookLookupEvent;
+import com.library.profiling.BookOperationEvent;
+import com.library.profiling.RecordingAnalyzer;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfilingServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private ProfilingService profilingService;
+
+    @BeforeEach
+    void setUp() {
+        ProfilingProperties properties = new ProfilingProperties();
+        properties.setDirectory(directory);
+        properties.setRetainedDumps(2);
+        profilingService = new ProfilingService(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        profilingService.shutdown();
+    }
+
+    @Test
+    void dump_WhenRecording_ShouldCaptureBookOperationsAndLookups() throws Exception {
+        // Arrange
+        profilingService.start();
+        BookOperationEvent.record("getBooksByGenre", null, null, () -> List.of("a", "b", "c"));
+        assertThrows(IllegalStateException.class, () -> BookOperationEvent.record("getBookById", 7L, null, () -> {
+            throw new IllegalStateException("boom");
+        }));
+        BookLookupEvent hit = new BookLookupEvent();
+        hit.begin();
+        hit.commit(BookLookupEvent.CACHE, 7L, true, 1);
+
+        // Act
+        Path dump = profilingService.dump();
+        RecordingSummaryDTO summary = RecordingAnalyzer.analyze(dump, 10);
+
+        // Assert
+        assertTrue(Files.size(dump) > 0);
+        OperationProfileDTO byGenre = operation(summary, "getBooksByGenre");
+        assertEquals(1, byGenre.getCalls());
+        assertEquals(3, byGenre.getRows());
+        assertEquals(1, operation(summary, "getBookById").getFailures());
+        LookupProfileDTO cache = summary.getLookups().stream()
+                .filter(lookup -> lookup.getStructure().equals(BookLookupEvent.CACHE))
+                .findFirst().orElseThrow();
+        assertEquals(1, cache.getHits());
+        assertTrue(summary.getHotMethods().size() <= 10);
+    }
+
+    @Test
+    void dump_ShouldKeepOnlyTheRetainedDumps() throws Exception {
+        // Arrange
+        profilingService.start();
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            profilingService.dump();
+            Thread.sleep(5);
+        }
+
+        // Assert
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void dump_WhenNotRecording_ShouldThrowException() {
+        // Arrange
+        profilingService.start();
+        profilingService.stop();
+
+        // Act & Assert
+        assertFalse(profilingService.status().isRunning());
+        assertThrows(ResourceNotFoundException.class, () -> profilingService.dump());
+    }
+
+    @Test
+    void dump_ShouldLeaveOutEnvironmentSystemPropertiesAndJvmArguments() throws Exception {
+        // Arrange
+        profilingService.start();
+
+        // Act
+        Path dump = profilingService.dump();
+
+        // Assert
+        List<String> eventTypes = RecordingFile.readAllEvents(dump).stream()
+                .map(event -> event.getEventType().getName())
+                .distinct()
+                .toList();
+        assertFalse(eventTypes.isEmpty());
+        ProfilingService.PRIVATE_EVENTS.forEach(event -> assertFalse(eventTypes.contains(event), event));
+    }
+
+    private static OperationProfileDTO operation(RecordingSummaryDTO summary, String name) {
+        return summary.getOperations().stream()
+                .filter(operation -> operation.getOperation().equals(name))
+                .findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,340 @@
+package com.library.sharding;
+
+import com.library.model.Book;
+import com.library.repository.BookRepository;
+import com.library.util.ConsistentHashRing;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedBookRepositoryTest {
+
+    private final String run = UUID.randomUUID().toString();
+    private ShardedBookRepository sharded;
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        sharded = open(List.of("east", "west", "north"));
+        bookRepository = sharded.asRepository();
+    }
+
+    private ShardedBookRepository open(List<String> names) {
+        return open(names, Map.of("hibernate.hbm2ddl.auto", "update"), pool -> {
+        });
+    }
+
+    private ShardedBookRepository open(List<String> names, Map<String, Object> hibernateSettings,
+                                       Consumer<HikariDataSource> poolDefaults) {
+        EntityManagerFactoryBuilder builder = new EntityManagerFactoryBuilder(new HibernateJpaVendorAdapter(), Map.of(), null);
+        List<BookShard> shards = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            ShardingProperties.Shard config = new ShardingProperties.Shard();
+            config.setName(names.get(i));
+            config.setUrl("jdbc:h2:mem:" + names.get(i) + "-" + run + ";DB_CLOSE_DELAY=-1");
+            shards.add(BookShard.open(i, config, builder, hibernateSettings, poolDefaults));
+        }
+        return new ShardedBookRepository(shards, new ConsistentHashRing(names, 64));
+    }
+
+    @AfterEach
+    void tearDown() {
+        sharded.close();
+    }
+
+    @Test
+    void save_ShouldPlaceBookOnItsIsbnShardWithIdFromThatShard() {
+        // Act
+        List<Book> saved = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            saved.add(bookRepository.save(book("97800000000" + String.format("%02d", i), "Title " + i, "Author")));
+        }
+
+        // Assert
+        for (Book book : saved) {
+            assertEquals(sharded.shardForIsbn(book.getIsbn()).index(), book.getId() % BookShard.MAX_SHARDS);
+            assertEquals(book.getTitle(), bookRepository.findById(book.getId()).orElseThrow().getTitle());
+            assertEquals(book.getId(), bookRepository.findByIsbn(book.getIsbn()).orElseThrow().getId());
+        }
+        assertEquals(30, saved.stream().map(Book::getId).distinct().count());
+        assertEquals(30, bookRepository.count());
+    }
+
+    @Test
+    void existsByIsbn_ShouldSeeBooksOnEveryShard() {
+        // Arrange
+        List<String> isbns = List.of("9780132350884", "9780134685991", "9780201633610", "9780596009205");
+        isbns.forEach(isbn -> bookRepository.save(book(isbn, "T", "A")));
+
+        // Act & Assert
+        isbns.forEach(isbn -> assertTrue(bookRepository.existsByIsbn(isbn)));
+        assertFalse(bookRepository.existsByIsbn("9999999999999"));
+    }
+
+    @Test
+    void save_WhenIsbnChangesShard_ShouldMoveBookKeepingItsId() {
+        // Arrange
+        Book original = bookRepository.save(book("9780000000001", "Moving", "Author"));
+        String otherShardIsbn = isbnOnOtherShard(original.getIsbn());
+        original.setIsbn(otherShardIsbn);
+
+        // Act
+        Book moved = bookRepository.save(original);
+
+        // Assert
+        assertEquals(original.getId(), moved.getId());
+        assertEquals(otherShardIsbn, bookRepository.findById(original.getId()).orElseThrow().getIsbn());
+        assertTrue(bookRepository.existsByIsbn(otherShardIsbn));
+        assertFalse(bookRepository.existsByIsbn("9780000000001"));
+        assertEquals(1, bookRepository.count());
+    }
+
+    @Test
+    void scatteredSearches_ShouldCombineAllShards() {
+        // Arrange
+        for (int i = 0; i < 12; i++) {
+            Book book = book("97811111111" + String.format("%02d", i), "Book " + i, i % 2 == 0 ? "Ann Lee" : "Bob");
+            book.setGenre(i % 3 == 0 ? "Poetry" : "Fiction");
+            bookRepository.save(book);
+        }
+
+        // Act
+        List<Book> byAuthor = bookRepository.findByAuthorContainingIgnoreCase("lee");
+        List<Book> byGenre = bookRepository.findByGenreIgnoreCase("poetry");
+        List<Book> all = bookRepository.findAll();
+
+        // Assert
+        assertEquals(6, byAuthor.size());
+        assertEquals(4, byGenre.size());
+        assertEquals(12, all.size());
+        assertEquals(all.stream().map(Book::getId).sorted().toList(), all.stream().map(Book::getId).toList());
+    }
+
+    @Test
+    void findAll_WithPageable_ShouldMergeSortedPagesFromAllShards() {
+        // Arrange
+        for (int i = 0; i < 25; i++) {
+            bookRepository.save(book("97822222222" + String.format("%02d", i), String.format("Title %02d", 24 - i), "A"));
+        }
+
+        // Act
+        Page<Book> page = bookRepository.findAll(PageRequest.of(1, 10, Sort.by("title")));
+
+        // Assert
+        assertEquals(25, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        assertEquals(List.of("Title 10", "Title 11", "Title 12", "Title 13", "Title 14",
+                        "Title 15", "Title 16", "Title 17", "Title 18", "Title 19"),
+                page.getContent().stream().map(Book::getTitle).toList());
+    }
+
+    @Test
+    void findTermsAfter_ShouldPageThroughAllShardsInIdOrder() {
+        // Arrange
+        for (int i = 0; i < 20; i++) {
+            bookRepository.save(book("97833333333" + String.format("%02d", i), "T" + i, "A"));
+        }
+
+        // Act
+        List<Long> ids = new ArrayList<>();
+        long afterId = 0;
+        List<BookRepository.BookTerms> page;
+        do {
+            page = bookRepository.findTermsAfter(afterId, PageRequest.of(0, 7));
+            for (BookRepository.BookTerms terms : page) {
+                ids.add(terms.getId());
+                afterId = terms.getId();
+            }
+        } while (page.size() == 7);
+
+        // Assert
+        assertEquals(20, ids.size());
+        assertEquals(ids.stream().sorted(Comparator.naturalOrder()).toList(), ids);
+    }
+
+    @Test
+    void findByIdIn_ShouldFindBooksOnEveryShardIncludingMovedOnes() {
+        // Arrange
+        Book moved = bookRepository.save(book("9780000000002", "Moved", "A"));
+        moved.setIsbn(isbnOnOtherShard(moved.getIsbn()));
+        bookRepository.save(moved);
+        Book stays = bookRepository.save(book("9780000000003", "Stays", "A"));
+
+        // Act
+        List<Book> found = bookRepository.findByIdIn(List.of(moved.getId(), stays.getId(), 999_999L));
+
+        // Assert
+        assertEquals(2, found.size());
+    }
+
+    @Test
+    void deleteById_ShouldRemoveBookFromItsShard() {
+        // Arrange
+        Book book = bookRepository.save(book("9780000000004", "Gone", "A"));
+
+        // Act
+        bookRepository.deleteById(book.getId());
+
+        // Assert
+        assertFalse(bookRepository.existsById(book.getId()));
+        assertFalse(bookRepository.existsByIsbn("9780000000004"));
+    }
+
+    @Test
+    void updateAvailability_ShouldUpdateOnOwningShard() {
+        // Arrange
+        Book book = bookRepository.save(book("9780000000005", "Flag", "A"));
+
+        // Act
+        int changed = bookRepository.updateAvailability(book.getId(), false);
+        int unchanged = bookRepository.updateAvailability(book.getId(), false);
+
+        // Assert
+        assertEquals(1, changed);
+        assertEquals(0, unchanged);
+        assertFalse(bookRepository.findById(book.getId()).orElseThrow().getAvailable());
+    }
+
+    @Test
+    void rebalance_WhenShardIsAppended_ShouldMoveBooksToTheirNewShardKeepingIds() {
+        // Arrange
+        sharded.close();
+        List<Book> saved = new ArrayList<>();
+        try (ShardedBookRepository twoShards = open(List.of("east", "west"))) {
+            twoShards.rebalance(64);
+            for (int i = 0; i < 30; i++) {
+                saved.add(twoShards.asRepository().save(book("97844444444" + String.format("%02d", i), "T" + i, "A")));
+            }
+        }
+        sharded = open(List.of("east", "west", "north"));
+        bookRepository = sharded.asRepository();
+
+        // Act
+        int moved = sharded.rebalance(64);
+        int movedAgain = sharded.rebalance(64);
+
+        // Assert
+        assertTrue(moved > 0);
+        assertEquals(0, movedAgain);
+        assertEquals(30, bookRepository.count());
+        for (Book book : saved) {
+            assertEquals(book.getId(), bookRepository.findByIsbn(book.getIsbn()).orElseThrow().getId());
+        }
+        assertEquals(saved.stream().filter(book -> sharded.shardForIsbn(book.getIsbn()).name().equals("north")).count(),
+                moved);
+    }
+
+    @Test
+    void rebalance_WhenShardWasRemoved_ShouldRefuseTheLayout() {
+        // Arrange
+        sharded.rebalance(64);
+        sharded.close();
+        sharded = open(List.of("east", "west"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> sharded.rebalance(64));
+    }
+
+    @Test
+    void write_WhenPoolHasAutoCommitOff_ShouldCommitAndRollBackWholeTransactions() {
+        // Arrange
+        sharded.close();
+        sharded = open(List.of("east", "west", "north"),
+                Map.of("hibernate.hbm2ddl.auto", "update", "hibernate.connection.provider_disables_autocommit", "true"),
+                pool -> pool.setAutoCommit(false));
+        bookRepository = sharded.asRepository();
+        BookShard shard = sharded.shardForIsbn("9780132350884");
+
+        // Act
+        shard.write(repository -> repository.save(book("9780132350884", "Kept", "A")));
+        assertThrows(IllegalStateException.class, () -> shard.write(repository -> {
+            repository.save(book("9780134685991", "Lost", "A"));
+            repository.flush();
+            throw new IllegalStateException("abort");
+        }));
+        sharded.rebalance(64);
+
+        // Assert
+        assertEquals(List.of("Kept"), shard.read(repository -> repository.findAll().stream().map(Book::getTitle).toList()));
+        assertTrue(shard.recordedLayout().isPresent());
+    }
+
+    @Test
+    void open_WhenShardKeepsDescriptionsInBooks_ShouldMoveThemToTheirTable() {
+        // Arrange
+        sharded.close();
+        JdbcTemplate legacy = new JdbcTemplate(
+                new DriverManagerDataSource("jdbc:h2:mem:legacy-" + run + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        legacy.execute("create table books (id bigint generated by default as identity primary key, "
+                + "title varchar(255) not null, author varchar(255) not null, isbn varchar(255) not null unique, "
+                + "publication_date date not null, genre varchar(255), available boolean, "
+                + "description varchar(1000), version bigint default 0 not null)");
+        legacy.update("insert into books (id, title, author, isbn, publication_date, available, description) "
+                + "values (5, 'Clean Code', 'Robert C. Martin', '9780132350884', date '2008-08-01', true, 'Craftsmanship')");
+
+        // Act
+        sharded = open(List.of("legacy"));
+        bookRepository = sharded.asRepository();
+
+        // Assert
+        assertEquals("Craftsmanship", bookRepository.findByIsbn("9780132350884").orElseThrow().getDescription());
+        Book saved = bookRepository.save(book("9780134685991", "Effective Java", "Joshua Bloch"));
+        saved.setDescription("Best practices");
+        bookRepository.save(saved);
+        assertEquals("Best practices", bookRepository.findById(saved.getId()).orElseThrow().getDescription());
+    }
+
+    private String isbnOnOtherShard(String isbn) {
+        BookShard current = sharded.shardForIsbn(isbn);
+        for (int i = 100; ; i++) {
+            String candidate = "97890000000" + i;
+            if (sharded.shardForIsbn(candidate) != current) {
+                return candidate;
+            }
+        }
+    }
+
+    @Test
+    void countByAuthor_ShouldReturnCountsFromEveryShard() {
+        // Arrange
+        for (int i = 0; i < 30; i++) {
+            bookRepository.save(book("97800000000" + String.format("%02d", i), "Title " + i, "Author"));
+        }
+
+        // Act
+        List<BookRepository.FacetCount> counts = bookRepository.countByAuthor();
+
+        // Assert
+        assertTrue(counts.size() > 1);
+        assertEquals(30, counts.stream().mapToLong(BookRepository.FacetCount::getBooks).sum());
+        assertTrue(counts.stream().allMatch(count -> "Author".equals(count.getFacet())));
+    }
+
+    private static Book book(String isbn, String title, String author) {
+        Book book = new Book();
+        book.setIsbn(isbn);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setPublicationDate(LocalDate.of(2020, 1, 1));
+        book.setAvailable(true);
+        return book;
+    }
+}
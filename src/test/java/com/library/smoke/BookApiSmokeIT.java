@@ -0,0 +1,256 @@
+package com.library.smoke;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Black-box run of the {@code BookControllerTest} scenarios against a packaged
+ * executable: the native binary under {@code mvn -Pnative verify}, the JVM jar
+ * under a plain {@code mvn verify}. Startup time and RSS are appended to
+ * {@code target/smoke-report.txt}.
+ */
+class BookApiSmokeIT {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    private static final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static Process process;
+    private static String baseUrl;
+    private static long startupMillis;
+
+    @BeforeAll
+    static void startApplication() throws Exception {
+        String executable = System.getProperty("smoke.executable");
+        assumeTrue(executable != null && Files.exists(Paths.get(executable)),
+                "smoke.executable not set or not built: " + executable);
+
+        int port = freePort();
+        baseUrl = "http://localhost:" + port + "/api/books";
+
+        List<String> command = new ArrayList<>();
+        if (executable.endsWith(".jar")) {
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.add("-jar");
+        }
+        command.add(executable);
+        command.add("--server.port=" + port);
+
+        long start = System.nanoTime();
+        process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        awaitFirstSuccessfulRequest(start);
+        startupMillis = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @AfterAll
+    static void stopApplication() throws Exception {
+        if (process == null) {
+            return;
+        }
+        try {
+            String report = String.format("%s startup=%d ms rss=%d kB%n",
+                    System.getProperty("smoke.executable"), startupMillis, residentSetKilobytes(process.pid()));
+            System.out.print("[smoke] " + report);
+            Path reportFile = Paths.get("target", "smoke-report.txt");
+            Files.createDirectories(reportFile.getParent());
+            Files.writeString(reportFile, report, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    @Test
+    void getAllBooks_ShouldReturnListOfBooks() throws Exception {
+        createBook("9780000000073");
+
+        HttpResponse<String> response = send("GET", "", null);
+
+        assertEquals(200, response.statusCode());
+        assertTrue(json(response).isArray());
+        assertTrue(json(response).size() > 0);
+    }
+
+    @Test
+    void getBookById_WhenBookExists_ShouldReturnBook() throws Exception {
+        long id = createBook("9780000000011");
+
+        HttpResponse<String> response = send("GET", "/" + id, null);
+
+        assertEquals(200, response.statusCode());
+        assertEquals("Smoke Test Book", json(response).get("title").asText());
+    }
+
+    @Test
+    void getBookById_WhenBookDoesNotExist_ShouldReturn404() throws Exception {
+        HttpResponse<String> response = send("GET", "/999999", null);
+
+        assertEquals(404, response.statusCode());
+        assertEquals(404, json(response).get("status").asInt());
+    }
+
+    @Test
+    void createBook_WithValidData_ShouldCreateBook() throws Exception {
+        HttpResponse<String> response = send("POST", "", book("9780000000028"));
+
+        assertEquals(201, response.statusCode());
+        assertEquals("Smoke Test Author", json(response).get("author").asText());
+    }
+
+    @Test
+    void createBook_WithInvalidData_ShouldReturn400() throws Exception {
+        HttpResponse<String> response = send("POST", "", Map.of("title", ""));
+
+        assertEquals(400, response.statusCode());
+    }
+
+    @Test
+    void updateBook_WithValidData_ShouldUpdateBook() throws Exception {
+        long id = createBook("9780000000035");
+        Map<String, Object> update = book("9780000000035");
+        update.put("title", "Updated Smoke Test Book");
+
+        HttpResponse<String> response = send("PUT", "/" + id, update);
+
+        assertEquals(200, response.statusCode());
+        assertEquals("Updated Smoke Test Book", json(response).get("title").asText());
+    }
+
+    @Test
+    void deleteBook_WhenBookExists_ShouldReturn204() throws Exception {
+        long id = createBook("9780000000042");
+
+        HttpResponse<String> response = send("DELETE", "/" + id, null);
+
+        assertEquals(204, response.statusCode());
+        assertEquals(404, send("GET", "/" + id, null).statusCode());
+    }
+
+    @Test
+    void updateBookAvailability_ShouldUpdateAvailability() throws Exception {
+        long id = createBook("9780000000059");
+
+        HttpResponse<String> response = send("PATCH", "/" + id + "/availability", Map.of("available", false));
+
+        assertEquals(200, response.statusCode());
+        assertFalse(json(response).get("available").asBoolean());
+    }
+
+    @Test
+    void getBooksByAuthor_ShouldReturnMatchingBooks() throws Exception {
+        createBook("9780000000066");
+
+        HttpResponse<String> response = send("GET", "/search/author?author=smoke", null);
+
+        assertEquals(200, response.statusCode());
+        assertEquals("Smoke Test Author", json(response).get(0).get("author").asText());
+    }
+
+    @Test
+    void getAvailableBooks_ShouldReturnOnlyAvailableBooks() throws Exception {
+        HttpResponse<String> response = send("GET", "/available", null);
+
+        assertEquals(200, response.statusCode());
+        for (JsonNode book : json(response)) {
+            assertTrue(book.get("available").asBoolean());
+        }
+    }
+
+    private static long createBook(String isbn) throws Exception {
+        HttpResponse<String> response = send("POST", "", book(isbn));
+        assertEquals(201, response.statusCode());
+        return json(response).get("id").asLong();
+    }
+
+    private static Map<String, Object> book(String isbn) {
+        Map<String, Object> book = new HashMap<>();
+        book.put("title", "Smoke Test Book");
+        book.put("author", "Smoke Test Author");
+        book.put("isbn", isbn);
+        book.put("publicationDate", "2023-01-01");
+        book.put("genre", "Fiction");
+        book.put("available", true);
+        book.put("description", "Smoke Test Description");
+        return book;
+    }
+
+    private static HttpResponse<String> send(String method, String path, Object body) throws Exception {
+        HttpRequest.BodyPublisher publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .method(method, publisher)
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static JsonNode json(HttpResponse<String> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+
+    private static void awaitFirstSuccessfulRequest(long start) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl)).GET().build();
+        while (System.nanoTime() - start < STARTUP_TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + process.exitValue());
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("Application did not start within " + STARTUP_TIMEOUT);
+    }
+
+    private static long residentSetKilobytes(long pid) throws IOException {
+        Path status = Paths.get("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.library.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    @Test
+    void nodeFor_ShouldSpreadKeysEvenly() {
+        // Arrange
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c", "d"), 128);
+        int[] counts = new int[4];
+
+        // Act
+        for (int i = 0; i < 40_000; i++) {
+            counts[ring.nodeFor(String.format("978%010d", i))]++;
+        }
+
+        // Assert
+        for (int count : counts) {
+            assertTrue(count > 7_000 && count < 13_000, "unbalanced: " + count);
+        }
+    }
+
+    @Test
+    void nodeFor_WhenNodeAdded_ShouldOnlyMoveKeysToNewNode() {
+        // Arrange
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d"), 128);
+        int moved = 0;
+
+        // Act & Assert
+        for (int i = 0; i < 30_000; i++) {
+            String key = String.format("978%010d", i);
+            int oldNode = before.nodeFor(key);
+            int newNode = after.nodeFor(key);
+            if (oldNode != newNode) {
+                assertEquals(3, newNode);
+                moved++;
+            }
+        }
+        assertTrue(moved > 4_500 && moved < 10_500, "moved " + moved);
+    }
+
+    @Test
+    void nodeFor_ShouldNotDependOnNodeOrder() {
+        // Arrange
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b"), 64);
+        ConsistentHashRing reversed = new ConsistentHashRing(List.of("b", "a"), 64);
+
+        // Act & Assert
+        for (int i = 0; i < 1_000; i++) {
+            String key = "isbn-" + i;
+            assertEquals(ring.nodeFor(key), 1 - reversed.nodeFor(key));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.library.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    @Test
+    void estimate_ShouldNeverUndercountAndStayCloseToExact() {
+        // Arrange
+        CountMinSketch sketch = new CountMinSketch(8192, 4);
+        for (long key = 0; key < 2_000; key++) {
+            sketch.add(key, key % 10 + 1);
+        }
+
+        // Act & Assert
+        int exact = 0;
+        for (long key = 0; key < 2_000; key++) {
+            long estimate = sketch.estimate(key);
+            assertTrue(estimate >= key % 10 + 1);
+            if (estimate == key % 10 + 1) {
+                exact++;
+            }
+        }
+        assertTrue(exact > 1_800, "most estimates should be exact, got " + exact);
+    }
+
+    @Test
+    void add_ShouldReturnUpdatedEstimate() {
+        // Arrange
+        CountMinSketch sketch = new CountMinSketch(64, 3);
+
+        // Act & Assert
+        assertEquals(1, sketch.add(42, 1));
+        assertEquals(6, sketch.add(42, 5));
+        assertEquals(6, sketch.estimate(42));
+    }
+
+    @Test
+    void halve_ShouldAgeCounts() {
+        // Arrange
+        CountMinSketch sketch = new CountMinSketch(64, 3);
+        sketch.add(7, 100);
+
+        // Act
+        sketch.halve();
+
+        // Assert
+        assertEquals(50, sketch.estimate(7));
+    }
+
+    @Test
+    void add_FromManyThreads_ShouldNotLoseIncrements() throws InterruptedException {
+        // Arrange
+        CountMinSketch sketch = new CountMinSketch(256, 4);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    sketch.add(1, 1);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(80_000, sketch.estimate(1));
+    }
+
+    @Test
+    void constructor_WhenWidthNotPowerOfTwo_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(1000, 4));
+    }
+}
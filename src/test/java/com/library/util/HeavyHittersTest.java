@@ -0,0 +1,58 @@
+package com.library.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeavyHittersTest {
+
+    @Test
+    void rank_ShouldKeepTopKByEstimate() {
+        // Arrange
+        HeavyHitters heavyHitters = new HeavyHitters(2);
+        Map<Long, Long> counts = new HashMap<>(Map.of(1L, 5L, 2L, 50L, 3L, 20L));
+        counts.forEach(heavyHitters::offer);
+
+        // Act
+        List<HeavyHitters.Scored> ranking = heavyHitters.rank(counts::get);
+
+        // Assert
+        assertEquals(List.of(new HeavyHitters.Scored(2L, 50L), new HeavyHitters.Scored(3L, 20L)), ranking);
+    }
+
+    @Test
+    void offer_BelowThresholdOfFullRanking_ShouldNotAdmitCandidate() {
+        // Arrange
+        HeavyHitters heavyHitters = new HeavyHitters(2);
+        Map<Long, Long> counts = new HashMap<>(Map.of(1L, 30L, 2L, 50L));
+        counts.forEach(heavyHitters::offer);
+        heavyHitters.rank(counts::get);
+
+        // Act
+        counts.put(3L, 10L);
+        heavyHitters.offer(3L, 10L);
+        counts.put(4L, 40L);
+        heavyHitters.offer(4L, 40L);
+
+        // Assert
+        assertEquals(List.of(2L, 4L), heavyHitters.rank(counts::get).stream().map(HeavyHitters.Scored::key).toList());
+    }
+
+    @Test
+    void rank_WhenScoresDecayToZero_ShouldDropKeys() {
+        // Arrange
+        HeavyHitters heavyHitters = new HeavyHitters(5);
+        heavyHitters.offer(1L, 1L);
+
+        // Act
+        List<HeavyHitters.Scored> ranking = heavyHitters.rank(key -> 0L);
+
+        // Assert
+        assertTrue(ranking.isEmpty());
+        assertTrue(heavyHitters.ranking().isEmpty());
+    }
+}
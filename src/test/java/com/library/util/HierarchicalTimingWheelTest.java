@@ -0,0 +1,94 @@
+package com.library.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    void advanceTo_BeforeDeadline_ShouldNotFire() {
+        // Arrange
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, 3, START);
+        wheel.add("hold", START + 95);
+
+        // Act & Assert
+        assertTrue(wheel.advanceTo(START + 90).isEmpty());
+        assertEquals(List.of("hold"), wheel.advanceTo(START + 100));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void add_WhenDeadlineHasPassed_ShouldFireOnNextAdvance() {
+        // Arrange
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, 3, START);
+
+        // Act
+        wheel.add("late", START - 500);
+
+        // Assert
+        assertEquals(List.of("late"), wheel.advanceTo(START));
+    }
+
+    @Test
+    void advanceTo_WithDeadlinesOnUpperLevels_ShouldCascadeAndFireOnTime() {
+        // Arrange: 16 slots per level, so 100 and 3000 ticks out live on levels 1 and 2
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, 3, START);
+        wheel.add("level1", START + 1_000);
+        wheel.add("level2", START + 30_000);
+
+        // Act & Assert
+        assertTrue(wheel.advanceTo(START + 990).isEmpty());
+        assertEquals(List.of("level1"), wheel.advanceTo(START + 1_000));
+        assertTrue(wheel.advanceTo(START + 29_990).isEmpty());
+        assertEquals(List.of("level2"), wheel.advanceTo(START + 30_000));
+    }
+
+    @Test
+    void advanceTo_WhenDeadlineBeyondTopLevel_ShouldFireFromOverflow() {
+        // Arrange: 3 levels of 16 slots span 4096 ticks
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, 3, START);
+        wheel.add("far", START + 100_000);
+
+        // Act & Assert
+        assertTrue(wheel.advanceTo(START + 99_990).isEmpty());
+        assertEquals(List.of("far"), wheel.advanceTo(START + 100_000));
+    }
+
+    @Test
+    void advanceTo_WithRandomDeadlines_ShouldFireEachExactlyOnceAtItsTick() {
+        // Arrange
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(10, 4, 3, START);
+        Random random = new Random(42);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            long deadline = START + random.nextInt(200_000);
+            deadlines.put(i, deadline);
+            wheel.add(i, deadline);
+        }
+
+        // Act
+        List<Integer> fired = new ArrayList<>();
+        for (long now = START; now <= START + 200_100; now += 70) {
+            for (Integer value : wheel.advanceTo(now)) {
+                long deadline = deadlines.get(value);
+                assertTrue(deadline <= now, "fired early");
+                assertTrue(now - deadline < 80, "fired late");
+                fired.add(value);
+            }
+        }
+
+        // Assert
+        assertEquals(5_000, fired.size());
+        assertEquals(5_000, fired.stream().distinct().count());
+        assertEquals(0, wheel.size());
+    }
+}
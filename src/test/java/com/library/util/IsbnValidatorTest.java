@@ -0,0 +1,46 @@
+package com.library.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IsbnValidatorTest {
+
+    @Test
+    void isWellFormed_ShouldAcceptTenAndThirteenDigitIsbns() {
+        assertTrue(IsbnValidator.isWellFormed("1234567890"));
+        assertTrue(IsbnValidator.isWellFormed("080442957X"));
+        assertTrue(IsbnValidator.isWellFormed("9780132350884"));
+    }
+
+    @Test
+    void isWellFormed_ShouldRejectMalformedIsbns() {
+        assertFalse(IsbnValidator.isWellFormed(null));
+        assertFalse(IsbnValidator.isWellFormed(""));
+        assertFalse(IsbnValidator.isWellFormed("12345"));
+        assertFalse(IsbnValidator.isWellFormed("12345678901"));
+        assertFalse(IsbnValidator.isWellFormed("97801323508X4"));
+        assertFalse(IsbnValidator.isWellFormed("978-0132350884"));
+        assertFalse(IsbnValidator.isWellFormed("X234567890"));
+    }
+
+    @Test
+    void isStorable_ShouldFollowTheBookSizeRules() {
+        assertTrue(IsbnValidator.isStorable("1234567890"));
+        assertTrue(IsbnValidator.isStorable("12345678901"));
+        assertTrue(IsbnValidator.isStorable("978-013235088"));
+        assertFalse(IsbnValidator.isStorable(null));
+        assertFalse(IsbnValidator.isStorable("123456789"));
+        assertFalse(IsbnValidator.isStorable("97801323508845"));
+        assertFalse(IsbnValidator.isStorable("           "));
+    }
+
+    @Test
+    void hasValidChecksum_ShouldValidateCheckDigits() {
+        assertTrue(IsbnValidator.hasValidChecksum("9780132350884"));
+        assertTrue(IsbnValidator.hasValidChecksum("0132350882"));
+        assertTrue(IsbnValidator.hasValidChecksum("080442957X"));
+        assertFalse(IsbnValidator.hasValidChecksum("9780132350885"));
+        assertFalse(IsbnValidator.hasValidChecksum("1234567890"));
+    }
+}
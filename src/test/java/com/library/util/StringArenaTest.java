@@ -0,0 +1,98 @@
+package com.library.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringArenaTest {
+
+    @Test
+    void put_ShouldRoundTripStringsIncludingNullAndNonAscii() {
+        // Arrange
+        StringArena arena = new StringArena(16);
+
+        // Act
+        long plain = arena.put("Clean Code");
+        long accented = arena.put("Crème Brûlée");
+        long empty = arena.put("");
+        long none = arena.put(null);
+
+        // Assert
+        assertEquals("Clean Code", arena.get(plain));
+        assertEquals("Crème Brûlée", arena.get(accented));
+        assertEquals("", arena.get(empty));
+        assertEquals(StringArena.NULL, none);
+        assertNull(arena.get(none));
+        assertNull(arena.text(none));
+    }
+
+    @Test
+    void containsIgnoreCase_ShouldMatchLikeUpperCasedContains() {
+        // Arrange
+        StringArena arena = new StringArena();
+        long ascii = arena.put("The Pragmatic Programmer");
+        long accented = arena.put("Crème Brûlée");
+        long dotless = arena.put("kılıç");
+
+        // Act & Assert
+        assertTrue(arena.containsIgnoreCase(ascii, StringArena.needle("pragmatic")));
+        assertFalse(arena.containsIgnoreCase(ascii, StringArena.needle("pragmatist")));
+        assertFalse(arena.containsIgnoreCase(ascii, StringArena.needle("brûlée")));
+        assertTrue(arena.containsIgnoreCase(accented, StringArena.needle("BRÛL")));
+        assertTrue(arena.containsIgnoreCase(accented, StringArena.needle("crè")));
+        assertTrue(arena.containsIgnoreCase(dotless, StringArena.needle("KIL")));
+        assertFalse(arena.containsIgnoreCase(StringArena.NULL, StringArena.needle("")));
+    }
+
+    @Test
+    void matchesAndHash_ShouldAgreeWithTheEncodedString() {
+        // Arrange
+        StringArena arena = new StringArena();
+        long ref = arena.put("9780132350884");
+        byte[] same = StringArena.encode("9780132350884");
+
+        // Act & Assert
+        assertTrue(arena.matches(ref, same));
+        assertFalse(arena.matches(ref, StringArena.encode("9780132350885")));
+        assertFalse(arena.matches(StringArena.NULL, same));
+        assertEquals(StringArena.hash(same), arena.hash(ref));
+    }
+
+    @Test
+    void compact_ShouldDropReleasedStringsAndRewriteReferences() {
+        // Arrange
+        StringArena arena = new StringArena();
+        long[] refs = {arena.put("first"), arena.put("released"), arena.put("third")};
+        StringArena.Text before = arena.text(refs[2]);
+        arena.release(refs[1]);
+        refs[1] = StringArena.NULL;
+
+        // Act
+        arena.compact(refs, refs.length);
+
+        // Assert
+        assertEquals("first", arena.get(refs[0]));
+        assertNull(arena.get(refs[1]));
+        assertEquals("third", arena.get(refs[2]));
+        assertEquals(0, arena.garbage());
+        assertEquals("firstthird".length(), arena.size());
+        assertEquals("third", before.toString());
+    }
+
+    @Test
+    void put_WhenArenaIsFull_ShouldGrowKeepingEarlierStrings() {
+        // Arrange
+        StringArena arena = new StringArena(16);
+        long[] refs = new long[200];
+
+        // Act
+        for (int i = 0; i < refs.length; i++) {
+            refs[i] = arena.put("value-" + i);
+        }
+
+        // Assert
+        for (int i = 0; i < refs.length; i++) {
+            assertEquals("value-" + i, arena.get(refs[i]));
+        }
+    }
+}
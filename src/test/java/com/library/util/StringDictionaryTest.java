@@ -0,0 +1,57 @@
+package com.library.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringDictionaryTest {
+
+    @Test
+    void intern_ShouldGiveEqualValuesTheSameCode() {
+        // Arrange
+        StringDictionary dictionary = new StringDictionary();
+
+        // Act
+        int fiction = dictionary.intern("Fiction");
+        int poetry = dictionary.intern("Poetry");
+        int fictionAgain = dictionary.intern(new String("Fiction"));
+
+        // Assert
+        assertEquals(fiction, fictionAgain);
+        assertNotEquals(fiction, poetry);
+        assertEquals("Poetry", dictionary.value(poetry));
+        assertEquals(2, dictionary.size());
+    }
+
+    @Test
+    void intern_WhenValueIsNull_ShouldReturnNullCode() {
+        // Arrange
+        StringDictionary dictionary = new StringDictionary();
+
+        // Act
+        int code = dictionary.intern(null);
+
+        // Assert
+        assertEquals(StringDictionary.NULL, code);
+        assertNull(dictionary.value(code));
+        assertEquals(0, dictionary.size());
+    }
+
+    @Test
+    void matching_ShouldReturnCodesOfMatchingValues() {
+        // Arrange
+        StringDictionary dictionary = new StringDictionary();
+        for (int i = 0; i < 40; i++) {
+            dictionary.intern("Author " + i);
+        }
+
+        // Act
+        BitSet matching = dictionary.matching(value -> value.endsWith("7"));
+
+        // Assert
+        assertEquals(4, matching.cardinality());
+        matching.stream().forEach(code -> assertTrue(dictionary.value(code).endsWith("7")));
+    }
+}
@@ -0,0 +1,114 @@
+package com.library.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestionTrieTest {
+
+    @Test
+    void search_WithPrefix_ShouldReturnMatchesByDescendingWeight() {
+        // Arrange
+        SuggestionTrie<String> trie = new SuggestionTrie<>();
+        trie.put("clean code", "Clean Code", 1);
+        trie.put("clean architecture", "Clean Architecture", 5);
+        trie.put("cleaning", "Cleaning", 3);
+        trie.put("code complete", "Code Complete", 10);
+
+        // Act
+        List<String> result = trie.search("clean", 0, 10);
+
+        // Assert
+        assertEquals(List.of("Clean Architecture", "Cleaning", "Clean Code"), result);
+    }
+
+    @Test
+    void search_WithLimit_ShouldReturnOnlyTopMatches() {
+        // Arrange
+        SuggestionTrie<String> trie = new SuggestionTrie<>();
+        for (int i = 0; i < 100; i++) {
+            trie.put("book " + i, "Book " + i, i);
+        }
+
+        // Act
+        List<String> result = trie.search("book", 0, 3);
+
+        // Assert
+        assertEquals(List.of("Book 99", "Book 98", "Book 97"), result);
+    }
+
+    @Test
+    void search_WithTypo_ShouldFindWithinEditBudget() {
+        // Arrange
+        SuggestionTrie<String> trie = new SuggestionTrie<>();
+        trie.put("effective java", "Effective Java", 1);
+        trie.put("refactoring", "Refactoring", 1);
+
+        // Act & Assert
+        assertEquals(List.of("Effective Java"), trie.search("efective", 1, 10));
+        assertEquals(List.of("Effective Java"), trie.search("effcetive", 2, 10));
+        assertTrue(trie.search("efective", 0, 10).isEmpty());
+        assertTrue(trie.search("xyzzy", 2, 10).isEmpty());
+    }
+
+    @Test
+    void search_ShouldRankExactPrefixBeforeFuzzyMatches() {
+        // Arrange
+        SuggestionTrie<String> trie = new SuggestionTrie<>();
+        trie.put("martin", "Martin", 1);
+        trie.put("marlin", "Marlin", 100);
+
+        // Act
+        List<String> result = trie.search("mart", 1, 10);
+
+        // Assert
+        assertEquals(List.of("Martin", "Marlin"), result);
+    }
+
+    @Test
+    void search_WhenValueHasSeveralKeys_ShouldReturnItOnce() {
+        // Arrange
+        SuggestionTrie<String> trie = new SuggestionTrie<>();
+        trie.put("code code", "Code Code", 1);
+        trie.put("code", "Code Code", 1);
+
+        // Act & Assert
+        assertEquals(List.of("Code Code"), trie.search("co", 0, 10));
+    }
+
+    @Test
+    void put_WhenValueExists_ShouldUpdateWeight() {
+        // Arrange
+        SuggestionTrie<String> trie = new SuggestionTrie<>();
+        trie.put("dune", "Dune", 1);
+        trie.put("dune messiah", "Dune Messiah", 2);
+
+        // Act
+        trie.put("dune", "Dune", 5);
+
+        // Assert
+        assertEquals(List.of("Dune", "Dune Messiah"), trie.search("dun", 0, 10));
+        assertEquals(2, trie.size());
+    }
+
+    @Test
+    void remove_ShouldDropValueAndRecompressEdges() {
+        // Arrange
+        SuggestionTrie<String> trie = new SuggestionTrie<>();
+        trie.put("test", "Test", 1);
+        int nodesBefore = trie.nodeCount();
+        trie.put("testing", "Testing", 1);
+        trie.put("team", "Team", 1);
+
+        // Act
+        trie.remove("testing", "Testing");
+        trie.remove("team", "Team");
+
+        // Assert
+        assertEquals(List.of("Test"), trie.search("te", 0, 10));
+        assertEquals(1, trie.size());
+        assertEquals(nodesBefore, trie.nodeCount());
+    }
+}